@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.
+ *
+ * <p>
+ * Accepts the same command line arguments as the standard JMH runner (f.e. {@code -h} for help or a regular expression to select
+ * benchmarks). In addition, this runner always enables the GC profiler (in order to publish allocation rates along with the timings)
+ * and stores results in JSON format (default file is {@value #DEFAULT_RESULT_FILE}).
+ * </p>
+ */
+public final class BenchmarkRunner {
+    /** Default path of the results file. */
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+        // No-op.
+    }
+
+    /**
+     * Runs benchmarks.
+     *
+     * @param args Command line arguments (see {@code -h} for details).
+     *
+     * @throws Exception If failed to run benchmarks.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+
+            return;
+        }
+
+        OptionsBuilder opts = new OptionsBuilder();
+
+        opts.parent(cmd);
+
+        opts.addProfiler(GCProfiler.class);
+
+        if (!cmd.getResult().hasValue()) {
+            Path result = Paths.get(DEFAULT_RESULT_FILE);
+            Path dir = result.getParent();
+
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+
+            opts.result(result.toString());
+        }
+
+        if (!cmd.getResultFormat().hasValue()) {
+            opts.resultFormat(ResultFormatType.JSON);
+        }
+
+        Options options = opts.build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.codec;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.StreamDataReader;
+import io.hekate.codec.StreamDataWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares encoding/decoding performance of codecs on different {@link MessageShape}s.
+ *
+ * <p>
+ * Encoder and decoder are created once per trial and are reused by all operations. Therefore, stateful codecs are measured in their
+ * steady state (i.e. after they have exchanged the type information).
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    /**
+     * Reusable output buffer that can be read without copying.
+     */
+    static class Buffer extends ByteArrayOutputStream {
+        public Buffer(int size) {
+            super(size);
+        }
+
+        public StreamDataReader reader() {
+            return new StreamDataReader(new ByteArrayInputStream(buf, 0, count));
+        }
+    }
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    @Param
+    private CodecType codec;
+
+    @Param
+    private MessageShape shape;
+
+    private Codec<Object> encoder;
+
+    private Codec<Object> decoder;
+
+    private Object message;
+
+    private byte[] encoded;
+
+    private Buffer bytesOut;
+
+    private StreamDataWriter out;
+
+    @Setup
+    public void setUp() throws IOException {
+        encoder = codec.factory().createCodec();
+        decoder = codec.factory().createCodec();
+
+        message = shape.create();
+
+        bytesOut = new Buffer(BUFFER_SIZE);
+        out = new StreamDataWriter(bytesOut);
+
+        // Make sure that stateful codecs have exchanged the type information.
+        encode();
+
+        decoder.decode(bytesOut.reader());
+
+        encode();
+
+        encoded = bytesOut.toByteArray();
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        bytesOut.reset();
+
+        encoder.encode(message, out);
+
+        out.flush();
+
+        return bytesOut.size();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return decoder.decode(new StreamDataReader(new ByteArrayInputStream(encoded)));
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        encode();
+
+        return decoder.decode(bytesOut.reader());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.codec;
+
+import io.hekate.codec.CodecService;
+import io.hekate.codec.EncoderDecoder;
+import io.hekate.codec.internal.DefaultCodecService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link EncoderDecoder} round trips through the {@link DefaultCodecService}.
+ *
+ * <p>
+ * Unlike {@link CodecBenchmark}, this benchmark includes the overhead of the {@link CodecService} itself (i.e. thread-local codecs,
+ * pooling of buffers and copying of results into byte arrays).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecServiceBenchmark {
+    @Param
+    private CodecType codec;
+
+    @Param
+    private MessageShape shape;
+
+    private EncoderDecoder<Object> service;
+
+    private Object message;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        service = new DefaultCodecService(codec.factory());
+
+        message = shape.create();
+
+        encoded = service.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return service.encode(message);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return service.decode(encoded);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return service.decode(service.encode(message));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.codec;
+
+import io.hekate.codec.CodecFactory;
+import io.hekate.codec.JdkCodecFactory;
+import io.hekate.codec.fst.FstCodecFactory;
+import io.hekate.codec.kryo.KryoCodecFactory;
+import io.hekate.codec.tagged.TaggedCodecFactory;
+
+/**
+ * Codecs that are compared by benchmarks.
+ */
+public enum CodecType {
+    /** {@link JdkCodecFactory}. */
+    JDK {
+        @Override
+        public CodecFactory<Object> factory() {
+            return new JdkCodecFactory<>();
+        }
+    },
+
+    /** Stateless {@link KryoCodecFactory} with safe IO. */
+    KRYO_STATELESS_SAFE {
+        @Override
+        public CodecFactory<Object> factory() {
+            return kryo(false, false);
+        }
+    },
+
+    /** Stateless {@link KryoCodecFactory} with {@code Unsafe}-based IO. */
+    KRYO_STATELESS_UNSAFE {
+        @Override
+        public CodecFactory<Object> factory() {
+            return kryo(false, true);
+        }
+    },
+
+    /** Stateful {@link KryoCodecFactory} with safe IO. */
+    KRYO_STATEFUL_SAFE {
+        @Override
+        public CodecFactory<Object> factory() {
+            return kryo(true, false);
+        }
+    },
+
+    /** Stateful {@link KryoCodecFactory} with {@code Unsafe}-based IO. */
+    KRYO_STATEFUL_UNSAFE {
+        @Override
+        public CodecFactory<Object> factory() {
+            return kryo(true, true);
+        }
+    },
+
+    /** {@link FstCodecFactory}. */
+    FST {
+        @Override
+        public CodecFactory<Object> factory() {
+            return new FstCodecFactory<>();
+        }
+    },
+
+    /** {@link TaggedCodecFactory}. */
+    TAGGED {
+        @Override
+        public CodecFactory<Object> factory() {
+            return new TaggedCodecFactory<>();
+        }
+    };
+
+    /**
+     * Creates a new codec factory of this type.
+     *
+     * @return Codec factory.
+     */
+    public abstract CodecFactory<Object> factory();
+
+    private static CodecFactory<Object> kryo(boolean stateful, boolean unsafeIo) {
+        return new KryoCodecFactory<>()
+            .withCacheUnknownTypes(stateful)
+            .withUnsafeIo(unsafeIo);
+    }
+}
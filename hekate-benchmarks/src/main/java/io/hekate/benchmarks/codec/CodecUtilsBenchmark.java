@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.codec;
+
+import io.hekate.codec.CodecUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of variable-length integers and {@link BigDecimal} helpers of {@link CodecUtils}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecUtilsBenchmark {
+    /**
+     * Magnitude of values.
+     */
+    public enum Magnitude {
+        /** Values that fit into a single byte. */
+        SMALL(100, 100, "1.5"),
+
+        /** Values that take a few bytes. */
+        MEDIUM(100500, 100500L * 100500, "100500.123456"),
+
+        /** Values that take the maximum amount of bytes. */
+        LARGE(Integer.MAX_VALUE, Long.MAX_VALUE, "123456789012345678901234567890.123456789012345678901234567890");
+
+        private final int intValue;
+
+        private final long longValue;
+
+        private final BigDecimal decimalValue;
+
+        Magnitude(int intValue, long longValue, String decimalValue) {
+            this.intValue = intValue;
+            this.longValue = longValue;
+            this.decimalValue = new BigDecimal(decimalValue);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param
+    private Magnitude magnitude;
+
+    private ByteArrayOutputStream bytesOut;
+
+    private DataOutputStream out;
+
+    private ByteArrayInputStream intBytes;
+
+    private DataInputStream intIn;
+
+    private ByteArrayInputStream longBytes;
+
+    private DataInputStream longIn;
+
+    private ByteArrayInputStream decimalBytes;
+
+    private DataInputStream decimalIn;
+
+    @Setup
+    public void setUp() throws IOException {
+        bytesOut = new ByteArrayOutputStream(BUFFER_SIZE);
+        out = new DataOutputStream(bytesOut);
+
+        intBytes = new ByteArrayInputStream(bytesOf(writeVarInt()));
+        longBytes = new ByteArrayInputStream(bytesOf(writeVarLong()));
+        decimalBytes = new ByteArrayInputStream(bytesOf(writeBigDecimal()));
+
+        intIn = new DataInputStream(intBytes);
+        longIn = new DataInputStream(longBytes);
+        decimalIn = new DataInputStream(decimalBytes);
+    }
+
+    @Benchmark
+    public int writeVarInt() throws IOException {
+        bytesOut.reset();
+
+        CodecUtils.writeVarInt(magnitude.intValue, out);
+
+        return bytesOut.size();
+    }
+
+    @Benchmark
+    public int readVarInt() throws IOException {
+        intBytes.reset();
+
+        return CodecUtils.readVarInt(intIn);
+    }
+
+    @Benchmark
+    public int writeVarLong() throws IOException {
+        bytesOut.reset();
+
+        CodecUtils.writeVarLong(magnitude.longValue, out);
+
+        return bytesOut.size();
+    }
+
+    @Benchmark
+    public long readVarLong() throws IOException {
+        longBytes.reset();
+
+        return CodecUtils.readVarLong(longIn);
+    }
+
+    @Benchmark
+    public int writeBigDecimal() throws IOException {
+        bytesOut.reset();
+
+        CodecUtils.writeBigDecimal(magnitude.decimalValue, out);
+
+        return bytesOut.size();
+    }
+
+    @Benchmark
+    public BigDecimal readBigDecimal() throws IOException {
+        decimalBytes.reset();
+
+        return CodecUtils.readBigDecimal(decimalIn);
+    }
+
+    private byte[] bytesOf(int size) {
+        assert size == bytesOut.size() : "Unexpected size [expected=" + size + ", real=" + bytesOut.size() + ']';
+
+        return bytesOut.toByteArray();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.codec;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shapes of messages that are used by codec benchmarks.
+ */
+public enum MessageShape {
+    /** Flat object with a few primitive and string fields. */
+    SMALL {
+        @Override
+        public Object create() {
+            return new Item(1, "item-1", 10.5, true);
+        }
+    },
+
+    /** Object graph with nested objects, lists and maps. */
+    COLLECTION {
+        @Override
+        public Object create() {
+            List<Item> items = new ArrayList<>(COLLECTION_SIZE);
+
+            for (int i = 0; i < COLLECTION_SIZE; i++) {
+                items.add(new Item(i, "item-" + i, i * 1.5, i % 2 == 0));
+            }
+
+            Map<String, String> attributes = new LinkedHashMap<>();
+
+            for (int i = 0; i < ATTRIBUTES_SIZE; i++) {
+                attributes.put("attribute-" + i, "value-" + i);
+            }
+
+            return new Order(100500, "customer", items, attributes);
+        }
+    },
+
+    /** Object with a large binary payload. */
+    BINARY {
+        @Override
+        public Object create() {
+            byte[] data = new byte[BINARY_SIZE];
+
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte)i;
+            }
+
+            return new Blob(1, data);
+        }
+    };
+
+    /**
+     * Item.
+     */
+    public static class Item implements Serializable {
+        private static final long serialVersionUID = 1;
+
+        private int id;
+
+        private String name;
+
+        private double price;
+
+        private boolean available;
+
+        public Item() {
+            // No-op.
+        }
+
+        public Item(int id, String name, double price, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.available = available;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+
+    /**
+     * Order.
+     */
+    public static class Order implements Serializable {
+        private static final long serialVersionUID = 1;
+
+        private long id;
+
+        private String customer;
+
+        private List<Item> items;
+
+        private Map<String, String> attributes;
+
+        public Order() {
+            // No-op.
+        }
+
+        public Order(long id, String customer, List<Item> items, Map<String, String> attributes) {
+            this.id = id;
+            this.customer = customer;
+            this.items = items;
+            this.attributes = attributes;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * Binary data.
+     */
+    public static class Blob implements Serializable {
+        private static final long serialVersionUID = 1;
+
+        private long id;
+
+        private byte[] data;
+
+        public Blob() {
+            // No-op.
+        }
+
+        public Blob(long id, byte[] data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    private static final int COLLECTION_SIZE = 100;
+
+    private static final int ATTRIBUTES_SIZE = 10;
+
+    private static final int BINARY_SIZE = 16 * 1024;
+
+    /**
+     * Creates a new message of this shape.
+     *
+     * @return New message.
+     */
+    public abstract Object create();
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.network;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.DataReader;
+import io.hekate.codec.DataWriter;
+import io.hekate.codec.SingletonCodecFactory;
+import io.hekate.network.NetworkClient;
+import io.hekate.network.NetworkClientCallback;
+import io.hekate.network.NetworkMessage;
+import io.hekate.network.NetworkServer;
+import io.hekate.network.netty.NettyClientFactory;
+import io.hekate.network.netty.NettyServerFactory;
+import io.hekate.network.netty.NettyServerHandlerConfig;
+import io.hekate.network.netty.NettyUtils;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares request/response latency of JDK and OpenSSL providers over a loopback connection.
+ *
+ * <p>
+ * Each operation sends a message from the client to the server and waits for the server to echo it back. Both sides use a self-signed
+ * certificate and the default cipher suites of the SSL provider. OpenSSL requires the {@code netty-tcnative} library to be available on
+ * the classpath (otherwise benchmark fails at the setup phase).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SslLoopbackBenchmark {
+    /**
+     * SSL provider.
+     */
+    public enum Ssl {
+        /** SSL is disabled (baseline). */
+        NONE,
+
+        /** JDK provider. */
+        JDK,
+
+        /** OpenSSL provider. */
+        OPEN_SSL
+    }
+
+    private static class BytesCodec implements Codec<byte[]> {
+        @Override
+        public boolean isStateful() {
+            return false;
+        }
+
+        @Override
+        public Class<byte[]> baseType() {
+            return byte[].class;
+        }
+
+        @Override
+        public void encode(byte[] obj, DataWriter out) throws IOException {
+            out.writeInt(obj.length);
+            out.write(obj);
+        }
+
+        @Override
+        public byte[] decode(DataReader in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+
+            in.readFully(bytes);
+
+            return bytes;
+        }
+    }
+
+    private static final String PROTOCOL = "benchmark";
+
+    private static final long TIMEOUT = 10;
+
+    @Param
+    private Ssl ssl;
+
+    @Param({"64", "1024", "16384"})
+    private int payloadSize;
+
+    private EventLoopGroup acceptorLoop;
+
+    private EventLoopGroup serverLoop;
+
+    private EventLoopGroup clientLoop;
+
+    private NetworkServer server;
+
+    private NetworkClient<byte[]> client;
+
+    private byte[] payload;
+
+    private volatile CompletableFuture<byte[]> pending;
+
+    @Setup
+    public void setUp() throws Exception {
+        SslContext serverSsl = null;
+        SslContext clientSsl = null;
+
+        if (ssl != Ssl.NONE) {
+            if (ssl == Ssl.OPEN_SSL && !OpenSsl.isAvailable()) {
+                throw new IllegalStateException("OpenSSL is not available.", OpenSsl.unavailabilityCause());
+            }
+
+            SslProvider provider = ssl == Ssl.JDK ? SslProvider.JDK : SslProvider.OPENSSL;
+
+            SelfSignedCertificate cert = new SelfSignedCertificate();
+
+            serverSsl = SslContextBuilder.forServer(cert.certificate(), cert.privateKey())
+                .sslProvider(provider)
+                .build();
+
+            clientSsl = SslContextBuilder.forClient()
+                .sslProvider(provider)
+                .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                .build();
+        }
+
+        acceptorLoop = new NioEventLoopGroup(1);
+        serverLoop = new NioEventLoopGroup(1);
+        clientLoop = new NioEventLoopGroup(1);
+
+        // Server.
+        NettyServerHandlerConfig<byte[]> handler = new NettyServerHandlerConfig<>();
+
+        handler.setProtocol(PROTOCOL);
+        handler.setCodecFactory(new SingletonCodecFactory<>(new BytesCodec()));
+        handler.setHandler((msg, from) -> from.send(msg.decode()));
+
+        server = new NettyServerFactory()
+            .withAcceptorEventLoop(acceptorLoop)
+            .withWorkerEventLoop(serverLoop)
+            .withSsl(serverSsl)
+            .withHandler(handler)
+            .createServer();
+
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        // Client.
+        NettyClientFactory<byte[]> clientFactory = new NettyClientFactory<>();
+
+        clientFactory.setProtocol(PROTOCOL);
+        clientFactory.setCodecFactory(new SingletonCodecFactory<>(new BytesCodec()));
+        clientFactory.setEventLoop(clientLoop);
+        clientFactory.setSsl(clientSsl);
+
+        client = clientFactory.newClient();
+
+        client.connect(server.address(), new NetworkClientCallback<byte[]>() {
+            @Override
+            public void onMessage(NetworkMessage<byte[]> message, NetworkClient<byte[]> from) throws IOException {
+                pending.complete(message.decode());
+            }
+        }).get(TIMEOUT, TimeUnit.SECONDS);
+
+        payload = new byte[payloadSize];
+
+        ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try {
+            if (client != null) {
+                client.disconnect().get(TIMEOUT, TimeUnit.SECONDS);
+            }
+
+            if (server != null) {
+                server.stop().get(TIMEOUT, TimeUnit.SECONDS);
+            }
+        } finally {
+            for (EventLoopGroup loop : new EventLoopGroup[]{clientLoop, serverLoop, acceptorLoop}) {
+                if (loop != null) {
+                    NettyUtils.shutdown(loop).awaitUninterruptedly();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] roundTrip() throws Exception {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        pending = future;
+
+        client.send(payload);
+
+        return future.get(TIMEOUT, TimeUnit.SECONDS);
+    }
+}
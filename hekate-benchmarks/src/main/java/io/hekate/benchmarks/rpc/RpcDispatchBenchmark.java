@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.benchmarks.rpc;
+
+import io.hekate.rpc.internal.RpcMethodInvoker;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of server-side dispatching of RPC calls: {@link Method#invoke(Object, Object...) reflection} vs. {@link RpcMethodInvoker}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RpcDispatchBenchmark {
+    /**
+     * RPC interface.
+     */
+    public interface TestRpc {
+        /**
+         * RPC method.
+         *
+         * @param id ID.
+         * @param version Version.
+         * @param key Key.
+         *
+         * @return Result.
+         */
+        Object call(long id, int version, String key);
+    }
+
+    private static class TestRpcImpl implements TestRpc {
+        @Override
+        public Object call(long id, int version, String key) {
+            return key;
+        }
+    }
+
+    private final TestRpc target = new TestRpcImpl();
+
+    private Method method;
+
+    private RpcMethodInvoker invoker;
+
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = TestRpc.class.getMethod("call", long.class, int.class, String.class);
+
+        invoker = RpcMethodInvoker.of(method, target);
+
+        args = new Object[]{100500L, 1, "key"};
+    }
+
+    @Benchmark
+    public Object direct() {
+        return target.call((Long)args[0], (Integer)args[1], (String)args[2]);
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return method.invoke(target, args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return invoker.invoke(args);
+    }
+}
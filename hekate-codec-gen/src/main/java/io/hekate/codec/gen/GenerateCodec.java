@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecFactory;
+import io.hekate.codec.DataWriter;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for compile-time generation of a {@link Codec}.
+ *
+ * <p>
+ * For each class that is annotated with this annotation, the annotation processor of this module generates a {@code <ClassName>Codec}
+ * class in the same package (names of nested classes are joined with the underscore character, f.e. {@code Outer_InnerCodec}). The
+ * generated class provides a singleton {@code INSTANCE} field and a {@code factory()} method that returns a {@link CodecFactory}.
+ * </p>
+ *
+ * <p>
+ * Generated codecs write fields directly to the {@link DataWriter} without reflection and without putting class names on the wire
+ * ({@code int}/{@code long} values are written in the variable-length format). If this annotation declares {@link #subtypes()} then
+ * each message is prefixed with a small numeric type identifier that is resolved via the generated type table. Order of subtypes is
+ * significant and must be the same on all nodes; new subtypes should be appended to the end of the list.
+ * </p>
+ *
+ * <h2>Requirements</h2>
+ * <ul>
+ * <li>Class (and each of its subtypes) must be a top-level or a static nested class with a no-arg constructor that is accessible from
+ * the class's package</li>
+ * <li>All non-static and non-transient fields (including inherited ones) must be non-final and must be accessible from the package of
+ * the annotated class</li>
+ * <li>Supported field types are: primitives and their wrappers, {@link String}, enums, {@code byte[]}, {@link java.math.BigInteger},
+ * {@link java.math.BigDecimal}, other classes that are annotated with {@link GenerateCodec}, as well as {@link java.util.List},
+ * {@link java.util.Set}, {@link java.util.Collection} and {@link java.util.Map} of supported types</li>
+ * </ul>
+ *
+ * <p>
+ * Violation of any of the above requirements is reported as a compilation error.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+    /**
+     * Subtypes of the annotated class that should be supported by the generated codec.
+     *
+     * <p>
+     * Position of a subtype in this array determines its identifier on the wire (identifier {@code 0} is reserved for the annotated
+     * class itself).
+     * </p>
+     *
+     * @return Subtypes.
+     */
+    Class<?>[] subtypes() default {};
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen.internal;
+
+import io.hekate.codec.gen.GenerateCodec;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor that generates codecs for classes that are annotated with {@link GenerateCodec}.
+ *
+ * @see CodecGenerator
+ */
+@SupportedAnnotationTypes("io.hekate.codec.gen.GenerateCodec")
+public class CodecGenProcessor extends AbstractProcessor {
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element element : round.getElementsAnnotatedWith(GenerateCodec.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "@" + GenerateCodec.class.getSimpleName() + " can be applied only to classes.", element);
+
+                continue;
+            }
+
+            TypeElement type = (TypeElement)element;
+
+            CodecGenerator generator = new CodecGenerator(type, processingEnv);
+
+            String source = generator.generate();
+
+            if (source != null) {
+                String name = generator.codecQualifiedName();
+
+                try {
+                    JavaFileObject file = processingEnv.getFiler().createSourceFile(name, generator.originatingElements());
+
+                    try (Writer out = file.openWriter()) {
+                        out.write(source);
+                    }
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write generated codec [name=" + name + ", cause=" + e + ']', element);
+                }
+            }
+        }
+
+        // Do not claim the annotation so that other processors could use it too.
+        return false;
+    }
+}
@@ -0,0 +1,968 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen.internal;
+
+import io.hekate.codec.gen.GenerateCodec;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates source code of a codec for a single class that is annotated with {@link GenerateCodec}.
+ *
+ * <p>
+ * Generated code uses only fully qualified names in order to prevent clashes with names of user classes.
+ * </p>
+ */
+class CodecGenerator {
+    /** Kinds of supported field types. */
+    private enum ValueKind {
+        PRIMITIVE,
+
+        BOXED,
+
+        STRING,
+
+        ENUM,
+
+        BYTES,
+
+        BIG_INTEGER,
+
+        BIG_DECIMAL,
+
+        CODEC,
+
+        LIST,
+
+        SET,
+
+        MAP,
+
+        UNSUPPORTED
+    }
+
+    private static final String INDENT = "    ";
+
+    private static final String CODEC_SUFFIX = "Codec";
+
+    private static final int GENERATED_SIZE_HINT = 4096;
+
+    private static final String DATA_WRITER = "io.hekate.codec.DataWriter";
+
+    private static final String DATA_READER = "io.hekate.codec.DataReader";
+
+    private static final String IO_EXCEPTION = "java.io.IOException";
+
+    private static final String CODEC_EXCEPTION = "io.hekate.codec.CodecException";
+
+    private final TypeElement root;
+
+    private final ProcessingEnvironment env;
+
+    private final Types types;
+
+    private final Elements elements;
+
+    private final String pkg;
+
+    private final List<TypeElement> table = new ArrayList<>();
+
+    private final Map<String, String> enumCaches = new LinkedHashMap<>();
+
+    private boolean usesStrings;
+
+    private boolean failed;
+
+    private int varSeq;
+
+    public CodecGenerator(TypeElement root, ProcessingEnvironment env) {
+        this.root = root;
+        this.env = env;
+        this.types = env.getTypeUtils();
+        this.elements = env.getElementUtils();
+        this.pkg = elements.getPackageOf(root).getQualifiedName().toString();
+    }
+
+    public String codecQualifiedName() {
+        return codecName(root);
+    }
+
+    public Element[] originatingElements() {
+        return table.toArray(new Element[0]);
+    }
+
+    /**
+     * Generates the codec source code.
+     *
+     * @return Source code or {@code null} if errors were reported.
+     */
+    public String generate() {
+        table.add(root);
+        table.addAll(subtypes());
+
+        checkType(root, true);
+
+        Set<String> unique = new HashSet<>();
+
+        for (int i = 1; i < table.size(); i++) {
+            TypeElement sub = table.get(i);
+
+            if (!unique.add(sub.getQualifiedName().toString())) {
+                error("Duplicated subtype [type=" + sub.getQualifiedName() + ']', root);
+            } else if (sub.equals(root) || !types.isSubtype(types.erasure(sub.asType()), types.erasure(root.asType()))) {
+                error("Type is not a subtype of " + root.getQualifiedName() + " [type=" + sub.getQualifiedName() + ']', root);
+            } else if (sub.getModifiers().contains(Modifier.ABSTRACT)) {
+                error("Subtype must not be abstract [type=" + sub.getQualifiedName() + ']', root);
+            } else {
+                checkType(sub, false);
+            }
+        }
+
+        if (failed) {
+            return null;
+        }
+
+        // Generate encode/decode methods of each concrete type.
+        StringBuilder methods = new StringBuilder();
+
+        for (int i = 0; i < table.size(); i++) {
+            TypeElement type = table.get(i);
+
+            if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+                List<VariableElement> fields = fields(type);
+
+                generateEncode(methods, i, type, fields);
+                generateDecode(methods, i, type, fields);
+            }
+        }
+
+        return generateClass(methods);
+    }
+
+    private String generateClass(StringBuilder methods) {
+        String rootName = root.getQualifiedName().toString();
+        String simpleName = codecSimpleName(root);
+        boolean polymorphic = table.size() > 1;
+
+        StringBuilder sb = new StringBuilder(GENERATED_SIZE_HINT + methods.length());
+
+        if (!pkg.isEmpty()) {
+            line(sb, 0, "package " + pkg + ";");
+            sb.append('\n');
+        }
+
+        line(sb, 0, "/**");
+        line(sb, 0, " * Codec for {@link " + rootName + "}.");
+        line(sb, 0, " *");
+        line(sb, 0, " * <p>");
+        line(sb, 0, " * This class is generated by " + CodecGenProcessor.class.getName() + ". Do not edit.");
+        line(sb, 0, " * </p>");
+        line(sb, 0, " */");
+        line(sb, 0, "public final class " + simpleName + " implements io.hekate.codec.Codec<" + rootName + "> {");
+
+        line(sb, 1, "/** Singleton instance. */");
+        line(sb, 1, "public static final " + simpleName + " INSTANCE = new " + simpleName + "();");
+
+        enumCaches.forEach((enumType, field) -> {
+            sb.append('\n');
+            line(sb, 1, "private static final " + enumType + "[] " + field + " = " + enumType + ".values();");
+        });
+
+        sb.append('\n');
+        line(sb, 1, "private " + simpleName + "() {");
+        line(sb, 2, "// No-op.");
+        line(sb, 1, "}");
+
+        sb.append('\n');
+        line(sb, 1, "/**");
+        line(sb, 1, " * Returns the codec factory.");
+        line(sb, 1, " *");
+        line(sb, 1, " * @return Codec factory.");
+        line(sb, 1, " */");
+        line(sb, 1, "public static io.hekate.codec.CodecFactory<" + rootName + "> factory() {");
+        line(sb, 2, "return new io.hekate.codec.SingletonCodecFactory<>(INSTANCE);");
+        line(sb, 1, "}");
+
+        // Encode.
+        sb.append('\n');
+        line(sb, 1, "@Override");
+        line(sb, 1, "public void encode(" + rootName + " msg, " + DATA_WRITER + " out) throws " + IO_EXCEPTION + " {");
+        line(sb, 2, "Class<?> type = msg.getClass();");
+        sb.append('\n');
+
+        boolean first = true;
+
+        for (int i = 0; i < table.size(); i++) {
+            TypeElement type = table.get(i);
+
+            if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+                String typeName = type.getQualifiedName().toString();
+
+                line(sb, 2, (first ? "if" : "} else if") + " (type == " + typeName + ".class) {");
+
+                if (polymorphic) {
+                    line(sb, 3, "out.writeVarIntUnsigned(" + i + ");");
+                    sb.append('\n');
+                }
+
+                line(sb, 3, "encode" + i + "((" + typeName + ")msg, out);");
+
+                first = false;
+            }
+        }
+
+        if (first) {
+            line(sb, 2, "throw new " + CODEC_EXCEPTION + "(\"Unsupported type [type=\" + type.getName() + ']');");
+        } else {
+            line(sb, 2, "} else {");
+            line(sb, 3, "throw new " + CODEC_EXCEPTION + "(\"Unsupported type [type=\" + type.getName() + ']');");
+            line(sb, 2, "}");
+        }
+
+        line(sb, 1, "}");
+
+        // Decode.
+        sb.append('\n');
+        line(sb, 1, "@Override");
+        line(sb, 1, "public " + rootName + " decode(" + DATA_READER + " in) throws " + IO_EXCEPTION + " {");
+
+        if (polymorphic) {
+            line(sb, 2, "int id = in.readVarIntUnsigned();");
+            sb.append('\n');
+            line(sb, 2, "switch (id) {");
+
+            for (int i = 0; i < table.size(); i++) {
+                if (!table.get(i).getModifiers().contains(Modifier.ABSTRACT)) {
+                    line(sb, 3, "case " + i + ": {");
+                    line(sb, 4, "return decode" + i + "(in);");
+                    line(sb, 3, "}");
+                }
+            }
+
+            line(sb, 3, "default: {");
+            line(sb, 4, "throw new " + CODEC_EXCEPTION + "(\"Unknown type identifier [id=\" + id + ']');");
+            line(sb, 3, "}");
+            line(sb, 2, "}");
+        } else if (root.getModifiers().contains(Modifier.ABSTRACT)) {
+            line(sb, 2, "throw new " + CODEC_EXCEPTION + "(\"Abstract type can't be decoded [type=" + rootName + "]\");");
+        } else {
+            line(sb, 2, "return decode0(in);");
+        }
+
+        line(sb, 1, "}");
+
+        sb.append('\n');
+        line(sb, 1, "@Override");
+        line(sb, 1, "public boolean isStateful() {");
+        line(sb, 2, "return false;");
+        line(sb, 1, "}");
+
+        sb.append('\n');
+        line(sb, 1, "@Override");
+        line(sb, 1, "public Class<" + rootName + "> baseType() {");
+        line(sb, 2, "return " + rootName + ".class;");
+        line(sb, 1, "}");
+
+        sb.append('\n');
+        line(sb, 1, "@Override");
+        line(sb, 1, "public String toString() {");
+        line(sb, 2, "return getClass().getSimpleName();");
+        line(sb, 1, "}");
+
+        sb.append(methods);
+
+        if (usesStrings) {
+            sb.append('\n');
+            line(sb, 1, "private static void writeString(String str, " + DATA_WRITER + " out) throws " + IO_EXCEPTION + " {");
+            line(sb, 2, "byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);");
+            sb.append('\n');
+            line(sb, 2, "out.writeVarIntUnsigned(bytes.length);");
+            line(sb, 2, "out.write(bytes);");
+            line(sb, 1, "}");
+
+            sb.append('\n');
+            line(sb, 1, "private static String readString(" + DATA_READER + " in) throws " + IO_EXCEPTION + " {");
+            line(sb, 2, "byte[] bytes = new byte[in.readVarIntUnsigned()];");
+            sb.append('\n');
+            line(sb, 2, "in.readFully(bytes);");
+            sb.append('\n');
+            line(sb, 2, "return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);");
+            line(sb, 1, "}");
+        }
+
+        sb.append("}\n");
+
+        return sb.toString();
+    }
+
+    private void generateEncode(StringBuilder sb, int id, TypeElement type, List<VariableElement> fields) {
+        sb.append('\n');
+        line(sb, 1, "private static void encode" + id + "(" + type.getQualifiedName() + " msg, " + DATA_WRITER + " out) "
+            + "throws " + IO_EXCEPTION + " {");
+
+        for (VariableElement field : fields) {
+            writeValue(sb, 2, field.asType(), "msg." + field.getSimpleName());
+        }
+
+        line(sb, 1, "}");
+    }
+
+    private void generateDecode(StringBuilder sb, int id, TypeElement type, List<VariableElement> fields) {
+        String typeName = type.getQualifiedName().toString();
+
+        sb.append('\n');
+        line(sb, 1, "private static " + typeName + " decode" + id + "(" + DATA_READER + " in) throws " + IO_EXCEPTION + " {");
+        line(sb, 2, typeName + " msg = new " + typeName + "();");
+        sb.append('\n');
+
+        for (VariableElement field : fields) {
+            readValue(sb, 2, field.asType(), "msg." + field.getSimpleName());
+        }
+
+        if (!fields.isEmpty()) {
+            sb.append('\n');
+        }
+
+        line(sb, 2, "return msg;");
+        line(sb, 1, "}");
+    }
+
+    private void writeValue(StringBuilder sb, int depth, TypeMirror type, String expr) {
+        ValueKind kind = classify(type);
+
+        if (kind == ValueKind.PRIMITIVE) {
+            line(sb, depth, "out." + primitiveWriter(type.getKind()) + "(" + expr + ");");
+        } else {
+            line(sb, depth, "if (" + expr + " == null) {");
+            line(sb, depth + 1, "out.writeBoolean(false);");
+            line(sb, depth, "} else {");
+            line(sb, depth + 1, "out.writeBoolean(true);");
+            sb.append('\n');
+
+            writeNonNull(sb, depth + 1, type, kind, expr);
+
+            line(sb, depth, "}");
+        }
+    }
+
+    private void writeNonNull(StringBuilder sb, int depth, TypeMirror type, ValueKind kind, String expr) {
+        switch (kind) {
+            case BOXED: {
+                line(sb, depth, "out." + primitiveWriter(types.unboxedType(type).getKind()) + "(" + expr + ");");
+
+                break;
+            }
+            case STRING: {
+                usesStrings = true;
+
+                line(sb, depth, "writeString(" + expr + ", out);");
+
+                break;
+            }
+            case ENUM: {
+                line(sb, depth, "out.writeVarIntUnsigned(" + expr + ".ordinal());");
+
+                break;
+            }
+            case BYTES: {
+                line(sb, depth, "out.writeVarIntUnsigned(" + expr + ".length);");
+                line(sb, depth, "out.write(" + expr + ");");
+
+                break;
+            }
+            case BIG_INTEGER: {
+                line(sb, depth, "out.writeBigInteger(" + expr + ");");
+
+                break;
+            }
+            case BIG_DECIMAL: {
+                line(sb, depth, "out.writeBigDecimal(" + expr + ");");
+
+                break;
+            }
+            case CODEC: {
+                line(sb, depth, codecName((TypeElement)types.asElement(type)) + ".INSTANCE.encode(" + expr + ", out);");
+
+                break;
+            }
+            case LIST:
+            case SET: {
+                TypeMirror elemType = typeArgs(type).get(0);
+
+                String elem = "elem" + (++varSeq);
+
+                line(sb, depth, "out.writeVarIntUnsigned(" + expr + ".size());");
+                sb.append('\n');
+                line(sb, depth, "for (" + typeName(elemType) + " " + elem + " : " + expr + ") {");
+
+                writeValue(sb, depth + 1, elemType, elem);
+
+                line(sb, depth, "}");
+
+                break;
+            }
+            case MAP: {
+                TypeMirror keyType = typeArgs(type).get(0);
+                TypeMirror valType = typeArgs(type).get(1);
+
+                String entry = "entry" + (++varSeq);
+
+                line(sb, depth, "out.writeVarIntUnsigned(" + expr + ".size());");
+                sb.append('\n');
+                line(sb, depth, "for (java.util.Map.Entry<" + typeName(keyType) + ", " + typeName(valType) + "> " + entry + " : "
+                    + expr + ".entrySet()) {");
+
+                writeValue(sb, depth + 1, keyType, entry + ".getKey()");
+                writeValue(sb, depth + 1, valType, entry + ".getValue()");
+
+                line(sb, depth, "}");
+
+                break;
+            }
+            case PRIMITIVE:
+            case UNSUPPORTED:
+            default: {
+                throw new IllegalArgumentException("Unexpected value kind: " + kind);
+            }
+        }
+    }
+
+    private void readValue(StringBuilder sb, int depth, TypeMirror type, String target) {
+        ValueKind kind = classify(type);
+
+        if (kind == ValueKind.PRIMITIVE) {
+            line(sb, depth, target + " = in." + primitiveReader(type.getKind()) + "();");
+        } else {
+            line(sb, depth, "if (in.readBoolean()) {");
+
+            readNonNull(sb, depth + 1, type, kind, target);
+
+            line(sb, depth, "} else {");
+            line(sb, depth + 1, target + " = null;");
+            line(sb, depth, "}");
+        }
+    }
+
+    private void readNonNull(StringBuilder sb, int depth, TypeMirror type, ValueKind kind, String target) {
+        switch (kind) {
+            case BOXED: {
+                line(sb, depth, target + " = in." + primitiveReader(types.unboxedType(type).getKind()) + "();");
+
+                break;
+            }
+            case STRING: {
+                usesStrings = true;
+
+                line(sb, depth, target + " = readString(in);");
+
+                break;
+            }
+            case ENUM: {
+                String enumType = typeName(type);
+
+                String cache = enumCaches.computeIfAbsent(enumType, ignore -> "ENUM_" + enumCaches.size());
+
+                line(sb, depth, target + " = " + cache + "[in.readVarIntUnsigned()];");
+
+                break;
+            }
+            case BYTES: {
+                String bytes = "bytes" + (++varSeq);
+
+                line(sb, depth, "byte[] " + bytes + " = new byte[in.readVarIntUnsigned()];");
+                sb.append('\n');
+                line(sb, depth, "in.readFully(" + bytes + ");");
+                sb.append('\n');
+                line(sb, depth, target + " = " + bytes + ";");
+
+                break;
+            }
+            case BIG_INTEGER: {
+                line(sb, depth, target + " = in.readBigInteger();");
+
+                break;
+            }
+            case BIG_DECIMAL: {
+                line(sb, depth, target + " = in.readBigDecimal();");
+
+                break;
+            }
+            case CODEC: {
+                line(sb, depth, target + " = " + codecName((TypeElement)types.asElement(type)) + ".INSTANCE.decode(in);");
+
+                break;
+            }
+            case LIST:
+            case SET: {
+                TypeMirror elemType = typeArgs(type).get(0);
+
+                int seq = ++varSeq;
+
+                String size = "size" + seq;
+                String coll = "coll" + seq;
+                String idx = "i" + seq;
+                String elem = "elem" + seq;
+
+                String elemTypeName = typeName(elemType);
+
+                String impl = kind == ValueKind.SET ? "java.util.HashSet" : "java.util.ArrayList";
+                String iface = kind == ValueKind.SET ? "java.util.Set" : "java.util.List";
+
+                line(sb, depth, "int " + size + " = in.readVarIntUnsigned();");
+                sb.append('\n');
+                line(sb, depth, iface + "<" + elemTypeName + "> " + coll + " = new " + impl + "<>(" + size + ");");
+                sb.append('\n');
+                line(sb, depth, "for (int " + idx + " = 0; " + idx + " < " + size + "; " + idx + "++) {");
+                line(sb, depth + 1, elemTypeName + " " + elem + ";");
+                sb.append('\n');
+
+                readValue(sb, depth + 1, elemType, elem);
+
+                sb.append('\n');
+                line(sb, depth + 1, coll + ".add(" + elem + ");");
+                line(sb, depth, "}");
+                sb.append('\n');
+                line(sb, depth, target + " = " + coll + ";");
+
+                break;
+            }
+            case MAP: {
+                TypeMirror keyType = typeArgs(type).get(0);
+                TypeMirror valType = typeArgs(type).get(1);
+
+                int seq = ++varSeq;
+
+                String size = "size" + seq;
+                String map = "map" + seq;
+                String idx = "i" + seq;
+                String key = "key" + seq;
+                String val = "val" + seq;
+
+                String keyTypeName = typeName(keyType);
+                String valTypeName = typeName(valType);
+
+                line(sb, depth, "int " + size + " = in.readVarIntUnsigned();");
+                sb.append('\n');
+                line(sb, depth, "java.util.Map<" + keyTypeName + ", " + valTypeName + "> " + map + " = new java.util.HashMap<>();");
+                sb.append('\n');
+                line(sb, depth, "for (int " + idx + " = 0; " + idx + " < " + size + "; " + idx + "++) {");
+                line(sb, depth + 1, keyTypeName + " " + key + ";");
+                line(sb, depth + 1, valTypeName + " " + val + ";");
+                sb.append('\n');
+
+                readValue(sb, depth + 1, keyType, key);
+                readValue(sb, depth + 1, valType, val);
+
+                sb.append('\n');
+                line(sb, depth + 1, map + ".put(" + key + ", " + val + ");");
+                line(sb, depth, "}");
+                sb.append('\n');
+                line(sb, depth, target + " = " + map + ";");
+
+                break;
+            }
+            case PRIMITIVE:
+            case UNSUPPORTED:
+            default: {
+                throw new IllegalArgumentException("Unexpected value kind: " + kind);
+            }
+        }
+    }
+
+    private ValueKind classify(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return ValueKind.PRIMITIVE;
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return ((ArrayType)type).getComponentType().getKind() == TypeKind.BYTE ? ValueKind.BYTES : ValueKind.UNSUPPORTED;
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return ValueKind.UNSUPPORTED;
+        }
+
+        TypeElement element = (TypeElement)types.asElement(type);
+
+        if (element.getKind() == ElementKind.ENUM) {
+            return ValueKind.ENUM;
+        }
+
+        if (element.getAnnotation(GenerateCodec.class) != null) {
+            return ValueKind.CODEC;
+        }
+
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.Boolean":
+            case "java.lang.Byte":
+            case "java.lang.Short":
+            case "java.lang.Character":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Float":
+            case "java.lang.Double": {
+                return ValueKind.BOXED;
+            }
+            case "java.lang.String": {
+                return ValueKind.STRING;
+            }
+            case "java.math.BigInteger": {
+                return ValueKind.BIG_INTEGER;
+            }
+            case "java.math.BigDecimal": {
+                return ValueKind.BIG_DECIMAL;
+            }
+            case "java.util.List":
+            case "java.util.Collection": {
+                return isSupportedArgs(type, 1) ? ValueKind.LIST : ValueKind.UNSUPPORTED;
+            }
+            case "java.util.Set": {
+                return isSupportedArgs(type, 1) ? ValueKind.SET : ValueKind.UNSUPPORTED;
+            }
+            case "java.util.Map": {
+                return isSupportedArgs(type, 2) ? ValueKind.MAP : ValueKind.UNSUPPORTED;
+            }
+            default: {
+                return ValueKind.UNSUPPORTED;
+            }
+        }
+    }
+
+    private boolean isSupportedArgs(TypeMirror type, int expected) {
+        List<? extends TypeMirror> args = typeArgs(type);
+
+        if (args.size() != expected) {
+            return false;
+        }
+
+        for (TypeMirror arg : args) {
+            if (classify(arg) == ValueKind.UNSUPPORTED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void checkType(TypeElement type, boolean isRoot) {
+        String name = type.getQualifiedName().toString();
+
+        if (type.getKind() != ElementKind.CLASS) {
+            error("Only classes are supported [type=" + name + ']', type);
+
+            return;
+        }
+
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            error("Local and anonymous classes are not supported [type=" + name + ']', type);
+
+            return;
+        }
+
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            error("Inner class must be static [type=" + name + ']', type);
+
+            return;
+        }
+
+        if (!type.getTypeParameters().isEmpty()) {
+            error("Generic classes are not supported [type=" + name + ']', type);
+
+            return;
+        }
+
+        for (Element t = type; t instanceof TypeElement; t = t.getEnclosingElement()) {
+            if (!isAccessible(t)) {
+                error("Class must be accessible from package '" + pkg + "' [type=" + name + ']', type);
+
+                return;
+            }
+        }
+
+        if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+            boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .filter(c -> c.getParameters().isEmpty())
+                .anyMatch(this::isAccessible);
+
+            if (!hasConstructor) {
+                error("Class must have a no-arg constructor that is accessible from package '" + pkg + "' [type=" + name + ']',
+                    isRoot ? type : root);
+            }
+        }
+
+        // Validate fields.
+        Set<String> names = new HashSet<>();
+
+        for (VariableElement field : fields(type)) {
+            String fieldName = field.getSimpleName().toString();
+            Set<Modifier> mods = field.getModifiers();
+
+            if (!names.add(fieldName)) {
+                error("Hidden fields are not supported [type=" + name + ", field=" + fieldName + ']', field);
+            } else if (mods.contains(Modifier.FINAL)) {
+                error("Field must not be final [type=" + name + ", field=" + fieldName + ']', field);
+            } else if (!isAccessible(field)) {
+                error("Field must be accessible from package '" + pkg + "' [type=" + name + ", field=" + fieldName + ']', field);
+            } else if (classify(field.asType()) == ValueKind.UNSUPPORTED) {
+                error("Unsupported field type [type=" + name + ", field=" + fieldName + ", field-type=" + field.asType() + ']', field);
+            }
+        }
+    }
+
+    private List<VariableElement> fields(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+
+        for (TypeElement t = type; t != null && !t.getQualifiedName().contentEquals(Object.class.getName()); ) {
+            hierarchy.add(0, t);
+
+            TypeMirror parent = t.getSuperclass();
+
+            t = parent.getKind() == TypeKind.DECLARED ? (TypeElement)types.asElement(parent) : null;
+        }
+
+        List<VariableElement> fields = new ArrayList<>();
+
+        for (TypeElement t : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                Set<Modifier> mods = field.getModifiers();
+
+                if (!mods.contains(Modifier.STATIC) && !mods.contains(Modifier.TRANSIENT)) {
+                    fields.add(field);
+                }
+            }
+        }
+
+        return fields;
+    }
+
+    private List<TypeElement> subtypes() {
+        List<? extends TypeMirror> mirrors;
+
+        try {
+            root.getAnnotation(GenerateCodec.class).subtypes();
+
+            // Never happens during annotation processing.
+            throw new IllegalStateException("Failed to resolve subtypes [type=" + root.getQualifiedName() + ']');
+        } catch (MirroredTypesException e) {
+            mirrors = e.getTypeMirrors();
+        }
+
+        List<TypeElement> result = new ArrayList<>(mirrors.size());
+
+        for (TypeMirror mirror : mirrors) {
+            if (mirror.getKind() == TypeKind.DECLARED) {
+                result.add((TypeElement)types.asElement(mirror));
+            } else {
+                error("Unsupported subtype [type=" + mirror + ']', root);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isAccessible(Element element) {
+        Set<Modifier> mods = element.getModifiers();
+
+        if (mods.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+
+        if (mods.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        // Package-private or protected member.
+        PackageElement elementPkg = elements.getPackageOf(element);
+
+        return elementPkg.getQualifiedName().contentEquals(pkg);
+    }
+
+    private String codecName(TypeElement type) {
+        String typePkg = elements.getPackageOf(type).getQualifiedName().toString();
+
+        return typePkg.isEmpty() ? codecSimpleName(type) : typePkg + '.' + codecSimpleName(type);
+    }
+
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: {
+                return "boolean";
+            }
+            case BYTE: {
+                return "byte";
+            }
+            case SHORT: {
+                return "short";
+            }
+            case CHAR: {
+                return "char";
+            }
+            case INT: {
+                return "int";
+            }
+            case LONG: {
+                return "long";
+            }
+            case FLOAT: {
+                return "float";
+            }
+            case DOUBLE: {
+                return "double";
+            }
+            case ARRAY: {
+                return typeName(((ArrayType)type).getComponentType()) + "[]";
+            }
+            case DECLARED: {
+                StringBuilder name = new StringBuilder(((TypeElement)types.asElement(type)).getQualifiedName());
+
+                List<? extends TypeMirror> args = typeArgs(type);
+
+                if (!args.isEmpty()) {
+                    name.append('<');
+
+                    for (int i = 0; i < args.size(); i++) {
+                        if (i > 0) {
+                            name.append(", ");
+                        }
+
+                        name.append(typeName(args.get(i)));
+                    }
+
+                    name.append('>');
+                }
+
+                return name.toString();
+            }
+            default: {
+                throw new IllegalArgumentException("Unexpected type: " + type);
+            }
+        }
+    }
+
+    private void error(String msg, Element element) {
+        failed = true;
+
+        env.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, element);
+    }
+
+    private static List<? extends TypeMirror> typeArgs(TypeMirror type) {
+        return ((DeclaredType)type).getTypeArguments();
+    }
+
+    private static String codecSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, e.getSimpleName());
+        }
+
+        return name.append(CODEC_SUFFIX).toString();
+    }
+
+    private static String primitiveWriter(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN: {
+                return "writeBoolean";
+            }
+            case BYTE: {
+                return "writeByte";
+            }
+            case SHORT: {
+                return "writeShort";
+            }
+            case CHAR: {
+                return "writeChar";
+            }
+            case INT: {
+                return "writeVarInt";
+            }
+            case LONG: {
+                return "writeVarLong";
+            }
+            case FLOAT: {
+                return "writeFloat";
+            }
+            case DOUBLE: {
+                return "writeDouble";
+            }
+            default: {
+                throw new IllegalArgumentException("Unexpected primitive type: " + kind);
+            }
+        }
+    }
+
+    private static String primitiveReader(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN: {
+                return "readBoolean";
+            }
+            case BYTE: {
+                return "readByte";
+            }
+            case SHORT: {
+                return "readShort";
+            }
+            case CHAR: {
+                return "readChar";
+            }
+            case INT: {
+                return "readVarInt";
+            }
+            case LONG: {
+                return "readVarLong";
+            }
+            case FLOAT: {
+                return "readFloat";
+            }
+            case DOUBLE: {
+                return "readDouble";
+            }
+            default: {
+                throw new IllegalArgumentException("Unexpected primitive type: " + kind);
+            }
+        }
+    }
+
+    private static void line(StringBuilder sb, int depth, String line) {
+        for (int i = 0; i < depth; i++) {
+            sb.append(INDENT);
+        }
+
+        sb.append(line).append('\n');
+    }
+}
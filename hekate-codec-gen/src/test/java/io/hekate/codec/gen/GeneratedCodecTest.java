@@ -0,0 +1,230 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen;
+
+import io.hekate.HekateTestBase;
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecException;
+import io.hekate.codec.StreamDataReader;
+import io.hekate.codec.StreamDataWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratedCodecTest extends HekateTestBase {
+    @Test
+    public void testFactory() throws Exception {
+        Codec<TestMessage> codec = TestMessageCodec.factory().createCodec();
+
+        assertSame(TestMessageCodec.INSTANCE, codec);
+        assertSame(TestMessage.class, codec.baseType());
+        assertFalse(codec.isStateful());
+    }
+
+    @Test
+    public void testAllFields() throws Exception {
+        TestMessage msg = new TestMessage();
+
+        msg.boolVal = true;
+        msg.byteVal = 1;
+        msg.shortVal = 2;
+        msg.charVal = 'c';
+        msg.intVal = -3;
+        msg.longVal = Long.MAX_VALUE;
+        msg.floatVal = 5.5f;
+        msg.doubleVal = 6.6;
+        msg.boxedBool = false;
+        msg.boxedByte = 7;
+        msg.boxedShort = 8;
+        msg.boxedChar = 'x';
+        msg.boxedInt = Integer.MIN_VALUE;
+        msg.boxedLong = 10L;
+        msg.boxedFloat = 11.1f;
+        msg.boxedDouble = 12.2;
+        msg.str = "test-é-string";
+        msg.enumVal = TestEnum.THREE;
+        msg.bytes = new byte[]{1, 2, 3};
+        msg.bigInt = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TEN);
+        msg.bigDec = new BigDecimal("123.456");
+        msg.item = new TestMessage.Item("item", 100);
+        msg.next = new TestMessage();
+        msg.next.str = "next";
+        msg.strings = asList("a", null, "c");
+        msg.ints = new HashSet<>(asList(1, 2, 3));
+        msg.enums = asList(TestEnum.ONE, TestEnum.TWO);
+
+        Map<String, List<TestMessage.Item>> items = new HashMap<>();
+
+        items.put("k1", singletonList(new TestMessage.Item("v1", 1)));
+        items.put("k2", null);
+
+        msg.items = items;
+        msg.ignoredTransient = "ignored";
+
+        TestMessage copy = encodeDecode(TestMessageCodec.INSTANCE, msg);
+
+        assertTrue(copy.boolVal);
+        assertEquals(1, copy.byteVal);
+        assertEquals(2, copy.shortVal);
+        assertEquals('c', copy.charVal);
+        assertEquals(-3, copy.intVal);
+        assertEquals(Long.MAX_VALUE, copy.longVal);
+        assertEquals(5.5f, copy.floatVal, 0);
+        assertEquals(6.6, copy.doubleVal, 0);
+        assertEquals(false, copy.boxedBool);
+        assertEquals(Byte.valueOf((byte)7), copy.boxedByte);
+        assertEquals(Short.valueOf((short)8), copy.boxedShort);
+        assertEquals(Character.valueOf('x'), copy.boxedChar);
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE), copy.boxedInt);
+        assertEquals(Long.valueOf(10), copy.boxedLong);
+        assertEquals(Float.valueOf(11.1f), copy.boxedFloat);
+        assertEquals(Double.valueOf(12.2), copy.boxedDouble);
+        assertEquals(msg.str, copy.str);
+        assertSame(TestEnum.THREE, copy.enumVal);
+        assertArrayEquals(msg.bytes, copy.bytes);
+        assertEquals(msg.bigInt, copy.bigInt);
+        assertEquals(msg.bigDec, copy.bigDec);
+        assertEquals("item", copy.item.name);
+        assertEquals(100, copy.item.value);
+        assertEquals("next", copy.next.str);
+        assertNull(copy.next.next);
+        assertEquals(msg.strings, copy.strings);
+        assertEquals(msg.ints, copy.ints);
+        assertEquals(msg.enums, copy.enums);
+        assertEquals(2, copy.items.size());
+        assertEquals("v1", copy.items.get("k1").get(0).name);
+        assertTrue(copy.items.containsKey("k2"));
+        assertNull(copy.items.get("k2"));
+        assertNull(copy.ignoredTransient);
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        TestMessage copy = encodeDecode(TestMessageCodec.INSTANCE, new TestMessage());
+
+        assertNull(copy.boxedInt);
+        assertNull(copy.str);
+        assertNull(copy.enumVal);
+        assertNull(copy.bytes);
+        assertNull(copy.bigDec);
+        assertNull(copy.item);
+        assertNull(copy.strings);
+        assertNull(copy.items);
+    }
+
+    @Test
+    public void testNoClassNamesOnWire() throws Exception {
+        TestMessage msg = new TestMessage();
+
+        msg.item = new TestMessage.Item("item", 1);
+
+        String wire = new String(encode(TestMessageCodec.INSTANCE, msg), StandardCharsets.ISO_8859_1);
+
+        assertFalse(wire, wire.contains("TestMessage"));
+        assertFalse(wire, wire.contains("Item"));
+    }
+
+    @Test
+    public void testSubtypes() throws Exception {
+        TestEvent.Created created = new TestEvent.Created();
+
+        created.key = "created-key";
+        created.payload = "created-payload";
+
+        TestEvent.Updated updated = new TestEvent.Updated();
+
+        updated.key = "updated-key";
+        updated.payload = "updated-payload";
+        updated.version = 10;
+
+        TestEvent.Created createdCopy = (TestEvent.Created)encodeDecode(TestEventCodec.INSTANCE, created);
+
+        assertSame(TestEvent.Created.class, createdCopy.getClass());
+        assertEquals("created-key", createdCopy.key);
+        assertEquals("created-payload", createdCopy.payload);
+
+        TestEvent.Updated updatedCopy = (TestEvent.Updated)encodeDecode(TestEventCodec.INSTANCE, updated);
+
+        assertEquals("updated-key", updatedCopy.key);
+        assertEquals("updated-payload", updatedCopy.payload);
+        assertEquals(10, updatedCopy.version);
+
+        // Type identifier of the first subtype.
+        assertEquals(1, encode(TestEventCodec.INSTANCE, created)[0]);
+    }
+
+    @Test
+    public void testUnknownSubtype() throws Exception {
+        TestEvent.Created unknown = new TestEvent.Created() {
+            // No-op.
+        };
+
+        expect(CodecException.class, () -> encode(TestEventCodec.INSTANCE, unknown));
+        expect(CodecException.class, () -> encode(TestMessageCodec.INSTANCE, new TestMessage() {
+            // No-op.
+        }));
+    }
+
+    @Test
+    public void testUnknownTypeId() throws Exception {
+        byte[] bytes = encode(TestEventCodec.INSTANCE, new TestEvent.Created());
+
+        bytes[0] = 100;
+
+        expect(CodecException.class, () ->
+            TestEventCodec.INSTANCE.decode(new StreamDataReader(new ByteArrayInputStream(bytes)))
+        );
+    }
+
+    private static <T> T encodeDecode(Codec<T> codec, T msg) throws IOException {
+        byte[] bytes = encode(codec, msg);
+
+        ByteArrayInputStream bin = new ByteArrayInputStream(bytes);
+
+        T copy = codec.decode(new StreamDataReader(bin));
+
+        // Verify that nothing was left unread.
+        assertEquals(0, bin.available());
+
+        return copy;
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T msg) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+        codec.encode(msg, new StreamDataWriter(bout));
+
+        return bout.toByteArray();
+    }
+}
@@ -14,9 +14,12 @@
  * under the License.
  */
 
-package io.hekate.rpc.internal;
+package io.hekate.codec.gen;
 
-@FunctionalInterface
-interface RpcErrorMappingPolicy {
-    Throwable apply(Throwable err);
+public enum TestEnum {
+    ONE,
+
+    TWO,
+
+    THREE
 }
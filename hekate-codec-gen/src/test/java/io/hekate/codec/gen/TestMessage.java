@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@GenerateCodec
+public class TestMessage {
+    @GenerateCodec
+    public static class Item {
+        String name;
+
+        long value;
+
+        public Item() {
+            // No-op.
+        }
+
+        public Item(String name, long value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    static final int IGNORED_STATIC = 1;
+
+    boolean boolVal;
+
+    byte byteVal;
+
+    short shortVal;
+
+    char charVal;
+
+    int intVal;
+
+    long longVal;
+
+    float floatVal;
+
+    double doubleVal;
+
+    Boolean boxedBool;
+
+    Byte boxedByte;
+
+    Short boxedShort;
+
+    Character boxedChar;
+
+    Integer boxedInt;
+
+    Long boxedLong;
+
+    Float boxedFloat;
+
+    Double boxedDouble;
+
+    String str;
+
+    TestEnum enumVal;
+
+    byte[] bytes;
+
+    BigInteger bigInt;
+
+    BigDecimal bigDec;
+
+    Item item;
+
+    TestMessage next;
+
+    List<String> strings;
+
+    Set<Integer> ints;
+
+    Collection<TestEnum> enums;
+
+    Map<String, List<Item>> items;
+
+    transient String ignoredTransient;
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.gen.internal;
+
+import io.hekate.HekateTestBase;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Test;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CodecGenProcessorTest extends HekateTestBase {
+    private static class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        public Source(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private static class InMemoryOutput extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        public InMemoryOutput(String name, Kind kind) {
+            super(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private final List<String> generated = new ArrayList<>();
+
+    @Test
+    public void testValid() throws Exception {
+        List<String> errors = compile("test.Valid",
+            "package test;\n"
+                + "@io.hekate.codec.gen.GenerateCodec\n"
+                + "public class Valid {\n"
+                + "    int a;\n"
+                + "    java.util.List<String> b;\n"
+                + "}\n"
+        );
+
+        assertEquals(errors.toString(), 0, errors.size());
+        assertEquals(singletonList("test.ValidCodec"), generated);
+    }
+
+    @Test
+    public void testPrivateField() throws Exception {
+        assertError("Field must be accessible", "class Msg { private int a; }");
+    }
+
+    @Test
+    public void testFinalField() throws Exception {
+        assertError("Field must not be final", "class Msg { final int a = 1; }");
+    }
+
+    @Test
+    public void testUnsupportedFieldType() throws Exception {
+        assertError("Unsupported field type", "class Msg { Object a; }");
+        assertError("Unsupported field type", "class Msg { java.util.List<Object> a; }");
+        assertError("Unsupported field type", "class Msg { java.util.List<? extends Number> a; }");
+        assertError("Unsupported field type", "class Msg { int[] a; }");
+    }
+
+    @Test
+    public void testNoConstructor() throws Exception {
+        assertError("no-arg constructor", "class Msg { private Msg() { } }");
+        assertError("no-arg constructor", "class Msg { Msg(int a) { } }");
+    }
+
+    @Test
+    public void testGenericClass() throws Exception {
+        assertError("Generic classes are not supported", "class Msg<T> { }");
+    }
+
+    @Test
+    public void testInvalidSubtype() throws Exception {
+        assertError("is not a subtype", "@io.hekate.codec.gen.GenerateCodec(subtypes = String.class) class Other { }");
+    }
+
+    @Test
+    public void testNonStaticInnerClass() throws Exception {
+        List<String> errors = compile("test.Outer",
+            "package test;\n"
+                + "public class Outer {\n"
+                + "    @io.hekate.codec.gen.GenerateCodec\n"
+                + "    public class Msg { }\n"
+                + "}\n"
+        );
+
+        assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains("Inner class must be static")));
+    }
+
+    private void assertError(String expected, String body) throws IOException {
+        String code = "package test;\n"
+            + (body.startsWith("@") ? "" : "@io.hekate.codec.gen.GenerateCodec\n")
+            + body + "\n";
+
+        String name = body.contains("class Other") ? "test.Other" : "test.Msg";
+
+        List<String> errors = compile(name, code);
+
+        assertTrue(errors.toString(), errors.stream().anyMatch(e -> e.contains(expected)));
+        assertTrue(generated.toString(), generated.isEmpty());
+    }
+
+    private List<String> compile(String className, String code) throws IOException {
+        generated.clear();
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        assertNotNull("Java compiler is not available.", compiler);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager std = compiler.getStandardFileManager(diagnostics, Locale.US, null)) {
+            JavaFileManager files = new ForwardingJavaFileManager<StandardJavaFileManager>(std) {
+                @Override
+                public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind,
+                    FileObject sibling) {
+                    if (kind == JavaFileObject.Kind.SOURCE) {
+                        generated.add(name);
+                    }
+
+                    return new InMemoryOutput(name, kind);
+                }
+            };
+
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                files,
+                diagnostics,
+                null,
+                null,
+                singletonList(new Source(className, code))
+            );
+
+            task.setProcessors(singletonList(new CodecGenProcessor()));
+
+            task.call();
+        }
+
+        return diagnostics.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(Locale.US))
+            .collect(toList());
+    }
+}
@@ -19,6 +19,8 @@ package io.hekate.codec;
 import io.hekate.core.Hekate;
 import io.hekate.core.HekateBootstrap;
 import io.hekate.core.service.Service;
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
 
 /**
  * <span class="startHere">&laquo; start here</span>Main entry point to data serialization API.
@@ -113,6 +115,23 @@ public interface CodecService extends Service {
      */
     byte[] encode(Object obj) throws CodecException;
 
+    /**
+     * Encodes the specified object into a new direct buffer that is allocated from the pool of Netty buffers.
+     *
+     * <p>
+     * <b>Important:</b> The returned buffer must be released via {@link ByteBuf#release()} once it is not needed anymore.
+     * </p>
+     *
+     * @param obj Object.
+     *
+     * @return Buffer with encoded data (must be released by the caller).
+     *
+     * @throws CodecException Signals encoding failure.
+     * @see EncoderDecoder#encodeToBuffer(Object)
+     * @see #decode(ByteBuf)
+     */
+    ByteBuf encodeToBuffer(Object obj) throws CodecException;
+
     /**
      * Decodes an object from the specified byte array by using the supplied decode function.
      *
@@ -152,6 +171,29 @@ public interface CodecService extends Service {
      */
     Object decode(byte[] bytes) throws CodecException;
 
+    /**
+     * Decodes an object from the specified buffer and advances its reader index. This method does not release the buffer.
+     *
+     * @param in Buffer.
+     *
+     * @return Decoded object.
+     *
+     * @throws CodecException Signals decoding failure.
+     * @see #encodeToBuffer(Object)
+     */
+    Object decode(ByteBuf in) throws CodecException;
+
+    /**
+     * Decodes an object from the specified NIO buffer and advances its position.
+     *
+     * @param in Buffer.
+     *
+     * @return Decoded object.
+     *
+     * @throws CodecException Signals decoding failure.
+     */
+    Object decode(ByteBuffer in) throws CodecException;
+
     /**
      * Decodes an object from the specified byte array by using the supplied decode function.
      *
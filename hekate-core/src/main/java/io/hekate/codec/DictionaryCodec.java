@@ -0,0 +1,477 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec;
+
+import io.hekate.network.netty.NettyBufferAware;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec of {@link DictionaryCodecFactory}.
+ *
+ * <p>
+ * Each string is prefixed with a variable-length tag: {@link #LITERAL} for strings that are not in the dictionary, {@link #DEFINE}
+ * (followed by the slot) for strings that are added to the dictionary and {@code slot + }{@link #REF_OFFSET} for references.
+ * </p>
+ *
+ * <p>
+ * Only {@link DataWriter#writeUTF(String)}/{@link DataReader#readUTF()} are intercepted. All other calls (including {@link
+ * DataWriter#asStream()} and direct access to the underlying buffer) are passed through as is. Codecs that bypass those methods can
+ * use the dictionary directly via the {@link StringDictionary} interface of the writer/reader.
+ * </p>
+ *
+ * @param <T> Base data type.
+ */
+class DictionaryCodec<T> implements Codec<T> {
+    /** String that is written as is. */
+    static final int LITERAL = 0;
+
+    /** String that is written as is and is added to the dictionary. */
+    static final int DEFINE = 1;
+
+    /** Offset of dictionary references. */
+    static final int REF_OFFSET = 2;
+
+    private final Codec<T> delegate;
+
+    private final int maxEntries;
+
+    private final int maxStringLength;
+
+    /** Outbound dictionary (string to slot) in access order. */
+    @ToStringIgnore
+    private final Map<String, Integer> outbound;
+
+    /** Slots that were released by failed encoding operations. */
+    @ToStringIgnore
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    /** Strings that were added to the outbound dictionary by the current encoding operation. */
+    @ToStringIgnore
+    private final List<String> defined = new ArrayList<>();
+
+    /** Inbound dictionary (slot to string). */
+    @ToStringIgnore
+    private final String[] inbound;
+
+    @ToStringIgnore
+    private final Writer writer = new Writer();
+
+    @ToStringIgnore
+    private final Reader reader = new Reader();
+
+    private int nextSlot;
+
+    public DictionaryCodec(Codec<T> delegate, int maxEntries, int maxStringLength) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxStringLength = maxStringLength;
+        this.outbound = new LinkedHashMap<>(16, 0.75f, true);
+        this.inbound = new String[maxEntries];
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public Class<T> baseType() {
+        return delegate.baseType();
+    }
+
+    @Override
+    public void encode(T obj, DataWriter out) throws IOException {
+        writer.out = out;
+
+        boolean success = false;
+
+        try {
+            delegate.encode(obj, writer);
+
+            success = true;
+        } finally {
+            writer.out = null;
+
+            if (!success) {
+                // Strings that were defined by this operation will never reach the receiver.
+                for (String str : defined) {
+                    Integer slot = outbound.remove(str);
+
+                    if (slot != null) {
+                        freeSlots.push(slot);
+                    }
+                }
+            }
+
+            defined.clear();
+        }
+    }
+
+    @Override
+    public T decode(DataReader in) throws IOException {
+        reader.in = in;
+
+        try {
+            return delegate.decode(reader);
+        } finally {
+            reader.in = null;
+        }
+    }
+
+    int outboundSize() {
+        return outbound.size();
+    }
+
+    private int lookup(String str) {
+        Integer slot = outbound.get(str);
+
+        return slot == null ? -1 : slot;
+    }
+
+    private int define(String str) {
+        if (str.length() > maxStringLength) {
+            return -1;
+        }
+
+        int slot = allocateSlot();
+
+        outbound.put(str, slot);
+
+        defined.add(str);
+
+        return slot;
+    }
+
+    private String get(int slot) throws CodecException {
+        checkSlot(slot);
+
+        String str = inbound[slot];
+
+        if (str == null) {
+            throw new CodecException("Reference to an empty dictionary slot [slot=" + slot + ']');
+        }
+
+        return str;
+    }
+
+    private void put(int slot, String str) throws CodecException {
+        checkSlot(slot);
+
+        inbound[slot] = str;
+    }
+
+    private void writeString(String str, DataWriter out) throws IOException {
+        int slot = lookup(str);
+
+        if (slot >= 0) {
+            out.writeVarIntUnsigned(slot + REF_OFFSET);
+        } else {
+            int newSlot = define(str);
+
+            if (newSlot < 0) {
+                out.writeVarIntUnsigned(LITERAL);
+            } else {
+                out.writeVarIntUnsigned(DEFINE);
+                out.writeVarIntUnsigned(newSlot);
+            }
+
+            out.writeUTF(str);
+        }
+    }
+
+    private String readString(DataReader in) throws IOException {
+        int tag = in.readVarIntUnsigned();
+
+        switch (tag) {
+            case LITERAL: {
+                return in.readUTF();
+            }
+            case DEFINE: {
+                int slot = in.readVarIntUnsigned();
+
+                String str = in.readUTF();
+
+                put(slot, str);
+
+                return str;
+            }
+            default: {
+                return get(tag - REF_OFFSET);
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        } else if (nextSlot < maxEntries) {
+            return nextSlot++;
+        } else {
+            // Evict the least recently used string.
+            Iterator<Map.Entry<String, Integer>> eldest = outbound.entrySet().iterator();
+
+            int slot = eldest.next().getValue();
+
+            eldest.remove();
+
+            return slot;
+        }
+    }
+
+    private void checkSlot(int slot) throws CodecException {
+        if (slot < 0 || slot >= maxEntries) {
+            throw new CodecException("Dictionary slot is out of range (is dictionary configured the same way on both sides?) "
+                + "[slot=" + slot + ", max-entries=" + maxEntries + ']');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+
+    private class Writer implements DataWriter, NettyBufferAware, StringDictionary {
+        private DataWriter out;
+
+        @Override
+        public int lookup(String str) {
+            return DictionaryCodec.this.lookup(str);
+        }
+
+        @Override
+        public int define(String str) {
+            return DictionaryCodec.this.define(str);
+        }
+
+        @Override
+        public String get(int slot) throws CodecException {
+            return DictionaryCodec.this.get(slot);
+        }
+
+        @Override
+        public void put(int slot, String str) throws CodecException {
+            DictionaryCodec.this.put(slot, str);
+        }
+
+        @Override
+        public ByteBuf buffer() {
+            // Codecs that write directly to the buffer (or to the stream) must use the dictionary explicitly (see StringDictionary).
+            return out instanceof NettyBufferAware ? ((NettyBufferAware)out).buffer() : null;
+        }
+
+        @Override
+        public OutputStream asStream() {
+            return out.asStream();
+        }
+
+        @Override
+        public int size() {
+            return out.size();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void writeBoolean(boolean v) throws IOException {
+            out.writeBoolean(v);
+        }
+
+        @Override
+        public void writeByte(int v) throws IOException {
+            out.writeByte(v);
+        }
+
+        @Override
+        public void writeShort(int v) throws IOException {
+            out.writeShort(v);
+        }
+
+        @Override
+        public void writeChar(int v) throws IOException {
+            out.writeChar(v);
+        }
+
+        @Override
+        public void writeInt(int v) throws IOException {
+            out.writeInt(v);
+        }
+
+        @Override
+        public void writeLong(long v) throws IOException {
+            out.writeLong(v);
+        }
+
+        @Override
+        public void writeFloat(float v) throws IOException {
+            out.writeFloat(v);
+        }
+
+        @Override
+        public void writeDouble(double v) throws IOException {
+            out.writeDouble(v);
+        }
+
+        @Override
+        public void writeBytes(String s) throws IOException {
+            out.writeBytes(s);
+        }
+
+        @Override
+        public void writeChars(String s) throws IOException {
+            out.writeChars(s);
+        }
+
+        @Override
+        public void writeUTF(String s) throws IOException {
+            writeString(s, out);
+        }
+    }
+
+    private class Reader implements DataReader, NettyBufferAware, StringDictionary {
+        private DataReader in;
+
+        @Override
+        public int lookup(String str) {
+            return DictionaryCodec.this.lookup(str);
+        }
+
+        @Override
+        public int define(String str) {
+            return DictionaryCodec.this.define(str);
+        }
+
+        @Override
+        public String get(int slot) throws CodecException {
+            return DictionaryCodec.this.get(slot);
+        }
+
+        @Override
+        public void put(int slot, String str) throws CodecException {
+            DictionaryCodec.this.put(slot, str);
+        }
+
+        @Override
+        public ByteBuf buffer() {
+            // Codecs that read directly from the buffer (or from the stream) must use the dictionary explicitly (see StringDictionary).
+            return in instanceof NettyBufferAware ? ((NettyBufferAware)in).buffer() : null;
+        }
+
+        @Override
+        public InputStream asStream() {
+            return in.asStream();
+        }
+
+        @Override
+        public void readFully(byte[] b) throws IOException {
+            in.readFully(b);
+        }
+
+        @Override
+        public void readFully(byte[] b, int off, int len) throws IOException {
+            in.readFully(b, off, len);
+        }
+
+        @Override
+        public int skipBytes(int n) throws IOException {
+            return in.skipBytes(n);
+        }
+
+        @Override
+        public boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            return in.readByte();
+        }
+
+        @Override
+        public int readUnsignedByte() throws IOException {
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public short readShort() throws IOException {
+            return in.readShort();
+        }
+
+        @Override
+        public int readUnsignedShort() throws IOException {
+            return in.readUnsignedShort();
+        }
+
+        @Override
+        public char readChar() throws IOException {
+            return in.readChar();
+        }
+
+        @Override
+        public int readInt() throws IOException {
+            return in.readInt();
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            return in.readLong();
+        }
+
+        @Override
+        public float readFloat() throws IOException {
+            return in.readFloat();
+        }
+
+        @Override
+        public double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public String readUTF() throws IOException {
+            return readString(in);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec;
+
+import io.hekate.core.internal.util.ArgAssert;
+import io.hekate.core.internal.util.ConfigCheck;
+import io.hekate.util.format.ToString;
+
+/**
+ * Codec factory that adds per-connection dictionary compression of strings on top of another codec factory.
+ *
+ * <p>
+ * Codecs of this factory are {@link Codec#isStateful() stateful} and intercept all {@link DataWriter#writeUTF(String)}/{@link
+ * DataReader#readUTF()} calls of the underlying codec. The first time a string is written, it is sent as is and is assigned a slot
+ * in the connection's dictionary. Subsequent writes of the same string are encoded as a reference to that slot (typically 1-2 bytes).
+ * This makes it possible to drastically reduce the size of messages that repeat the same strings (f.e. class names, enum names or keys
+ * of map-like structures).
+ * </p>
+ *
+ * <p>
+ * Codecs that write strings on their own (f.e. directly into the network buffer) can use the dictionary via the {@link StringDictionary}
+ * interface of the writer/reader. Built-in codecs support the dictionary as follows:
+ * </p>
+ * <ul>
+ * <li>{@link io.hekate.codec.kryo.KryoCodecFactory} - strings and names of unregistered classes</li>
+ * <li>{@link io.hekate.codec.tagged.TaggedCodecFactory} - strings, class names and enum names</li>
+ * <li>{@link JdkCodecFactory} and {@link io.hekate.codec.fst.FstCodecFactory} - not supported (passed through without any
+ * compression)</li>
+ * </ul>
+ * <p>
+ * Internal protocol data (f.e. cluster node identifiers) never passes through this codec.
+ * </p>
+ *
+ * <p>
+ * The dictionary size is bounded by {@link #setMaxEntries(int)}. Once the dictionary is full, the least recently used string is
+ * evicted. The slot of the new string is always sent explicitly, so the receiver's dictionary never grows beyond the same bound and
+ * doesn't need to replicate the eviction policy. Strings that are longer than {@link #setMaxStringLength(int)} are never put into the
+ * dictionary.
+ * </p>
+ *
+ * <p>
+ * <b>Notice:</b> Since dictionaries are maintained per connection, this factory can only be used where stateful codecs are supported
+ * (f.e. as a codec of {@link io.hekate.messaging.MessagingChannelConfig#setMessageCodec(CodecFactory) messaging channels}). It can't
+ * be used as the {@link io.hekate.core.HekateBootstrap#setDefaultCodec(CodecFactory) default codec}. The same configuration must be
+ * used on both sides of a connection.
+ * </p>
+ *
+ * @param <T> Base data type that is supported by the {@link Codec}.
+ */
+public class DictionaryCodecFactory<T> implements CodecFactory<T> {
+    /** Default value (={@value}) for {@link #setMaxEntries(int)}. */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /** Default value (={@value}) for {@link #setMaxStringLength(int)}. */
+    public static final int DEFAULT_MAX_STRING_LENGTH = 256;
+
+    private final CodecFactory<T> delegate;
+
+    /** See {@link #setMaxEntries(int)}. */
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /** See {@link #setMaxStringLength(int)}. */
+    private int maxStringLength = DEFAULT_MAX_STRING_LENGTH;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param delegate Factory of codecs that should be wrapped with dictionary compression.
+     */
+    public DictionaryCodecFactory(CodecFactory<T> delegate) {
+        ArgAssert.notNull(delegate, "Delegate");
+
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Codec<T> createCodec() {
+        ConfigCheck check = ConfigCheck.get(getClass());
+
+        check.positive(maxEntries, "max entries");
+        check.positive(maxStringLength, "max string length");
+
+        return new DictionaryCodec<>(delegate.createCodec(), maxEntries, maxStringLength);
+    }
+
+    /**
+     * Returns the factory of codecs that are wrapped with dictionary compression.
+     *
+     * @return Factory of codecs that are wrapped with dictionary compression.
+     */
+    public CodecFactory<T> delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the maximum number of strings in the dictionary of each connection (see {@link #setMaxEntries(int)}).
+     *
+     * @return Maximum number of strings in the dictionary.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of strings in the dictionary of each connection.
+     *
+     * <p>
+     * Value of this parameter must be above zero. Default value is {@value #DEFAULT_MAX_ENTRIES}.
+     * </p>
+     *
+     * @param maxEntries Maximum number of strings in the dictionary.
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMaxEntries(int)}.
+     *
+     * @param maxEntries Maximum number of strings in the dictionary.
+     *
+     * @return This instance.
+     */
+    public DictionaryCodecFactory<T> withMaxEntries(int maxEntries) {
+        setMaxEntries(maxEntries);
+
+        return this;
+    }
+
+    /**
+     * Returns the maximum length of strings that can be put into the dictionary (see {@link #setMaxStringLength(int)}).
+     *
+     * @return Maximum length of strings that can be put into the dictionary.
+     */
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    /**
+     * Sets the maximum length of strings that can be put into the dictionary. Longer strings are always written as is.
+     *
+     * <p>
+     * Value of this parameter must be above zero. Default value is {@value #DEFAULT_MAX_STRING_LENGTH}.
+     * </p>
+     *
+     * @param maxStringLength Maximum length of strings that can be put into the dictionary.
+     */
+    public void setMaxStringLength(int maxStringLength) {
+        this.maxStringLength = maxStringLength;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMaxStringLength(int)}.
+     *
+     * @param maxStringLength Maximum length of strings that can be put into the dictionary.
+     *
+     * @return This instance.
+     */
+    public DictionaryCodecFactory<T> withMaxStringLength(int maxStringLength) {
+        setMaxStringLength(maxStringLength);
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
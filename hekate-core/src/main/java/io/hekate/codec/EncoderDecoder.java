@@ -16,8 +16,10 @@
 
 package io.hekate.codec;
 
+import io.netty.buffer.ByteBuf;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Interface for components that can perform encoding/decoding operations.
@@ -62,6 +64,56 @@ public interface EncoderDecoder<T> {
      */
     byte[] encode(T obj) throws CodecException;
 
+    /**
+     * Encodes the specified object into the specified buffer.
+     *
+     * <p>
+     * Data is written starting at the buffer's writer index and the writer index is advanced by the number of written bytes. Buffer is
+     * expanded if needed. Binary format is the same as of {@link #encode(Object)}.
+     * </p>
+     *
+     * @param obj Object.
+     * @param out Buffer.
+     *
+     * @throws CodecException Signals encoding failure.
+     * @see #decode(ByteBuf)
+     */
+    void encode(T obj, ByteBuf out) throws CodecException;
+
+    /**
+     * Encodes the specified object into the specified NIO buffer.
+     *
+     * <p>
+     * Data is written starting at the buffer's position and the position is advanced by the number of written bytes. If buffer doesn't
+     * have enough remaining space then {@link CodecException} is thrown and buffer's position remains unchanged. Binary format is the
+     * same as of {@link #encode(Object)}.
+     * </p>
+     *
+     * @param obj Object.
+     * @param out Buffer.
+     *
+     * @throws CodecException Signals encoding failure.
+     * @see #decode(ByteBuffer)
+     */
+    void encode(T obj, ByteBuffer out) throws CodecException;
+
+    /**
+     * Encodes the specified object into a new direct buffer that is allocated from the pool of Netty buffers.
+     *
+     * <p>
+     * <b>Important:</b> The returned buffer must be released via {@link ByteBuf#release()} once it is not needed anymore. Otherwise its
+     * memory will be leaked. Use {@link ByteBuf#nioBuffer()} to get a {@link ByteBuffer} view of encoded data.
+     * </p>
+     *
+     * @param obj Object.
+     *
+     * @return Buffer with encoded data (must be released by the caller).
+     *
+     * @throws CodecException Signals encoding failure.
+     * @see #decode(ByteBuf)
+     */
+    ByteBuf encodeToBuffer(T obj) throws CodecException;
+
     /**
      * Decodes an object from the specified stream.
      *
@@ -109,4 +161,37 @@ public interface EncoderDecoder<T> {
      * @throws CodecException Signals decoding failure.
      */
     T decode(byte[] bytes, int offset, int limit) throws CodecException;
+
+    /**
+     * Decodes an object from the specified buffer.
+     *
+     * <p>
+     * Data is read starting at the buffer's reader index and the reader index is advanced by the number of consumed bytes. This method
+     * does not {@link ByteBuf#release() release} the buffer.
+     * </p>
+     *
+     * @param in Buffer.
+     *
+     * @return Decoded object.
+     *
+     * @throws CodecException Signals decoding failure.
+     * @see #encode(Object, ByteBuf)
+     */
+    T decode(ByteBuf in) throws CodecException;
+
+    /**
+     * Decodes an object from the specified NIO buffer.
+     *
+     * <p>
+     * Data is read starting at the buffer's position and the position is advanced by the number of consumed bytes.
+     * </p>
+     *
+     * @param in Buffer.
+     *
+     * @return Decoded object.
+     *
+     * @throws CodecException Signals decoding failure.
+     * @see #encode(Object, ByteBuffer)
+     */
+    T decode(ByteBuffer in) throws CodecException;
 }
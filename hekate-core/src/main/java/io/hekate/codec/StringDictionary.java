@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec;
+
+/**
+ * Per-connection dictionary of strings of the {@link DictionaryCodecFactory}.
+ *
+ * <p>
+ * All {@link DataWriter}s and {@link DataReader}s that are passed to the underlying codec by the {@link DictionaryCodecFactory} implement
+ * this interface. Codecs that write strings on their own (f.e. directly into the network buffer) can use it to replace repeated strings
+ * with references to dictionary slots.
+ * </p>
+ *
+ * <p>
+ * When encoding, the codec should {@link #lookup(String) look up} the string and write a reference to its slot if the string is in the
+ * dictionary. Otherwise, the codec should try to {@link #define(String) define} the string and write both the new slot and the string
+ * itself. When decoding, the codec must {@link #put(int, String) put} every defined string into the dictionary (even if the value gets
+ * skipped) and {@link #get(int) resolve} references. Slots are always in the range of [0..{@link
+ * DictionaryCodecFactory#setMaxEntries(int) max entries}).
+ * </p>
+ */
+public interface StringDictionary {
+    /**
+     * Returns the slot of the specified string in the outbound dictionary.
+     *
+     * @param str String.
+     *
+     * @return Slot or {@code -1} if the string is not in the dictionary.
+     */
+    int lookup(String str);
+
+    /**
+     * Adds the specified string to the outbound dictionary. The string must not be in the dictionary already (see {@link
+     * #lookup(String)}).
+     *
+     * @param str String.
+     *
+     * @return Slot of the string or {@code -1} if the string can't be put into the dictionary (f.e. if it is too long).
+     */
+    int define(String str);
+
+    /**
+     * Returns the string of the specified slot of the inbound dictionary.
+     *
+     * @param slot Slot.
+     *
+     * @return String.
+     *
+     * @throws CodecException If slot is out of range or is empty.
+     */
+    String get(int slot) throws CodecException;
+
+    /**
+     * Puts the specified string into the inbound dictionary.
+     *
+     * @param slot Slot (as it was returned by the {@link #define(String)} method on the sender side).
+     * @param str String.
+     *
+     * @throws CodecException If slot is out of range.
+     */
+    void put(int slot, String str) throws CodecException;
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec;
+
+import io.hekate.cluster.ClusterAcceptor;
+import io.hekate.core.HekateBootstrap;
+
+/**
+ * Codec factory that can verify its compatibility with other cluster nodes.
+ *
+ * <p>
+ * This is an optional extension of the {@link CodecFactory} interface. If the {@link HekateBootstrap#setDefaultCodec(CodecFactory)
+ * default codec} implements this interface then its {@link #fingerprint() fingerprint} is exchanged during the cluster join and nodes
+ * with a different fingerprint are rejected (see {@link ClusterAcceptor}). This makes it possible to detect misconfigured nodes before
+ * they start producing data that can't be decoded by other nodes.
+ * </p>
+ *
+ * @param <T> Base data type that is supported by the {@link Codec}.
+ */
+public interface VerifiableCodecFactory<T> extends CodecFactory<T> {
+    /**
+     * Returns a fingerprint of this factory's configuration that affects the binary format of encoded data.
+     *
+     * <p>
+     * Fingerprints must be identical for factories that produce binary compatible codecs and must be different otherwise. {@code null}
+     * means that there is nothing to verify; such nodes are compatible only with nodes that don't provide a fingerprint either.
+     * </p>
+     *
+     * @return Fingerprint or {@code null}.
+     */
+    String fingerprint();
+}
@@ -19,8 +19,10 @@ package io.hekate.codec.fst;
 import io.hekate.codec.Codec;
 import io.hekate.codec.DataReader;
 import io.hekate.codec.DataWriter;
+import io.hekate.network.netty.NettyBufferAware;
 import io.hekate.util.format.ToString;
 import io.hekate.util.format.ToStringIgnore;
+import io.netty.buffer.ByteBuf;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import org.nustaq.serialization.FSTConfiguration;
@@ -47,10 +49,21 @@ class FstCodec implements Codec<Object> {
     @Override
     public void encode(Object obj, DataWriter out) throws IOException {
         try {
-            FSTObjectOutput objOut = fst.getObjectOutput(out.asStream());
+            ByteBuf buf = out instanceof NettyBufferAware ? ((NettyBufferAware)out).buffer() : null;
 
-            objOut.writeObject(obj);
-            objOut.flush();
+            if (buf == null) {
+                FSTObjectOutput objOut = fst.getObjectOutput(out.asStream());
+
+                objOut.writeObject(obj);
+                objOut.flush();
+            } else {
+                // FST can't write to off-heap memory, so we serialize into its reusable buffer and transfer the result with a bulk write.
+                FSTObjectOutput objOut = fst.getObjectOutput();
+
+                objOut.writeObject(obj);
+
+                buf.writeBytes(objOut.getBuffer(), 0, objOut.getWritten());
+            }
         } catch (RuntimeException e) {
             // Workaround for FST throwing RuntimeException instead of NotSerializableException.
             if (e.getMessage() != null && e.getMessage().indexOf("does not implement Serializable") > 0) {
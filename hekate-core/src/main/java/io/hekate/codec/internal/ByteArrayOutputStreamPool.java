@@ -16,50 +16,240 @@
 
 package io.hekate.codec.internal;
 
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
 import java.io.ByteArrayOutputStream;
-import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Pool of {@link ByteArrayOutputStream}s.
+ *
+ * <p>
+ * Buffers are pooled in power-of-two size classes from {@value #MIN_BUFFER_SIZE} bytes up to {@link #maxBufferSize()}. Each thread
+ * caches a single buffer of up to {@value #THREAD_CACHE_MAX_SIZE} bytes; all other buffers are shared by all threads. The total amount
+ * of bytes that are retained by the shared pool is bounded by {@link #maxRetainedBytes()}.
+ * </p>
+ *
+ * <p>
+ * The initial capacity of each buffer is predicted from the recent encoded sizes of objects of the same type, so that large messages
+ * don't need to go through multiple expansions of the buffer.
+ * </p>
+ */
 class ByteArrayOutputStreamPool {
-    /** Initial size of a pooled {@link ByteArrayOutputStream}. */
-    private static final int INITIAL_BUFFER_SIZE = 512;
+    /** Pooled stream that exposes its internal buffer. */
+    private static final class PooledStream extends ByteArrayOutputStream {
+        public PooledStream(byte[] slab) {
+            super(0);
+
+            this.buf = slab;
+        }
 
-    /** Thread-local pool of {@link ByteArrayOutputStream}s. */
-    // Non-static because of every instance can have its own {@link #maxBufferSize}).
-    private final ThreadLocal<ArrayList<ByteArrayOutputStream>> threadLocalPool = ThreadLocal.withInitial(() ->
-        new ArrayList<>(1)
-    );
+        public byte[] slab() {
+            return buf;
+        }
+    }
+
+    /** Decaying maximum of recently encoded sizes. */
+    private static final class SizeEstimate {
+        /** Not volatile since races only affect the accuracy of prediction. */
+        private int size;
+
+        public int predict() {
+            return size;
+        }
 
-    /** If {@link ByteArrayOutputStream#size()} is greater than this size then it will NOT be reused. */
+        public void update(int newSize) {
+            int old = size;
+
+            // Grow immediately, shrink slowly.
+            size = newSize >= old ? newSize : old - ((old - newSize) >>> 3);
+        }
+    }
+
+    /** Minimum size of a pooled buffer (must be a power of two). */
+    static final int MIN_BUFFER_SIZE = 512;
+
+    /** Maximum size of a buffer that can be cached by a thread (must be a power of two). */
+    static final int THREAD_CACHE_MAX_SIZE = 64 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+    /** If buffer's capacity is greater than this size then it will NOT be reused. */
     private final int maxBufferSize;
 
-    public ByteArrayOutputStreamPool(int maxBufferSize) {
-        this.maxBufferSize = maxBufferSize;
+    /** Maximum amount of bytes that can be retained by the shared pool. */
+    private final long maxRetainedBytes;
+
+    /** Shared pool of buffers (per size class). */
+    @ToStringIgnore
+    private final Queue<byte[]>[] shared;
+
+    /** Amount of bytes that are currently retained by the shared pool. */
+    @ToStringIgnore
+    private final AtomicLong retained = new AtomicLong();
+
+    /** Thread-local cache of a single buffer. */
+    // Non-static because of every instance can have its own limits.
+    @ToStringIgnore
+    private final ThreadLocal<byte[][]> threadCache = ThreadLocal.withInitial(() -> new byte[1][]);
+
+    /** Predicted buffer sizes per type of encoded objects. */
+    @ToStringIgnore
+    private final ClassValue<SizeEstimate> estimates = new ClassValue<SizeEstimate>() {
+        @Override
+        protected SizeEstimate computeValue(Class<?> type) {
+            return new SizeEstimate();
+        }
+    };
+
+    @ToStringIgnore
+    private final LongAdder hits = new LongAdder();
+
+    @ToStringIgnore
+    private final LongAdder misses = new LongAdder();
+
+    @ToStringIgnore
+    private final LongAdder drops = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ByteArrayOutputStreamPool(int maxBufferSize, long maxRetainedBytes) {
+        this.maxBufferSize = Math.max(MIN_BUFFER_SIZE, maxBufferSize);
+        this.maxRetainedBytes = Math.max(0, maxRetainedBytes);
+
+        this.shared = new Queue[sizeClassFloor(this.maxBufferSize) + 1];
+
+        for (int i = 0; i < shared.length; i++) {
+            shared[i] = new ConcurrentLinkedQueue<>();
+        }
     }
 
-    public ByteArrayOutputStream acquire() {
-        ByteArrayOutputStream buf;
+    public ByteArrayOutputStream acquire(Class<?> type) {
+        int predicted = type != null ? estimates.get(type).predict() : 0;
 
-        ArrayList<ByteArrayOutputStream> buffers = threadLocalPool.get();
+        int sizeClass = sizeClassCeil(Math.max(MIN_BUFFER_SIZE, predicted));
 
-        if (buffers.isEmpty()) {
-            buf = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
-        } else {
-            // Remove from the tail (for ArrayList it is a cheap operation).
-            buf = buffers.remove(buffers.size() - 1);
+        int capacity = MIN_BUFFER_SIZE << sizeClass;
+
+        if (capacity > maxBufferSize || capacity <= 0) {
+            // Too large to be pooled.
+            misses.increment();
+
+            return new PooledStream(new byte[Math.max(predicted, MIN_BUFFER_SIZE)]);
+        }
+
+        // Try the thread-local cache.
+        byte[][] cache = threadCache.get();
+
+        byte[] slab = cache[0];
+
+        if (slab != null && slab.length >= capacity) {
+            cache[0] = null;
+
+            hits.increment();
+
+            return new PooledStream(slab);
         }
 
-        return buf;
+        // Try the shared pool (buffers of larger size classes are also acceptable).
+        for (int i = sizeClass; i < shared.length; i++) {
+            slab = shared[i].poll();
+
+            if (slab != null) {
+                retained.addAndGet(-slab.length);
+
+                hits.increment();
+
+                return new PooledStream(slab);
+            }
+        }
+
+        misses.increment();
+
+        return new PooledStream(new byte[capacity]);
     }
 
-    public boolean recycle(ByteArrayOutputStream buf) {
-        if (buf.size() <= maxBufferSize) {
-            // Clear the buffer.
-            buf.reset();
+    public void recycle(ByteArrayOutputStream buf, Class<?> type) {
+        if (type != null) {
+            estimates.get(type).update(buf.size());
+        }
+
+        if (!(buf instanceof PooledStream)) {
+            return;
+        }
+
+        byte[] slab = ((PooledStream)buf).slab();
+
+        if (slab.length > maxBufferSize || slab.length < MIN_BUFFER_SIZE) {
+            drops.increment();
+
+            return;
+        }
+
+        // Try the thread-local cache.
+        if (slab.length <= THREAD_CACHE_MAX_SIZE) {
+            byte[][] cache = threadCache.get();
+
+            byte[] cached = cache[0];
+
+            if (cached == null || cached.length < slab.length) {
+                cache[0] = slab;
+
+                if (cached == null) {
+                    return;
+                }
+
+                // Move the smaller buffer to the shared pool.
+                slab = cached;
+            }
+        }
 
-            // Add the buffer back to the pool.
-            return threadLocalPool.get().add(buf);
+        // Try the shared pool.
+        if (retained.addAndGet(slab.length) <= maxRetainedBytes) {
+            shared[sizeClassFloor(slab.length)].offer(slab);
         } else {
-            return false;
+            retained.addAndGet(-slab.length);
+
+            drops.increment();
         }
     }
+
+    public int maxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public long maxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    public long retainedBytes() {
+        return retained.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long drops() {
+        return drops.sum();
+    }
+
+    private static int sizeClassFloor(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size) - MIN_SHIFT;
+    }
+
+    private static int sizeClassCeil(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.internal;
+
+import io.hekate.codec.DataReader;
+import io.hekate.codec.StreamDataReader;
+import io.hekate.network.netty.NettyBufferAware;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.InputStream;
+
+/**
+ * {@link DataReader} that reads directly from a {@link ByteBuf} and expects exactly the same binary format as {@link StreamDataReader}.
+ */
+class ByteBufStreamDataReader extends ByteBufInputStream implements DataReader, NettyBufferAware {
+    private final ByteBuf buffer;
+
+    public ByteBufStreamDataReader(ByteBuf buffer) {
+        super(buffer);
+
+        this.buffer = buffer;
+    }
+
+    @Override
+    public ByteBuf buffer() {
+        return buffer;
+    }
+
+    @Override
+    public InputStream asStream() {
+        return this;
+    }
+}
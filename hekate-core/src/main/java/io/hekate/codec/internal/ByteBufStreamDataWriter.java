@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.internal;
+
+import io.hekate.codec.DataWriter;
+import io.hekate.codec.StreamDataWriter;
+import io.hekate.network.netty.NettyBufferAware;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link DataWriter} that writes directly into a {@link ByteBuf} and produces exactly the same binary format as {@link StreamDataWriter}.
+ */
+class ByteBufStreamDataWriter extends ByteBufOutputStream implements DataWriter, NettyBufferAware {
+    public ByteBufStreamDataWriter(ByteBuf buffer) {
+        super(buffer);
+    }
+
+    @Override
+    public OutputStream asStream() {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return writtenBytes();
+    }
+}
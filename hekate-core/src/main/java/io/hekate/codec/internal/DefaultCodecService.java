@@ -16,6 +16,8 @@
 
 package io.hekate.codec.internal;
 
+import io.hekate.cluster.ClusterAcceptor;
+import io.hekate.cluster.ClusterNode;
 import io.hekate.codec.CodecFactory;
 import io.hekate.codec.CodecService;
 import io.hekate.codec.DataReader;
@@ -26,19 +28,44 @@ import io.hekate.codec.EncoderDecoder;
 import io.hekate.codec.StreamDataReader;
 import io.hekate.codec.StreamDataWriter;
 import io.hekate.codec.ThreadLocalCodecFactory;
+import io.hekate.codec.VerifiableCodecFactory;
+import io.hekate.codec.stats.StatsCodecFactory;
+import io.hekate.core.Hekate;
+import io.hekate.core.HekateException;
+import io.hekate.core.ServiceInfo;
 import io.hekate.core.internal.util.ArgAssert;
+import io.hekate.core.jmx.JmxService;
+import io.hekate.core.service.ConfigurableService;
+import io.hekate.core.service.ConfigurationContext;
+import io.hekate.core.service.DependencyContext;
+import io.hekate.core.service.DependentService;
+import io.hekate.core.service.InitializationContext;
+import io.hekate.core.service.InitializingService;
 import io.hekate.util.format.ToString;
 import io.hekate.util.format.ToStringIgnore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class DefaultCodecService implements CodecService, EncoderDecoder<Object>, DependentService, ConfigurableService,
+    InitializingService, ClusterAcceptor {
+    /** Name of a {@link ServiceInfo} property that holds the {@link VerifiableCodecFactory#fingerprint() codec fingerprint}. */
+    static final String FINGERPRINT_PROPERTY = "fingerprint";
 
-public class DefaultCodecService implements CodecService, EncoderDecoder<Object> {
     /** If buffer's capacity is larger than this value then it will not be reused and will be thrown away to be collected by the GC. */
     // TODO: Configurable maximum size of recyclable buffer.
     private static final int MAX_REUSABLE_BUFFER_SIZE = Integer.getInteger("io.hekate.codec.maxReusableBufferSize", 1024 * 1024);
 
+    /** Maximum amount of bytes that can be retained by the shared pool of reusable buffers. */
+    private static final long MAX_RETAINED_BUFFER_BYTES = Long.getLong("io.hekate.codec.maxRetainedBufferBytes", 32 * 1024 * 1024);
+
     /** Codec factory. */
     private final CodecFactory<Object> factory;
 
@@ -50,14 +77,82 @@ public class DefaultCodecService implements CodecService, EncoderDecoder<Object>
     @ToStringIgnore
     private final EncoderDecoder<Object> codec;
 
+    /** Codec fingerprint (see {@link VerifiableCodecFactory}). */
+    private final String fingerprint;
+
+    /** Codec statistics (if codec factory is a {@link StatsCodecFactory}). */
+    @ToStringIgnore
+    private final StatsCodecFactory<Object> stats;
+
+    /** JMX service (optional). */
+    @ToStringIgnore
+    private JmxService jmx;
+
     public DefaultCodecService(CodecFactory<Object> factory) {
         CodecFactory<Object> threadLocal = ThreadLocalCodecFactory.tryWrap(factory);
 
+        if (factory instanceof VerifiableCodecFactory) {
+            this.fingerprint = ((VerifiableCodecFactory<Object>)factory).fingerprint();
+        } else {
+            this.fingerprint = null;
+        }
+
+        if (factory instanceof StatsCodecFactory) {
+            this.stats = (StatsCodecFactory<Object>)factory;
+        } else {
+            this.stats = null;
+        }
+
         this.factory = threadLocal;
-        this.buffers = new ByteArrayOutputStreamPool(MAX_REUSABLE_BUFFER_SIZE);
+        this.buffers = new ByteArrayOutputStreamPool(MAX_REUSABLE_BUFFER_SIZE, MAX_RETAINED_BUFFER_BYTES);
         this.codec = new DefaultEncoderDecoder<>(buffers, threadLocal.createCodec());
     }
 
+    @Override
+    public void resolve(DependencyContext ctx) {
+        jmx = ctx.optional(JmxService.class);
+    }
+
+    @Override
+    public void configure(ConfigurationContext ctx) {
+        if (fingerprint != null) {
+            ctx.setStringProperty(FINGERPRINT_PROPERTY, fingerprint);
+        }
+    }
+
+    @Override
+    public void initialize(InitializationContext ctx) throws HekateException {
+        // Register buffer pool metrics.
+        MeterRegistry metrics = ctx.metrics();
+
+        FunctionCounter.builder("hekate.codec.buffer.hits", buffers, ByteArrayOutputStreamPool::hits).register(metrics);
+        FunctionCounter.builder("hekate.codec.buffer.misses", buffers, ByteArrayOutputStreamPool::misses).register(metrics);
+        FunctionCounter.builder("hekate.codec.buffer.drops", buffers, ByteArrayOutputStreamPool::drops).register(metrics);
+        Gauge.builder("hekate.codec.buffer.retained", buffers, ByteArrayOutputStreamPool::retainedBytes).register(metrics);
+
+        // Register codec statistics (optional).
+        if (stats != null && stats.bindTo(StatsCodecFactory.DEFAULT_NAME, ctx.metrics()) && jmx != null) {
+            jmx.register(stats, StatsCodecFactory.DEFAULT_NAME);
+        }
+    }
+
+    @Override
+    public String acceptJoin(ClusterNode joining, Hekate local) {
+        ServiceInfo remService = joining.service(CodecService.class);
+
+        String remFingerprint = remService != null ? remService.stringProperty(FINGERPRINT_PROPERTY) : null;
+
+        if (!Objects.equals(fingerprint, remFingerprint)) {
+            return "Invalid default codec - fingerprint mismatch between the joining node and the cluster "
+                + "[joining-fingerprint=" + remFingerprint
+                + ", cluster-fingerprint=" + fingerprint
+                + ", rejected-by=" + local.localNode().address()
+                + ']';
+        }
+
+        return null;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> CodecFactory<T> codecFactory() {
@@ -101,21 +196,38 @@ public class DefaultCodecService implements CodecService, EncoderDecoder<Object>
         return codec.encode(obj);
     }
 
+    @Override
+    public void encode(Object obj, ByteBuf out) {
+        codec.encode(obj, out);
+    }
+
+    @Override
+    public void encode(Object obj, ByteBuffer out) {
+        codec.encode(obj, out);
+    }
+
     @Override
     public <T> byte[] encode(T obj, EncodeFunction<T> encoder) {
         ArgAssert.notNull(encoder, "Encode function");
 
-        ByteArrayOutputStream buf = buffers.acquire();
+        Class<?> type = obj != null ? obj.getClass() : null;
+
+        ByteArrayOutputStream buf = buffers.acquire(type);
 
         try {
             encoder.encodeUnchecked(obj, new StreamDataWriter(buf));
 
             return buf.toByteArray();
         } finally {
-            buffers.recycle(buf);
+            buffers.recycle(buf, type);
         }
     }
 
+    @Override
+    public ByteBuf encodeToBuffer(Object obj) {
+        return codec.encodeToBuffer(obj);
+    }
+
     @Override
     public Object decode(InputStream in) {
         return codec.decode(in);
@@ -126,6 +238,16 @@ public class DefaultCodecService implements CodecService, EncoderDecoder<Object>
         return codec.decode(in);
     }
 
+    @Override
+    public Object decode(ByteBuf in) {
+        return codec.decode(in);
+    }
+
+    @Override
+    public Object decode(ByteBuffer in) {
+        return codec.decode(in);
+    }
+
     @Override
     public Object decode(byte[] bytes) {
         return codec.decode(bytes);
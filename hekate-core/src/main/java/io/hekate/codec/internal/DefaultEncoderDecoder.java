@@ -17,6 +17,7 @@
 package io.hekate.codec.internal;
 
 import io.hekate.codec.Codec;
+import io.hekate.codec.CodecException;
 import io.hekate.codec.CodecService;
 import io.hekate.codec.DataReader;
 import io.hekate.codec.DataWriter;
@@ -26,11 +27,16 @@ import io.hekate.codec.EncoderDecoder;
 import io.hekate.codec.StreamDataReader;
 import io.hekate.codec.StreamDataWriter;
 import io.hekate.core.internal.util.ArgAssert;
+import io.hekate.core.internal.util.ErrorUtils;
 import io.hekate.util.format.ToString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 class DefaultEncoderDecoder<T> implements EncoderDecoder<T> {
     private final Class<T> type;
@@ -83,17 +89,97 @@ class DefaultEncoderDecoder<T> implements EncoderDecoder<T> {
 
         checkType(obj);
 
-        ByteArrayOutputStream buf = buffers.acquire();
+        Class<?> type = obj.getClass();
+
+        ByteArrayOutputStream buf = buffers.acquire(type);
 
         try {
             encoder.encodeUnchecked(obj, new StreamDataWriter(buf));
 
             return buf.toByteArray();
         } finally {
-            buffers.recycle(buf);
+            buffers.recycle(buf, type);
+        }
+    }
+
+    @Override
+    public void encode(T obj, ByteBuf out) {
+        ArgAssert.notNull(obj, "Object to encode");
+        ArgAssert.notNull(out, "Buffer");
+
+        checkType(obj);
+
+        encoder.encodeUnchecked(obj, new ByteBufStreamDataWriter(out));
+    }
+
+    @Override
+    public void encode(T obj, ByteBuffer out) {
+        ArgAssert.notNull(obj, "Object to encode");
+        ArgAssert.notNull(out, "Buffer");
+
+        checkType(obj);
+
+        // Non-expandable view of the remaining space (shares memory with the NIO buffer).
+        ByteBuf buf = Unpooled.wrappedBuffer(out).clear();
+
+        try {
+            encoder.encodeUnchecked(obj, new ByteBufStreamDataWriter(buf));
+        } catch (RuntimeException e) {
+            // Codecs can wrap buffer overflow errors with their own exceptions.
+            if (ErrorUtils.isCausedBy(IndexOutOfBoundsException.class, e)) {
+                throw new CodecException("Not enough space in the buffer to encode object [type=" + obj.getClass().getName()
+                    + ", remaining=" + out.remaining() + ']', e);
+            }
+
+            throw e;
+        }
+
+        out.position(out.position() + buf.writerIndex());
+    }
+
+    @Override
+    public ByteBuf encodeToBuffer(T obj) {
+        ArgAssert.notNull(obj, "Object to encode");
+
+        checkType(obj);
+
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+
+        boolean success = false;
+
+        try {
+            encoder.encodeUnchecked(obj, new ByteBufStreamDataWriter(buf));
+
+            success = true;
+
+            return buf;
+        } finally {
+            if (!success) {
+                buf.release();
+            }
         }
     }
 
+    @Override
+    public T decode(ByteBuf in) {
+        ArgAssert.notNull(in, "Buffer");
+
+        return decoder.decodeUnchecked(new ByteBufStreamDataReader(in));
+    }
+
+    @Override
+    public T decode(ByteBuffer in) {
+        ArgAssert.notNull(in, "Buffer");
+
+        ByteBuf buf = Unpooled.wrappedBuffer(in);
+
+        T result = decoder.decodeUnchecked(new ByteBufStreamDataReader(buf));
+
+        in.position(in.position() + buf.readerIndex());
+
+        return result;
+    }
+
     @Override
     public T decode(byte[] bytes) {
         ArgAssert.notNull(bytes, "Byte array");
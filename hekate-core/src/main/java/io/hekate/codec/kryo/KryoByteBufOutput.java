@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.kryo;
+
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Kryo output that writes directly into the memory of a Netty {@link ByteBuf}.
+ *
+ * <p>
+ * Instead of buffering data in an intermediate array and flushing it to a stream, this output points at the writable region of the
+ * target buffer. Once this region gets exhausted, written bytes are committed to the buffer's writer index and the buffer is expanded.
+ * </p>
+ */
+class KryoByteBufOutput extends ByteBufferOutput {
+    private static final int MIN_WRITABLE = 256;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final ByteOrder order;
+
+    private ByteBuf buf;
+
+    private int offset;
+
+    public KryoByteBufOutput(boolean unsafeIo) {
+        // Unsafe-based IO uses native byte order and fixed-length integers.
+        this.order = unsafeIo ? ByteOrder.nativeOrder() : ByteOrder.BIG_ENDIAN;
+
+        setVarIntsEnabled(!unsafeIo);
+    }
+
+    public void setBuffer(ByteBuf buf) {
+        this.buf = buf;
+
+        attach(0, order);
+    }
+
+    public void commit() {
+        buf.writerIndex(offset + position);
+    }
+
+    public void detach() {
+        buf = null;
+        offset = 0;
+
+        setBuffer(EMPTY, 0);
+    }
+
+    @Override
+    protected boolean require(int required) {
+        if (capacity - position >= required) {
+            return false;
+        }
+
+        long written = total();
+
+        commit();
+
+        // Kryo temporarily switches the byte order of the underlying buffer when writing variable-length integers.
+        attach(required, niobuffer.order());
+
+        total = written;
+
+        return true;
+    }
+
+    @Override
+    public void flush() {
+        // No-op (data is committed explicitly).
+    }
+
+    private void attach(int required, ByteOrder bufferOrder) {
+        // Preallocate some space but never beyond the buffer's limit (fails only if the required space is not available).
+        buf.ensureWritable(Math.max(required, Math.min(MIN_WRITABLE, buf.maxWritableBytes())));
+
+        offset = buf.writerIndex();
+
+        int writable = buf.writableBytes();
+
+        setBuffer(buf.nioBuffer(offset, writable), writable);
+
+        // Must be set after the buffer is attached since byte order gets inherited from the buffer.
+        order(order);
+
+        niobuffer.order(bufferOrder);
+    }
+}
@@ -17,24 +17,42 @@
 package io.hekate.codec.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.io.UnsafeInput;
+import com.esotericsoftware.kryo.io.UnsafeMemoryInput;
 import com.esotericsoftware.kryo.io.UnsafeOutput;
 import com.esotericsoftware.kryo.serializers.ClosureSerializer;
 import com.esotericsoftware.kryo.serializers.JavaSerializer;
 import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.IdentityObjectIntMap;
+import com.esotericsoftware.kryo.util.IntMap;
 import com.esotericsoftware.kryo.util.MapReferenceResolver;
+import com.esotericsoftware.kryo.util.ObjectMap;
 import io.hekate.codec.Codec;
+import io.hekate.codec.CodecException;
 import io.hekate.codec.DataReader;
 import io.hekate.codec.DataWriter;
 import io.hekate.codec.HekateSerializableClasses;
+import io.hekate.codec.StringDictionary;
+import io.hekate.network.netty.NettyBufferAware;
 import io.hekate.util.format.ToString;
 import io.hekate.util.format.ToStringIgnore;
+import io.netty.buffer.ByteBuf;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.lang.invoke.SerializedLambda;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -47,15 +65,133 @@ import java.util.TreeSet;
 import static java.util.Comparator.comparing;
 
 class KryoCodec implements Codec<Object> {
-    private static class NonResettableClassResolver extends DefaultClassResolver {
+    /**
+     * Class resolver that writes names of unregistered classes via the {@link StringDictionary} (if codec is wrapped with the {@link
+     * io.hekate.codec.DictionaryCodecFactory}).
+     */
+    private static class DictionaryClassResolver extends DefaultClassResolver {
+        private StringDictionary dictionary;
+
+        @Override
+        protected void writeName(Output output, Class type, Registration registration) {
+            if (dictionary == null) {
+                super.writeName(output, type, registration);
+            } else {
+                // Same as the super method but writes the class name via the dictionary.
+                output.writeVarInt(NAME + 2, true);
+
+                int nameId = classToNameId == null ? -1 : classToNameId.get(type, -1);
+
+                if (nameId == -1) {
+                    nameId = nextNameId++;
+
+                    if (classToNameId == null) {
+                        classToNameId = new IdentityObjectIntMap<>();
+                    }
+
+                    classToNameId.put(type, nameId);
+
+                    output.writeVarInt(nameId, true);
+
+                    writeString(type.getName(), dictionary, output);
+                } else {
+                    output.writeVarInt(nameId, true);
+                }
+            }
+        }
+
+        @Override
+        protected Registration readName(Input input) {
+            if (dictionary == null) {
+                return super.readName(input);
+            }
+
+            // Same as the super method but reads the class name via the dictionary.
+            int nameId = input.readVarInt(true);
+
+            if (nameIdToClass == null) {
+                nameIdToClass = new IntMap<>();
+            }
+
+            Class<?> type = nameIdToClass.get(nameId);
+
+            if (type == null) {
+                String name = readString(dictionary, input);
+
+                type = getTypeByName(name);
+
+                if (type == null) {
+                    try {
+                        type = Class.forName(name, false, kryo.getClassLoader());
+                    } catch (ClassNotFoundException e) {
+                        throw new KryoException("Unable to find class: " + name, e);
+                    }
+
+                    if (nameToClass == null) {
+                        nameToClass = new ObjectMap<>();
+                    }
+
+                    nameToClass.put(name, type);
+                }
+
+                nameIdToClass.put(nameId, type);
+            }
+
+            return kryo.getRegistration(type);
+        }
+    }
+
+    private static class NonResettableClassResolver extends DictionaryClassResolver {
         @Override
         public void reset() {
             // Ignore reset in order to preserve cache of auto-registered classes mapping.
         }
     }
 
+    /**
+     * Serializer of strings that uses the {@link StringDictionary} (if codec is wrapped with the {@link
+     * io.hekate.codec.DictionaryCodecFactory}) and falls back to the same format as Kryo's default serializer.
+     */
+    private static class DictionaryStringSerializer extends Serializer<String> {
+        private StringDictionary dictionary;
+
+        public DictionaryStringSerializer() {
+            setImmutable(true);
+            setAcceptsNull(true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, String str) {
+            if (dictionary == null) {
+                output.writeString(str);
+            } else {
+                writeString(str, dictionary, output);
+            }
+        }
+
+        @Override
+        public String read(Kryo kryo, Input input, Class<String> type) {
+            if (dictionary == null) {
+                return input.readString();
+            } else {
+                return readString(dictionary, input);
+            }
+        }
+    }
+
+    /** String that is written as is. */
+    private static final int DICT_LITERAL = 0;
+
+    /** String that is written as is and is added to the dictionary. */
+    private static final int DICT_DEFINE = 1;
+
+    /** Offset of dictionary references. */
+    private static final int DICT_REF_OFFSET = 2;
+
     private static final int BUFFER_SIZE = 4096; // Same with Kryo's Input/Output default buffer size.
 
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocateDirect(0);
+
     private static final boolean KRYO_SERIALIZERS_SUPPORTED;
 
     static {
@@ -75,22 +211,34 @@ class KryoCodec implements Codec<Object> {
     @ToStringIgnore
     private final Kryo kryo;
 
+    @ToStringIgnore
+    private final DictionaryClassResolver classResolver;
+
+    @ToStringIgnore
+    private final DictionaryStringSerializer strings = new DictionaryStringSerializer();
+
     @ToStringIgnore
     private final Input input;
 
     @ToStringIgnore
     private final Output output;
 
+    @ToStringIgnore
+    private final ByteBufferInput bufInput;
+
+    @ToStringIgnore
+    private final KryoByteBufOutput bufOutput;
+
+    private final boolean unsafeIo;
+
     private final boolean stateful;
 
     public KryoCodec(KryoCodecFactory<?> factory) {
         stateful = factory.isCacheUnknownTypes();
 
-        if (stateful) {
-            kryo = statefulKryo();
-        } else {
-            kryo = statelessKryo();
-        }
+        classResolver = stateful ? new NonResettableClassResolver() : new DictionaryClassResolver();
+
+        kryo = new Kryo(classResolver, new MapReferenceResolver());
 
         kryo.setRegistrationRequired(factory.isRegistrationRequired());
 
@@ -102,6 +250,9 @@ class KryoCodec implements Codec<Object> {
             kryo.setInstantiatorStrategy(factory.getInstantiatorStrategy());
         }
 
+        // Override the default serializer of strings (keeps the same registration and the same format if there is no dictionary).
+        kryo.register(String.class, strings);
+
         // Register Hekate-internal classes
         HekateSerializableClasses.get().forEach(kryo::register);
 
@@ -117,15 +268,17 @@ class KryoCodec implements Codec<Object> {
         kryo.register(TreeMap.class);
         kryo.register(LinkedHashMap.class);
 
-        // Register custom classes.
-        if (factory.getKnownTypes() != null && !factory.getKnownTypes().isEmpty()) {
-            SortedSet<Class<?>> sortedTypes = new TreeSet<>(comparing(Class::getName));
+        // Register custom classes (both explicitly specified and found by classpath scanning).
+        SortedSet<Class<?>> sortedTypes = new TreeSet<>(comparing(Class::getName));
 
+        if (factory.getKnownTypes() != null) {
             sortedTypes.addAll(factory.getKnownTypes());
-
-            sortedTypes.forEach(kryo::register);
         }
 
+        sortedTypes.addAll(factory.scannedTypes());
+
+        sortedTypes.forEach(kryo::register);
+
         // Try to register extended serializers for the JDK classes that are not supported by Kryo out of the box.
         if (KRYO_SERIALIZERS_SUPPORTED) {
             JavaKaffeeSerializersRegistrar.register(kryo);
@@ -148,13 +301,49 @@ class KryoCodec implements Codec<Object> {
             factory.getDefaultSerializers().forEach(kryo::addDefaultSerializer);
         }
 
-        if (factory.isUnsafeIo()) {
+        unsafeIo = factory.isUnsafeIo();
+
+        if (unsafeIo) {
             input = new UnsafeInput(BUFFER_SIZE);
             output = new UnsafeOutput(BUFFER_SIZE);
+            bufInput = new UnsafeMemoryInput(EMPTY_BUFFER);
         } else {
             input = new Input(BUFFER_SIZE);
             output = new Output(BUFFER_SIZE);
+            bufInput = new ByteBufferInput(EMPTY_BUFFER);
         }
+
+        bufOutput = new KryoByteBufOutput(unsafeIo);
+    }
+
+    /**
+     * Computes a fingerprint of all registrations of this codec (see {@link KryoCodecFactory#fingerprint()}).
+     *
+     * @return Fingerprint.
+     */
+    public String fingerprint() {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to initialize SHA-256 message digest.", e);
+        }
+
+        digest.update((byte)(unsafeIo ? 1 : 0));
+        digest.update((byte)(kryo.getReferences() ? 1 : 0));
+
+        for (int id = 0; id < kryo.getNextRegistrationId(); id++) {
+            Registration reg = kryo.getRegistration(id);
+
+            if (reg != null) {
+                String entry = id + ":" + reg.getType().getName() + ':' + reg.getSerializer().getClass().getName() + '\n';
+
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
     }
 
     @Override
@@ -169,6 +358,53 @@ class KryoCodec implements Codec<Object> {
 
     @Override
     public Object decode(DataReader in) throws IOException {
+        StringDictionary dictionary = in instanceof StringDictionary ? (StringDictionary)in : null;
+
+        classResolver.dictionary = dictionary;
+        strings.dictionary = dictionary;
+
+        try {
+            return doDecode(in);
+        } catch (KryoException e) {
+            // Unwrap dictionary errors.
+            if (e.getCause() instanceof CodecException) {
+                throw (CodecException)e.getCause();
+            }
+
+            throw e;
+        } finally {
+            classResolver.dictionary = null;
+            strings.dictionary = null;
+        }
+    }
+
+    @Override
+    public void encode(Object obj, DataWriter out) throws IOException {
+        StringDictionary dictionary = out instanceof StringDictionary ? (StringDictionary)out : null;
+
+        classResolver.dictionary = dictionary;
+        strings.dictionary = dictionary;
+
+        try {
+            doEncode(obj, out);
+        } finally {
+            classResolver.dictionary = null;
+            strings.dictionary = null;
+        }
+    }
+
+    private Object doDecode(DataReader in) throws IOException {
+        ByteBuf buf = bufferOf(in);
+
+        if (buf != null && buf.nioBufferCount() == 1) {
+            ByteBuffer nioBuf = buf.nioBuffer(buf.readerIndex(), buf.readableBytes());
+
+            // Unsafe input can only work with direct memory.
+            if (!unsafeIo || nioBuf.isDirect()) {
+                return decodeFromBuffer(buf, nioBuf);
+            }
+        }
+
         input.setInputStream(in.asStream());
 
         try {
@@ -178,8 +414,15 @@ class KryoCodec implements Codec<Object> {
         }
     }
 
-    @Override
-    public void encode(Object obj, DataWriter out) throws IOException {
+    private void doEncode(Object obj, DataWriter out) throws IOException {
+        ByteBuf buf = bufferOf(out);
+
+        if (buf != null && buf.nioBufferCount() == 1) {
+            encodeToBuffer(obj, buf);
+
+            return;
+        }
+
         output.setOutputStream(out.asStream());
 
         try {
@@ -191,12 +434,83 @@ class KryoCodec implements Codec<Object> {
         }
     }
 
-    private Kryo statelessKryo() {
-        return new Kryo(new DefaultClassResolver(), new MapReferenceResolver());
+    private Object decodeFromBuffer(ByteBuf buf, ByteBuffer nioBuf) {
+        bufInput.setBuffer(nioBuf);
+
+        if (unsafeIo) {
+            bufInput.order(ByteOrder.nativeOrder());
+        }
+
+        try {
+            Object obj = kryo.readClassAndObject(bufInput);
+
+            buf.skipBytes(bufInput.position());
+
+            return obj;
+        } finally {
+            bufInput.setBuffer(EMPTY_BUFFER);
+        }
     }
 
-    private Kryo statefulKryo() {
-        return new Kryo(new NonResettableClassResolver(), new MapReferenceResolver());
+    private void encodeToBuffer(Object obj, ByteBuf buf) {
+        bufOutput.setBuffer(buf);
+
+        try {
+            kryo.writeClassAndObject(bufOutput, obj);
+
+            bufOutput.commit();
+        } finally {
+            bufOutput.detach();
+        }
+    }
+
+    private static ByteBuf bufferOf(Object dataStream) {
+        return dataStream instanceof NettyBufferAware ? ((NettyBufferAware)dataStream).buffer() : null;
+    }
+
+    private static void writeString(String str, StringDictionary dictionary, Output output) {
+        int slot = str == null ? -1 : dictionary.lookup(str);
+
+        if (slot >= 0) {
+            output.writeVarInt(slot + DICT_REF_OFFSET, true);
+        } else {
+            int newSlot = str == null ? -1 : dictionary.define(str);
+
+            if (newSlot < 0) {
+                output.writeVarInt(DICT_LITERAL, true);
+            } else {
+                output.writeVarInt(DICT_DEFINE, true);
+                output.writeVarInt(newSlot, true);
+            }
+
+            output.writeString(str);
+        }
+    }
+
+    private static String readString(StringDictionary dictionary, Input input) {
+        try {
+            int tag = input.readVarInt(true);
+
+            switch (tag) {
+                case DICT_LITERAL: {
+                    return input.readString();
+                }
+                case DICT_DEFINE: {
+                    int slot = input.readVarInt(true);
+
+                    String str = input.readString();
+
+                    dictionary.put(slot, str);
+
+                    return str;
+                }
+                default: {
+                    return dictionary.get(tag - DICT_REF_OFFSET);
+                }
+            }
+        } catch (CodecException e) {
+            throw new KryoException(e.getMessage(), e);
+        }
     }
 
     @Override
@@ -26,10 +26,12 @@ import io.hekate.codec.Codec;
 import io.hekate.codec.CodecFactory;
 import io.hekate.codec.DataReader;
 import io.hekate.codec.DataWriter;
+import io.hekate.codec.VerifiableCodecFactory;
 import io.hekate.core.Hekate;
 import io.hekate.core.HekateBootstrap;
 import io.hekate.util.format.ToString;
 import io.hekate.util.format.ToStringIgnore;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +39,9 @@ import java.util.Map;
 import org.objenesis.strategy.InstantiatorStrategy;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
 /**
  * <span class="startHere">&laquo; start here</span><a href="https://github.com/EsotericSoftware/kryo" target="_blank">Kryo</a>-based
  * implementation of {@link CodecFactory} interface.
@@ -84,10 +89,16 @@ import org.objenesis.strategy.StdInstantiatorStrategy;
  *
  * @see HekateBootstrap#setDefaultCodec(CodecFactory)
  */
-public class KryoCodecFactory<T> implements CodecFactory<T> {
+public class KryoCodecFactory<T> implements VerifiableCodecFactory<T> {
     /** See {@link #setKnownTypes(List)}. */
     private List<Class<?>> knownTypes;
 
+    /** See {@link #setScanPackages(List)}. */
+    private List<String> scanPackages;
+
+    /** See {@link #setScanAnnotation(Class)}. */
+    private Class<? extends Annotation> scanAnnotation;
+
     /** See {@link #setRegistrationRequired(boolean)}. */
     private boolean registrationRequired;
 
@@ -110,12 +121,40 @@ public class KryoCodecFactory<T> implements CodecFactory<T> {
     @ToStringIgnore
     private InstantiatorStrategy instantiatorStrategy = new DefaultInstantiatorStrategy(new StdInstantiatorStrategy());
 
+    /** Cached result of classpath scanning (see {@link #scannedTypes()}). */
+    @ToStringIgnore
+    private List<Class<?>> scannedTypes;
+
     @Override
     @SuppressWarnings("unchecked")
     public Codec<T> createCodec() {
         return (Codec<T>)new KryoCodec(this);
     }
 
+    /**
+     * Returns a fingerprint of Kryo registrations if {@link #setKnownTypes(List) known types} are specified or
+     * {@link #setScanPackages(List) scanning} is enabled.
+     *
+     * <p>
+     * Fingerprint is computed over identifiers, classes and serializers of all types that are registered within Kryo (including types
+     * that are registered internally by Hekate) and over the {@link #setUnsafeIo(boolean) IO} mode. If this factory is used as the
+     * {@link HekateBootstrap#setDefaultCodec(CodecFactory) default codec} then nodes with a different fingerprint will be rejected from
+     * joining the cluster.
+     * </p>
+     *
+     * @return Fingerprint or {@code null} if registrations are not customized.
+     */
+    @Override
+    public String fingerprint() {
+        boolean hasKnownTypes = knownTypes != null && !knownTypes.isEmpty();
+
+        if (!hasKnownTypes && !isScanEnabled()) {
+            return null;
+        }
+
+        return new KryoCodec(this).fingerprint();
+    }
+
     /**
      * Returns the list of known java types (see {@link #setKnownTypes(List)}).
      *
@@ -174,6 +213,107 @@ public class KryoCodecFactory<T> implements CodecFactory<T> {
         return this;
     }
 
+    /**
+     * Returns the list of packages for classpath scanning (see {@link #setScanPackages(List)}).
+     *
+     * @return List of packages.
+     */
+    public List<String> getScanPackages() {
+        return scanPackages;
+    }
+
+    /**
+     * Sets the list of packages that should be scanned for types to be registered via {@link Kryo#register(Class)}.
+     *
+     * <p>
+     * If this parameter is specified then all concrete classes and enums of the specified packages (including sub-packages) will be
+     * registered in addition to {@link #setKnownTypes(List) known types}. Scanning can be narrowed down to classes that are annotated
+     * with {@link #setScanAnnotation(Class)}. Scanning is performed once per factory instance when the first codec is created. All types
+     * are registered in alphabetical order of their names, so registration identifiers do not depend on the classpath order.
+     * </p>
+     *
+     * <p>
+     * Scanning requires the <a href="https://github.com/classgraph/classgraph" target="_blank">ClassGraph</a> library to be on the
+     * classpath.
+     * </p>
+     *
+     * <p>
+     * <b>Notice:</b>
+     * Exactly the same types must be found on all cluster nodes. If this factory is used as the
+     * {@link HekateBootstrap#setDefaultCodec(CodecFactory) default codec} then this is verified when a node joins the cluster (see
+     * {@link #fingerprint()}).
+     * </p>
+     *
+     * @param scanPackages List of packages.
+     */
+    public void setScanPackages(List<String> scanPackages) {
+        this.scanPackages = scanPackages;
+
+        resetScannedTypes();
+    }
+
+    /**
+     * Fluent-style version of {@link #setScanPackages(List)}.
+     *
+     * @param scanPackage Package.
+     *
+     * @return This instance.
+     */
+    public KryoCodecFactory<T> withScanPackage(String scanPackage) {
+        if (scanPackages == null) {
+            scanPackages = new ArrayList<>();
+        }
+
+        scanPackages.add(scanPackage);
+
+        resetScannedTypes();
+
+        return this;
+    }
+
+    /**
+     * Returns the annotation that marks types for registration (see {@link #setScanAnnotation(Class)}).
+     *
+     * @return Annotation type.
+     */
+    public Class<? extends Annotation> getScanAnnotation() {
+        return scanAnnotation;
+    }
+
+    /**
+     * Sets the annotation that marks types that should be registered via {@link Kryo#register(Class)}.
+     *
+     * <p>
+     * If this parameter is specified then classpath will be scanned for classes that are annotated with the specified annotation. If
+     * {@link #setScanPackages(List) scan packages} are specified then scanning is limited to those packages; otherwise the whole
+     * classpath is scanned. The annotation must be retained at runtime (or in class files).
+     * </p>
+     *
+     * <p>
+     * Please see {@link #setScanPackages(List)} for more details about scanning.
+     * </p>
+     *
+     * @param scanAnnotation Annotation type.
+     */
+    public void setScanAnnotation(Class<? extends Annotation> scanAnnotation) {
+        this.scanAnnotation = scanAnnotation;
+
+        resetScannedTypes();
+    }
+
+    /**
+     * Fluent-style version of {@link #setScanAnnotation(Class)}.
+     *
+     * @param scanAnnotation Annotation type.
+     *
+     * @return This instance.
+     */
+    public KryoCodecFactory<T> withScanAnnotation(Class<? extends Annotation> scanAnnotation) {
+        setScanAnnotation(scanAnnotation);
+
+        return this;
+    }
+
     /**
      * Returns the flag indicating if registration is required for all serializable classes (see {@link #setRegistrationRequired(boolean)}).
      *
@@ -438,6 +578,44 @@ public class KryoCodecFactory<T> implements CodecFactory<T> {
         return this;
     }
 
+    /**
+     * Returns types that were found by classpath scanning (see {@link #setScanPackages(List)} and {@link #setScanAnnotation(Class)}).
+     *
+     * @return Types sorted by name or an empty list if scanning is not enabled.
+     */
+    synchronized List<Class<?>> scannedTypes() {
+        if (scannedTypes == null) {
+            if (isScanEnabled()) {
+                List<String> packages = scanPackages == null ? emptyList() : scanPackages;
+
+                ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+                if (loader == null) {
+                    loader = KryoCodecFactory.class.getClassLoader();
+                }
+
+                try {
+                    scannedTypes = unmodifiableList(KryoTypeScanner.scan(packages, scanAnnotation, loader));
+                } catch (NoClassDefFoundError e) {
+                    throw new IllegalStateException("Kryo types scanning requires ClassGraph library to be on the classpath "
+                        + "[group-id=io.github.classgraph, artifact-id=classgraph].", e);
+                }
+            } else {
+                scannedTypes = emptyList();
+            }
+        }
+
+        return scannedTypes;
+    }
+
+    private boolean isScanEnabled() {
+        return scanAnnotation != null || (scanPackages != null && !scanPackages.isEmpty());
+    }
+
+    private synchronized void resetScannedTypes() {
+        scannedTypes = null;
+    }
+
     @Override
     public String toString() {
         return ToString.format(this);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.kryo;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ClassInfoList;
+import io.github.classgraph.ScanResult;
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Classpath scanner for {@link KryoCodecFactory#setScanPackages(List)} and {@link KryoCodecFactory#setScanAnnotation(Class)}.
+ *
+ * <p>
+ * This class is the only place that depends on the optional ClassGraph library, so that Kryo codecs could be used without it if
+ * scanning is not enabled.
+ * </p>
+ */
+final class KryoTypeScanner {
+    private KryoTypeScanner() {
+        // No-op.
+    }
+
+    /**
+     * Scans the classpath for types that should be registered with Kryo.
+     *
+     * @param packages Packages to scan (all packages if empty).
+     * @param annotation Annotation that marks types for registration (all types if {@code null}).
+     * @param loader Class loader.
+     *
+     * @return Types sorted by name.
+     */
+    public static List<Class<?>> scan(List<String> packages, Class<? extends Annotation> annotation, ClassLoader loader) {
+        ClassGraph graph = new ClassGraph()
+            .enableClassInfo()
+            .overrideClassLoaders(loader);
+
+        if (!packages.isEmpty()) {
+            graph.whitelistPackages(packages.toArray(new String[0]));
+        }
+
+        if (annotation != null) {
+            graph.enableAnnotationInfo();
+        }
+
+        try (ScanResult result = graph.scan()) {
+            ClassInfoList found;
+
+            if (annotation == null) {
+                found = result.getAllStandardClasses();
+            } else {
+                found = result.getClassesWithAnnotation(annotation.getName());
+            }
+
+            return found.stream()
+                .filter(KryoTypeScanner::isRegistrable)
+                .sorted(comparing(ClassInfo::getName))
+                .map(ClassInfo::loadClass)
+                .collect(toList());
+        }
+    }
+
+    private static boolean isRegistrable(ClassInfo type) {
+        // Enums with constant-specific bodies are abstract, but Kryo still writes them via the enum type.
+        return !type.isInterfaceOrAnnotation()
+            && (!type.isAbstract() || type.isEnum())
+            && !type.isAnonymousInnerClass()
+            && !type.isSynthetic();
+    }
+}
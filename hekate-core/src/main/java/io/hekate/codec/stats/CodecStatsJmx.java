@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.core.jmx.JmxTypeName;
+import javax.management.MXBean;
+
+/**
+ * JMX interface for {@link StatsCodecFactory}.
+ */
+@MXBean
+@JmxTypeName("CodecStats")
+public interface CodecStatsJmx {
+    /**
+     * Returns the value of {@link StatsCodecFactory#name()}.
+     *
+     * @return Name of this codec.
+     */
+    String getName();
+
+    /**
+     * Returns the string representation of the {@link StatsCodecFactory#delegate()} factory.
+     *
+     * @return String representation of the codec factory.
+     */
+    String getCodecFactory();
+
+    /**
+     * Returns the value of {@link StatsCodecFactory#getSamplingInterval()}.
+     *
+     * @return Sampling interval.
+     */
+    int getSamplingInterval();
+
+    /**
+     * Returns the number of message types that are tracked individually.
+     *
+     * @return Number of message types.
+     */
+    int getTrackedTypes();
+
+    /**
+     * Returns the top {@link StatsCodecFactory#getTopSize() N} message types by the total amount of encoded bytes.
+     *
+     * @return Message types statistics.
+     */
+    CodecTypeStats[] getTopByBytes();
+
+    /**
+     * Returns the top {@link StatsCodecFactory#getTopSize() N} message types by the number of encoded and decoded messages.
+     *
+     * @return Message types statistics.
+     */
+    CodecTypeStats[] getTopByCount();
+
+    /**
+     * Returns the top {@link StatsCodecFactory#getTopSize() N} message types by the estimated total time spent in encoding and
+     * decoding.
+     *
+     * @return Message types statistics.
+     */
+    CodecTypeStats[] getTopByTime();
+}
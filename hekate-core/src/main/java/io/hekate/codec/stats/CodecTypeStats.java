@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.util.format.ToString;
+
+/**
+ * Snapshot of codec statistics of a single message type.
+ *
+ * @see StatsCodecFactory#stats()
+ */
+public class CodecTypeStats {
+    private final String type;
+
+    private final long encodeCount;
+
+    private final long decodeCount;
+
+    private final long encodedBytes;
+
+    private final long maxSize;
+
+    private final long avgEncodeNanos;
+
+    private final long avgDecodeNanos;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param type See {@link #getType()}.
+     * @param encodeCount See {@link #getEncodeCount()}.
+     * @param decodeCount See {@link #getDecodeCount()}.
+     * @param encodedBytes See {@link #getEncodedBytes()}.
+     * @param maxSize See {@link #getMaxSize()}.
+     * @param avgEncodeNanos See {@link #getAvgEncodeNanos()}.
+     * @param avgDecodeNanos See {@link #getAvgDecodeNanos()}.
+     */
+    public CodecTypeStats(
+        String type,
+        long encodeCount,
+        long decodeCount,
+        long encodedBytes,
+        long maxSize,
+        long avgEncodeNanos,
+        long avgDecodeNanos
+    ) {
+        this.type = type;
+        this.encodeCount = encodeCount;
+        this.decodeCount = decodeCount;
+        this.encodedBytes = encodedBytes;
+        this.maxSize = maxSize;
+        this.avgEncodeNanos = avgEncodeNanos;
+        this.avgDecodeNanos = avgDecodeNanos;
+    }
+
+    /**
+     * Returns the class name of messages or {@value StatsCodecFactory#OTHER_TYPE} for the aggregated statistics of messages that are
+     * not tracked individually (see {@link StatsCodecFactory#setMaxTypes(int)}).
+     *
+     * @return Class name of messages.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of encoded messages.
+     *
+     * @return Number of encoded messages.
+     */
+    public long getEncodeCount() {
+        return encodeCount;
+    }
+
+    /**
+     * Returns the number of decoded messages.
+     *
+     * @return Number of decoded messages.
+     */
+    public long getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * Returns the total amount of encoded bytes.
+     *
+     * @return Total amount of encoded bytes.
+     */
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    /**
+     * Returns the average size of an encoded message in bytes.
+     *
+     * @return Average size of an encoded message.
+     */
+    public long getAvgSize() {
+        return encodeCount > 0 ? encodedBytes / encodeCount : 0;
+    }
+
+    /**
+     * Returns the maximum size of an encoded message in bytes.
+     *
+     * @return Maximum size of an encoded message.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the average encoding time in nanoseconds (based on sampled messages).
+     *
+     * @return Average encoding time in nanoseconds.
+     */
+    public long getAvgEncodeNanos() {
+        return avgEncodeNanos;
+    }
+
+    /**
+     * Returns the average decoding time in nanoseconds (based on sampled messages).
+     *
+     * @return Average decoding time in nanoseconds.
+     */
+    public long getAvgDecodeNanos() {
+        return avgDecodeNanos;
+    }
+
+    /**
+     * Returns the estimated total time in nanoseconds that was spent in encoding and decoding of messages.
+     *
+     * @return Estimated total time in nanoseconds.
+     */
+    public long getTotalTimeNanos() {
+        return avgEncodeNanos * encodeCount + avgDecodeNanos * decodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import java.util.Comparator;
+import java.util.List;
+
+class DefaultCodecStatsJmx implements CodecStatsJmx {
+    private final StatsCodecFactory<?> factory;
+
+    public DefaultCodecStatsJmx(StatsCodecFactory<?> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public String getName() {
+        return factory.name();
+    }
+
+    @Override
+    public String getCodecFactory() {
+        return factory.delegate().toString();
+    }
+
+    @Override
+    public int getSamplingInterval() {
+        return factory.getSamplingInterval();
+    }
+
+    @Override
+    public int getTrackedTypes() {
+        return factory.trackedTypes();
+    }
+
+    @Override
+    public CodecTypeStats[] getTopByBytes() {
+        return top(Comparator.comparingLong(CodecTypeStats::getEncodedBytes));
+    }
+
+    @Override
+    public CodecTypeStats[] getTopByCount() {
+        return top(Comparator.comparingLong(stats -> stats.getEncodeCount() + stats.getDecodeCount()));
+    }
+
+    @Override
+    public CodecTypeStats[] getTopByTime() {
+        return top(Comparator.comparingLong(CodecTypeStats::getTotalTimeNanos));
+    }
+
+    private CodecTypeStats[] top(Comparator<CodecTypeStats> comparator) {
+        List<CodecTypeStats> stats = factory.stats();
+
+        return stats.stream()
+            .sorted(comparator.reversed())
+            .limit(factory.getTopSize())
+            .toArray(CodecTypeStats[]::new);
+    }
+}
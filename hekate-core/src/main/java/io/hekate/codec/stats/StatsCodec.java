@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.DataReader;
+import io.hekate.codec.DataWriter;
+import io.hekate.util.format.ToString;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+class StatsCodec<T> implements Codec<T> {
+    private final Codec<T> delegate;
+
+    private final StatsCodecFactory<T> factory;
+
+    private final int samplingInterval;
+
+    public StatsCodec(Codec<T> delegate, StatsCodecFactory<T> factory, int samplingInterval) {
+        this.delegate = delegate;
+        this.factory = factory;
+        this.samplingInterval = samplingInterval;
+    }
+
+    @Override
+    public void encode(T obj, DataWriter out) throws IOException {
+        int sizeBefore = out.size();
+
+        if (isSampled()) {
+            long start = System.nanoTime();
+
+            delegate.encode(obj, out);
+
+            long nanos = System.nanoTime() - start;
+
+            int size = out.size() - sizeBefore;
+
+            TypeStats stats = factory.statsOf(obj);
+
+            stats.onEncode(size);
+            stats.onEncodeSample(size, nanos);
+        } else {
+            delegate.encode(obj, out);
+
+            factory.statsOf(obj).onEncode(out.size() - sizeBefore);
+        }
+    }
+
+    @Override
+    public T decode(DataReader in) throws IOException {
+        if (isSampled()) {
+            long start = System.nanoTime();
+
+            T obj = delegate.decode(in);
+
+            long nanos = System.nanoTime() - start;
+
+            TypeStats stats = factory.statsOf(obj);
+
+            stats.onDecode();
+            stats.onDecodeSample(nanos);
+
+            return obj;
+        } else {
+            T obj = delegate.decode(in);
+
+            factory.statsOf(obj).onDecode();
+
+            return obj;
+        }
+    }
+
+    @Override
+    public boolean isStateful() {
+        return delegate.isStateful();
+    }
+
+    @Override
+    public Class<T> baseType() {
+        return delegate.baseType();
+    }
+
+    private boolean isSampled() {
+        return samplingInterval <= 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecFactory;
+import io.hekate.codec.VerifiableCodecFactory;
+import io.hekate.core.internal.util.ArgAssert;
+import io.hekate.core.internal.util.ConfigCheck;
+import io.hekate.core.jmx.JmxSupport;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec factory that collects per-type statistics of messages that are encoded/decoded by another codec factory.
+ *
+ * <p>
+ * Statistics are collected per class of top-level objects that are passed to the codec (f.e. messages of a messaging channel) and
+ * include the number of encoded/decoded messages, the total amount of encoded bytes and the encoding/decoding time. In order to keep the
+ * overhead low, only each {@link #setSamplingInterval(int) N-th} message (on average) is timed, while counters are updated for every
+ * message. The number of individually tracked types is bounded by {@link #setMaxTypes(int)}; statistics of all other types are
+ * aggregated under the {@value #OTHER_TYPE} name.
+ * </p>
+ *
+ * <p>
+ * This factory can be used as the {@link io.hekate.core.HekateBootstrap#setDefaultCodec(CodecFactory) default codec} and as the codec of
+ * {@link io.hekate.messaging.MessagingChannelConfig#setMessageCodec(CodecFactory) messaging channels}. In such cases its statistics are
+ * automatically exposed as metrics of the node's {@link MeterRegistry} and (if {@link io.hekate.core.jmx.JmxService} is registered) via
+ * the {@link CodecStatsJmx} interface. The name of statistics is {@value #DEFAULT_NAME} for the default codec and the channel name for
+ * messaging channels. Statistics are collected per instance of this factory; if the same instance is shared by multiple components then
+ * only the first one gives it a name.
+ * </p>
+ *
+ * <p>
+ * The following metrics are registered (tagged with {@code codec} name and message {@code type}):
+ * </p>
+ * <ul>
+ * <li>{@code hekate.codec.encode.count} - number of encoded messages</li>
+ * <li>{@code hekate.codec.decode.count} - number of decoded messages</li>
+ * <li>{@code hekate.codec.encode.bytes} - total amount of encoded bytes</li>
+ * <li>{@code hekate.codec.size} - distribution of encoded message sizes (sampled)</li>
+ * <li>{@code hekate.codec.encode.time} - encoding time (sampled)</li>
+ * <li>{@code hekate.codec.decode.time} - decoding time (sampled)</li>
+ * </ul>
+ *
+ * @param <T> Base data type that is supported by the {@link Codec}.
+ */
+public class StatsCodecFactory<T> implements VerifiableCodecFactory<T>, JmxSupport<CodecStatsJmx> {
+    /** Name of statistics of the {@link io.hekate.core.HekateBootstrap#setDefaultCodec(CodecFactory) default codec}. */
+    public static final String DEFAULT_NAME = "default";
+
+    /** Type name of statistics that aggregate all messages that are not tracked individually (see {@link #setMaxTypes(int)}). */
+    public static final String OTHER_TYPE = "other";
+
+    /** Default value (={@value}) for {@link #setSamplingInterval(int)}. */
+    public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+
+    /** Default value (={@value}) for {@link #setMaxTypes(int)}. */
+    public static final int DEFAULT_MAX_TYPES = 64;
+
+    /** Default value (={@value}) for {@link #setTopSize(int)}. */
+    public static final int DEFAULT_TOP_SIZE = 10;
+
+    private final CodecFactory<T> delegate;
+
+    /** See {@link #setSamplingInterval(int)}. */
+    private int samplingInterval = DEFAULT_SAMPLING_INTERVAL;
+
+    /** See {@link #setMaxTypes(int)}. */
+    private int maxTypes = DEFAULT_MAX_TYPES;
+
+    /** See {@link #setTopSize(int)}. */
+    private int topSize = DEFAULT_TOP_SIZE;
+
+    @ToStringIgnore
+    private final Map<Class<?>, TypeStats> types = new ConcurrentHashMap<>();
+
+    @ToStringIgnore
+    private final TypeStats other = new TypeStats(OTHER_TYPE);
+
+    /** See {@link #name()}. */
+    private volatile String name;
+
+    @ToStringIgnore
+    private volatile MeterRegistry metrics;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param delegate Factory of codecs that should be instrumented.
+     */
+    public StatsCodecFactory(CodecFactory<T> delegate) {
+        ArgAssert.notNull(delegate, "Delegate");
+
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Codec<T> createCodec() {
+        ConfigCheck check = ConfigCheck.get(getClass());
+
+        check.positive(samplingInterval, "sampling interval");
+        check.positive(maxTypes, "max types");
+        check.positive(topSize, "top size");
+
+        return new StatsCodec<>(delegate.createCodec(), this, samplingInterval);
+    }
+
+    @Override
+    public String fingerprint() {
+        if (delegate instanceof VerifiableCodecFactory) {
+            return ((VerifiableCodecFactory<T>)delegate).fingerprint();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Registers metrics of this factory to the specified registry.
+     *
+     * <p>
+     * This method is called automatically if this factory is used by the {@link io.hekate.core.Hekate} node (see the class-level
+     * documentation). Only the first call has effect; subsequent calls are ignored.
+     * </p>
+     *
+     * @param name Name of statistics (used as the {@code codec} tag of metrics).
+     * @param metrics Metrics registry.
+     *
+     * @return {@code true} if metrics were registered or {@code false} if this factory is already bound to another registry.
+     */
+    public synchronized boolean bindTo(String name, MeterRegistry metrics) {
+        ArgAssert.notEmpty(name, "Name");
+        ArgAssert.notNull(metrics, "Metrics registry");
+
+        if (this.metrics == null) {
+            this.name = name;
+            this.metrics = metrics;
+
+            types.values().forEach(stats -> stats.register(name, metrics));
+
+            other.register(name, metrics);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the name of statistics (see {@link #bindTo(String, MeterRegistry)}).
+     *
+     * @return Name or {@code null} if this factory is not bound to any metrics registry yet.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the factory of codecs that are instrumented by this factory.
+     *
+     * @return Factory of codecs that are instrumented by this factory.
+     */
+    public CodecFactory<T> delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns a snapshot of statistics of all message types ordered by the total amount of encoded bytes (in descending order).
+     *
+     * @return Statistics of all message types.
+     */
+    public List<CodecTypeStats> stats() {
+        List<CodecTypeStats> stats = new ArrayList<>(types.size() + 1);
+
+        types.values().forEach(type -> stats.add(type.snapshot()));
+
+        CodecTypeStats otherStats = other.snapshot();
+
+        if (otherStats.getEncodeCount() > 0 || otherStats.getDecodeCount() > 0) {
+            stats.add(otherStats);
+        }
+
+        stats.sort(Comparator.comparingLong(CodecTypeStats::getEncodedBytes).reversed());
+
+        return stats;
+    }
+
+    /**
+     * Returns the sampling interval (see {@link #setSamplingInterval(int)}).
+     *
+     * @return Sampling interval.
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Sets the sampling interval of time measurements and of the size distribution.
+     *
+     * <p>
+     * Each message is timed with the probability of {@code 1/samplingInterval}. Value 1 means that all messages are timed. Message
+     * counters and the total amount of encoded bytes are updated for every message regardless of this parameter.
+     * </p>
+     *
+     * <p>
+     * Value of this parameter must be above zero. Default value is {@value #DEFAULT_SAMPLING_INTERVAL}.
+     * </p>
+     *
+     * @param samplingInterval Sampling interval.
+     */
+    public void setSamplingInterval(int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Fluent-style version of {@link #setSamplingInterval(int)}.
+     *
+     * @param samplingInterval Sampling interval.
+     *
+     * @return This instance.
+     */
+    public StatsCodecFactory<T> withSamplingInterval(int samplingInterval) {
+        setSamplingInterval(samplingInterval);
+
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of message types that are tracked individually (see {@link #setMaxTypes(int)}).
+     *
+     * @return Maximum number of message types.
+     */
+    public int getMaxTypes() {
+        return maxTypes;
+    }
+
+    /**
+     * Sets the maximum number of message types that are tracked individually.
+     *
+     * <p>
+     * Once this limit is reached, statistics of all new types are aggregated under the {@value #OTHER_TYPE} name. This parameter bounds
+     * the number of registered metrics.
+     * </p>
+     *
+     * <p>
+     * Value of this parameter must be above zero. Default value is {@value #DEFAULT_MAX_TYPES}.
+     * </p>
+     *
+     * @param maxTypes Maximum number of message types.
+     */
+    public void setMaxTypes(int maxTypes) {
+        this.maxTypes = maxTypes;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMaxTypes(int)}.
+     *
+     * @param maxTypes Maximum number of message types.
+     *
+     * @return This instance.
+     */
+    public StatsCodecFactory<T> withMaxTypes(int maxTypes) {
+        setMaxTypes(maxTypes);
+
+        return this;
+    }
+
+    /**
+     * Returns the number of message types in top-N reports of {@link CodecStatsJmx} (see {@link #setTopSize(int)}).
+     *
+     * @return Number of message types in top-N reports.
+     */
+    public int getTopSize() {
+        return topSize;
+    }
+
+    /**
+     * Sets the number of message types in top-N reports of {@link CodecStatsJmx}.
+     *
+     * <p>
+     * Value of this parameter must be above zero. Default value is {@value #DEFAULT_TOP_SIZE}.
+     * </p>
+     *
+     * @param topSize Number of message types in top-N reports.
+     */
+    public void setTopSize(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Fluent-style version of {@link #setTopSize(int)}.
+     *
+     * @param topSize Number of message types in top-N reports.
+     *
+     * @return This instance.
+     */
+    public StatsCodecFactory<T> withTopSize(int topSize) {
+        setTopSize(topSize);
+
+        return this;
+    }
+
+    @Override
+    public CodecStatsJmx jmx() {
+        return new DefaultCodecStatsJmx(this);
+    }
+
+    int trackedTypes() {
+        return types.size();
+    }
+
+    TypeStats statsOf(Object obj) {
+        if (obj == null) {
+            return other;
+        }
+
+        Class<?> type = obj.getClass();
+
+        TypeStats stats = types.get(type);
+
+        if (stats == null) {
+            if (types.size() >= maxTypes) {
+                return other;
+            }
+
+            stats = types.computeIfAbsent(type, newType -> {
+                TypeStats newStats = new TypeStats(newType.getName());
+
+                // Volatile read.
+                MeterRegistry metrics = this.metrics;
+
+                if (metrics != null) {
+                    newStats.register(name, metrics);
+                }
+
+                return newStats;
+            });
+        }
+
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
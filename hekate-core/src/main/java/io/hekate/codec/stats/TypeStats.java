@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.util.format.ToString;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+class TypeStats {
+    private final String type;
+
+    private final LongAdder encodes = new LongAdder();
+
+    private final LongAdder decodes = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder encodeSamples = new LongAdder();
+
+    private final LongAdder encodeNanos = new LongAdder();
+
+    private final LongAdder decodeSamples = new LongAdder();
+
+    private final LongAdder decodeNanos = new LongAdder();
+
+    private volatile DistributionSummary sizeMeter;
+
+    private volatile Timer encodeMeter;
+
+    private volatile Timer decodeMeter;
+
+    public TypeStats(String type) {
+        this.type = type;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public synchronized void register(String codec, MeterRegistry metrics) {
+        if (sizeMeter != null) {
+            return;
+        }
+
+        FunctionCounter.builder("hekate.codec.encode.count", encodes, LongAdder::doubleValue)
+            .tag("codec", codec)
+            .tag("type", type)
+            .register(metrics);
+
+        FunctionCounter.builder("hekate.codec.decode.count", decodes, LongAdder::doubleValue)
+            .tag("codec", codec)
+            .tag("type", type)
+            .register(metrics);
+
+        FunctionCounter.builder("hekate.codec.encode.bytes", bytes, LongAdder::doubleValue)
+            .tag("codec", codec)
+            .tag("type", type)
+            .baseUnit("bytes")
+            .register(metrics);
+
+        encodeMeter = Timer.builder("hekate.codec.encode.time")
+            .tag("codec", codec)
+            .tag("type", type)
+            .register(metrics);
+
+        decodeMeter = Timer.builder("hekate.codec.decode.time")
+            .tag("codec", codec)
+            .tag("type", type)
+            .register(metrics);
+
+        // Must be the last one since it is used as a flag of registration.
+        sizeMeter = DistributionSummary.builder("hekate.codec.size")
+            .tag("codec", codec)
+            .tag("type", type)
+            .baseUnit("bytes")
+            .register(metrics);
+    }
+
+    public void onEncode(int size) {
+        encodes.increment();
+
+        bytes.add(size);
+
+        maxSize.accumulate(size);
+    }
+
+    public void onEncodeSample(int size, long nanos) {
+        encodeSamples.increment();
+        encodeNanos.add(nanos);
+
+        DistributionSummary sizeMeter = this.sizeMeter;
+
+        if (sizeMeter != null) {
+            sizeMeter.record(size);
+
+            encodeMeter.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void onDecode() {
+        decodes.increment();
+    }
+
+    public void onDecodeSample(long nanos) {
+        decodeSamples.increment();
+        decodeNanos.add(nanos);
+
+        if (sizeMeter != null) {
+            decodeMeter.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public CodecTypeStats snapshot() {
+        return new CodecTypeStats(
+            type,
+            encodes.sum(),
+            decodes.sum(),
+            bytes.sum(),
+            maxSize.get(),
+            average(encodeNanos, encodeSamples),
+            average(decodeNanos, decodeSamples)
+        );
+    }
+
+    private static long average(LongAdder total, LongAdder samples) {
+        long count = samples.sum();
+
+        return count > 0 ? total.sum() / count : 0;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
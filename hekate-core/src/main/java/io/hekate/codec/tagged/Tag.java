@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns an explicit tag to a field that is encoded by the {@link TaggedCodecFactory}.
+ *
+ * <p>
+ * Tags identify fields in the binary format and must be unique within the class hierarchy. Once assigned, a tag must never be reused for
+ * a different field, but the field itself can be freely renamed. Fields without this annotation get a tag that is derived from the field
+ * name; such tags are less compact and change if the field gets renamed. If a superclass field is hidden by a subclass field with the
+ * same name, then the tag of the superclass field is derived from both the field name and the name of its declaring class.
+ * </p>
+ *
+ * @see TaggedCodecFactory
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Tag {
+    /**
+     * Tag of the field (must be above zero).
+     *
+     * @return Tag of the field.
+     */
+    int value();
+}
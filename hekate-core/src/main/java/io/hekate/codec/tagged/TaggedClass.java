@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import io.hekate.codec.CodecException;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class TaggedClass {
+    private final Class<?> type;
+
+    @ToStringIgnore
+    private final Constructor<?> constructor;
+
+    private final TaggedField[] fields;
+
+    @ToStringIgnore
+    private final Map<Integer, TaggedField> byTag;
+
+    private TaggedClass(Class<?> type, Constructor<?> constructor, TaggedField[] fields, Map<Integer, TaggedField> byTag) {
+        this.type = type;
+        this.constructor = constructor;
+        this.fields = fields;
+        this.byTag = byTag;
+    }
+
+    public static TaggedClass of(Class<?> type) throws CodecException {
+        Constructor<?> constructor = null;
+
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers()) && !isJdkType(type)) {
+            try {
+                constructor = type.getDeclaredConstructor();
+
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException | RuntimeException e) {
+                // Not supported, will fallback to the Java serialization (if possible).
+                constructor = null;
+            }
+        }
+
+        if (constructor == null) {
+            return new TaggedClass(type, null, new TaggedField[0], new HashMap<>());
+        }
+
+        List<TaggedField> fields = new ArrayList<>();
+        Map<Integer, TaggedField> byTag = new HashMap<>();
+        Set<String> names = new HashSet<>();
+
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            for (Field field : cls.getDeclaredFields()) {
+                int mod = field.getModifiers();
+
+                if (!Modifier.isStatic(mod) && !Modifier.isTransient(mod) && !field.isSynthetic()) {
+                    // Field is hidden by a subclass field with the same name (subclasses are processed first).
+                    boolean hidden = !names.add(field.getName());
+
+                    TaggedField tagged = new TaggedField(field, hidden);
+
+                    TaggedField existing = byTag.put(tagged.tag(), tagged);
+
+                    if (existing != null) {
+                        throw new CodecException("Duplicated field tag (use @" + Tag.class.getSimpleName() + " to assign unique tags) "
+                            + "[type=" + type.getName() + ", tag=" + tagged.tag() + ", field1=" + existing.name()
+                            + ", field2=" + tagged.name() + ']');
+                    }
+
+                    fields.add(tagged);
+                }
+            }
+        }
+
+        fields.sort(Comparator.comparingInt(TaggedField::tag));
+
+        return new TaggedClass(type, constructor, fields.toArray(new TaggedField[0]), byTag);
+    }
+
+    public boolean isTaggable() {
+        return constructor != null;
+    }
+
+    public Object newInstance() throws CodecException {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new CodecException("Failed to instantiate object [type=" + type.getName() + ']', e);
+        }
+    }
+
+    public TaggedField[] fields() {
+        return fields;
+    }
+
+    public TaggedField field(int tag) {
+        return byTag.get(tag);
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.");
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,1007 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecException;
+import io.hekate.codec.DataReader;
+import io.hekate.codec.DataWriter;
+import io.hekate.codec.StringDictionary;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class TaggedCodec implements Codec<Object> {
+    /** Field tag that marks the end of an object. */
+    static final int END = 0;
+
+    /** Class reference that is followed by the class name (other references point to previously written class names). */
+    private static final int NEW_CLASS = 0;
+
+    // Value types.
+    private static final byte NULL = 0;
+
+    private static final byte TRUE = 1;
+
+    private static final byte FALSE = 2;
+
+    private static final byte BYTE = 3;
+
+    private static final byte SHORT = 4;
+
+    private static final byte CHAR = 5;
+
+    private static final byte INT = 6;
+
+    private static final byte LONG = 7;
+
+    private static final byte FLOAT = 8;
+
+    private static final byte DOUBLE = 9;
+
+    private static final byte STRING = 10;
+
+    private static final byte BYTES = 11;
+
+    private static final byte BIG_INTEGER = 12;
+
+    private static final byte BIG_DECIMAL = 13;
+
+    /** Enum with the class name. */
+    private static final byte ENUM = 14;
+
+    /** Enum of the declared type (without the class name). */
+    private static final byte ENUM_DECLARED = 15;
+
+    /** Tagged object with the class name. */
+    private static final byte OBJECT = 16;
+
+    /** Tagged object of the declared type (without the class name). */
+    private static final byte OBJECT_DECLARED = 17;
+
+    private static final byte ARRAY = 18;
+
+    private static final byte LIST = 19;
+
+    private static final byte SET = 20;
+
+    private static final byte MAP = 21;
+
+    /** Object that doesn't support tagging and is encoded via the Java serialization. */
+    private static final byte SERIALIZED = 22;
+
+    private static final byte UUID_VAL = 23;
+
+    private static final byte NODE_ID = 24;
+
+    private static final byte DATE = 25;
+
+    private static final byte INSTANT = 26;
+
+    private static final byte DURATION = 27;
+
+    private static final byte LOCAL_DATE = 28;
+
+    private static final byte LOCAL_TIME = 29;
+
+    private static final byte LOCAL_DATE_TIME = 30;
+
+    private static final byte OFFSET_DATE_TIME = 31;
+
+    private static final byte ZONED_DATE_TIME = 32;
+
+    /** Optional that is followed by its value (or by {@link #NULL} if empty). */
+    private static final byte OPTIONAL = 33;
+
+    /** Array of primitives (other than {@code byte[]}) that are written without per-element value types. */
+    private static final byte PRIMITIVE_ARRAY = 34;
+
+    /** Reference to a string in the {@link StringDictionary}. */
+    private static final byte STRING_REF = 35;
+
+    /** String that is added to the {@link StringDictionary}. */
+    private static final byte STRING_DEFINE = 36;
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    private static final Map<Class<?>, Class<?>> BOXED = new HashMap<>();
+
+    static {
+        Class<?>[][] types = {
+            {boolean.class, Boolean.class},
+            {byte.class, Byte.class},
+            {short.class, Short.class},
+            {char.class, Character.class},
+            {int.class, Integer.class},
+            {long.class, Long.class},
+            {float.class, Float.class},
+            {double.class, Double.class}
+        };
+
+        for (Class<?>[] type : types) {
+            PRIMITIVES.put(type[0].getName(), type[0]);
+            BOXED.put(type[0], type[1]);
+        }
+    }
+
+    @ToStringIgnore
+    private final Map<Class<?>, TaggedClass> classes = new ConcurrentHashMap<>();
+
+    @ToStringIgnore
+    private final Map<String, Class<?>> classNames = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isStateful() {
+        return false;
+    }
+
+    @Override
+    public Class<Object> baseType() {
+        return Object.class;
+    }
+
+    @Override
+    public void encode(Object obj, DataWriter out) throws IOException {
+        writeValue(obj, null, out, new ArrayList<>());
+    }
+
+    @Override
+    public Object decode(DataReader in) throws IOException {
+        return readValue(in, null, new ArrayList<>());
+    }
+
+    static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? BOXED.get(type) : type;
+    }
+
+    private void writeValue(Object val, Class<?> declared, DataWriter out, List<Class<?>> written) throws IOException {
+        if (val == null) {
+            out.writeByte(NULL);
+
+            return;
+        }
+
+        Class<?> type = val.getClass();
+
+        if (type == String.class) {
+            writeString((String)val, out);
+        } else if (type == Integer.class) {
+            out.writeByte(INT);
+            out.writeVarInt((Integer)val);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeVarLong((Long)val);
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean)val ? TRUE : FALSE);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double)val);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float)val);
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeVarInt((Short)val);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte)val);
+        } else if (type == Character.class) {
+            out.writeByte(CHAR);
+            out.writeChar((Character)val);
+        } else if (type == byte[].class) {
+            out.writeByte(BYTES);
+
+            writeBytes((byte[])val, out);
+        } else if (type == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            out.writeBigInteger((BigInteger)val);
+        } else if (type == BigDecimal.class) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeBigDecimal((BigDecimal)val);
+        } else if (type == UUID.class) {
+            out.writeByte(UUID_VAL);
+            out.writeLong(((UUID)val).getMostSignificantBits());
+            out.writeLong(((UUID)val).getLeastSignificantBits());
+        } else if (type == ClusterNodeId.class) {
+            out.writeByte(NODE_ID);
+            out.writeLong(((ClusterNodeId)val).hiBits());
+            out.writeLong(((ClusterNodeId)val).loBits());
+        } else if (type == Date.class) {
+            out.writeByte(DATE);
+            out.writeVarLong(((Date)val).getTime());
+        } else if (type == Instant.class) {
+            out.writeByte(INSTANT);
+            out.writeVarLong(((Instant)val).getEpochSecond());
+            out.writeVarIntUnsigned(((Instant)val).getNano());
+        } else if (type == Duration.class) {
+            out.writeByte(DURATION);
+            out.writeVarLong(((Duration)val).getSeconds());
+            out.writeVarIntUnsigned(((Duration)val).getNano());
+        } else if (type == LocalDate.class) {
+            out.writeByte(LOCAL_DATE);
+            out.writeVarLong(((LocalDate)val).toEpochDay());
+        } else if (type == LocalTime.class) {
+            out.writeByte(LOCAL_TIME);
+            out.writeVarLongUnsigned(((LocalTime)val).toNanoOfDay());
+        } else if (type == LocalDateTime.class) {
+            out.writeByte(LOCAL_DATE_TIME);
+
+            writeDateTime((LocalDateTime)val, out);
+        } else if (type == OffsetDateTime.class) {
+            out.writeByte(OFFSET_DATE_TIME);
+
+            writeDateTime(((OffsetDateTime)val).toLocalDateTime(), out);
+
+            out.writeVarInt(((OffsetDateTime)val).getOffset().getTotalSeconds());
+        } else if (type == ZonedDateTime.class) {
+            out.writeByte(ZONED_DATE_TIME);
+
+            writeDateTime(((ZonedDateTime)val).toLocalDateTime(), out);
+
+            out.writeUTF(((ZonedDateTime)val).getZone().getId());
+        } else if (type == Optional.class) {
+            out.writeByte(OPTIONAL);
+
+            writeValue(((Optional<?>)val).orElse(null), null, out, written);
+        } else if (val instanceof Enum) {
+            Class<?> enumType = ((Enum<?>)val).getDeclaringClass();
+
+            if (enumType == declared) {
+                out.writeByte(ENUM_DECLARED);
+            } else {
+                out.writeByte(ENUM);
+                writeClass(enumType, out, written);
+            }
+
+            out.writeUTF(((Enum<?>)val).name());
+        } else if (type.isArray() && type.getComponentType().isPrimitive()) {
+            Class<?> component = type.getComponentType();
+
+            out.writeByte(PRIMITIVE_ARRAY);
+            writeClass(component, out, written);
+            out.writeVarIntUnsigned(Array.getLength(val));
+
+            writePrimitives(val, component, out);
+        } else if (type.isArray()) {
+            Class<?> component = type.getComponentType();
+
+            int len = Array.getLength(val);
+
+            out.writeByte(ARRAY);
+            writeClass(component, out, written);
+            out.writeVarIntUnsigned(len);
+
+            for (int i = 0; i < len; i++) {
+                writeValue(Array.get(val, i), component, out, written);
+            }
+        } else if (val instanceof Collection) {
+            Collection<?> col = (Collection<?>)val;
+
+            out.writeByte(val instanceof Set ? SET : LIST);
+            out.writeVarIntUnsigned(col.size());
+
+            for (Object elem : col) {
+                writeValue(elem, null, out, written);
+            }
+        } else if (val instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>)val;
+
+            out.writeByte(MAP);
+            out.writeVarIntUnsigned(map.size());
+
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                writeValue(e.getKey(), null, out, written);
+                writeValue(e.getValue(), null, out, written);
+            }
+        } else {
+            TaggedClass tagged = taggedClass(type);
+
+            if (tagged.isTaggable()) {
+                if (type == declared) {
+                    out.writeByte(OBJECT_DECLARED);
+                } else {
+                    out.writeByte(OBJECT);
+                    writeClass(type, out, written);
+                }
+
+                for (TaggedField field : tagged.fields()) {
+                    out.writeVarIntUnsigned(field.tag());
+
+                    writeValue(field.get(val), field.type(), out, written);
+                }
+
+                out.writeVarIntUnsigned(END);
+            } else if (val instanceof Serializable) {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream();
+
+                try (ObjectOutputStream objOut = new ObjectOutputStream(buf)) {
+                    objOut.writeObject(val);
+                }
+
+                out.writeByte(SERIALIZED);
+
+                writeBytes(buf.toByteArray(), out);
+            } else {
+                throw new CodecException("Unsupported type (must have a no-arg constructor or implement "
+                    + Serializable.class.getSimpleName() + ") [type=" + type.getName() + ']');
+            }
+        }
+    }
+
+    private Object readValue(DataReader in, Class<?> declared, List<String> read) throws IOException {
+        byte valType = in.readByte();
+
+        switch (valType) {
+            case NULL: {
+                return null;
+            }
+            case TRUE: {
+                return Boolean.TRUE;
+            }
+            case FALSE: {
+                return Boolean.FALSE;
+            }
+            case BYTE: {
+                return in.readByte();
+            }
+            case SHORT: {
+                return (short)in.readVarInt();
+            }
+            case CHAR: {
+                return in.readChar();
+            }
+            case INT: {
+                return in.readVarInt();
+            }
+            case LONG: {
+                return in.readVarLong();
+            }
+            case FLOAT: {
+                return in.readFloat();
+            }
+            case DOUBLE: {
+                return in.readDouble();
+            }
+            case STRING: {
+                return new String(readBytes(in), UTF_8);
+            }
+            case STRING_REF: {
+                return dictionaryOf(in).get(in.readVarIntUnsigned());
+            }
+            case STRING_DEFINE: {
+                return readDefinedString(in);
+            }
+            case BYTES: {
+                return readBytes(in);
+            }
+            case BIG_INTEGER: {
+                return in.readBigInteger();
+            }
+            case BIG_DECIMAL: {
+                return in.readBigDecimal();
+            }
+            case UUID_VAL: {
+                return new UUID(in.readLong(), in.readLong());
+            }
+            case NODE_ID: {
+                return new ClusterNodeId(in.readLong(), in.readLong());
+            }
+            case DATE: {
+                return new Date(in.readVarLong());
+            }
+            case INSTANT: {
+                return Instant.ofEpochSecond(in.readVarLong(), in.readVarIntUnsigned());
+            }
+            case DURATION: {
+                return Duration.ofSeconds(in.readVarLong(), in.readVarIntUnsigned());
+            }
+            case LOCAL_DATE: {
+                return LocalDate.ofEpochDay(in.readVarLong());
+            }
+            case LOCAL_TIME: {
+                return LocalTime.ofNanoOfDay(in.readVarLongUnsigned());
+            }
+            case LOCAL_DATE_TIME: {
+                return readDateTime(in);
+            }
+            case OFFSET_DATE_TIME: {
+                return OffsetDateTime.of(readDateTime(in), ZoneOffset.ofTotalSeconds(in.readVarInt()));
+            }
+            case ZONED_DATE_TIME: {
+                return ZonedDateTime.of(readDateTime(in), ZoneId.of(in.readUTF()));
+            }
+            case OPTIONAL: {
+                return Optional.ofNullable(readValue(in, null, read));
+            }
+            case PRIMITIVE_ARRAY: {
+                Class<?> component = resolve(readClass(in, read));
+
+                return readPrimitives(component, in.readVarIntUnsigned(), in);
+            }
+            case ENUM: {
+                return readEnum(resolve(readClass(in, read)), in.readUTF());
+            }
+            case ENUM_DECLARED: {
+                return readEnum(checkDeclared(declared), in.readUTF());
+            }
+            case OBJECT: {
+                return readObject(resolve(readClass(in, read)), in, read);
+            }
+            case OBJECT_DECLARED: {
+                return readObject(checkDeclared(declared), in, read);
+            }
+            case ARRAY: {
+                Class<?> component = resolve(readClass(in, read));
+
+                int len = in.readVarIntUnsigned();
+
+                Object arr = Array.newInstance(component, len);
+
+                for (int i = 0; i < len; i++) {
+                    Object elem = readValue(in, component, read);
+
+                    if (elem != null) {
+                        Array.set(arr, i, elem);
+                    }
+                }
+
+                return arr;
+            }
+            case LIST: {
+                int size = in.readVarIntUnsigned();
+
+                List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, null, read));
+                }
+
+                return list;
+            }
+            case SET: {
+                int size = in.readVarIntUnsigned();
+
+                Set<Object> set = new LinkedHashSet<>(capacity(size));
+
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(in, null, read));
+                }
+
+                return set;
+            }
+            case MAP: {
+                int size = in.readVarIntUnsigned();
+
+                Map<Object, Object> map = new LinkedHashMap<>(capacity(size));
+
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(in, null, read), readValue(in, null, read));
+                }
+
+                return map;
+            }
+            case SERIALIZED: {
+                try (ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new CodecException("Failed to deserialize object.", e);
+                }
+            }
+            default: {
+                throw new CodecException("Unexpected value type [type=" + valType + ']');
+            }
+        }
+    }
+
+    private Object readObject(Class<?> type, DataReader in, List<String> read) throws IOException {
+        TaggedClass tagged = taggedClass(type);
+
+        if (!tagged.isTaggable()) {
+            throw new CodecException("Type doesn't support tagging [type=" + type.getName() + ']');
+        }
+
+        Object obj = tagged.newInstance();
+
+        for (int tag = in.readVarIntUnsigned(); tag != END; tag = in.readVarIntUnsigned()) {
+            TaggedField field = tagged.field(tag);
+
+            if (field == null) {
+                // Unknown field (f.e. from a newer version of the class).
+                skipValue(in, read);
+            } else {
+                field.set(obj, readValue(in, field.type(), read));
+            }
+        }
+
+        return obj;
+    }
+
+    private void skipValue(DataReader in, List<String> read) throws IOException {
+        byte valType = in.readByte();
+
+        switch (valType) {
+            case NULL:
+            case TRUE:
+            case FALSE: {
+                break;
+            }
+            case BYTE: {
+                skipBytes(in, Byte.BYTES);
+
+                break;
+            }
+            case CHAR: {
+                skipBytes(in, Character.BYTES);
+
+                break;
+            }
+            case FLOAT: {
+                skipBytes(in, Float.BYTES);
+
+                break;
+            }
+            case DOUBLE: {
+                skipBytes(in, Double.BYTES);
+
+                break;
+            }
+            case SHORT:
+            case INT:
+            case LONG: {
+                in.readVarLongUnsigned();
+
+                break;
+            }
+            case STRING:
+            case BYTES:
+            case SERIALIZED: {
+                skipBytes(in, in.readVarIntUnsigned());
+
+                break;
+            }
+            case STRING_REF: {
+                in.readVarIntUnsigned();
+
+                break;
+            }
+            case STRING_DEFINE: {
+                // Must be put into the dictionary since the sender expects it to be there.
+                readDefinedString(in);
+
+                break;
+            }
+            case BIG_INTEGER: {
+                in.readBigInteger();
+
+                break;
+            }
+            case UUID_VAL:
+            case NODE_ID: {
+                skipBytes(in, Long.BYTES * 2);
+
+                break;
+            }
+            case DATE:
+            case LOCAL_DATE:
+            case LOCAL_TIME: {
+                in.readVarLongUnsigned();
+
+                break;
+            }
+            case INSTANT:
+            case DURATION: {
+                in.readVarLongUnsigned();
+                in.readVarIntUnsigned();
+
+                break;
+            }
+            case LOCAL_DATE_TIME:
+            case OFFSET_DATE_TIME:
+            case ZONED_DATE_TIME: {
+                readDateTime(in);
+
+                if (valType == OFFSET_DATE_TIME) {
+                    in.readVarInt();
+                } else if (valType == ZONED_DATE_TIME) {
+                    in.readUTF();
+                }
+
+                break;
+            }
+            case OPTIONAL: {
+                skipValue(in, read);
+
+                break;
+            }
+            case PRIMITIVE_ARRAY: {
+                Class<?> component = resolve(readClass(in, read));
+
+                readPrimitives(component, in.readVarIntUnsigned(), in);
+
+                break;
+            }
+            case BIG_DECIMAL: {
+                in.readBigDecimal();
+
+                break;
+            }
+            case ENUM: {
+                readClass(in, read);
+                in.readUTF();
+
+                break;
+            }
+            case ENUM_DECLARED: {
+                in.readUTF();
+
+                break;
+            }
+            case OBJECT:
+            case OBJECT_DECLARED: {
+                if (valType == OBJECT) {
+                    readClass(in, read);
+                }
+
+                while (in.readVarIntUnsigned() != END) {
+                    skipValue(in, read);
+                }
+
+                break;
+            }
+            case ARRAY:
+            case LIST:
+            case SET: {
+                if (valType == ARRAY) {
+                    readClass(in, read);
+                }
+
+                for (int i = in.readVarIntUnsigned(); i > 0; i--) {
+                    skipValue(in, read);
+                }
+
+                break;
+            }
+            case MAP: {
+                for (int i = in.readVarIntUnsigned(); i > 0; i--) {
+                    skipValue(in, read);
+                    skipValue(in, read);
+                }
+
+                break;
+            }
+            default: {
+                throw new CodecException("Unexpected value type [type=" + valType + ']');
+            }
+        }
+    }
+
+    private static void writeString(String str, DataWriter out) throws IOException {
+        if (out instanceof StringDictionary) {
+            StringDictionary dictionary = (StringDictionary)out;
+
+            int slot = dictionary.lookup(str);
+
+            if (slot >= 0) {
+                out.writeByte(STRING_REF);
+                out.writeVarIntUnsigned(slot);
+
+                return;
+            }
+
+            slot = dictionary.define(str);
+
+            if (slot >= 0) {
+                out.writeByte(STRING_DEFINE);
+                out.writeVarIntUnsigned(slot);
+
+                writeBytes(str.getBytes(UTF_8), out);
+
+                return;
+            }
+        }
+
+        out.writeByte(STRING);
+
+        writeBytes(str.getBytes(UTF_8), out);
+    }
+
+    private static String readDefinedString(DataReader in) throws IOException {
+        StringDictionary dictionary = dictionaryOf(in);
+
+        int slot = in.readVarIntUnsigned();
+
+        String str = new String(readBytes(in), UTF_8);
+
+        dictionary.put(slot, str);
+
+        return str;
+    }
+
+    private static StringDictionary dictionaryOf(DataReader in) throws CodecException {
+        if (in instanceof StringDictionary) {
+            return (StringDictionary)in;
+        }
+
+        throw new CodecException("Malformed data: string dictionary is not available (is codec configured the same way on both sides?)");
+    }
+
+    private static void writePrimitives(Object arr, Class<?> component, DataWriter out) throws IOException {
+        if (component == int.class) {
+            for (int v : (int[])arr) {
+                out.writeVarInt(v);
+            }
+        } else if (component == long.class) {
+            for (long v : (long[])arr) {
+                out.writeVarLong(v);
+            }
+        } else if (component == double.class) {
+            for (double v : (double[])arr) {
+                out.writeDouble(v);
+            }
+        } else if (component == float.class) {
+            for (float v : (float[])arr) {
+                out.writeFloat(v);
+            }
+        } else if (component == short.class) {
+            for (short v : (short[])arr) {
+                out.writeVarInt(v);
+            }
+        } else if (component == char.class) {
+            for (char v : (char[])arr) {
+                out.writeChar(v);
+            }
+        } else if (component == boolean.class) {
+            for (boolean v : (boolean[])arr) {
+                out.writeBoolean(v);
+            }
+        } else {
+            throw new CodecException("Unexpected primitive array type [component=" + component.getName() + ']');
+        }
+    }
+
+    private static Object readPrimitives(Class<?> component, int len, DataReader in) throws IOException {
+        if (component == int.class) {
+            int[] arr = new int[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readVarInt();
+            }
+
+            return arr;
+        } else if (component == long.class) {
+            long[] arr = new long[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readVarLong();
+            }
+
+            return arr;
+        } else if (component == double.class) {
+            double[] arr = new double[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readDouble();
+            }
+
+            return arr;
+        } else if (component == float.class) {
+            float[] arr = new float[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readFloat();
+            }
+
+            return arr;
+        } else if (component == short.class) {
+            short[] arr = new short[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = (short)in.readVarInt();
+            }
+
+            return arr;
+        } else if (component == char.class) {
+            char[] arr = new char[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readChar();
+            }
+
+            return arr;
+        } else if (component == boolean.class) {
+            boolean[] arr = new boolean[len];
+
+            for (int i = 0; i < len; i++) {
+                arr[i] = in.readBoolean();
+            }
+
+            return arr;
+        } else {
+            throw new CodecException("Malformed data: unexpected primitive array type [component=" + component.getName() + ']');
+        }
+    }
+
+    private static void writeDateTime(LocalDateTime val, DataWriter out) throws IOException {
+        out.writeVarLong(val.toLocalDate().toEpochDay());
+        out.writeVarLongUnsigned(val.toLocalTime().toNanoOfDay());
+    }
+
+    private static LocalDateTime readDateTime(DataReader in) throws IOException {
+        return LocalDateTime.of(LocalDate.ofEpochDay(in.readVarLong()), LocalTime.ofNanoOfDay(in.readVarLongUnsigned()));
+    }
+
+    private static void writeClass(Class<?> type, DataWriter out, List<Class<?>> written) throws IOException {
+        // Back-reference to a class that was already written by the same message.
+        for (int i = 0, size = written.size(); i < size; i++) {
+            if (written.get(i) == type) {
+                out.writeVarIntUnsigned(i + 1);
+
+                return;
+            }
+        }
+
+        written.add(type);
+
+        out.writeVarIntUnsigned(NEW_CLASS);
+        out.writeUTF(type.getName());
+    }
+
+    private static String readClass(DataReader in, List<String> read) throws IOException {
+        int ref = in.readVarIntUnsigned();
+
+        if (ref == NEW_CLASS) {
+            String name = in.readUTF();
+
+            read.add(name);
+
+            return name;
+        } else if (ref <= read.size()) {
+            return read.get(ref - 1);
+        } else {
+            throw new CodecException("Malformed data: invalid class reference [reference=" + ref + ']');
+        }
+    }
+
+    private TaggedClass taggedClass(Class<?> type) throws CodecException {
+        TaggedClass tagged = classes.get(type);
+
+        if (tagged == null) {
+            tagged = TaggedClass.of(type);
+
+            classes.put(type, tagged);
+        }
+
+        return tagged;
+    }
+
+    private Class<?> resolve(String name) throws CodecException {
+        Class<?> type = classNames.get(name);
+
+        if (type == null) {
+            type = PRIMITIVES.get(name);
+
+            if (type == null) {
+                ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+                if (loader == null) {
+                    loader = TaggedCodec.class.getClassLoader();
+                }
+
+                try {
+                    type = Class.forName(name, false, loader);
+                } catch (ClassNotFoundException e) {
+                    throw new CodecException("Failed to resolve class [name=" + name + ']', e);
+                }
+            }
+
+            classNames.put(name, type);
+        }
+
+        return type;
+    }
+
+    private static Object readEnum(Class<?> type, String name) throws CodecException {
+        if (!type.isEnum()) {
+            throw new CodecException("Not an enum type [type=" + type.getName() + ']');
+        }
+
+        for (Object constant : type.getEnumConstants()) {
+            if (((Enum<?>)constant).name().equals(name)) {
+                return constant;
+            }
+        }
+
+        throw new CodecException("Unknown enum constant [type=" + type.getName() + ", name=" + name + ']');
+    }
+
+    private static Class<?> checkDeclared(Class<?> declared) throws CodecException {
+        if (declared == null) {
+            throw new CodecException("Malformed data: value of a declared type is not expected here.");
+        }
+
+        return declared;
+    }
+
+    private static void writeBytes(byte[] bytes, DataWriter out) throws IOException {
+        out.writeVarIntUnsigned(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataReader in) throws IOException {
+        byte[] bytes = new byte[in.readVarIntUnsigned()];
+
+        in.readFully(bytes);
+
+        return bytes;
+    }
+
+    private static void skipBytes(DataReader in, int len) throws IOException {
+        for (int remaining = len; remaining > 0; ) {
+            int skipped = in.skipBytes(remaining);
+
+            if (skipped <= 0) {
+                // Fallback to reading (some streams can't skip).
+                in.readByte();
+
+                skipped = 1;
+            }
+
+            remaining -= skipped;
+        }
+    }
+
+    private static int capacity(int size) {
+        return (int)(size / 0.75f) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecFactory;
+import io.hekate.core.HekateBootstrap;
+
+/**
+ * Codec factory that encodes objects with numeric field tags and supports schema evolution.
+ *
+ * <h2>Binary format</h2>
+ * <p>
+ * Each field of an object is encoded as a pair of a {@link Tag tag} and a self-describing value (type marker followed by the
+ * variable-length encoded value), similar to <a href="https://developers.google.com/protocol-buffers/docs/encoding"
+ * target="_blank">Protocol Buffers</a>. This makes it possible to change classes between versions of the application (f.e. during a
+ * rolling upgrade) while keeping the binary compatibility:
+ * </p>
+ * <ul>
+ * <li>fields that are unknown to the decoding side are skipped</li>
+ * <li>fields that are missing in the encoded data keep values that were assigned by the no-arg constructor</li>
+ * <li>numeric fields can be converted to other numeric types (f.e. {@code int} to {@code long})</li>
+ * <li>fields can be renamed as long as they have an explicit {@link Tag}</li>
+ * </ul>
+ *
+ * <h2>Supported types</h2>
+ * <p>
+ * Primitives and their wrappers, strings, enums (encoded by name), arrays (arrays of primitives are encoded without per-element
+ * overhead), {@link java.util.List lists}, {@link java.util.Set sets}, {@link java.util.Map maps}, {@link java.math.BigInteger},
+ * {@link java.math.BigDecimal}, {@link java.util.UUID}, {@link java.util.Date}, {@link java.util.Optional},
+ * {@link io.hekate.cluster.ClusterNodeId} and {@code java.time} dates, times and durations ({@link java.time.Instant},
+ * {@link java.time.Duration}, {@link java.time.LocalDate}, {@link java.time.LocalTime}, {@link java.time.LocalDateTime},
+ * {@link java.time.OffsetDateTime} and {@link java.time.ZonedDateTime}) are encoded natively. Other objects must have
+ * a no-arg constructor (of any visibility); all of their non-static non-transient fields (including fields of super-classes) are encoded.
+ * Objects that don't have a no-arg constructor and JDK classes that are not supported natively are encoded via the Java serialization
+ * API if they implement {@link java.io.Serializable} (such objects do not support schema evolution).
+ * </p>
+ *
+ * <p>
+ * Collections and maps are decoded as {@link java.util.ArrayList}, {@link java.util.LinkedHashSet} and {@link java.util.LinkedHashMap}
+ * unless the field type requires another (instantiable) implementation. This codec doesn't track references, and therefore object
+ * graphs must not contain cycles and shared objects are encoded multiple times.
+ * </p>
+ *
+ * <p>
+ * Per-class field accessors are created via reflection and are cached by the codec.
+ * </p>
+ *
+ * @param <T> Base type of data that should be supported by this factory.
+ *
+ * @see Tag
+ * @see HekateBootstrap#setDefaultCodec(CodecFactory)
+ */
+public class TaggedCodecFactory<T> implements CodecFactory<T> {
+    private final TaggedCodec codec = new TaggedCodec();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Codec<T> createCodec() {
+        return (Codec<T>)codec;
+    }
+
+    @Override
+    public String toString() {
+        return TaggedCodecFactory.class.getSimpleName();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import io.hekate.codec.CodecException;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+class TaggedField {
+    /** Mask of tags that are derived from field names (limits the size of such tags to 3 bytes). */
+    private static final int NAME_TAG_MASK = 0x1FFFFF;
+
+    /** Implementations of abstract collection types (most specific types first). */
+    private static final List<Class<?>> IMPLEMENTATIONS = Arrays.asList(
+        TreeSet.class,
+        TreeMap.class,
+        ConcurrentHashMap.class,
+        ArrayDeque.class
+    );
+
+    private final int tag;
+
+    private final String name;
+
+    @ToStringIgnore
+    private final Class<?> type;
+
+    @ToStringIgnore
+    private final Field field;
+
+    public TaggedField(Field field, boolean hidden) throws CodecException {
+        Tag explicit = field.getAnnotation(Tag.class);
+
+        if (explicit == null) {
+            // Fields that are hidden by a subclass field of the same name are qualified with their declaring class.
+            String key = hidden ? field.getDeclaringClass().getName() + '#' + field.getName() : field.getName();
+
+            int nameTag = key.hashCode() & NAME_TAG_MASK;
+
+            this.tag = nameTag == TaggedCodec.END ? 1 : nameTag;
+        } else if (explicit.value() <= TaggedCodec.END) {
+            throw new CodecException("Field tag must be above zero [field=" + field + ", tag=" + explicit.value() + ']');
+        } else {
+            this.tag = explicit.value();
+        }
+
+        field.setAccessible(true);
+
+        this.name = field.getName();
+        this.type = field.getType();
+        this.field = field;
+    }
+
+    public int tag() {
+        return tag;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    public Object get(Object obj) throws CodecException {
+        try {
+            return field.get(obj);
+        } catch (IllegalAccessException e) {
+            throw new CodecException("Failed to read field [field=" + field + ']', e);
+        }
+    }
+
+    public void set(Object obj, Object value) throws CodecException {
+        if (value == null) {
+            if (!type.isPrimitive()) {
+                setValue(obj, null);
+            }
+        } else if (type.isInstance(value)) {
+            setValue(obj, value);
+        } else if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+            setValue(obj, convertPrimitive(value));
+        } else if (value instanceof Collection && Collection.class.isAssignableFrom(type)) {
+            @SuppressWarnings("unchecked")
+            Collection<Object> converted = (Collection<Object>)newInstance(value);
+
+            converted.addAll((Collection<?>)value);
+
+            setValue(obj, converted);
+        } else if (value instanceof Map && Map.class.isAssignableFrom(type)) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> converted = (Map<Object, Object>)newInstance(value);
+
+            converted.putAll((Map<?, ?>)value);
+
+            setValue(obj, converted);
+        } else {
+            throw incompatible(value);
+        }
+    }
+
+    private Object convertPrimitive(Object value) throws CodecException {
+        Class<?> boxed = TaggedCodec.boxed(type);
+
+        if (boxed.isInstance(value)) {
+            return value;
+        } else if (value instanceof Number) {
+            Number num = (Number)value;
+
+            if (boxed == Integer.class) {
+                return num.intValue();
+            } else if (boxed == Long.class) {
+                return num.longValue();
+            } else if (boxed == Short.class) {
+                return num.shortValue();
+            } else if (boxed == Byte.class) {
+                return num.byteValue();
+            } else if (boxed == Double.class) {
+                return num.doubleValue();
+            } else if (boxed == Float.class) {
+                return num.floatValue();
+            }
+        }
+
+        throw incompatible(value);
+    }
+
+    private Object newInstance(Object value) throws CodecException {
+        try {
+            Class<?> impl;
+
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                impl = IMPLEMENTATIONS.stream()
+                    .filter(type::isAssignableFrom)
+                    .findFirst()
+                    .orElseThrow(() -> incompatible(value));
+            } else {
+                impl = type;
+            }
+
+            Constructor<?> constructor = impl.getDeclaredConstructor();
+
+            constructor.setAccessible(true);
+
+            return constructor.newInstance();
+        } catch (CodecException e) {
+            throw e;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new CodecException("Failed to instantiate field value [field=" + field + ", value-type=" + value.getClass() + ']', e);
+        }
+    }
+
+    private void setValue(Object obj, Object value) throws CodecException {
+        try {
+            field.set(obj, value);
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new CodecException("Failed to write field [field=" + field + ']', e);
+        }
+    }
+
+    private CodecException incompatible(Object value) {
+        return new CodecException("Incompatible field value [field=" + field + ", value-type=" + value.getClass().getName() + ']');
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -61,6 +61,9 @@ import java.util.List;
  * @see MessagingServiceFactory#setChannels(List)
  */
 public class MessagingChannelConfig<T> extends MessagingConfigBase<MessagingChannelConfig<T>> {
+    /** Default value (={@value}) for {@link #setWarmUpParallelism(int)}. */
+    public static final int DEFAULT_WARM_UP_PARALLELISM = 4;
+
     /** See {@link #MessagingChannelConfig(Class)}. */
     private final Class<T> baseType;
 
@@ -103,6 +106,12 @@ public class MessagingChannelConfig<T> extends MessagingConfigBase<MessagingChan
     /** See {@link #setWarnOnRetry(int)}. */
     private int warnOnRetry = -1;
 
+    /** See {@link #setWarmUpConnections(boolean)}. */
+    private boolean warmUpConnections;
+
+    /** See {@link #setWarmUpParallelism(int)}. */
+    private int warmUpParallelism = DEFAULT_WARM_UP_PARALLELISM;
+
     /**
      * Unsafe default constructor that should be used only for reflections-based instantiation by IoC frameworks. For programmatic
      * construction the {@link #MessagingChannelConfig(Class)} constructor must be used instead of this one.
@@ -693,6 +702,91 @@ public class MessagingChannelConfig<T> extends MessagingConfigBase<MessagingChan
         return this;
     }
 
+    /**
+     * Returns {@code true} if connections to remote nodes should be established eagerly (see {@link #setWarmUpConnections(boolean)}).
+     *
+     * @return {@code true} if connections to remote nodes should be established eagerly.
+     */
+    public boolean isWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    /**
+     * Sets the flag indicating that connections to remote nodes should be established eagerly.
+     *
+     * <p>
+     * By default, the channel establishes a connection to a remote node lazily when the first message is sent to that node. Therefore
+     * the first messages after a node join pay the cost of a TCP connect, an optional SSL handshake and the channel's handshake. If this
+     * flag is set to {@code true} then the channel will pre-establish connections to all nodes that join the channel's cluster topology as
+     * soon as they are detected. The number of connections that are established concurrently is controlled by the
+     * {@link #setWarmUpParallelism(int)} property.
+     * </p>
+     *
+     * <p>
+     * Note that pre-established connections are subject to the {@link #setIdleSocketTimeout(long) idle socket timeout} and will be closed
+     * if they remain unused.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is {@code false}.
+     * </p>
+     *
+     * @param warmUpConnections {@code true} if connections to remote nodes should be established eagerly.
+     */
+    public void setWarmUpConnections(boolean warmUpConnections) {
+        this.warmUpConnections = warmUpConnections;
+    }
+
+    /**
+     * Fluent-style version of {@link #setWarmUpConnections(boolean)}.
+     *
+     * @param warmUpConnections {@code true} if connections to remote nodes should be established eagerly.
+     *
+     * @return This instance.
+     */
+    public MessagingChannelConfig<T> withWarmUpConnections(boolean warmUpConnections) {
+        setWarmUpConnections(warmUpConnections);
+
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of connections that can be concurrently established during the connections warm-up (see {@link
+     * #setWarmUpParallelism(int)}).
+     *
+     * @return Maximum number of concurrent connects during the connections warm-up.
+     */
+    public int getWarmUpParallelism() {
+        return warmUpParallelism;
+    }
+
+    /**
+     * Sets the maximum number of connections that can be concurrently established during the connections warm-up.
+     *
+     * <p>
+     * This parameter makes sense only if {@link #setWarmUpConnections(boolean)} is set to {@code true}. Value of this parameter must be
+     * greater than zero. Default value is {@value #DEFAULT_WARM_UP_PARALLELISM}.
+     * </p>
+     *
+     * @param warmUpParallelism Maximum number of concurrent connects during the connections warm-up.
+     */
+    public void setWarmUpParallelism(int warmUpParallelism) {
+        this.warmUpParallelism = warmUpParallelism;
+    }
+
+    /**
+     * Fluent-style version of {@link #setWarmUpParallelism(int)}.
+     *
+     * @param warmUpParallelism Maximum number of concurrent connects during the connections warm-up.
+     *
+     * @return This instance.
+     */
+    public MessagingChannelConfig<T> withWarmUpParallelism(int warmUpParallelism) {
+        setWarmUpParallelism(warmUpParallelism);
+
+        return this;
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> Class<T> uncheckedObjectType() {
         return (Class<T>)Object.class;
@@ -19,6 +19,7 @@ package io.hekate.messaging;
 import io.hekate.core.internal.util.ArgAssert;
 import io.hekate.network.NetworkService;
 import io.hekate.network.NetworkServiceFactory;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -30,6 +31,9 @@ public abstract class MessagingConfigBase<T extends MessagingConfigBase<T>> {
     /** See {@link #setNioThreads(int)}. */
     private int nioThreads;
 
+    /** See {@link #setEventLoopGroup(String)}. */
+    private String eventLoopGroup;
+
     /** See {@link #setIdleSocketTimeout(long)}. */
     private long idleSocketTimeout;
 
@@ -114,6 +118,43 @@ public abstract class MessagingConfigBase<T extends MessagingConfigBase<T>> {
         return self();
     }
 
+    /**
+     * Returns the name of a shared NIO thread pool for handling socket connections (see {@link #setEventLoopGroup(String)}).
+     *
+     * @return Name of a shared NIO thread pool.
+     */
+    public String getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
+    /**
+     * Sets the name of a shared NIO thread pool for handling socket connections.
+     *
+     * <p>
+     * If specified then socket connections will be handled by the thread pool of the same name that is registered within the
+     * {@link NetworkService} (see {@link NetworkServiceFactory#setEventLoopGroups(List)}). This option is mutually exclusive with
+     * {@link #setNioThreads(int)}.
+     * </p>
+     *
+     * @param eventLoopGroup Name of a shared NIO thread pool.
+     */
+    public void setEventLoopGroup(String eventLoopGroup) {
+        this.eventLoopGroup = eventLoopGroup;
+    }
+
+    /**
+     * Fluent-style version of {@link #setEventLoopGroup(String)}.
+     *
+     * @param eventLoopGroup Name of a shared NIO thread pool.
+     *
+     * @return This instance.
+     */
+    public T withEventLoopGroup(String eventLoopGroup) {
+        setEventLoopGroup(eventLoopGroup);
+
+        return self();
+    }
+
     /**
      * Returns the back pressure configuration (see {@link #setBackPressure(MessagingBackPressureConfig)}).
      *
@@ -34,6 +34,14 @@ public interface ServerReceiveContext<T> extends ServerInboundContext<T> {
      */
     Optional<MessageMetaData> readMetaData();
 
+    /**
+     * Returns the time (in {@link System#nanoTime()} units) when this message was received from the network (i.e. before it was queued
+     * for processing by a worker thread).
+     *
+     * @return Time when this message was received.
+     */
+    long receivedAtNanos();
+
     /**
      * Overrides the received message with the specified one.
      *
@@ -24,6 +24,8 @@ import io.hekate.cluster.ClusterService;
 import io.hekate.cluster.event.ClusterEventType;
 import io.hekate.codec.CodecFactory;
 import io.hekate.codec.CodecService;
+import io.hekate.codec.ThreadLocalCodecFactory;
+import io.hekate.codec.stats.StatsCodecFactory;
 import io.hekate.core.Hekate;
 import io.hekate.core.HekateException;
 import io.hekate.core.ServiceInfo;
@@ -156,6 +158,8 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
                                 channelSec.value("worker-threads", channel.workerThreads());
                                 channelSec.value("messaging-timeout", channel.messagingTimeout());
                                 channelSec.value("idle-socket-timeout", channel.idleSocketTimeout());
+                                channelSec.value("warm-up-connections", channel.warmUpConnections());
+                                channelSec.value("warm-up-parallelism", channel.warmUpParallelism());
                                 channelSec.value("partitions", channel.partitions());
                                 channelSec.value("backup-nodes", channel.backupNodes());
                                 channelSec.value("send-pressure", channel.sendPressureGuard());
@@ -317,6 +321,10 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
         check.positive(cfg.getPartitions(), "partitions");
         check.isPowerOfTwo(cfg.getPartitions(), "partitions size");
 
+        if (cfg.isWarmUpConnections()) {
+            check.positive(cfg.getWarmUpParallelism(), "warm-up parallelism");
+        }
+
         MessagingBackPressureConfig pressureCfg = cfg.getBackPressure();
 
         if (pressureCfg != null) {
@@ -381,6 +389,15 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
             metrics
         );
 
+        // Prepare connections warm-up (if enabled).
+        MessagingWarmUp<T> warmUp;
+
+        if (gateway.warmUpConnections()) {
+            warmUp = new MessagingWarmUp<>(gateway.name(), gateway.warmUpParallelism(), channelMetrics, gateway.log());
+        } else {
+            warmUp = null;
+        }
+
         // Make sure that receiver is guarded with lock.
         MessageReceiver<T> guardedReceiver = applyGuard(gateway.unguardedReceiver());
 
@@ -401,6 +418,7 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
             gateway.idleSocketTimeout() > 0, /* <-- Check for idle connections.*/
             gateway.messagingTimeout(),
             gateway.warnOnRetry(),
+            warmUp,
             gateway.rootChannel()
         );
 
@@ -430,6 +448,13 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
         if (jmx != null) {
             jmx.register(new DefaultMessagingChannelJmx(gateway), ctx.name());
         }
+
+        // Register codec statistics (optional).
+        CodecFactory<T> codecFactory = ThreadLocalCodecFactory.tryUnwrap(gateway.codecFactory());
+
+        if (codecFactory instanceof StatsCodecFactory && ((StatsCodecFactory<T>)codecFactory).bindTo(ctx.name(), metrics) && jmx != null) {
+            jmx.register(codecFactory, ctx.name());
+        }
     }
 
     private <T> MessageReceiver<T> applyGuard(final MessageReceiver<T> receiver) {
@@ -456,6 +481,8 @@ public class DefaultMessagingService implements MessagingService, CoreService, N
             net.setNioThreads(gateway.nioThreads());
         }
 
+        net.setEventLoopGroup(gateway.eventLoopGroup());
+
         if (gateway.hasReceiver()) {
             net.setServerHandler(new NetworkServerHandler<MessagingProtocol>() {
                 @Override
@@ -92,6 +92,25 @@ class MessagingClient<T> {
         return conn;
     }
 
+    public NetworkFuture<MessagingProtocol> warmUp() {
+        synchronized (mux) {
+            if (state == STATE_DISCONNECTED) {
+                if (DEBUG) {
+                    log.debug("Warming up connection [channel={}, node={}]", ctx.channel().name(), remoteNode);
+                }
+
+                NetworkFuture<MessagingProtocol> future = conn.connect();
+
+                state = STATE_CONNECTED;
+
+                return future;
+            } else {
+                // Already connected or closed.
+                return null;
+            }
+        }
+    }
+
     public List<NetworkFuture<MessagingProtocol>> close() {
         if (DEBUG) {
             log.debug("Closing connection [channel={}, node={}]", ctx.channel().name(), remoteNode);
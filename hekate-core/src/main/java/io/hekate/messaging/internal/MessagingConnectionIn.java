@@ -35,7 +35,6 @@ import io.hekate.messaging.operation.SendCallback;
 import io.hekate.network.NetworkEndpoint;
 import io.hekate.network.NetworkFuture;
 import io.hekate.network.NetworkMessage;
-import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 
@@ -167,7 +166,7 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
                     MessagingWorker worker = async.pooledWorker();
 
                     if (worker.isAsync()) {
-                        long receivedAtNanos = receivedAtNanos(netMsg);
+                        long receivedAtNanos = System.nanoTime();
 
                         onReceiveAsyncEnqueue(from);
 
@@ -188,7 +187,7 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
                 }
                 case AFFINITY_NOTIFICATION: {
                     int affinity = MessagingProtocolCodec.previewAffinity(netMsg);
-                    long receivedAtNanos = receivedAtNanos(netMsg);
+                    long receivedAtNanos = System.nanoTime();
 
                     MessagingWorker worker = async.workerFor(affinity);
 
@@ -216,7 +215,7 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
                     MessagingWorker worker = async.pooledWorker();
 
                     if (worker.isAsync()) {
-                        long receivedAtNanos = receivedAtNanos(netMsg);
+                        long receivedAtNanos = System.nanoTime();
 
                         onReceiveAsyncEnqueue(from);
 
@@ -243,7 +242,7 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
                     MessagingWorker worker = async.workerFor(affinity);
 
                     if (worker.isAsync()) {
-                        long receivedAtNanos = receivedAtNanos(netMsg);
+                        long receivedAtNanos = System.nanoTime();
 
                         onReceiveAsyncEnqueue(from);
 
@@ -277,13 +276,13 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
     }
 
     private void receiveRequestSync(RequestBase<T> msg, MessagingWorker worker) {
-        receiveRequestAsync(msg, worker, 0);
+        receiveRequestAsync(msg, worker, System.nanoTime());
     }
 
     private void receiveRequestAsync(RequestBase<T> msg, MessagingWorker worker, long receivedAtNanos) {
         if (!isExpired(msg, receivedAtNanos)) {
             try {
-                msg.prepareReceive(worker, this);
+                msg.prepareReceive(worker, this, receivedAtNanos);
 
                 interceptors.serverReceive(msg);
 
@@ -307,13 +306,13 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
     }
 
     private void receiveNotificationSync(Notification<T> msg) {
-        receiveNotificationAsync(msg, 0);
+        receiveNotificationAsync(msg, System.nanoTime());
     }
 
     private void receiveNotificationAsync(Notification<T> msg, long receivedAtNanos) {
         if (!isExpired(msg, receivedAtNanos)) {
             try {
-                msg.prepareReceive(this);
+                msg.prepareReceive(this, receivedAtNanos);
 
                 interceptors.serverReceive(msg);
 
@@ -402,18 +401,11 @@ class MessagingConnectionIn<T> extends MessagingConnection<T> {
     }
 
     private static boolean isExpired(RequestBase<?> msg, long receivedAtNanos) {
-        return receivedAtNanos > 0 && System.nanoTime() - receivedAtNanos >= TimeUnit.MILLISECONDS.toNanos(msg.timeout());
+        return msg.hasTimeout() && System.nanoTime() - receivedAtNanos >= TimeUnit.MILLISECONDS.toNanos(msg.timeout());
     }
 
     private static boolean isExpired(Notification<?> msg, long receivedAtNanos) {
-        return receivedAtNanos > 0 && System.nanoTime() - receivedAtNanos >= TimeUnit.MILLISECONDS.toNanos(msg.timeout());
+        return msg.hasTimeout() && System.nanoTime() - receivedAtNanos >= TimeUnit.MILLISECONDS.toNanos(msg.timeout());
     }
 
-    private static long receivedAtNanos(NetworkMessage<MessagingProtocol> msg) throws IOException {
-        if (MessagingProtocolCodec.previewHasTimeout(msg)) {
-            return System.nanoTime();
-        } else {
-            return 0;
-        }
-    }
 }
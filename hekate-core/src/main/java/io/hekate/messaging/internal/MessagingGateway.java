@@ -52,6 +52,8 @@ class MessagingGateway<T> {
 
     private final int nioThreads;
 
+    private final String eventLoopGroup;
+
     private final int workerThreads;
 
     private final long messagingTimeout;
@@ -71,6 +73,10 @@ class MessagingGateway<T> {
     @ToStringIgnore
     private final int warnOnRetry;
 
+    private final boolean warmUpConnections;
+
+    private final int warmUpParallelism;
+
     @ToStringIgnore
     private final GenericRetryConfigurer retryPolicy;
 
@@ -101,6 +107,7 @@ class MessagingGateway<T> {
         this.name = Utils.nullOrTrim(cfg.getName());
         this.baseType = cfg.getBaseType();
         this.nioThreads = cfg.getNioThreads();
+        this.eventLoopGroup = Utils.nullOrTrim(cfg.getEventLoopGroup());
         this.workerThreads = cfg.getWorkerThreads();
         this.messagingTimeout = cfg.getMessagingTimeout();
         this.idleSocketTimeout = cfg.getIdleSocketTimeout();
@@ -108,6 +115,8 @@ class MessagingGateway<T> {
         this.partitions = cfg.getPartitions();
         this.backupNodes = cfg.getBackupNodes();
         this.warnOnRetry = cfg.getWarnOnRetry();
+        this.warmUpConnections = cfg.isWarmUpConnections();
+        this.warmUpParallelism = cfg.getWarmUpParallelism();
 
         // Retry policy.
         GenericRetryConfigurer retryPolicy;
@@ -226,6 +235,10 @@ class MessagingGateway<T> {
         return nioThreads;
     }
 
+    public String eventLoopGroup() {
+        return eventLoopGroup;
+    }
+
     public int workerThreads() {
         return workerThreads;
     }
@@ -250,6 +263,14 @@ class MessagingGateway<T> {
         return warnOnRetry;
     }
 
+    public boolean warmUpConnections() {
+        return warmUpConnections;
+    }
+
+    public int warmUpParallelism() {
+        return warmUpParallelism;
+    }
+
     public GenericRetryConfigurer baseRetryPolicy() {
         return retryPolicy;
     }
@@ -146,6 +146,9 @@ class MessagingGatewayContext<T> {
     @ToStringIgnore
     private final int warnOnRetry;
 
+    @ToStringIgnore
+    private final MessagingWarmUp<T> warmUp;
+
     @ToStringIgnore
     private ClusterTopology clientsTopology;
 
@@ -168,6 +171,7 @@ class MessagingGatewayContext<T> {
         boolean checkIdle,
         long messagingTimeout,
         int warnOnRetry,
+        MessagingWarmUp<T> warmUp,
         DefaultMessagingChannel<T> channel
     ) {
         this.id = new MessagingChannelId();
@@ -185,6 +189,7 @@ class MessagingGatewayContext<T> {
         this.sendPressure = sendPressure;
         this.messagingTimeout = messagingTimeout;
         this.warnOnRetry = warnOnRetry;
+        this.warmUp = warmUp;
         this.checkIdle = checkIdle;
         this.log = log;
         this.debug = log.isDebugEnabled();
@@ -728,6 +733,7 @@ class MessagingGatewayContext<T> {
 
     void checkTopologyChanges() {
         List<MessagingClient<T>> clientsToClose = null;
+        List<MessagingClient<T>> clientsToWarmUp = null;
 
         long writeLock = lock.writeLock();
 
@@ -785,11 +791,19 @@ class MessagingGatewayContext<T> {
                     }
 
                     if (!added.isEmpty()) {
-                        added.forEach(node -> {
+                        if (warmUp != null) {
+                            clientsToWarmUp = new ArrayList<>(added.size());
+                        }
+
+                        for (ClusterNode node : added) {
                             MessagingClient<T> client = createClient(node);
 
                             clients.put(node.id(), client);
-                        });
+
+                            if (clientsToWarmUp != null) {
+                                clientsToWarmUp.add(client);
+                            }
+                        }
                     }
 
                     this.clientsTopology = newTopology;
@@ -802,6 +816,10 @@ class MessagingGatewayContext<T> {
         if (clientsToClose != null) {
             clientsToClose.forEach(MessagingClient::close);
         }
+
+        if (clientsToWarmUp != null) {
+            warmUp.warmUp(clientsToWarmUp);
+        }
     }
 
     // This method is for testing purposes only.
@@ -818,6 +836,13 @@ class MessagingGatewayContext<T> {
         }
     }
 
+    // This method is for testing purposes only.
+    int inboundConnections() {
+        synchronized (inbound) {
+            return inbound.size();
+        }
+    }
+
     private boolean isKnownNode(ClusterNode node) {
         long readLock = lock.readLock();
 
@@ -19,6 +19,8 @@ package io.hekate.messaging.internal;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
@@ -30,6 +32,8 @@ class MessagingMetrics {
 
     private final Counter retry;
 
+    private final Timer warmUp;
+
     public MessagingMetrics(
         String channelName,
         IntSupplier activeTaskSource,
@@ -59,6 +63,10 @@ class MessagingMetrics {
         Gauge.builder("hekate.message.request.pending", reqAct, LongAdder::doubleValue)
             .tag("channel", channelName)
             .register(metrics);
+
+        warmUp = Timer.builder("hekate.message.warmup.time")
+            .tag("channel", channelName)
+            .register(metrics);
     }
 
     public void onPendingRequestsRemoved(int i) {
@@ -74,4 +82,8 @@ class MessagingMetrics {
     public void onRetry() {
         retry.increment();
     }
+
+    public void onWarmUp(long nanos) {
+        warmUp.record(nanos, TimeUnit.NANOSECONDS);
+    }
 }
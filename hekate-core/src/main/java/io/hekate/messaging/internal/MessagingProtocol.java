@@ -116,6 +116,9 @@ abstract class MessagingProtocol {
         @ToStringIgnore
         private MessagingConnection<T> conn;
 
+        @ToStringIgnore
+        private long receivedAtNanos;
+
         @ToStringIgnore
         private Map<String, Object> attributes;
 
@@ -130,8 +133,9 @@ abstract class MessagingProtocol {
             this.conn = conn;
         }
 
-        public void prepareReceive(MessagingConnection<T> conn) {
+        public void prepareReceive(MessagingConnection<T> conn, long receivedAtNanos) {
             this.conn = conn;
+            this.receivedAtNanos = receivedAtNanos;
         }
 
         public long timeout() {
@@ -185,6 +189,11 @@ abstract class MessagingProtocol {
             return Optional.ofNullable(metaData);
         }
 
+        @Override
+        public long receivedAtNanos() {
+            return receivedAtNanos;
+        }
+
         @Override
         public void overrideMessage(T msg) {
             ArgAssert.notNull(msg, "Message");
@@ -297,6 +306,9 @@ abstract class MessagingProtocol {
         @ToStringIgnore
         private MessagingConnectionIn<T> connIn;
 
+        @ToStringIgnore
+        private long receivedAtNanos;
+
         @ToStringIgnore
         private Map<String, Object> attributes;
 
@@ -315,10 +327,11 @@ abstract class MessagingProtocol {
             this.worker = worker;
         }
 
-        public void prepareReceive(MessagingWorker worker, MessagingConnectionIn<T> conn) {
+        public void prepareReceive(MessagingWorker worker, MessagingConnectionIn<T> conn, long receivedAtNanos) {
             this.worker = worker;
             this.conn = conn;
             this.connIn = conn;
+            this.receivedAtNanos = receivedAtNanos;
         }
 
         public int requestId() {
@@ -353,6 +366,11 @@ abstract class MessagingProtocol {
             return Optional.ofNullable(metaData);
         }
 
+        @Override
+        public long receivedAtNanos() {
+            return receivedAtNanos;
+        }
+
         @Override
         public boolean is(Class<? extends T> type) {
             return type.isInstance(payload);
@@ -82,8 +82,6 @@ class MessagingProtocolCodec<T> implements Codec<MessagingProtocol> {
         return rd.readInt();
     };
 
-    private static final NetworkMessage.PreviewBoolean HAS_TIMEOUT_PREVIEW = rd -> hasTimeout(rd.readByte());
-
     private final Codec<T> delegate;
 
     public MessagingProtocolCodec(Codec<T> delegate) {
@@ -98,10 +96,6 @@ class MessagingProtocolCodec<T> implements Codec<MessagingProtocol> {
         return msg.previewInt(AFFINITY_PREVIEW);
     }
 
-    public static boolean previewHasTimeout(NetworkMessage<MessagingProtocol> msg) throws IOException {
-        return msg.previewBoolean(HAS_TIMEOUT_PREVIEW);
-    }
-
     public static int previewRequestId(NetworkMessage<MessagingProtocol> msg) throws IOException {
         return msg.previewInt(REQUEST_ID_PREVIEW);
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.messaging.internal;
+
+import io.hekate.network.NetworkFuture;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+class MessagingWarmUp<T> {
+    private class Batch {
+        private final Queue<MessagingClient<T>> queue;
+
+        private final int size;
+
+        private final long startedAt = System.nanoTime();
+
+        private int remaining;
+
+        public Batch(Collection<MessagingClient<T>> clients) {
+            this.queue = new ArrayDeque<>(clients);
+            this.size = clients.size();
+            this.remaining = size;
+        }
+
+        public void connectNext() {
+            while (true) {
+                MessagingClient<T> client;
+
+                synchronized (this) {
+                    client = queue.poll();
+                }
+
+                if (client == null) {
+                    return;
+                }
+
+                NetworkFuture<MessagingProtocol> future = client.warmUp();
+
+                if (future == null || future.isDone()) {
+                    // Already connected or failed synchronously -> process the next client in the same thread.
+                    onConnected(client, future);
+                } else {
+                    future.whenComplete((endpoint, err) -> {
+                        onConnected(client, future);
+
+                        connectNext();
+                    });
+
+                    return;
+                }
+            }
+        }
+
+        private void onConnected(MessagingClient<T> client, NetworkFuture<MessagingProtocol> future) {
+            if (debug && future != null && future.isCompletedExceptionally()) {
+                log.debug("Failed to warm up connection [channel={}, node={}]", channel, client.node());
+            }
+
+            boolean done;
+
+            synchronized (this) {
+                done = --remaining == 0;
+            }
+
+            if (done) {
+                long time = System.nanoTime() - startedAt;
+
+                metrics.onWarmUp(time);
+
+                if (log.isInfoEnabled()) {
+                    log.info("Warmed up connections [channel={}, connections={}, time={}ms]",
+                        channel, size, TimeUnit.NANOSECONDS.toMillis(time));
+                }
+            }
+        }
+    }
+
+    private final String channel;
+
+    private final int parallelism;
+
+    @ToStringIgnore
+    private final MessagingMetrics metrics;
+
+    @ToStringIgnore
+    private final Logger log;
+
+    @ToStringIgnore
+    private final boolean debug;
+
+    public MessagingWarmUp(String channel, int parallelism, MessagingMetrics metrics, Logger log) {
+        assert parallelism > 0 : "Warm-up parallelism must be above zero.";
+
+        this.channel = channel;
+        this.parallelism = parallelism;
+        this.metrics = metrics;
+        this.log = log;
+        this.debug = log.isDebugEnabled();
+    }
+
+    public void warmUp(Collection<MessagingClient<T>> clients) {
+        if (!clients.isEmpty()) {
+            if (debug) {
+                log.debug("Warming up connections [channel={}, connections={}, parallelism={}]", channel, clients.size(), parallelism);
+            }
+
+            Batch batch = new Batch(clients);
+
+            int concurrent = Math.min(parallelism, clients.size());
+
+            for (int i = 0; i < concurrent; i++) {
+                batch.connectNext();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -45,6 +45,16 @@ public class NetworkConnectorConfig<T> {
 
     private int nioThreads;
 
+    private String eventLoopGroup;
+
+    private long readLimit;
+
+    private long writeLimit;
+
+    private long globalReadLimit;
+
+    private long globalWriteLimit;
+
     private CodecFactory<T> messageCodec;
 
     private NetworkServerHandler<T> serverHandler;
@@ -224,6 +234,246 @@ public class NetworkConnectorConfig<T> {
         return this;
     }
 
+    /**
+     * Returns the name of a shared NIO thread pool that should be used by this connector (see {@link #setEventLoopGroup(String)}).
+     *
+     * @return Name of a shared NIO thread pool.
+     */
+    public String getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
+    /**
+     * Sets the name of a shared NIO thread pool that should be used by this connector.
+     *
+     * <p>
+     * If specified then all NIO events of this connector will be handled by the thread pool of the same name that is registered within
+     * the {@link NetworkService} (see {@link NetworkServiceFactory#setEventLoopGroups(List)}). Such thread pool can be shared by multiple
+     * connectors. This option is mutually exclusive with {@link #setNioThreads(int)}.
+     * </p>
+     *
+     * <p>
+     * This parameter is optional and if not specified then the thread pool will be selected based on the {@link #setNioThreads(int)}
+     * parameter.
+     * </p>
+     *
+     * @param eventLoopGroup Name of a shared NIO thread pool.
+     *
+     * @see NetworkEventLoopGroupConfig
+     */
+    public void setEventLoopGroup(String eventLoopGroup) {
+        this.eventLoopGroup = eventLoopGroup;
+    }
+
+    /**
+     * Fluent-style version of {@link #setEventLoopGroup(String)}.
+     *
+     * @param eventLoopGroup Name of a shared NIO thread pool.
+     *
+     * @return This instance.
+     */
+    public NetworkConnectorConfig<T> withEventLoopGroup(String eventLoopGroup) {
+        setEventLoopGroup(eventLoopGroup);
+
+        return this;
+    }
+
+    /**
+     * Returns the per-connection read limit (see {@link #setReadLimit(long)}).
+     *
+     * @return Read limit in bytes per second.
+     */
+    public long getReadLimit() {
+        return readLimit;
+    }
+
+    /**
+     * Sets the per-connection read limit.
+     *
+     * <p>
+     * This limit is applied to each connection of this connector individually (both to {@link NetworkClient}s and to connections that
+     * are accepted by the {@link #setServerHandler(NetworkServerHandler) server handler}). When the limit is exceeded then reading from
+     * the socket gets suspended until the amount of received bytes gets back under the limit.
+     * </p>
+     *
+     * <p>
+     * If value of this parameter is less than or equals to zero then traffic is not limited.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is 0.
+     * </p>
+     *
+     * <p>
+     * <b>Note:</b> heartbeats are transferred over the same connections and are subject to the same limits. Limits should be high
+     * enough to not delay heartbeats for longer than {@link NetworkServiceFactory#setHeartbeatInterval(int) heartbeat interval} multiplied
+     * by the {@link NetworkServiceFactory#setHeartbeatLossThreshold(int) heartbeat loss threshold}. Otherwise connections can be
+     * closed by the remote side due to a timeout.
+     * </p>
+     *
+     * @param readLimit Read limit in bytes per second.
+     */
+    public void setReadLimit(long readLimit) {
+        this.readLimit = readLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setReadLimit(long)}.
+     *
+     * @param readLimit Read limit in bytes per second.
+     *
+     * @return This instance.
+     */
+    public NetworkConnectorConfig<T> withReadLimit(long readLimit) {
+        setReadLimit(readLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the per-connection write limit (see {@link #setWriteLimit(long)}).
+     *
+     * @return Write limit in bytes per second.
+     */
+    public long getWriteLimit() {
+        return writeLimit;
+    }
+
+    /**
+     * Sets the per-connection write limit.
+     *
+     * <p>
+     * This limit is applied to each connection of this connector individually (both to {@link NetworkClient}s and to connections that
+     * are accepted by the {@link #setServerHandler(NetworkServerHandler) server handler}). When the limit is exceeded then messages get
+     * delayed until the amount of sent bytes gets back under the limit.
+     * </p>
+     *
+     * <p>
+     * If value of this parameter is less than or equals to zero then traffic is not limited.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is 0.
+     * </p>
+     *
+     * <p>
+     * <b>Note:</b> heartbeats are transferred over the same connections and are subject to the same limits. Limits should be high
+     * enough to not delay heartbeats for longer than {@link NetworkServiceFactory#setHeartbeatInterval(int) heartbeat interval} multiplied
+     * by the {@link NetworkServiceFactory#setHeartbeatLossThreshold(int) heartbeat loss threshold}. Otherwise connections can be
+     * closed by the remote side due to a timeout.
+     * </p>
+     *
+     * @param writeLimit Write limit in bytes per second.
+     */
+    public void setWriteLimit(long writeLimit) {
+        this.writeLimit = writeLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setWriteLimit(long)}.
+     *
+     * @param writeLimit Write limit in bytes per second.
+     *
+     * @return This instance.
+     */
+    public NetworkConnectorConfig<T> withWriteLimit(long writeLimit) {
+        setWriteLimit(writeLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the global read limit of this connector (see {@link #setGlobalReadLimit(long)}).
+     *
+     * @return Global read limit in bytes per second.
+     */
+    public long getGlobalReadLimit() {
+        return globalReadLimit;
+    }
+
+    /**
+     * Sets the global read limit of this connector.
+     *
+     * <p>
+     * This limit is shared by all connections of this connector (both by {@link NetworkClient}s and by connections that are accepted
+     * by the {@link #setServerHandler(NetworkServerHandler) server handler}) and can be combined with the
+     * {@link #setReadLimit(long) per-connection limit}. When the limit is exceeded then reading from
+     * the socket gets suspended until the amount of received bytes gets back under the limit.
+     * </p>
+     *
+     * <p>
+     * If value of this parameter is less than or equals to zero then traffic is not limited.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is 0.
+     * </p>
+     *
+     * @param globalReadLimit Global read limit in bytes per second.
+     */
+    public void setGlobalReadLimit(long globalReadLimit) {
+        this.globalReadLimit = globalReadLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setGlobalReadLimit(long)}.
+     *
+     * @param globalReadLimit Global read limit in bytes per second.
+     *
+     * @return This instance.
+     */
+    public NetworkConnectorConfig<T> withGlobalReadLimit(long globalReadLimit) {
+        setGlobalReadLimit(globalReadLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the global write limit of this connector (see {@link #setGlobalWriteLimit(long)}).
+     *
+     * @return Global write limit in bytes per second.
+     */
+    public long getGlobalWriteLimit() {
+        return globalWriteLimit;
+    }
+
+    /**
+     * Sets the global write limit of this connector.
+     *
+     * <p>
+     * This limit is shared by all connections of this connector (both by {@link NetworkClient}s and by connections that are accepted
+     * by the {@link #setServerHandler(NetworkServerHandler) server handler}) and can be combined with the
+     * {@link #setWriteLimit(long) per-connection limit}. When the limit is exceeded then messages get
+     * delayed until the amount of sent bytes gets back under the limit.
+     * </p>
+     *
+     * <p>
+     * If value of this parameter is less than or equals to zero then traffic is not limited.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is 0.
+     * </p>
+     *
+     * @param globalWriteLimit Global write limit in bytes per second.
+     */
+    public void setGlobalWriteLimit(long globalWriteLimit) {
+        this.globalWriteLimit = globalWriteLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setGlobalWriteLimit(long)}.
+     *
+     * @param globalWriteLimit Global write limit in bytes per second.
+     *
+     * @return This instance.
+     */
+    public NetworkConnectorConfig<T> withGlobalWriteLimit(long globalWriteLimit) {
+        setGlobalWriteLimit(globalWriteLimit);
+
+        return this;
+    }
+
     /**
      * Returns the log category that should be used by the connector (see {@link #setLogCategory(String)}).
      *
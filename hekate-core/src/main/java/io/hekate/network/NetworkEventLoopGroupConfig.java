@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network;
+
+import io.hekate.util.format.ToString;
+import java.util.List;
+
+/**
+ * Configuration of a named NIO thread pool (event loop group).
+ *
+ * <p>
+ * Instances of this class can be registered within the {@link NetworkService} via {@link
+ * NetworkServiceFactory#setEventLoopGroups(List)} method. Once registered, such thread pool can be shared by multiple connectors (see
+ * {@link NetworkConnectorConfig#setEventLoopGroup(String)}) and messaging channels. This makes it possible to isolate the
+ * latency-sensitive traffic (f.e. cluster control messages) from the bulk data traffic without allocating a separate thread pool for
+ * each connector.
+ * </p>
+ *
+ * @see NetworkServiceFactory#setEventLoopGroups(List)
+ * @see NetworkConnectorConfig#setEventLoopGroup(String)
+ */
+public class NetworkEventLoopGroupConfig {
+    /** See {@link #setName(String)}. */
+    private String name;
+
+    /** See {@link #setNioThreads(int)}. */
+    private int nioThreads;
+
+    /**
+     * Returns the name of this thread pool (see {@link #setName(String)}).
+     *
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of this thread pool. Can contain only alpha-numeric characters and non-repeatable dots/hyphens.
+     *
+     * <p>
+     * This name is used to reference this thread pool from {@link NetworkConnectorConfig#setEventLoopGroup(String)} and is also used as
+     * a prefix of thread names. Names must be unique within the {@link NetworkService}.
+     * </p>
+     *
+     * <p>
+     * This parameter is mandatory and doesn't have a default value.
+     * </p>
+     *
+     * @param name Name (can contain only alpha-numeric characters and non-repeatable dots/hyphens).
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Fluent-style version of {@link #setName(String)}.
+     *
+     * @param name Name.
+     *
+     * @return This instance.
+     */
+    public NetworkEventLoopGroupConfig withName(String name) {
+        setName(name);
+
+        return this;
+    }
+
+    /**
+     * Returns the thread pool size (see {@link #setNioThreads(int)}).
+     *
+     * @return Thread pool size.
+     */
+    public int getNioThreads() {
+        return nioThreads;
+    }
+
+    /**
+     * Sets the thread pool size.
+     *
+     * <p>
+     * Value of this parameter must be above zero.
+     * </p>
+     *
+     * @param nioThreads Thread pool size.
+     */
+    public void setNioThreads(int nioThreads) {
+        this.nioThreads = nioThreads;
+    }
+
+    /**
+     * Fluent-style version of {@link #setNioThreads(int)}.
+     *
+     * @param nioThreads Thread pool size.
+     *
+     * @return This instance.
+     */
+    public NetworkEventLoopGroupConfig withNioThreads(int nioThreads) {
+        setNioThreads(nioThreads);
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
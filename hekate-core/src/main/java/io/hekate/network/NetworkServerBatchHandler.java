@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Server handler that receives messages in batches.
+ *
+ * <p>
+ * This is an optional extension of the {@link NetworkServerHandler} interface. If server handler implements this interface then, instead
+ * of being notified on each individual message via {@link #onMessage(NetworkMessage, NetworkEndpoint)}, it will be notified via
+ * {@link #onMessageBatch(List, NetworkEndpoint)} with all messages that were received from the same client connection within a single
+ * read cycle of the underlying NIO thread. This gives handlers a chance to amortize the cost of locking, queue hand-offs and flushes
+ * across multiple messages.
+ * </p>
+ *
+ * <p>
+ * <b>Important:</b> the list of messages and the messages themselves are valid only during the
+ * {@link #onMessageBatch(List, NetworkEndpoint)} method call and must not be accessed after this method returns. Messages that should be
+ * processed asynchronously must be submitted via {@link NetworkMessage#handleAsync(java.util.concurrent.Executor,
+ * java.util.function.Consumer)}.
+ * </p>
+ *
+ * @param <T> Base type of messages that can be sent/received by this handler.
+ *
+ * @see NetworkConnectorConfig#setServerHandler(NetworkServerHandler)
+ */
+@FunctionalInterface
+public interface NetworkServerBatchHandler<T> extends NetworkServerHandler<T> {
+    /**
+     * Called when a batch of messages is received from the client.
+     *
+     * <p>
+     * Messages are ordered in the same order as they were received from the client. The batch is never empty.
+     * </p>
+     *
+     * @param batch Messages (never empty and only valid during this method call).
+     * @param from Client connection.
+     *
+     * @throws IOException Message handling error.
+     */
+    void onMessageBatch(List<NetworkMessage<T>> batch, NetworkEndpoint<T> from) throws IOException;
+
+    /**
+     * Delegates to {@link #onMessageBatch(List, NetworkEndpoint)} with a single-element list.
+     *
+     * @param msg Message.
+     * @param from Client connection.
+     *
+     * @throws IOException Message handling error.
+     */
+    @Override
+    default void onMessage(NetworkMessage<T> msg, NetworkEndpoint<T> from) throws IOException {
+        onMessageBatch(singletonList(msg), from);
+    }
+}
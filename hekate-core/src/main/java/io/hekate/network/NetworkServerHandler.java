@@ -35,6 +35,7 @@ import java.net.InetSocketAddress;
  *
  * @see NetworkService
  * @see NetworkConnectorConfig#setServerHandler(NetworkServerHandler)
+ * @see NetworkServerBatchHandler
  */
 @FunctionalInterface
 public interface NetworkServerHandler<T> {
@@ -112,6 +112,9 @@ public class NetworkServiceFactory implements ServiceFactory<NetworkService> {
     /** See {@link #setSsl(NetworkSslConfig)}. */
     private NetworkSslConfig ssl;
 
+    /** See {@link #setEventLoopGroups(List)}. */
+    private List<NetworkEventLoopGroupConfig> eventLoopGroups;
+
     /** See {@link #setConnectors(List)}. */
     private List<NetworkConnectorConfig<?>> connectors;
 
@@ -764,6 +767,46 @@ public class NetworkServiceFactory implements ServiceFactory<NetworkService> {
         return this;
     }
 
+    /**
+     * Returns the list of named NIO thread pools (see {@link #setEventLoopGroups(List)}).
+     *
+     * @return List of named NIO thread pools.
+     */
+    public List<NetworkEventLoopGroupConfig> getEventLoopGroups() {
+        return eventLoopGroups;
+    }
+
+    /**
+     * Sets the list of named NIO thread pools that can be shared by connectors.
+     *
+     * <p>
+     * Such thread pools are initialized in addition to the core thread pool (see {@link #setNioThreads(int)}) and can be referenced by
+     * connectors and messaging channels via {@link NetworkConnectorConfig#setEventLoopGroup(String)}.
+     * </p>
+     *
+     * @param eventLoopGroups Named NIO thread pools.
+     */
+    public void setEventLoopGroups(List<NetworkEventLoopGroupConfig> eventLoopGroups) {
+        this.eventLoopGroups = eventLoopGroups;
+    }
+
+    /**
+     * Fluent-style version of {@link #setEventLoopGroups(List)}.
+     *
+     * @param eventLoopGroup Named NIO thread pool.
+     *
+     * @return This instance.
+     */
+    public NetworkServiceFactory withEventLoopGroup(NetworkEventLoopGroupConfig eventLoopGroup) {
+        if (eventLoopGroups == null) {
+            eventLoopGroups = new ArrayList<>();
+        }
+
+        eventLoopGroups.add(eventLoopGroup);
+
+        return this;
+    }
+
     /**
      * Returns the list of connector configurations (see {@link #setConnectors(List)}).
      *
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.internal;
+
+import io.hekate.core.internal.util.HekateThreadFactory;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory that keeps track of event loop threads in order to provide utilization statistics.
+ */
+class NettyEventLoopThreads implements ThreadFactory {
+    private static final ThreadMXBean THREAD_MX = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+
+    private final String type;
+
+    @ToStringIgnore
+    private final ThreadFactory delegate;
+
+    @ToStringIgnore
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    @ToStringIgnore
+    private long lastCpuTime;
+
+    @ToStringIgnore
+    private long lastCheckTime;
+
+    public NettyEventLoopThreads(String name, String type, String threadNamePrefix) {
+        this.name = name;
+        this.type = type;
+        this.delegate = new HekateThreadFactory(threadNamePrefix);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public int size() {
+        return threads.size();
+    }
+
+    /**
+     * Returns the total amount of pending tasks in all event loops of the specified group.
+     *
+     * @param group Event loop group.
+     *
+     * @return Amount of pending tasks.
+     */
+    public static int pendingTasks(EventLoopGroup group) {
+        int pending = 0;
+
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                pending += ((SingleThreadEventExecutor)executor).pendingTasks();
+            }
+        }
+
+        return pending;
+    }
+
+    /**
+     * Returns the average share of CPU time that was consumed by event loop threads since the previous call of this method.
+     *
+     * @return Value between 0 and 1 or {@link Double#NaN} if thread CPU time measurement is not supported by the JVM.
+     */
+    public synchronized double utilization() {
+        if (!THREAD_MX.isThreadCpuTimeSupported() || !THREAD_MX.isThreadCpuTimeEnabled()) {
+            return Double.NaN;
+        }
+
+        long now = System.nanoTime();
+
+        long cpuTime = 0;
+        int alive = 0;
+
+        for (Thread thread : threads) {
+            long threadCpuTime = THREAD_MX.getThreadCpuTime(thread.getId());
+
+            if (threadCpuTime >= 0) {
+                cpuTime += threadCpuTime;
+                alive++;
+            }
+        }
+
+        double utilization;
+
+        if (lastCheckTime == 0 || alive == 0 || now == lastCheckTime) {
+            utilization = 0;
+        } else {
+            utilization = (double)Math.max(0, cpuTime - lastCpuTime) / ((now - lastCheckTime) * alive);
+        }
+
+        lastCpuTime = cpuTime;
+        lastCheckTime = now;
+
+        return Math.min(1, utilization);
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = delegate.newThread(r);
+
+        threads.add(thread);
+
+        return thread;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
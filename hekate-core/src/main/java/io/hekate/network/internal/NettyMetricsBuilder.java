@@ -18,9 +18,13 @@ package io.hekate.network.internal;
 
 import io.hekate.network.netty.NettyMetricsFactory;
 import io.hekate.network.netty.NettyMetricsSink;
+import io.hekate.network.netty.NettySslMetricsSink;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 class NettyMetricsBuilder {
@@ -38,6 +42,66 @@ class NettyMetricsBuilder {
         return doCreateFactory();
     }
 
+    public NettySslMetricsSink createServerSslSink(String provider) {
+        return doCreateSslSink("server", provider);
+    }
+
+    public NettySslMetricsSink createClientSslSink(String provider) {
+        return doCreateSslSink("client", provider);
+    }
+
+    public void registerEventLoop(EventLoopGroup group, NettyEventLoopThreads threads) {
+        Gauge.builder("hekate.network.eventloop.pending", group, NettyEventLoopThreads::pendingTasks)
+            .tag("type", threads.type())
+            .tag("name", threads.name())
+            .register(metrics);
+
+        Gauge.builder("hekate.network.eventloop.utilization", threads, NettyEventLoopThreads::utilization)
+            .tag("type", threads.type())
+            .tag("name", threads.name())
+            .register(metrics);
+    }
+
+    private NettySslMetricsSink doCreateSslSink(String side, String provider) {
+        Timer handshakes = Timer.builder("hekate.network.ssl.handshake.time")
+            .tag("side", side)
+            .tag("provider", provider)
+            .register(metrics);
+
+        Counter failures = Counter.builder("hekate.network.ssl.handshake.failure")
+            .tag("side", side)
+            .tag("provider", provider)
+            .register(metrics);
+
+        Counter resumed = Counter.builder("hekate.network.ssl.session.resumed")
+            .tag("side", side)
+            .tag("provider", provider)
+            .register(metrics);
+
+        Counter created = Counter.builder("hekate.network.ssl.session.created")
+            .tag("side", side)
+            .tag("provider", provider)
+            .register(metrics);
+
+        return new NettySslMetricsSink() {
+            @Override
+            public void onHandshake(long nanos, boolean isResumed) {
+                handshakes.record(nanos, TimeUnit.NANOSECONDS);
+
+                if (isResumed) {
+                    resumed.increment();
+                } else {
+                    created.increment();
+                }
+            }
+
+            @Override
+            public void onHandshakeFailure() {
+                failures.increment();
+            }
+        };
+    }
+
     private NettyMetricsFactory doCreateFactory() {
         return protocol -> {
             // Bytes.
@@ -75,6 +139,15 @@ class NettyMetricsBuilder {
                 .tag("protocol", protocol)
                 .register(metrics);
 
+            // Traffic shaping.
+            Timer readThrottled = Timer.builder("hekate.network.throttle.read")
+                .tag("protocol", protocol)
+                .register(metrics);
+
+            Timer writeThrottled = Timer.builder("hekate.network.throttle.write")
+                .tag("protocol", protocol)
+                .register(metrics);
+
             return new NettyMetricsSink() {
                 @Override
                 public void onBytesSent(long bytes) {
@@ -117,6 +190,16 @@ class NettyMetricsBuilder {
                 public void onDisconnect() {
                     connsAct.decrement();
                 }
+
+                @Override
+                public void onReadThrottled(long nanos) {
+                    readThrottled.record(nanos, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public void onWriteThrottled(long nanos) {
+                    writeThrottled.record(nanos, TimeUnit.NANOSECONDS);
+                }
             };
         };
     }
@@ -25,7 +25,7 @@ import io.hekate.codec.SingletonCodecFactory;
 import io.hekate.core.HekateException;
 import io.hekate.core.internal.util.ArgAssert;
 import io.hekate.core.internal.util.ConfigCheck;
-import io.hekate.core.internal.util.HekateThreadFactory;
+import io.hekate.core.internal.util.Utils;
 import io.hekate.core.jmx.JmxService;
 import io.hekate.core.jmx.JmxSupport;
 import io.hekate.core.report.ConfigReporter;
@@ -41,6 +41,7 @@ import io.hekate.network.NetworkClientCallback;
 import io.hekate.network.NetworkConfigProvider;
 import io.hekate.network.NetworkConnector;
 import io.hekate.network.NetworkConnectorConfig;
+import io.hekate.network.NetworkEventLoopGroupConfig;
 import io.hekate.network.NetworkMessage;
 import io.hekate.network.NetworkPingCallback;
 import io.hekate.network.NetworkPingResult;
@@ -59,6 +60,8 @@ import io.hekate.network.address.AddressSelector;
 import io.hekate.network.netty.NettyClientFactory;
 import io.hekate.network.netty.NettyServerFactory;
 import io.hekate.network.netty.NettyServerHandlerConfig;
+import io.hekate.network.netty.NettySslMetricsSink;
+import io.hekate.network.netty.NettyTrafficShaping;
 import io.hekate.network.netty.NettyUtils;
 import io.hekate.util.StateGuard;
 import io.hekate.util.async.AsyncUtils;
@@ -74,9 +77,13 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,18 +95,26 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
     private static class ConnectorRegistration<T> {
         private final EventLoopGroup eventLoop;
 
+        private final String eventLoopGroup;
+
         private final DefaultNetworkConnector<T> connector;
 
         private final NettyServerHandlerConfig<T> serverHandler;
 
+        private final NettyTrafficShaping trafficShaping;
+
         public ConnectorRegistration(
             EventLoopGroup eventLoop,
+            String eventLoopGroup,
             DefaultNetworkConnector<T> connector,
-            NettyServerHandlerConfig<T> serverHandler
+            NettyServerHandlerConfig<T> serverHandler,
+            NettyTrafficShaping trafficShaping
         ) {
             this.eventLoop = eventLoop;
+            this.eventLoopGroup = eventLoopGroup;
             this.connector = connector;
             this.serverHandler = serverHandler;
+            this.trafficShaping = trafficShaping;
         }
 
         public boolean hasEventLoop() {
@@ -110,10 +125,18 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             return eventLoop;
         }
 
+        public String eventLoopGroup() {
+            return eventLoopGroup;
+        }
+
         public NettyServerHandlerConfig<T> serverHandler() {
             return serverHandler;
         }
 
+        public NettyTrafficShaping trafficShaping() {
+            return trafficShaping;
+        }
+
         @SuppressWarnings("unchecked")
         public <R> DefaultNetworkConnector<R> connector() {
             return (DefaultNetworkConnector<R>)connector;
@@ -162,12 +185,20 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
 
     private final List<NetworkConnectorConfig<?>> connectorConfigs = new ArrayList<>();
 
+    private final List<NetworkEventLoopGroupConfig> eventLoopGroupConfigs = new ArrayList<>();
+
+    private final Map<String, EventLoopGroup> eventLoopGroups = new LinkedHashMap<>();
+
     private final Map<String, ConnectorRegistration<?>> connectors = new HashMap<>();
 
     private SslContext clientSsl;
 
     private SslContext serverSsl;
 
+    private NettySslMetricsSink clientSslMetrics;
+
+    private NettySslMetricsSink serverSslMetrics;
+
     private CodecService codec;
 
     private ResourceService resources;
@@ -216,6 +247,21 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             transport = factory.getTransport();
         }
 
+        Set<String> groupNames = new HashSet<>();
+
+        nullSafe(factory.getEventLoopGroups()).forEach(group -> {
+            ConfigCheck groupCheck = ConfigCheck.get(NetworkEventLoopGroupConfig.class);
+
+            groupCheck.notEmpty(group.getName(), "name");
+            groupCheck.validSysName(group.getName(), "name");
+            groupCheck.unique(group.getName().trim(), groupNames, "name");
+            groupCheck.positive(group.getNioThreads(), "NIO thread pool size");
+
+            groupNames.add(group.getName().trim());
+
+            eventLoopGroupConfigs.add(group);
+        });
+
         nullSafe(factory.getConnectors()).forEach(connectorConfigs::add);
 
         nullSafe(factory.getConfigProviders()).forEach(provider ->
@@ -246,6 +292,19 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
         if (sslConfig != null) {
             clientSsl = NettySslUtils.clientContext(sslConfig, resources);
             serverSsl = NettySslUtils.serverContext(sslConfig, resources);
+
+            String provider = NettySslUtils.resolveProvider(sslConfig).name();
+
+            clientSslMetrics = metrics.createClientSslSink(provider);
+            serverSslMetrics = metrics.createServerSslSink(provider);
+
+            if (log.isInfoEnabled()) {
+                log.info("Initialized SSL context [provider={}]", provider);
+            }
+
+            if (DEBUG) {
+                log.debug("SSL cipher suites [ciphers={}]", serverSsl.cipherSuites());
+            }
         }
     }
 
@@ -267,9 +326,21 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             net.value("so-reuse-address", soReuseAddress);
             net.value("so-backlog", soBacklog);
 
+            if (!eventLoopGroupConfigs.isEmpty()) {
+                net.section("event-loop-groups", gss ->
+                    eventLoopGroupConfigs.forEach(g ->
+                        gss.section("event-loop-group", gs -> {
+                            gs.value("name", g.getName().trim());
+                            gs.value("nio-threads", g.getNioThreads());
+                        })
+                    )
+                );
+            }
+
             if (sslConfig != null) {
                 net.section("ssl", ssl -> {
                     ssl.value("provider", sslConfig.getProvider());
+                    ssl.value("resolved-provider", NettySslUtils.resolveProvider(sslConfig));
                     ssl.value("key-store-path", sslConfig.getKeyStorePath());
                     ssl.value("key-store-type", sslConfig.getKeyStoreType());
                     ssl.value("key-store-type", sslConfig.getKeyStoreAlgorithm());
@@ -288,7 +359,15 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
                             cs.value("protocol", c.connector().protocol());
                             cs.value("server", c.connector().isServer());
                             cs.value("nio-threads", c.hasEventLoop() ? c.connector().nioThreads() : "shared");
+                            cs.value("event-loop-group", c.eventLoopGroup());
                             cs.value("idle-timeout", c.connector().idleSocketTimeout());
+
+                            if (c.trafficShaping() != null) {
+                                cs.value("read-limit", c.trafficShaping().readLimit());
+                                cs.value("write-limit", c.trafficShaping().writeLimit());
+                                cs.value("global-read-limit", c.trafficShaping().globalReadLimit());
+                                cs.value("global-write-limit", c.trafficShaping().globalWriteLimit());
+                            }
                         })
                     )
                 );
@@ -322,8 +401,14 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             guard.becomeInitializing();
 
             // Prepare event loops.
-            acceptorLoop = newEventLoop(NIO_ACCEPTOR_THREADS, "NioAcceptor");
-            coreLoop = newEventLoop(nioThreadPoolSize, "NioWorker-core");
+            acceptorLoop = newEventLoop(NIO_ACCEPTOR_THREADS, "NioAcceptor", "acceptor", "acceptor");
+            coreLoop = newEventLoop(nioThreadPoolSize, "NioWorker-core", "core", "core");
+
+            eventLoopGroupConfigs.forEach(group -> {
+                String name = group.getName().trim();
+
+                eventLoopGroups.put(name, newEventLoop(group.getNioThreads(), "NioWorker-" + name, "group", name));
+            });
 
             // Prepare server factory.
             NettyServerFactory factory = new NettyServerFactory();
@@ -339,6 +424,7 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             factory.setAcceptorEventLoop(acceptorLoop);
             factory.setWorkerEventLoop(coreLoop);
             factory.setSsl(serverSsl);
+            factory.setSslMetrics(serverSslMetrics);
             factory.setMetrics(metrics.createServerFactory());
 
             server = factory.createServer();
@@ -460,6 +546,8 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
         EventLoopGroup localAcceptorLoop = null;
         EventLoopGroup localCoreLoop = null;
         List<EventLoopGroup> localLoops = null;
+        List<EventLoopGroup> localGroups = null;
+        List<NettyTrafficShaping> localShaping = null;
 
         guard.lockWrite();
 
@@ -474,7 +562,15 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
                     .map(ConnectorRegistration::eventLoop)
                     .collect(toList());
 
+                localShaping = connectors.values().stream()
+                    .map(ConnectorRegistration::trafficShaping)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+
+                localGroups = new ArrayList<>(eventLoopGroups.values());
+
                 connectors.clear();
+                eventLoopGroups.clear();
 
                 acceptorLoop = null;
                 coreLoop = null;
@@ -500,12 +596,20 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             }
         }
 
+        if (localShaping != null) {
+            localShaping.forEach(NettyTrafficShaping::release);
+        }
+
         shutdown(localAcceptorLoop);
         shutdown(localCoreLoop);
 
         if (localLoops != null) {
             localLoops.forEach(this::shutdown);
         }
+
+        if (localGroups != null) {
+            localGroups.forEach(this::shutdown);
+        }
     }
 
     @Override
@@ -639,16 +743,28 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
 
         // Decide which event loop to use for this connector.
         int nioThreads = cfg.getNioThreads();
+        String groupName = Utils.nullOrTrim(cfg.getEventLoopGroup());
 
         boolean useCoreLoop;
+        boolean ownEventLoop;
         EventLoopGroup eventLoop;
 
-        if (nioThreads > 0) {
+        if (groupName != null) {
+            check.isFalse(nioThreads > 0, "can't specify both 'nioThreads' and 'eventLoopGroup' [protocol=" + protocol + ']');
+            check.notNull(eventLoopGroups.get(groupName), "event loop group", "unknown group [name=" + groupName + ']');
+
+            useCoreLoop = false;
+            ownEventLoop = false;
+
+            eventLoop = eventLoopGroups.get(groupName);
+        } else if (nioThreads > 0) {
             useCoreLoop = false;
+            ownEventLoop = true;
 
-            eventLoop = newEventLoop(nioThreads, "NioWorker-" + protocol);
+            eventLoop = newEventLoop(nioThreads, "NioWorker-" + protocol, "connector", protocol);
         } else {
             useCoreLoop = true;
+            ownEventLoop = false;
 
             eventLoop = coreLoop;
         }
@@ -678,10 +794,26 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
         factory.setSoReuseAddress(soReuseAddress);
         factory.setTcpNoDelay(tcpNoDelay);
         factory.setSsl(clientSsl);
+        factory.setSslMetrics(clientSslMetrics);
 
         // Event loop.
         factory.setEventLoop(eventLoop);
 
+        // Traffic shaping.
+        NettyTrafficShaping trafficShaping = null;
+
+        if (cfg.getReadLimit() > 0 || cfg.getWriteLimit() > 0 || cfg.getGlobalReadLimit() > 0 || cfg.getGlobalWriteLimit() > 0) {
+            trafficShaping = new NettyTrafficShaping(
+                cfg.getReadLimit(),
+                cfg.getWriteLimit(),
+                cfg.getGlobalReadLimit(),
+                cfg.getGlobalWriteLimit(),
+                eventLoop
+            );
+
+            factory.setTrafficShaping(trafficShaping);
+        }
+
         // Metrics.
         factory.setMetrics(metrics.createClientFactory().createSink(protocol));
 
@@ -697,6 +829,7 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
             handlerCfg.setCodecFactory(codecFactory);
             handlerCfg.setLoggerCategory(cfg.getLogCategory());
             handlerCfg.setHandler(handler);
+            handlerCfg.setTrafficShaping(trafficShaping);
 
             if (!useCoreLoop) {
                 handlerCfg.setEventLoop(eventLoop);
@@ -712,9 +845,11 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
         );
 
         ConnectorRegistration<T> reg = new ConnectorRegistration<>(
-            useCoreLoop ? null : eventLoop, // <-- Decide which event loop to use for this connector.
+            ownEventLoop ? eventLoop : null, // <-- Only dedicated event loops are owned by the connector.
+            groupName,
             conn,
-            handlerCfg
+            handlerCfg,
+            trafficShaping
         );
 
         connectors.put(protocol, reg);
@@ -760,19 +895,31 @@ public class NettyNetworkService implements NetworkService, NetworkServiceManage
         return codec.codecFactory();
     }
 
-    private EventLoopGroup newEventLoop(int size, String threadNamePrefix) {
+    private EventLoopGroup newEventLoop(int size, String threadNamePrefix, String metricsType, String metricsName) {
+        NettyEventLoopThreads threads = new NettyEventLoopThreads(metricsName, metricsType, threadNamePrefix);
+
+        EventLoopGroup group;
+
         switch (transport) {
             case EPOLL: {
-                return new EpollEventLoopGroup(size, new HekateThreadFactory(threadNamePrefix));
+                group = new EpollEventLoopGroup(size, threads);
+
+                break;
             }
             case NIO: {
-                return new NioEventLoopGroup(size, new HekateThreadFactory(threadNamePrefix));
+                group = new NioEventLoopGroup(size, threads);
+
+                break;
             }
             case AUTO: // <-- Fail since AUTO must be resolved in the constructor.
             default: {
                 throw new IllegalArgumentException("Unexpected transport type: " + transport);
             }
         }
+
+        metrics.registerEventLoop(group, threads);
+
+        return group;
     }
 
     private void shutdown(EventLoopGroup group) {
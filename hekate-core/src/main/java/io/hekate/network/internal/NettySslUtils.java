@@ -20,6 +20,7 @@ import io.hekate.core.internal.util.ConfigCheck;
 import io.hekate.core.resource.ResourceLoadException;
 import io.hekate.core.resource.ResourceService;
 import io.hekate.network.NetworkSslConfig;
+import io.netty.handler.ssl.CipherSuiteFilter;
 import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.OpenSslX509KeyManagerFactory;
 import io.netty.handler.ssl.SslContext;
@@ -30,13 +31,58 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.TrustManagerFactory;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
 /**
  * SSL-related utilities.
  */
 final class NettySslUtils {
+    /**
+     * Cipher suites that should be preferred over other cipher suites that are supported by the SSL provider.
+     *
+     * <p>
+     * AES-GCM cipher suites go first since they benefit from hardware acceleration (AES-NI/PCLMULQDQ) on modern CPUs.
+     * </p>
+     */
+    static final List<String> PREFERRED_CIPHERS = unmodifiableList(asList(
+        // TLS v1.3.
+        "TLS_AES_128_GCM_SHA256",
+        "TLS_AES_256_GCM_SHA384",
+        // TLS v1.2.
+        "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256",
+        "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+        "TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384",
+        "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384",
+        "TLS_DHE_RSA_WITH_AES_128_GCM_SHA256",
+        "TLS_DHE_RSA_WITH_AES_256_GCM_SHA384",
+        "TLS_RSA_WITH_AES_128_GCM_SHA256",
+        "TLS_RSA_WITH_AES_256_GCM_SHA384"
+    ));
+
+    /**
+     * Puts {@link #PREFERRED_CIPHERS} (if supported) in front of the provider's default cipher suites.
+     */
+    private static final CipherSuiteFilter PREFERRED_CIPHERS_FILTER = (ciphers, defaultCiphers, supportedCiphers) -> {
+        Set<String> result = new LinkedHashSet<>();
+
+        for (String cipher : PREFERRED_CIPHERS) {
+            if (supportedCiphers.contains(cipher)) {
+                result.add(cipher);
+            }
+        }
+
+        result.addAll(defaultCiphers);
+
+        return result.toArray(new String[0]);
+    };
+
     private NettySslUtils() {
         // No-op.
     }
@@ -54,7 +100,8 @@ final class NettySslUtils {
 
         try {
             return SslContextBuilder.forClient()
-                .sslProvider(provider(cfg))
+                .sslProvider(resolveProvider(cfg))
+                .ciphers(null, PREFERRED_CIPHERS_FILTER)
                 .trustManager(trustManager(cfg, res))
                 .sessionCacheSize(cfg.getSslSessionCacheSize())
                 .sessionTimeout(cfg.getSslSessionCacheTimeout())
@@ -77,7 +124,8 @@ final class NettySslUtils {
 
         try {
             return SslContextBuilder.forServer(keyManager(cfg, res))
-                .sslProvider(provider(cfg))
+                .sslProvider(resolveProvider(cfg))
+                .ciphers(null, PREFERRED_CIPHERS_FILTER)
                 .trustManager(trustManager(cfg, res))
                 .sessionCacheSize(cfg.getSslSessionCacheSize())
                 .sessionTimeout(cfg.getSslSessionCacheTimeout())
@@ -94,13 +142,13 @@ final class NettySslUtils {
         KeyManagerFactory factory;
 
         if (cfg.getKeyStoreAlgorithm() == null || cfg.getKeyStoreAlgorithm().isEmpty()) {
-            if (provider(cfg) == SslProvider.OPENSSL) {
+            if (resolveProvider(cfg) == SslProvider.OPENSSL) {
                 factory = new OpenSslX509KeyManagerFactory();
             } else {
                 factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
             }
         } else {
-            if (provider(cfg) == SslProvider.OPENSSL) {
+            if (resolveProvider(cfg) == SslProvider.OPENSSL) {
                 factory = new OpenSslX509KeyManagerFactory(cfg.getKeyStoreAlgorithm(), null);
             } else {
                 factory = KeyManagerFactory.getInstance(cfg.getKeyStoreAlgorithm());
@@ -172,7 +220,19 @@ final class NettySslUtils {
         return check;
     }
 
-    private static SslProvider provider(NetworkSslConfig cfg) {
+    /**
+     * Resolves the SSL provider for the specified configuration.
+     *
+     * <p>
+     * If {@link NetworkSslConfig.Provider#AUTO} is specified then OpenSSL will be selected if it is available on the classpath. Otherwise
+     * the JDK provider will be selected.
+     * </p>
+     *
+     * @param cfg SSL configuration.
+     *
+     * @return SSL provider.
+     */
+    public static SslProvider resolveProvider(NetworkSslConfig cfg) {
         switch (cfg.getProvider()) {
             case AUTO: {
                 return OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK;
@@ -22,7 +22,7 @@ import io.netty.buffer.ByteBufUtil;
 import java.io.IOException;
 import java.io.OutputStream;
 
-class ByteBufDataWriter extends OutputStream implements DataWriter {
+class ByteBufDataWriter extends OutputStream implements DataWriter, NettyBufferAware {
     private ByteBuf out;
 
     private int initSize;
@@ -40,6 +40,7 @@ class ByteBufDataWriter extends OutputStream implements DataWriter {
         this.initSize = out != null ? out.writerIndex() : 0;
     }
 
+    @Override
     public ByteBuf buffer() {
         return out;
     }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.netty;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.DataReader;
+import io.hekate.codec.DataWriter;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * {@link DataReader} or {@link DataWriter} that is backed by a Netty {@link ByteBuf}.
+ *
+ * <p>
+ * All readers and writers that are passed to {@link Codec}s by the Netty-based networking layer implement this interface. Codecs can
+ * use it to read/write data directly from/to the underlying buffer and, thus, bypass the {@link DataReader#asStream() stream}-based
+ * adapters and their intermediate copies.
+ * </p>
+ *
+ * <p>
+ * When reading, codecs must advance the buffer's {@link ByteBuf#readerIndex() reader index} by the amount of consumed bytes. When writing,
+ * codecs must advance the buffer's {@link ByteBuf#writerIndex() writer index} by the amount of written bytes. Codecs must never retain
+ * or release the buffer.
+ * </p>
+ */
+public interface NettyBufferAware {
+    /**
+     * Returns the underlying buffer.
+     *
+     * @return Buffer or {@code null} if this instance is not backed by a buffer at the moment.
+     */
+    ByteBuf buffer();
+}
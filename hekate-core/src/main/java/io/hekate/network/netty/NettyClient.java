@@ -71,6 +71,10 @@ class NettyClient<T> implements NetworkClient<T>, NettyChannelSupport {
 
     private final NettyMetricsSink metrics;
 
+    private final NettySslMetricsSink sslMetrics;
+
+    private final NettyTrafficShaping trafficShaping;
+
     private final Logger log;
 
     private final boolean epoll;
@@ -113,6 +117,8 @@ class NettyClient<T> implements NetworkClient<T>, NettyChannelSupport {
         epoll = factory.getEventLoop() instanceof EpollEventLoopGroup;
         eventLoop = factory.getEventLoop().next();
         metrics = factory.getMetrics();
+        sslMetrics = factory.getSslMetrics();
+        trafficShaping = factory.getTrafficShaping();
         ssl = factory.getSsl();
         spy = factory.getSpy();
     }
@@ -180,6 +186,8 @@ class NettyClient<T> implements NetworkClient<T>, NettyChannelSupport {
                 address,
                 codec,
                 metrics,
+                sslMetrics,
+                trafficShaping,
                 this,
                 eventLoop,
                 protocol,
@@ -108,6 +108,8 @@ class NettyClientContext<T> {
         InetSocketAddress address,
         Codec<Object> codec,
         NettyMetricsSink metrics,
+        NettySslMetricsSink sslMetrics,
+        NettyTrafficShaping trafficShaping,
         NettyClient<T> endpoint,
         EventLoop eventLoop,
         String protocol,
@@ -181,6 +183,10 @@ class NettyClientContext<T> {
                     }
 
                     pipeline.addLast(sslHandler);
+
+                    if (sslMetrics != null) {
+                        pipeline.addLast(new NettySslHandshakeTracker(sslHandler, sslMetrics));
+                    }
                 }
 
                 // Configure metrics.
@@ -194,6 +200,11 @@ class NettyClientContext<T> {
                     });
                 }
 
+                // Configure traffic shaping.
+                if (trafficShaping != null) {
+                    trafficShaping.install(pipeline, metrics);
+                }
+
                 // Protocol codecs.
                 NetworkProtocolCodec protocolCodec = new NetworkProtocolCodec(codec);
 
@@ -52,6 +52,10 @@ public class NettyClientFactory<T> implements NetworkConnector<T> {
 
     private NettyMetricsSink metrics;
 
+    private NettySslMetricsSink sslMetrics;
+
+    private NettyTrafficShaping trafficShaping;
+
     private String loggerCategory;
 
     private SslContext ssl;
@@ -504,6 +508,77 @@ public class NettyClientFactory<T> implements NetworkConnector<T> {
         return this;
     }
 
+    /**
+     * Returns the SSL metrics sink (see {@link #setSslMetrics(NettySslMetricsSink)}).
+     *
+     * @return SSL metrics sink.
+     */
+    public NettySslMetricsSink getSslMetrics() {
+        return sslMetrics;
+    }
+
+    /**
+     * Sets the SSL metrics sink.
+     *
+     * <p>
+     * This parameter is optional and if not specified then no SSL handshake metrics will be collected by {@link NetworkClient}s.
+     * This parameter makes sense only if {@link #setSsl(SslContext) SSL} is configured.
+     * </p>
+     *
+     * @param sslMetrics SSL metrics sink.
+     */
+    public void setSslMetrics(NettySslMetricsSink sslMetrics) {
+        this.sslMetrics = sslMetrics;
+    }
+
+    /**
+     * Fluent-style version of {@link #setSslMetrics(NettySslMetricsSink)}.
+     *
+     * @param sslMetrics SSL metrics sink.
+     *
+     * @return This instance.
+     */
+    public NettyClientFactory<T> withSslMetrics(NettySslMetricsSink sslMetrics) {
+        setSslMetrics(sslMetrics);
+
+        return this;
+    }
+
+    /**
+     * Returns the traffic shaping settings (see {@link #setTrafficShaping(NettyTrafficShaping)}).
+     *
+     * @return Traffic shaping settings.
+     */
+    public NettyTrafficShaping getTrafficShaping() {
+        return trafficShaping;
+    }
+
+    /**
+     * Sets the traffic shaping settings.
+     *
+     * <p>
+     * This parameter is optional and if not specified then the network traffic of {@link NetworkClient}s will not be limited.
+     * </p>
+     *
+     * @param trafficShaping Traffic shaping settings.
+     */
+    public void setTrafficShaping(NettyTrafficShaping trafficShaping) {
+        this.trafficShaping = trafficShaping;
+    }
+
+    /**
+     * Fluent-style version of {@link #setTrafficShaping(NettyTrafficShaping)}.
+     *
+     * @param trafficShaping Traffic shaping settings.
+     *
+     * @return This instance.
+     */
+    public NettyClientFactory<T> withTrafficShaping(NettyTrafficShaping trafficShaping) {
+        setTrafficShaping(trafficShaping);
+
+        return this;
+    }
+
     @Override
     public NetworkClient<T> newClient() {
         return new NettyClient<>(this);
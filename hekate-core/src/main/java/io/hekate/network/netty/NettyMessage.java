@@ -31,7 +31,7 @@ import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 
-class NettyMessage extends InputStream implements DataReader, NetworkMessage<Object> {
+class NettyMessage extends InputStream implements DataReader, NetworkMessage<Object>, NettyBufferAware {
     private final ByteBuf buf;
 
     private final Codec<Object> codec;
@@ -180,6 +180,11 @@ class NettyMessage extends InputStream implements DataReader, NetworkMessage<Obj
         }
     }
 
+    @Override
+    public ByteBuf buffer() {
+        return buf;
+    }
+
     @Override
     public InputStream asStream() {
         return this;
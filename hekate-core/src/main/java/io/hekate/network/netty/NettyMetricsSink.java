@@ -66,4 +66,26 @@ public interface NettyMetricsSink {
      * Message removed from the queue.
      */
     void onMessageDequeue();
+
+    /**
+     * Reading was suspended by traffic shaping.
+     *
+     * @param nanos Time in nanoseconds during which reading was suspended.
+     *
+     * @see NettyTrafficShaping
+     */
+    default void onReadThrottled(long nanos) {
+        // No-op.
+    }
+
+    /**
+     * Writing was delayed by traffic shaping.
+     *
+     * @param nanos Time in nanoseconds during which the message was delayed.
+     *
+     * @see NettyTrafficShaping
+     */
+    default void onWriteThrottled(long nanos) {
+        // No-op.
+    }
 }
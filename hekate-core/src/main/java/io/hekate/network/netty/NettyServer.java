@@ -43,6 +43,7 @@ import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
@@ -106,6 +107,8 @@ class NettyServer implements NetworkServer, NettyChannelSupport {
 
     private final NettyMetricsFactory metrics;
 
+    private final NettySslMetricsSink sslMetrics;
+
     private Channel server;
 
     private NetworkServerCallback callback;
@@ -142,6 +145,7 @@ class NettyServer implements NetworkServer, NettyChannelSupport {
         soBacklog = factory.getSoBacklog();
         ssl = factory.getSsl();
         metrics = factory.getMetrics();
+        sslMetrics = factory.getSslMetrics();
 
         acceptors = factory.getAcceptorEventLoop();
         workers = factory.getWorkerEventLoop();
@@ -213,10 +217,15 @@ class NettyServer implements NetworkServer, NettyChannelSupport {
 
     @Override
     public void addHandler(NetworkServerHandlerConfig<?> cfg) {
-        @SuppressWarnings("unchecked")
-        NetworkServerHandlerConfig<Object> objCfg = (NetworkServerHandlerConfig<Object>)cfg;
+        if (cfg instanceof NettyServerHandlerConfig) {
+            // Preserve Netty-specific settings (event loop, traffic shaping).
+            addHandler((NettyServerHandlerConfig<?>)cfg);
+        } else {
+            @SuppressWarnings("unchecked")
+            NetworkServerHandlerConfig<Object> objCfg = (NetworkServerHandlerConfig<Object>)cfg;
 
-        addHandler(copy(objCfg));
+            addHandler(copy(objCfg));
+        }
     }
 
     public void addHandler(NettyServerHandlerConfig<?> cfg) {
@@ -229,6 +238,7 @@ class NettyServer implements NetworkServer, NettyChannelSupport {
             NettyServerHandlerConfig<Object> copy = copy(nettyCfg);
 
             copy.setEventLoop(cfg.getEventLoop());
+            copy.setTrafficShaping(cfg.getTrafficShaping());
 
             checkWorkerEventLoopType(check, copy.getEventLoop());
 
@@ -347,7 +357,13 @@ class NettyServer implements NetworkServer, NettyChannelSupport {
 
                     // Configure SSL.
                     if (ssl != null) {
-                        pipe.addLast(ssl.newHandler(channel.alloc()));
+                        SslHandler sslHandler = ssl.newHandler(channel.alloc());
+
+                        pipe.addLast(sslHandler);
+
+                        if (sslMetrics != null) {
+                            pipe.addLast(new NettySslHandshakeTracker(sslHandler, sslMetrics));
+                        }
                     }
 
                     // Message codecs.
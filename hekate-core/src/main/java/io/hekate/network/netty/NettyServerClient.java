@@ -23,7 +23,9 @@ import io.hekate.core.internal.util.Utils;
 import io.hekate.network.NetworkEndpoint;
 import io.hekate.network.NetworkEndpointClosedException;
 import io.hekate.network.NetworkFuture;
+import io.hekate.network.NetworkMessage;
 import io.hekate.network.NetworkSendCallback;
+import io.hekate.network.NetworkServerBatchHandler;
 import io.hekate.network.NetworkServerHandler;
 import io.hekate.network.NetworkTimeoutException;
 import io.hekate.network.internal.NettyChannelSupport;
@@ -50,6 +52,7 @@ import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.internal.ThrowableUtil;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -96,6 +99,10 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
 
     private NetworkServerHandler<Object> serverHandler;
 
+    private NetworkServerBatchHandler<Object> batchHandler;
+
+    private List<NetworkMessage<Object>> batch;
+
     private NettyServerHandler handlerReg;
 
     private NettyMetricsSink metrics;
@@ -185,6 +192,9 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // Release messages that were not delivered due to the disconnect.
+        releaseBatch();
+
         if (handlerReg != null) {
             handlerReg.remove(this);
         }
@@ -228,10 +238,15 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
                     metrics.onMessageReceived();
                 }
 
-                try {
-                    serverHandler.onMessage(netMsg, this);
-                } finally {
-                    netMsg.release();
+                if (batchHandler == null) {
+                    try {
+                        serverHandler.onMessage(netMsg, this);
+                    } finally {
+                        netMsg.release();
+                    }
+                } else {
+                    // Will be delivered in 'channelReadComplete'.
+                    batch.add(netMsg);
                 }
             }
         } else {
@@ -305,6 +320,23 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
         }
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (batch != null && !batch.isEmpty()) {
+            if (trace) {
+                log.trace("Delivering messages batch [from={}, size={}]", address(), batch.size());
+            }
+
+            try {
+                batchHandler.onMessageBatch(Collections.unmodifiableList(batch), this);
+            } finally {
+                releaseBatch();
+            }
+        }
+
+        super.channelReadComplete(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable error) throws Exception {
         Throwable realError = NettyErrorUtils.unwrap(error);
@@ -496,6 +528,15 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
         this.eventLoop = channel.eventLoop();
         this.serverHandler = cfg.getHandler();
         this.handlerReg = handlerReg;
+
+        if (serverHandler instanceof NetworkServerBatchHandler) {
+            @SuppressWarnings("unchecked")
+            NetworkServerBatchHandler<Object> objBatchHandler = (NetworkServerBatchHandler<Object>)serverHandler;
+
+            this.batchHandler = objBatchHandler;
+            this.batch = new ArrayList<>();
+        }
+
         this.metrics = handlerReg.metrics();
         this.codec = request.codec();
 
@@ -513,6 +554,11 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
             });
         }
 
+        // Configure traffic shaping.
+        if (cfg.getTrafficShaping() != null) {
+            cfg.getTrafficShaping().install(channel.pipeline(), metrics);
+        }
+
         if (debug) {
             log.debug("Accepted connection [from={}, protocol={}]", address(), cfg.getProtocol());
         }
@@ -692,6 +738,16 @@ class NettyServerClient extends ChannelInboundHandlerAdapter implements NetworkE
         }
     }
 
+    private void releaseBatch() {
+        if (batch != null && !batch.isEmpty()) {
+            for (NetworkMessage<Object> msg : batch) {
+                ((NettyMessage)msg).release();
+            }
+
+            batch.clear();
+        }
+    }
+
     private boolean isHandshakeDone() {
         return serverHandler != null;
     }
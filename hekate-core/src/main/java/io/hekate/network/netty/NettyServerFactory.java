@@ -40,6 +40,8 @@ public class NettyServerFactory extends NetworkServerFactoryBase {
 
     private NettyMetricsFactory metrics;
 
+    private NettySslMetricsSink sslMetrics;
+
     /**
      * Returns {@code true} if heartbeats are disabled (see {@link #setDisableHeartbeats(boolean)}).
      *
@@ -219,6 +221,42 @@ public class NettyServerFactory extends NetworkServerFactoryBase {
         return this;
     }
 
+    /**
+     * Returns the SSL metrics sink (see {@link #setSslMetrics(NettySslMetricsSink)}).
+     *
+     * @return SSL metrics sink.
+     */
+    public NettySslMetricsSink getSslMetrics() {
+        return sslMetrics;
+    }
+
+    /**
+     * Sets the SSL metrics sink.
+     *
+     * <p>
+     * This parameter is optional and if not specified then no SSL handshake metrics will be collected by the {@link NetworkServer}.
+     * This parameter makes sense only if {@link #setSsl(SslContext) SSL} is configured.
+     * </p>
+     *
+     * @param sslMetrics SSL metrics sink.
+     */
+    public void setSslMetrics(NettySslMetricsSink sslMetrics) {
+        this.sslMetrics = sslMetrics;
+    }
+
+    /**
+     * Fluent-style version of {@link #setSslMetrics(NettySslMetricsSink)}.
+     *
+     * @param sslMetrics SSL metrics sink.
+     *
+     * @return This instance.
+     */
+    public NettyServerFactory withSslMetrics(NettySslMetricsSink sslMetrics) {
+        setSslMetrics(sslMetrics);
+
+        return this;
+    }
+
     /**
      * Returns the metrics factory (see {@link #setMetrics(NettyMetricsFactory)}).
      *
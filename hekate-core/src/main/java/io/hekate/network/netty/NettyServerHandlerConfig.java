@@ -32,6 +32,8 @@ import java.util.List;
 public class NettyServerHandlerConfig<T> extends NetworkServerHandlerConfig<T> {
     private EventLoopGroup eventLoop;
 
+    private NettyTrafficShaping trafficShaping;
+
     /**
      * Returns the event loop of this handler (see {@link #setEventLoop(EventLoopGroup)}).
      *
@@ -67,4 +69,40 @@ public class NettyServerHandlerConfig<T> extends NetworkServerHandlerConfig<T> {
 
         return this;
     }
+
+    /**
+     * Returns the traffic shaping settings (see {@link #setTrafficShaping(NettyTrafficShaping)}).
+     *
+     * @return Traffic shaping settings.
+     */
+    public NettyTrafficShaping getTrafficShaping() {
+        return trafficShaping;
+    }
+
+    /**
+     * Sets the traffic shaping settings.
+     *
+     * <p>
+     * This parameter is optional and if not specified then the network traffic of connections that are accepted by this handler will
+     * not be limited.
+     * </p>
+     *
+     * @param trafficShaping Traffic shaping settings.
+     */
+    public void setTrafficShaping(NettyTrafficShaping trafficShaping) {
+        this.trafficShaping = trafficShaping;
+    }
+
+    /**
+     * Fluent-style version of {@link #setTrafficShaping(NettyTrafficShaping)}.
+     *
+     * @param trafficShaping Traffic shaping settings.
+     *
+     * @return This instance.
+     */
+    public NettyServerHandlerConfig<T> withTrafficShaping(NettyTrafficShaping trafficShaping) {
+        setTrafficShaping(trafficShaping);
+
+        return this;
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.ReferenceCountedOpenSslEngine;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import io.netty.internal.tcnative.SSL;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+
+/**
+ * Measures the duration of an SSL handshake and detects SSL session resumption.
+ *
+ * <p>
+ * This handler must be registered right after the {@link SslHandler} and removes itself from the pipeline once the handshake is
+ * completed.
+ * </p>
+ *
+ * <p>
+ * Resumption is detected from the completed handshake rather than from the identity of {@link SSLSession} objects, since TLS 1.3
+ * resumes sessions via pre-shared keys and produces a new session object (with a new session ID) for each handshake:
+ * </p>
+ * <ul>
+ * <li>OpenSSL - via the native {@code SSL_session_reused} flag of the engine.</li>
+ * <li>JDK - resumed sessions inherit the {@link SSLSession#getCreationTime() creation time} of the original session, so a session
+ * that was created before the handshake had started was resumed.</li>
+ * </ul>
+ */
+class NettySslHandshakeTracker extends ChannelInboundHandlerAdapter {
+    private final SslHandler ssl;
+
+    private final NettySslMetricsSink metrics;
+
+    private long startedAtNanos;
+
+    private long startedAtMillis;
+
+    public NettySslHandshakeTracker(SslHandler ssl, NettySslMetricsSink metrics) {
+        this.ssl = ssl;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        // Handshake starts when channel becomes active.
+        startedAtNanos = System.nanoTime();
+        startedAtMillis = System.currentTimeMillis();
+
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof SslHandshakeCompletionEvent) {
+            ctx.pipeline().remove(this);
+
+            if (startedAtNanos > 0) {
+                if (((SslHandshakeCompletionEvent)evt).isSuccess()) {
+                    long duration = System.nanoTime() - startedAtNanos;
+
+                    metrics.onHandshake(duration, isResumed(ssl.engine(), startedAtMillis));
+                } else {
+                    metrics.onHandshakeFailure();
+                }
+            }
+        }
+
+        super.userEventTriggered(ctx, evt);
+    }
+
+    private static boolean isResumed(SSLEngine engine, long startedAtMillis) {
+        if (engine instanceof ReferenceCountedOpenSslEngine) {
+            ReferenceCountedOpenSslEngine openSsl = (ReferenceCountedOpenSslEngine)engine;
+
+            synchronized (openSsl) {
+                // Pointer is zero if engine is already closed.
+                long ptr = openSsl.sslPointer();
+
+                return ptr != 0 && SSL.isSessionReused(ptr);
+            }
+        } else {
+            SSLSession session = engine.getSession();
+
+            return session != null && session.getCreationTime() < startedAtMillis;
+        }
+    }
+}
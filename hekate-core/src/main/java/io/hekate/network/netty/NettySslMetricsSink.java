@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.netty;
+
+/**
+ * Sink for SSL metrics of a Netty-based network endpoint.
+ *
+ * @see NettyClientFactory#setSslMetrics(NettySslMetricsSink)
+ * @see NettyServerFactory#setSslMetrics(NettySslMetricsSink)
+ */
+public interface NettySslMetricsSink {
+    /**
+     * SSL handshake completed.
+     *
+     * @param nanos Handshake duration in nanoseconds.
+     * @param resumed {@code true} if an existing SSL session was resumed; {@code false} if a new session was established (full
+     * handshake).
+     */
+    void onHandshake(long nanos, boolean resumed);
+
+    /**
+     * SSL handshake failed.
+     */
+    void onHandshakeFailure();
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.netty;
+
+import io.hekate.core.internal.util.ArgAssert;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.traffic.ChannelTrafficShapingHandler;
+import io.netty.handler.traffic.GlobalTrafficShapingHandler;
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Traffic shaping settings of a Netty-based network connector.
+ *
+ * <p>
+ * This class combines per-connection limits (applied to each connection individually) and global limits (shared by all connections of
+ * the same connector). All limits are expressed in bytes per second; a value that is less than or equals to zero means that the
+ * corresponding direction is not limited.
+ * </p>
+ *
+ * <p>
+ * Traffic shaping handlers are inserted at the head of the channel pipeline and, therefore, limit the amount of bytes that are actually
+ * transferred over the network (including the SSL overhead if SSL is enabled). If {@link NettyMetricsSink metrics} are configured then
+ * the time that connections spend throttled is reported via {@link NettyMetricsSink#onReadThrottled(long)} and
+ * {@link NettyMetricsSink#onWriteThrottled(long)}.
+ * </p>
+ *
+ * <p>
+ * Instances of this class hold the shared state of global limits and must be {@link #release() released} once they are not needed
+ * anymore.
+ * </p>
+ *
+ * @see NettyClientFactory#setTrafficShaping(NettyTrafficShaping)
+ * @see NettyServerHandlerConfig#setTrafficShaping(NettyTrafficShaping)
+ */
+public class NettyTrafficShaping {
+    private final long readLimit;
+
+    private final long writeLimit;
+
+    private final long globalReadLimit;
+
+    private final long globalWriteLimit;
+
+    @ToStringIgnore
+    private final GlobalTrafficShapingHandler global;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param readLimit Per-connection read limit in bytes per second (less than or equals to zero for unlimited).
+     * @param writeLimit Per-connection write limit in bytes per second (less than or equals to zero for unlimited).
+     * @param globalReadLimit Global read limit in bytes per second (less than or equals to zero for unlimited).
+     * @param globalWriteLimit Global write limit in bytes per second (less than or equals to zero for unlimited).
+     * @param executor Executor for accounting of global limits (can be {@code null} if global limits are not specified).
+     */
+    public NettyTrafficShaping(long readLimit, long writeLimit, long globalReadLimit, long globalWriteLimit,
+        ScheduledExecutorService executor) {
+        this.readLimit = Math.max(0, readLimit);
+        this.writeLimit = Math.max(0, writeLimit);
+        this.globalReadLimit = Math.max(0, globalReadLimit);
+        this.globalWriteLimit = Math.max(0, globalWriteLimit);
+
+        if (this.globalReadLimit > 0 || this.globalWriteLimit > 0) {
+            ArgAssert.notNull(executor, "Executor");
+
+            this.global = new GlobalTrafficShapingHandler(executor, this.globalWriteLimit, this.globalReadLimit);
+        } else {
+            this.global = null;
+        }
+    }
+
+    /**
+     * Returns the per-connection read limit in bytes per second.
+     *
+     * @return Per-connection read limit or 0 if not limited.
+     */
+    public long readLimit() {
+        return readLimit;
+    }
+
+    /**
+     * Returns the per-connection write limit in bytes per second.
+     *
+     * @return Per-connection write limit or 0 if not limited.
+     */
+    public long writeLimit() {
+        return writeLimit;
+    }
+
+    /**
+     * Returns the global read limit in bytes per second.
+     *
+     * @return Global read limit or 0 if not limited.
+     */
+    public long globalReadLimit() {
+        return globalReadLimit;
+    }
+
+    /**
+     * Returns the global write limit in bytes per second.
+     *
+     * @return Global write limit or 0 if not limited.
+     */
+    public long globalWriteLimit() {
+        return globalWriteLimit;
+    }
+
+    /**
+     * Returns {@code true} if at least one of the limits is specified.
+     *
+     * @return {@code true} if at least one of the limits is specified.
+     */
+    public boolean isEnabled() {
+        return readLimit > 0 || writeLimit > 0 || global != null;
+    }
+
+    /**
+     * Releases resources that are held by global limits.
+     */
+    public void release() {
+        if (global != null) {
+            global.release();
+        }
+    }
+
+    void install(ChannelPipeline pipeline, NettyMetricsSink metrics) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        // Handlers are added to the head of the pipeline in reverse order.
+        ThrottleTracker tracker = metrics != null ? new ThrottleTracker(metrics) : null;
+
+        if (tracker != null) {
+            pipeline.addFirst(tracker);
+        }
+
+        if (readLimit > 0 || writeLimit > 0) {
+            pipeline.addFirst(new ChannelTrafficShapingHandler(writeLimit, readLimit));
+        }
+
+        if (global != null) {
+            pipeline.addFirst(global);
+        }
+
+        if (tracker != null) {
+            pipeline.addFirst(tracker.releaseHandler());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+
+    /**
+     * Tracks the time spent in traffic shaping handlers.
+     *
+     * <p>
+     * This handler is placed after the traffic shaping handlers (closer to the pipeline's tail) while {@link #releaseHandler()} is placed
+     * before them. Traffic shaping handlers suspend reading by switching off the channel's auto-read mode. For inbound traffic,
+     * if auto-read was on before the message entered the shapers and is off after the shapers then reading was suspended; reading is
+     * considered as resumed once auto-read is switched back on. For outbound traffic this handler stamps each write so that {@link
+     * #releaseHandler()} could measure the delay. Traffic shaping handlers preserve the order of writes, and therefore stamps can be
+     * matched in FIFO order. All methods are called on the channel's event loop thread.
+     * </p>
+     */
+    private static class ThrottleTracker extends ChannelDuplexHandler {
+        private final NettyMetricsSink metrics;
+
+        private final ArrayDeque<Long> writes = new ArrayDeque<>();
+
+        private boolean writing;
+
+        private boolean autoReadBeforeShaping;
+
+        private long readSuspendedAt;
+
+        public ThrottleTracker(NettyMetricsSink metrics) {
+            this.metrics = metrics;
+        }
+
+        public ChannelDuplexHandler releaseHandler() {
+            return new ChannelDuplexHandler() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                    autoReadBeforeShaping = isAutoRead(ctx);
+
+                    super.channelRead(ctx, msg);
+                }
+
+                @Override
+                public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                    Long stampedAt = writes.poll();
+
+                    // Writes that pass through the traffic shaper within the same call are not throttled.
+                    if (stampedAt != null && !writing) {
+                        metrics.onWriteThrottled(System.nanoTime() - stampedAt);
+                    }
+
+                    super.write(ctx, msg, promise);
+                }
+            };
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            checkReadResumed(ctx);
+
+            if (readSuspendedAt == 0 && autoReadBeforeShaping && !isAutoRead(ctx)) {
+                readSuspendedAt = System.nanoTime();
+            }
+
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void read(ChannelHandlerContext ctx) throws Exception {
+            checkReadResumed(ctx);
+
+            super.read(ctx);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            writes.add(System.nanoTime());
+
+            writing = true;
+
+            try {
+                super.write(ctx, msg, promise);
+            } finally {
+                writing = false;
+            }
+        }
+
+        @Override
+        public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+            writes.clear();
+
+            super.handlerRemoved(ctx);
+        }
+
+        private void checkReadResumed(ChannelHandlerContext ctx) {
+            if (readSuspendedAt != 0 && isAutoRead(ctx)) {
+                metrics.onReadThrottled(System.nanoTime() - readSuspendedAt);
+
+                readSuspendedAt = 0;
+            }
+        }
+
+        private static boolean isAutoRead(ChannelHandlerContext ctx) {
+            return ctx.channel().config().isAutoRead();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.hekate.rpc;
 
+import io.hekate.messaging.MessageTimeoutException;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -58,6 +59,15 @@ import java.util.concurrent.CompletableFuture;
  * </ul>
  *
  * <p>
+ * Results are merged incrementally as they arrive from the remote nodes, so that only the merged result (rather than all of the
+ * per-node results) is kept in memory. The only exception is the {@link RemoteErrors#FAIL} policy (default), which additionally keeps a
+ * reference to each node's result in order to expose it via {@link RpcAggregateException#partialResults()}. If {@link #deadline()} is
+ * specified then aggregation completes once the deadline is reached even if some of the nodes didn't respond yet. Such nodes are reported
+ * as failed with a {@link MessageTimeoutException} and are handled according to the {@link #remoteErrors()} policy (i.e. partial results
+ * are returned if errors are ignored).
+ * </p>
+ *
+ * <p>
  * For more details about the Remote Procedure Call API and its capabilities please see the documentation of the {@link RpcService}
  * interface.
  * </p>
@@ -83,6 +93,12 @@ public @interface RpcAggregate {
         /**
          * In case of any error fail the whole aggregation with {@link RpcAggregateException}.
          *
+         * <p>
+         * Note that this policy requires the result of each node to be kept until the aggregation is completed, since such results are
+         * exposed via {@link RpcAggregateException#partialResults()}. Consider using {@link #WARN} or {@link #IGNORE} if per-node results
+         * are large and only the merged result is needed.
+         * </p>
+         *
          * @see RpcAggregateException#errors()
          * @see RpcAggregateException#partialResults()
          */
@@ -95,4 +111,21 @@ public @interface RpcAggregate {
      * @return Remote errors handling policy.
      */
     RemoteErrors remoteErrors() default RemoteErrors.FAIL;
+
+    /**
+     * Time in milliseconds after which aggregation should complete with whatever results were received by that time (zero if
+     * aggregation should wait for all nodes).
+     *
+     * <p>
+     * Unlike the RPC client's {@link RpcClientConfig#setTimeout(long) timeout}, which applies to each individual node, this deadline
+     * applies to the aggregation as a whole. Nodes that didn't respond before the deadline are handled according to the
+     * {@link #remoteErrors()} policy. If aggregation fails then {@link RpcAggregateException#errors()} contains a
+     * {@link MessageTimeoutException} for each such node and {@link RpcAggregateException#partialResults()} contains results of nodes
+     * that did respond. The same applies to methods with a {@link RpcSplit split} argument, where each pending part is reported by the node
+     * that it was sent to.
+     * </p>
+     *
+     * @return Deadline in milliseconds.
+     */
+    long deadline() default 0;
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables client-side batching of concurrent calls of an RPC method.
+ *
+ * <p>
+ * This annotation can be placed on a method of an @{@link Rpc}-enabled interface in order to collect concurrent invocations of such
+ * method and to send them to the remote node as a single request. Invocations are collected separately for each target node: if method
+ * has an {@link RpcAffinityKey}-annotated parameter then invocations are grouped by the primary node of the affinity key's partition;
+ * otherwise all invocations are collected into the same batch and the whole batch is sent to a single node that is selected by the load
+ * balancer.
+ * </p>
+ *
+ * <p>
+ * A batch is sent once it reaches the {@link #maxSize()} limit or once the {@link #delay()} window elapses (whichever happens first). If
+ * delay is zero then a batch is sent as soon as the RPC service's background thread gets a chance to process it, i.e. only those calls
+ * that arrive while the previous batch is being submitted are combined together.
+ * </p>
+ *
+ * <p>
+ * On the server side the RPC method is invoked once per each call of the batch, and results (or errors) of each call are returned to
+ * the caller individually. Call sites don't need to be changed: each call still returns its own result (or its own
+ * {@link java.util.concurrent.CompletableFuture} for asynchronous methods). Timeout and {@link RpcRetry retry} settings are applied to the
+ * whole batch.
+ * </p>
+ *
+ * <p>
+ * This annotation can't be used together with {@link RpcAggregate} or {@link RpcBroadcast}.
+ * </p>
+ *
+ * <p>
+ * For more details about the Remote Procedure Call API and its capabilities please see the documentation of the {@link RpcService}
+ * interface.
+ * </p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RpcBatch {
+    /**
+     * Maximum amount of calls in a single batch (must be above zero).
+     *
+     * @return Maximum amount of calls in a single batch.
+     */
+    int maxSize() default 64;
+
+    /**
+     * Maximum time in milliseconds to wait for more calls before sending a batch (zero to send as soon as possible).
+     *
+     * @return Time in milliseconds.
+     */
+    long delay() default 0;
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables client-side caching of results of an RPC method.
+ *
+ * <p>
+ * This annotation can be placed on a method of an @{@link Rpc}-enabled interface in order to cache results of that method on the client
+ * side. Results are cached by method arguments (arrays are compared by their contents). This is intended for methods that are pure reads
+ * of slowly changing data: a cached result is returned to the caller without contacting the remote node.
+ * </p>
+ *
+ * <p>
+ * The cache is shared by all RPC clients of the same interface and {@link RpcServerConfig#setTags(java.util.Set) tag} on the local node.
+ * It holds up to {@link #maxSize()} results (least recently used results are evicted first) and each result expires after
+ * {@link #ttl()} milliseconds. Concurrent calls with the same arguments that miss the cache are collapsed into a single remote call.
+ * Failed calls are not cached.
+ * </p>
+ *
+ * <p>
+ * The whole cache is invalidated automatically once the set of nodes that provide this RPC interface changes. Results can also be
+ * invalidated explicitly on all nodes of the cluster via {@link RpcService#invalidateCache(Class, String, String, Object...)} (f.e. by
+ * the RPC server once the underlying data changes).
+ * </p>
+ *
+ * <p>
+ * This annotation can't be used on {@code void} methods and on methods that are annotated with {@link RpcAggregate},
+ * {@link RpcBroadcast} or {@link RpcBatch}.
+ * </p>
+ *
+ * <p>
+ * For more details about the Remote Procedure Call API and its capabilities please see the documentation of the {@link RpcService}
+ * interface.
+ * </p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RpcCache {
+    /**
+     * Maximum amount of cached results (must be above zero).
+     *
+     * @return Maximum amount of cached results.
+     */
+    int maxSize() default 1024;
+
+    /**
+     * Time to live in milliseconds of a cached result (zero if results should be kept until invalidated or evicted).
+     *
+     * @return Time to live in milliseconds.
+     */
+    long ttl() default 0;
+}
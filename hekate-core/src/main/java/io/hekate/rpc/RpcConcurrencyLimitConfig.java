@@ -0,0 +1,262 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import io.hekate.util.format.ToString;
+
+/**
+ * Configuration of an adaptive concurrency limit of an RPC server.
+ *
+ * <p>
+ * If configured then the RPC server limits the amount of RPC calls that are processed concurrently. The limit is adjusted dynamically
+ * based on the observed latency of RPC calls (additive increase/multiplicative decrease): while latency stays close to the lowest
+ * latency observed so far for the same method the limit grows, and once latency exceeds it by more than
+ * {@link #setLatencyTolerance(double) tolerance} the limit is reduced by the {@link #setBackoffRatio(double) backoff ratio}. The limit
+ * is reduced at most once per window, i.e. calls that were started before the last reduction do not reduce it again.
+ * </p>
+ *
+ * <p>
+ * Latency is measured from the moment when a call is received from the network and, therefore, includes the time that the call spends
+ * in the queue of worker threads. Permits are acquired before a call is submitted to an {@link RpcExecutor} thread pool, so that
+ * excessive calls are rejected without waiting in its queue. Calls that are executed by the {@link RpcServiceFactory#setWorkerThreads(int)
+ * worker threads} are rejected once they are picked up by a worker thread (without executing the RPC method).
+ * </p>
+ *
+ * <p>
+ * Calls that exceed the current limit are rejected immediately with {@link RpcServerOverloadException}. Such calls can be retried by
+ * RPC clients via {@link RpcRetry} (such retries are re-routed to other nodes if possible). The current limit and the number of rejected
+ * calls are exposed via {@link RpcServerJmx}.
+ * </p>
+ *
+ * @see RpcServerConfig#setConcurrencyLimit(RpcConcurrencyLimitConfig)
+ */
+public class RpcConcurrencyLimitConfig {
+    /** Default value (={@value}) for {@link #setInitialLimit(int)}. */
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /** Default value (={@value}) for {@link #setMinLimit(int)}. */
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /** Default value (={@value}) for {@link #setMaxLimit(int)}. */
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    /** Default value (={@value}) for {@link #setBackoffRatio(double)}. */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    /** Default value (={@value}) for {@link #setLatencyTolerance(double)}. */
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    /** See {@link #setInitialLimit(int)}. */
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+
+    /** See {@link #setMinLimit(int)}. */
+    private int minLimit = DEFAULT_MIN_LIMIT;
+
+    /** See {@link #setMaxLimit(int)}. */
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+
+    /** See {@link #setBackoffRatio(double)}. */
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+
+    /** See {@link #setLatencyTolerance(double)}. */
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+
+    /**
+     * Returns the initial concurrency limit (see {@link #setInitialLimit(int)}).
+     *
+     * @return Initial concurrency limit.
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the initial concurrency limit.
+     *
+     * <p>
+     * Value of this parameter must be within the {@link #setMinLimit(int) minimum} and {@link #setMaxLimit(int) maximum} limits. By
+     * default, this parameter is {@value #DEFAULT_INITIAL_LIMIT}.
+     * </p>
+     *
+     * @param initialLimit Initial concurrency limit.
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setInitialLimit(int)}.
+     *
+     * @param initialLimit Initial concurrency limit.
+     *
+     * @return This instance.
+     */
+    public RpcConcurrencyLimitConfig withInitialLimit(int initialLimit) {
+        setInitialLimit(initialLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the minimum concurrency limit (see {@link #setMinLimit(int)}).
+     *
+     * @return Minimum concurrency limit.
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Sets the minimum concurrency limit.
+     *
+     * <p>
+     * Value of this parameter must be above zero. By default, this parameter is {@value #DEFAULT_MIN_LIMIT}.
+     * </p>
+     *
+     * @param minLimit Minimum concurrency limit.
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMinLimit(int)}.
+     *
+     * @param minLimit Minimum concurrency limit.
+     *
+     * @return This instance.
+     */
+    public RpcConcurrencyLimitConfig withMinLimit(int minLimit) {
+        setMinLimit(minLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the maximum concurrency limit (see {@link #setMaxLimit(int)}).
+     *
+     * @return Maximum concurrency limit.
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the maximum concurrency limit.
+     *
+     * <p>
+     * Value of this parameter must be greater than or equals to the {@link #setMinLimit(int) minimum limit}. By default, this parameter
+     * is {@value #DEFAULT_MAX_LIMIT}.
+     * </p>
+     *
+     * @param maxLimit Maximum concurrency limit.
+     */
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMaxLimit(int)}.
+     *
+     * @param maxLimit Maximum concurrency limit.
+     *
+     * @return This instance.
+     */
+    public RpcConcurrencyLimitConfig withMaxLimit(int maxLimit) {
+        setMaxLimit(maxLimit);
+
+        return this;
+    }
+
+    /**
+     * Returns the ratio by which the limit is reduced when latency grows (see {@link #setBackoffRatio(double)}).
+     *
+     * @return Backoff ratio.
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets the ratio by which the limit is multiplied when latency exceeds the {@link #setLatencyTolerance(double) tolerance}.
+     *
+     * <p>
+     * Value of this parameter must be greater than zero and less than one. By default, this parameter is
+     * {@value #DEFAULT_BACKOFF_RATIO}.
+     * </p>
+     *
+     * @param backoffRatio Backoff ratio.
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Fluent-style version of {@link #setBackoffRatio(double)}.
+     *
+     * @param backoffRatio Backoff ratio.
+     *
+     * @return This instance.
+     */
+    public RpcConcurrencyLimitConfig withBackoffRatio(double backoffRatio) {
+        setBackoffRatio(backoffRatio);
+
+        return this;
+    }
+
+    /**
+     * Returns the latency tolerance (see {@link #setLatencyTolerance(double)}).
+     *
+     * @return Latency tolerance.
+     */
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * Sets the latency tolerance.
+     *
+     * <p>
+     * If latency of an RPC call exceeds the lowest observed latency of its method multiplied by this value then the server is considered
+     * to be overloaded and the concurrency limit gets reduced. Value of this parameter must be greater than or equals to one. By default,
+     * this parameter is {@value #DEFAULT_LATENCY_TOLERANCE}.
+     * </p>
+     *
+     * @param latencyTolerance Latency tolerance.
+     */
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Fluent-style version of {@link #setLatencyTolerance(double)}.
+     *
+     * @param latencyTolerance Latency tolerance.
+     *
+     * @return This instance.
+     */
+    public RpcConcurrencyLimitConfig withLatencyTolerance(double latencyTolerance) {
+        setLatencyTolerance(latencyTolerance);
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
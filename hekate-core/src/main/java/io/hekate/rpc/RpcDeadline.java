@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import io.hekate.rpc.internal.RpcDeadlineContext;
+import java.util.OptionalLong;
+
+/**
+ * Deadline of an RPC call that is being processed by the current thread.
+ *
+ * <p>
+ * RPC clients propagate their remaining time budget (based on the {@link RpcClientBuilder#withTimeout(long, java.util.concurrent.TimeUnit)
+ * timeout}) to RPC servers. Servers skip execution of calls whose deadline has passed before the call could be processed and make the
+ * remaining time available to RPC methods via this class. Any RPC call that is performed by an RPC method (within the same thread) will
+ * automatically use the minimum of its own timeout and the remaining time of the outer call, so that the nested calls do not keep
+ * consuming resources once the outer call has timed out. If the outer call's deadline has already passed then nested calls are not
+ * submitted at all and fail immediately with {@link io.hekate.messaging.MessageTimeoutException}.
+ * </p>
+ *
+ * <p>
+ * <b>Notice:</b> the deadline is bound to the thread that executes the RPC method and is not propagated to other threads (f.e. to
+ * callbacks of asynchronous operations).
+ * </p>
+ *
+ * <p>
+ * For more details about the Remote Procedure Call API and its capabilities please see the documentation of the {@link RpcService}
+ * interface.
+ * </p>
+ */
+public final class RpcDeadline {
+    private RpcDeadline() {
+        // No-op.
+    }
+
+    /**
+     * Returns the remaining time in milliseconds of the RPC call that is being processed by the current thread.
+     *
+     * @return Remaining time in milliseconds (zero or negative if the deadline has passed) or an empty value if the current thread is not
+     * processing an RPC call or if the call doesn't have a deadline.
+     */
+    public static OptionalLong remainingTime() {
+        return RpcDeadlineContext.remainingTime();
+    }
+
+    /**
+     * Returns {@code true} if the current thread is processing an RPC call whose deadline has passed.
+     *
+     * @return {@code true} if the deadline has passed.
+     */
+    public static boolean isExpired() {
+        OptionalLong remaining = remainingTime();
+
+        return remaining.isPresent() && remaining.getAsLong() <= 0;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+
+/**
+ * Specifies a dedicated thread pool for server-side execution of RPC methods.
+ *
+ * <p>
+ * By default, RPC methods are executed by the worker threads of the {@link RpcService} (see
+ * {@link RpcServiceFactory#setWorkerThreads(int)}). Methods that perform blocking I/O or that take a long time to complete can occupy
+ * those threads for the whole duration of a call and, therefore, delay processing of other (fast) RPC methods. This annotation makes it
+ * possible to isolate such methods by offloading their execution to a named thread pool that is registered via
+ * {@link RpcServiceFactory#setExecutors(List)}.
+ * </p>
+ *
+ * <p>
+ * This annotation can be placed on an @{@link Rpc}-enabled interface (applies to all methods of that interface) or on an individual
+ * method (overrides the interface-level annotation). An empty {@link #value()} means that the method should be executed by the worker
+ * threads of the {@link RpcService}, which makes it possible to exclude some methods from the interface-level thread pool.
+ * </p>
+ *
+ * <p>
+ * Each thread pool has a bounded queue of pending calls. If that queue is full then calls are rejected with
+ * {@link RpcServerOverloadException}. Such errors can be retried on another node via the {@link RpcRetry} annotation.
+ * </p>
+ *
+ * <p>
+ * For more details about the Remote Procedure Call API and its capabilities please see the documentation of the {@link RpcService}
+ * interface.
+ * </p>
+ *
+ * @see RpcExecutorConfig
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RpcExecutor {
+    /**
+     * Name of a thread pool (see {@link RpcExecutorConfig#setName(String)}) or an empty string if method should be executed by the
+     * worker threads of the {@link RpcService}.
+     *
+     * <p>
+     * It is possible to use {@code ${...}} property placeholders when Hekate is running inside of a Spring Application Context.
+     * </p>
+     *
+     * @return Thread pool name.
+     */
+    String value();
+}
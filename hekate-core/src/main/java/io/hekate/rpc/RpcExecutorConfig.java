@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import io.hekate.util.format.ToString;
+import java.util.List;
+
+/**
+ * Configuration of a named thread pool for server-side execution of RPC methods.
+ *
+ * <p>
+ * Instances of this class can be registered within the {@link RpcService} via {@link RpcServiceFactory#setExecutors(List)} method. Once
+ * registered, such thread pool can be referenced by the {@link RpcExecutor} annotation on RPC interfaces and methods.
+ * </p>
+ *
+ * <p>
+ * Each thread pool exposes the following metrics (tagged with the thread pool name and with the {@code node} identifier):
+ * </p>
+ * <ul>
+ * <li>{@code hekate.rpc.executor.queue} - amount of calls that are waiting in the queue</li>
+ * <li>{@code hekate.rpc.executor.active} - amount of calls that are being executed</li>
+ * <li>{@code hekate.rpc.executor.rejected} - amount of calls that were rejected due to the queue overflow</li>
+ * <li>{@code hekate.rpc.executor.wait.time} - time that calls spend in the queue</li>
+ * <li>{@code hekate.rpc.executor.exec.time} - time that calls spend in the RPC method</li>
+ * </ul>
+ *
+ * <p>
+ * Methods without the {@link RpcExecutor} annotation are executed by the {@link RpcServiceFactory#setWorkerThreads(int) worker threads}
+ * of the RPC service. Those threads are shared with the RPC messaging channel and their load is exposed via its
+ * {@code hekate.message.task.*} metrics (tagged with {@code channel=hekate.rpc}) while time of each call is exposed via the
+ * {@code hekate.rpc.server.time} metric.
+ * </p>
+ *
+ * @see RpcExecutor
+ * @see RpcServiceFactory#setExecutors(List)
+ */
+public class RpcExecutorConfig {
+    /** Default value (={@value}) for {@link #setMaxQueueSize(int)}. */
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 1000;
+
+    /** See {@link #setName(String)}. */
+    private String name;
+
+    /** See {@link #setThreads(int)}. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** See {@link #setMaxQueueSize(int)}. */
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+    /**
+     * Returns the name of this thread pool (see {@link #setName(String)}).
+     *
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of this thread pool. Can contain only alpha-numeric characters and non-repeatable dots/hyphens.
+     *
+     * <p>
+     * This name is used to reference this thread pool from the {@link RpcExecutor} annotation and is also used as a suffix of thread
+     * names. Names must be unique within the {@link RpcService}.
+     * </p>
+     *
+     * <p>
+     * This parameter is mandatory and doesn't have a default value.
+     * </p>
+     *
+     * @param name Name (can contain only alpha-numeric characters and non-repeatable dots/hyphens).
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Fluent-style version of {@link #setName(String)}.
+     *
+     * @param name Name.
+     *
+     * @return This instance.
+     */
+    public RpcExecutorConfig withName(String name) {
+        setName(name);
+
+        return this;
+    }
+
+    /**
+     * Returns the thread pool size (see {@link #setThreads(int)}).
+     *
+     * @return Thread pool size.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the thread pool size.
+     *
+     * <p>
+     * Value of this parameter must be above zero. If not directly specified then the number of available CPUs (see
+     * {@link Runtime#availableProcessors()}) will be used as the default value.
+     * </p>
+     *
+     * @param threads Thread pool size.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Fluent-style version of {@link #setThreads(int)}.
+     *
+     * @param threads Thread pool size.
+     *
+     * @return This instance.
+     */
+    public RpcExecutorConfig withThreads(int threads) {
+        setThreads(threads);
+
+        return this;
+    }
+
+    /**
+     * Returns the maximum amount of calls that can wait in the queue of this thread pool (see {@link #setMaxQueueSize(int)}).
+     *
+     * @return Maximum queue size.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Sets the maximum amount of calls that can wait in the queue of this thread pool.
+     *
+     * <p>
+     * If all threads are busy and the queue is full then new calls are rejected with {@link RpcServerOverloadException}. Value of this
+     * parameter must be above zero.
+     * </p>
+     *
+     * <p>
+     * Default value of this parameter is {@value #DEFAULT_MAX_QUEUE_SIZE}.
+     * </p>
+     *
+     * @param maxQueueSize Maximum queue size.
+     */
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Fluent-style version of {@link #setMaxQueueSize(int)}.
+     *
+     * @param maxQueueSize Maximum queue size.
+     *
+     * @return This instance.
+     */
+    public RpcExecutorConfig withMaxQueueSize(int maxQueueSize) {
+        setMaxQueueSize(maxQueueSize);
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Meta-information about RPC method.
@@ -42,12 +43,22 @@ public class RpcMethodInfo {
 
     private final boolean async;
 
+    private final boolean stream;
+
     private final Optional<RpcAggregate> aggregate;
 
     private final Optional<RpcBroadcast> broadcast;
 
+    private final Optional<RpcBatch> batch;
+
+    private final Optional<RpcCache> cache;
+
+    private final Optional<String> executor;
+
     private final OptionalInt splitArg;
 
+    private final Optional<RpcSplit.Mode> splitMode;
+
     private final OptionalInt affinityArg;
 
     private final Optional<RpcRetryInfo> retry;
@@ -71,10 +82,15 @@ public class RpcMethodInfo {
         this.javaMethod = javaMethod;
         this.affinityArg = findAffinityArg(javaMethod);
         this.splitArg = findSplitArg(javaMethod);
+        this.splitMode = findSplitMode(javaMethod, splitArg);
         this.async = isAsyncReturnType(javaMethod);
+        this.stream = Stream.class.equals(javaMethod.getReturnType());
         this.aggregate = findAggregate(javaMethod);
         this.broadcast = findBroadcast(javaMethod);
+        this.batch = Optional.ofNullable(javaMethod.getAnnotation(RpcBatch.class));
+        this.cache = Optional.ofNullable(javaMethod.getAnnotation(RpcCache.class));
         this.retry = findRetry(javaMethod, resolver);
+        this.executor = findExecutor(javaMethod, resolver);
 
         if (broadcast.isPresent()) {
             this.realReturnType = Void.class;
@@ -87,6 +103,53 @@ public class RpcMethodInfo {
                 + "@" + RpcBroadcast.class.getSimpleName() + " [method=" + javaMethod + ']');
         }
 
+        if (batch.isPresent()) {
+            if (aggregate.isPresent() || broadcast.isPresent()) {
+                throw new IllegalArgumentException("@" + RpcBatch.class.getSimpleName() + " can't be used together with "
+                    + "@" + RpcAggregate.class.getSimpleName() + " or @" + RpcBroadcast.class.getSimpleName()
+                    + " [method=" + javaMethod + ']');
+            }
+
+            if (batch.get().maxSize() <= 0) {
+                throw new IllegalArgumentException("@" + RpcBatch.class.getSimpleName() + " maximum size must be above zero "
+                    + "[method=" + javaMethod + ']');
+            }
+
+            if (batch.get().delay() < 0) {
+                throw new IllegalArgumentException("@" + RpcBatch.class.getSimpleName() + " delay must be greater than or equals to zero "
+                    + "[method=" + javaMethod + ']');
+            }
+        }
+
+        if (stream && (aggregate.isPresent() || broadcast.isPresent() || batch.isPresent() || cache.isPresent())) {
+            throw new IllegalArgumentException("Methods with " + Stream.class.getSimpleName() + " result can't be annotated with "
+                + "@" + RpcAggregate.class.getSimpleName() + ", @" + RpcBroadcast.class.getSimpleName()
+                + ", @" + RpcBatch.class.getSimpleName() + " or @" + RpcCache.class.getSimpleName() + " [method=" + javaMethod + ']');
+        }
+
+        if (cache.isPresent()) {
+            if (aggregate.isPresent() || broadcast.isPresent() || batch.isPresent()) {
+                throw new IllegalArgumentException("@" + RpcCache.class.getSimpleName() + " can't be used together with "
+                    + "@" + RpcAggregate.class.getSimpleName() + ", @" + RpcBroadcast.class.getSimpleName()
+                    + " or @" + RpcBatch.class.getSimpleName() + " [method=" + javaMethod + ']');
+            }
+
+            if (realReturnType == void.class || realReturnType == Void.class) {
+                throw new IllegalArgumentException("@" + RpcCache.class.getSimpleName() + " can't be used on void methods "
+                    + "[method=" + javaMethod + ']');
+            }
+
+            if (cache.get().maxSize() <= 0) {
+                throw new IllegalArgumentException("@" + RpcCache.class.getSimpleName() + " maximum size must be above zero "
+                    + "[method=" + javaMethod + ']');
+            }
+
+            if (cache.get().ttl() < 0) {
+                throw new IllegalArgumentException("@" + RpcCache.class.getSimpleName() + " time to live must be greater than or equals "
+                    + "to zero [method=" + javaMethod + ']');
+            }
+        }
+
         if (splitArg.isPresent()) {
             if (affinityArg.isPresent()) {
                 throw new IllegalArgumentException("@" + RpcSplit.class.getSimpleName() + " can't be used together with "
@@ -127,6 +190,19 @@ public class RpcMethodInfo {
         return async;
     }
 
+    /**
+     * Returns {@code true} if this method returns a {@link Stream} of results.
+     *
+     * <p>
+     * Elements of such streams are transferred from the RPC server to the client incrementally (in chunks) as the client consumes them.
+     * </p>
+     *
+     * @return {@code true} if this method returns a {@link Stream} of results.
+     */
+    public boolean isStream() {
+        return stream;
+    }
+
     /**
      * Returns the {@link RpcAggregate} annotation that is declared on this method (if presents).
      *
@@ -145,6 +221,36 @@ public class RpcMethodInfo {
         return broadcast;
     }
 
+    /**
+     * Returns the {@link RpcBatch} annotation that is declared on this method (if presents).
+     *
+     * @return {@link RpcBatch} annotation.
+     */
+    public Optional<RpcBatch> batch() {
+        return batch;
+    }
+
+    /**
+     * Returns the {@link RpcCache} annotation that is declared on this method (if presents).
+     *
+     * @return {@link RpcCache} annotation.
+     */
+    public Optional<RpcCache> cache() {
+        return cache;
+    }
+
+    /**
+     * Returns the name of a thread pool for server-side execution of this method based on the {@link RpcExecutor} annotation of this
+     * method or of its declaring interface.
+     *
+     * @return Thread pool name or an empty value if this method should be executed by the worker threads of the {@link RpcService}.
+     *
+     * @see RpcExecutor
+     */
+    public Optional<String> executor() {
+        return executor;
+    }
+
     /**
      * Returns the zero-based index of an argument that is annotated with {@link RpcSplit} (if presents).
      *
@@ -167,6 +273,15 @@ public class RpcMethodInfo {
         }
     }
 
+    /**
+     * Returns the {@link RpcSplit#mode() splitting mode} of a {@link #splitArg()}.
+     *
+     * @return Splitting mode of a {@link #splitArg()}.
+     */
+    public Optional<RpcSplit.Mode> splitMode() {
+        return splitMode;
+    }
+
     /**
      * Returns the real return type of this method.
      *
@@ -243,6 +358,11 @@ public class RpcMethodInfo {
                     + "return type [supported-types={" + col + ", " + lst + ", " + set + ", " + map + ", " + future + "}, "
                     + "method=" + meth + ']');
             }
+
+            if (aggregate.get().deadline() < 0) {
+                throw new IllegalArgumentException("@" + RpcAggregate.class.getSimpleName() + " deadline must be greater than or equals "
+                    + "to zero [method=" + meth + ']');
+            }
         }
 
         return aggregate;
@@ -256,6 +376,20 @@ public class RpcMethodInfo {
         return Optional.ofNullable(meth.getAnnotation(RpcRetry.class)).map((RpcRetry retry) -> RpcRetryInfo.parse(retry, resolver));
     }
 
+    private static Optional<String> findExecutor(Method meth, PlaceholderResolver resolver) {
+        RpcExecutor executor = meth.getAnnotation(RpcExecutor.class);
+
+        if (executor == null) {
+            executor = meth.getDeclaringClass().getAnnotation(RpcExecutor.class);
+        }
+
+        return Optional.ofNullable(executor)
+            .map(RpcExecutor::value)
+            .map(resolver::resolvePlaceholders)
+            .map(String::trim)
+            .filter(name -> !name.isEmpty());
+    }
+
     private static OptionalInt findSplitArg(Method meth) {
         OptionalInt splitIdx = OptionalInt.empty();
 
@@ -298,6 +432,18 @@ public class RpcMethodInfo {
         return splitIdx;
     }
 
+    private static Optional<RpcSplit.Mode> findSplitMode(Method meth, OptionalInt splitArg) {
+        if (splitArg.isPresent()) {
+            for (Annotation annotation : meth.getParameterAnnotations()[splitArg.getAsInt()]) {
+                if (annotation instanceof RpcSplit) {
+                    return Optional.of(((RpcSplit)annotation).mode());
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
     private static OptionalInt findAffinityArg(Method meth) {
         OptionalInt affinityArg = OptionalInt.empty();
 
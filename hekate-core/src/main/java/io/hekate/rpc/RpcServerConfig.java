@@ -32,6 +32,8 @@ public class RpcServerConfig {
 
     private Set<String> tags;
 
+    private RpcConcurrencyLimitConfig concurrencyLimit;
+
     /**
      * Returns the RPC handler (see {@link #setHandler(Object)}).
      *
@@ -118,6 +120,47 @@ public class RpcServerConfig {
         return this;
     }
 
+    /**
+     * Returns the adaptive concurrency limit of this server (see {@link #setConcurrencyLimit(RpcConcurrencyLimitConfig)}).
+     *
+     * @return Adaptive concurrency limit or {@code null} if concurrency is not limited.
+     */
+    public RpcConcurrencyLimitConfig getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Sets the adaptive concurrency limit of this server.
+     *
+     * <p>
+     * If specified then this server will limit the amount of concurrently processed RPC calls and will reject all calls above that limit
+     * with {@link RpcServerOverloadException}. The limit is shared by all RPC interfaces and tags of this server. Please see the
+     * documentation of {@link RpcConcurrencyLimitConfig} for more details.
+     * </p>
+     *
+     * <p>
+     * This parameter is optional and if not specified (default) then concurrency is not limited.
+     * </p>
+     *
+     * @param concurrencyLimit Adaptive concurrency limit.
+     */
+    public void setConcurrencyLimit(RpcConcurrencyLimitConfig concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Fluent-style version of {@link #setConcurrencyLimit(RpcConcurrencyLimitConfig)}.
+     *
+     * @param concurrencyLimit Adaptive concurrency limit.
+     *
+     * @return This instance.
+     */
+    public RpcServerConfig withConcurrencyLimit(RpcConcurrencyLimitConfig concurrencyLimit) {
+        setConcurrencyLimit(concurrencyLimit);
+
+        return this;
+    }
+
     @Override
     public String toString() {
         return ToString.format(this);
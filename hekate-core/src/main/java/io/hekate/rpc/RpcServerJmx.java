@@ -78,4 +78,27 @@ public interface RpcServerJmx {
      * @return Cluster topology of this server.
      */
     ClusterNodeJmx[] getTopology();
+
+    /**
+     * Returns the current {@link RpcServerConfig#setConcurrencyLimit(RpcConcurrencyLimitConfig) concurrency limit} of this server.
+     *
+     * @return Current concurrency limit or 0 if concurrency is not limited.
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * Returns the amount of RPC calls that are currently being processed by this server (only if
+     * {@link RpcServerConfig#setConcurrencyLimit(RpcConcurrencyLimitConfig) concurrency limit} is configured).
+     *
+     * @return Amount of RPC calls that are currently being processed or 0 if concurrency is not limited.
+     */
+    int getConcurrentCalls();
+
+    /**
+     * Returns the total amount of RPC calls that were rejected by this server because of the
+     * {@link RpcServerConfig#setConcurrencyLimit(RpcConcurrencyLimitConfig) concurrency limit}.
+     *
+     * @return Total amount of rejected RPC calls.
+     */
+    long getRejectedCalls();
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import io.hekate.core.HekateException;
+
+/**
+ * Signals that an RPC call was rejected by the server since it had reached its concurrency limit.
+ *
+ * <p>
+ * Such errors are safe to retry since the rejected call was not executed by the server.
+ * </p>
+ *
+ * @see RpcConcurrencyLimitConfig
+ */
+public class RpcServerOverloadException extends RpcException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param message Error message.
+     */
+    public RpcServerOverloadException(String message) {
+        super(message);
+    }
+
+    /**
+     * Support constructor for {@link #forkFromAsync()}.
+     *
+     * @param message Error message.
+     * @param cause Cause.
+     */
+    private RpcServerOverloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public HekateException forkFromAsync() {
+        return new RpcServerOverloadException(getMessage(), this);
+    }
+}
@@ -100,6 +100,15 @@ import java.util.concurrent.CompletableFuture;
  * {@link RpcService} without blocking the client thread.
  * </p>
  *
+ * <h3>Streaming</h3>
+ * <p>
+ * RPC methods can return a {@link java.util.stream.Stream} of results. Elements of such stream are lazily pulled on the server side and
+ * are transferred to the client in chunks as the client consumes them, so that large results don't need to be fully materialized in
+ * memory. Closing the stream on the client side (f.e. via try-with-resources) cancels the remote stream. Streams that are neither
+ * consumed nor closed are closed by the server after {@link RpcServiceFactory#setStreamIdleTimeout(long) idle timeout}. Failed streams
+ * are not retried and the RPC client's timeout (if any) applies only to the time of waiting for the next chunk from the server.
+ * </p>
+ *
  * <h3>Aggregate and Broadcast</h3>
  * <p>
  * RPC service provides support for broadcast/aggregate operations. Each such RPC operations gets submitted to multiple nodes at once and
@@ -191,6 +200,45 @@ import java.util.concurrent.CompletableFuture;
  * and communicate with that server.
  * </p>
  *
+ * <h3>Thread Pools</h3>
+ * <p>
+ * By default, RPC methods are executed by worker threads of the {@link RpcService} (see {@link RpcServiceFactory#setWorkerThreads(int)}).
+ * Slow methods (f.e. methods that perform blocking I/O) can be isolated from the fast ones by offloading them to a dedicated bounded
+ * thread pool. Such thread pools are configured via {@link RpcServiceFactory#setExecutors(List)} and are referenced by the
+ * {@link RpcExecutor} annotation on RPC interfaces or methods.
+ * </p>
+ *
+ * <h3>Deadlines</h3>
+ * <p>
+ * RPC clients propagate the remaining time of their {@link RpcClientConfig#setTimeout(long) timeout} to RPC servers. Servers skip calls
+ * whose deadline has passed before they could be processed, and nested RPC calls that are performed by an RPC method automatically use
+ * the minimum of their own timeout and the remaining time of the outer call (or fail immediately if the outer call's deadline has
+ * already passed). The remaining time is available to RPC methods via
+ * {@link RpcDeadline#remainingTime()}.
+ * </p>
+ *
+ * <h3>Metrics</h3>
+ * <p>
+ * Each RPC method is measured on both sides of communication by the following meters that are registered in the
+ * {@link io.hekate.core.HekateBootstrap#setMetrics(io.micrometer.core.instrument.MeterRegistry) metrics registry}:
+ * </p>
+ * <ul>
+ * <li>{@code hekate.rpc.client.time} / {@code hekate.rpc.server.time} - number and latency (with percentiles) of calls</li>
+ * <li>{@code hekate.rpc.client.errors} / {@code hekate.rpc.server.errors} - number of failed calls</li>
+ * <li>{@code hekate.rpc.client.active} / {@code hekate.rpc.server.active} - number of calls that are currently in progress</li>
+ * <li>{@code hekate.rpc.client.args.size} / {@code hekate.rpc.server.args.size} - size of serialized arguments per each remote node
+ * (sent by the client and received by the server)</li>
+ * <li>{@code hekate.rpc.client.result.size} / {@code hekate.rpc.server.result.size} - size of serialized results (received by the client
+ * and sent by the server)</li>
+ * </ul>
+ * <p>
+ * All meters are tagged with {@code rpc} (RPC interface name) and {@code method} (method signature) so that the number of meters is
+ * bounded by the number of RPC methods. Client-side meters are also tagged with {@code tag} (RPC tag of the client or an empty string).
+ * Server-side meters are not tagged with RPC tags and are shared by all tags of the same RPC interface. All meters are also tagged with
+ * {@code node} (identifier of the local node) so that multiple nodes can share the same registry, and are removed from the registry
+ * when the node leaves the cluster.
+ * </p>
+ *
  * <a id="rpc_client"></a>
  * <h2>RPC Client</h2>
  * <p>
@@ -369,6 +417,24 @@ public interface RpcService extends Service {
      */
     ClusterView clusterOf(Class<?> type);
 
+    /**
+     * Invalidates cached results of an {@link RpcCache}-annotated method on all nodes of the cluster.
+     *
+     * <p>
+     * If arguments are specified then only the cached result of a call with the same arguments is invalidated; otherwise all cached
+     * results of the method are invalidated. The method is identified by its {@link RpcMethodInfo#signature() signature} (f.e.
+     * {@code get(java.lang.String)}), so overloaded methods are invalidated independently of each other.
+     * </p>
+     *
+     * @param type {@link Rpc}-annotated Java interface.
+     * @param tag Tag (see {@link RpcServerConfig#setTags(Set)}); can be {@code null}.
+     * @param method Method signature (see {@link RpcMethodInfo#signature()}).
+     * @param args Arguments of the cached call (empty to invalidate all results of the method).
+     *
+     * @return Future that gets completed once the invalidation is received by all nodes.
+     */
+    CompletableFuture<Void> invalidateCache(Class<?> type, String tag, String method, Object... args);
+
     /**
      * Returns an immutable list of all RPC servers registered on this node.
      *
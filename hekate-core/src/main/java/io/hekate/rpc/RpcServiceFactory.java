@@ -39,6 +39,9 @@ import java.util.List;
  * </p>
  */
 public class RpcServiceFactory extends MessagingConfigBase<RpcServiceFactory> implements ServiceFactory<RpcService> {
+    /** Default value (={@value}) for {@link #setStreamIdleTimeout(long)}. */
+    public static final long DEFAULT_STREAM_IDLE_TIMEOUT = 60_000;
+
     /** See {@link #setClients(List)}. */
     private List<RpcClientConfig> clients;
 
@@ -54,6 +57,12 @@ public class RpcServiceFactory extends MessagingConfigBase<RpcServiceFactory> im
     /** See {@link #setWorkerThreads(int)}. */
     private int workerThreads = Runtime.getRuntime().availableProcessors();
 
+    /** See {@link #setExecutors(List)}. */
+    private List<RpcExecutorConfig> executors;
+
+    /** See {@link #setStreamIdleTimeout(long)}. */
+    private long streamIdleTimeout = DEFAULT_STREAM_IDLE_TIMEOUT;
+
     /**
      * Returns the list of RPC client configurations (see {@link #setClients(List)}).
      *
@@ -238,6 +247,90 @@ public class RpcServiceFactory extends MessagingConfigBase<RpcServiceFactory> im
         return this;
     }
 
+    /**
+     * Returns the list of thread pools for execution of RPC methods (see {@link #setExecutors(List)}).
+     *
+     * @return Thread pools.
+     */
+    public List<RpcExecutorConfig> getExecutors() {
+        return executors;
+    }
+
+    /**
+     * Sets the list of thread pools for execution of RPC methods.
+     *
+     * <p>
+     * Such thread pools can be referenced by the {@link RpcExecutor} annotation in order to isolate slow RPC methods from the fast ones.
+     * RPC methods that are not annotated with {@link RpcExecutor} are executed by worker threads (see {@link #setWorkerThreads(int)}).
+     * </p>
+     *
+     * @param executors Thread pools.
+     *
+     * @see RpcExecutor
+     */
+    public void setExecutors(List<RpcExecutorConfig> executors) {
+        this.executors = executors;
+    }
+
+    /**
+     * Fluent-style version of {@link #setExecutors(List)}.
+     *
+     * @param executor Thread pool.
+     *
+     * @return This instance.
+     */
+    public RpcServiceFactory withExecutor(RpcExecutorConfig executor) {
+        if (this.executors == null) {
+            this.executors = new ArrayList<>();
+        }
+
+        this.executors.add(executor);
+
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds that a server-side RPC stream can wait for the client to request more elements
+     * (see {@link #setStreamIdleTimeout(long)}).
+     *
+     * @return Time in milliseconds.
+     */
+    public long getStreamIdleTimeout() {
+        return streamIdleTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds that a server-side RPC stream can wait for the client to request more elements.
+     *
+     * <p>
+     * Elements of a {@link java.util.stream.Stream} that is returned by an RPC method are sent to the client only when the client
+     * consumes the previously received elements. If the client doesn't request more elements within this timeout (f.e. if it stopped
+     * consuming the stream without closing it) then the server closes the stream and the client gets an error.
+     * </p>
+     *
+     * <p>
+     * If zero value is specified then streams are never closed due to inactivity. Default value is {@value #DEFAULT_STREAM_IDLE_TIMEOUT}.
+     * </p>
+     *
+     * @param streamIdleTimeout Time in milliseconds.
+     */
+    public void setStreamIdleTimeout(long streamIdleTimeout) {
+        this.streamIdleTimeout = streamIdleTimeout;
+    }
+
+    /**
+     * Fluent-style version of {@link #setStreamIdleTimeout(long)}.
+     *
+     * @param streamIdleTimeout Time in milliseconds.
+     *
+     * @return This instance.
+     */
+    public RpcServiceFactory withStreamIdleTimeout(long streamIdleTimeout) {
+        setStreamIdleTimeout(streamIdleTimeout);
+
+        return this;
+    }
+
     @Override
     public RpcService createService() {
         return new DefaultRpcService(this);
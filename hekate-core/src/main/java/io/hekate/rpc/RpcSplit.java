@@ -49,11 +49,37 @@ import java.util.Set;
  * call.
  * </p>
  *
+ * <p>
+ * The way how the argument is split is controlled by the {@link #mode()} attribute:
+ * </p>
+ * <ul>
+ * <li>{@link Mode#EVEN} - the argument is split into roughly equal chunks regardless of which nodes own the data.</li>
+ * <li>{@link Mode#PARTITIONED} - each element (or each key of a {@link Map}) is mapped to a partition via the RPC client's
+ * {@link RpcClientBuilder#partitions() partition mapper} (the same way as an {@link RpcAffinityKey} argument is mapped) and each node
+ * receives only those elements for which it is the primary node.</li>
+ * </ul>
+ *
  * @see RpcService
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
 public @interface RpcSplit {
-    // No-op.
+    /**
+     * Splitting mode.
+     */
+    enum Mode {
+        /** Split into roughly equal chunks (one chunk per cluster node). */
+        EVEN,
+
+        /** Split by the primary node of each element's partition. */
+        PARTITIONED
+    }
+
+    /**
+     * Splitting mode.
+     *
+     * @return Splitting mode.
+     */
+    Mode mode() default Mode.EVEN;
 }
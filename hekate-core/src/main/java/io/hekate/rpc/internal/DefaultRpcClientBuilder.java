@@ -48,16 +48,31 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
     @ToStringIgnore
     private final MessagingChannel<RpcProtocol> channel;
 
+    @ToStringIgnore
+    private final RpcTimer timer;
+
+    @ToStringIgnore
+    private final RpcCacheManager caches;
+
+    @ToStringIgnore
+    private final RpcMetrics metrics;
+
     public DefaultRpcClientBuilder(
         RpcInterfaceInfo<T> type,
         String tag,
         MessagingChannel<RpcProtocol> channel,
+        RpcTimer timer,
+        RpcCacheManager caches,
+        RpcMetrics metrics,
         long timeout,
         GenericRetryConfigurer retry
     ) {
         this.type = type;
         this.tag = tag;
         this.channel = channel;
+        this.timer = timer;
+        this.caches = caches;
+        this.metrics = metrics;
         this.timeout = timeout;
         this.retry = retry;
     }
@@ -65,15 +80,21 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
     @Override
     public RpcClientBuilder<T> withLoadBalancer(RpcLoadBalancer balancer) {
         LoadBalancer<RpcProtocol> rpcBalancer = (message, ctx) -> {
-            RpcRequest request = (RpcRequest)message;
-
-            return balancer.route(request, ctx);
+            if (message instanceof RpcRequest) {
+                return balancer.route((RpcRequest)message, ctx);
+            } else {
+                // Stream control messages are always sent to a single node (i.e. the stream's server).
+                return ctx.first().id();
+            }
         };
 
         return new DefaultRpcClientBuilder<>(
             type,
             tag,
-            channel.withLoadBalancer(rpcBalancer),
+            channel.withLoadBalancer(new RpcOverloadLoadBalancer(rpcBalancer)),
+            timer,
+            caches,
+            metrics,
             timeout,
             retry
         );
@@ -85,6 +106,9 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
             type,
             tag,
             channel,
+            timer,
+            caches,
+            metrics,
             timeout,
             retry
         );
@@ -101,6 +125,9 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
             type,
             tag,
             channel,
+            timer,
+            caches,
+            metrics,
             unit.toMillis(timeout),
             retry
         );
@@ -112,6 +139,9 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
             type,
             tag,
             channel.filterAll(filter),
+            timer,
+            caches,
+            metrics,
             timeout,
             retry
         );
@@ -128,6 +158,9 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
             type,
             tag,
             channel.withPartitions(partitions, backupNodes),
+            timer,
+            caches,
+            metrics,
             timeout,
             retry
         );
@@ -154,6 +187,9 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
             type,
             tag,
             channel.withCluster(cluster.filter(RpcUtils.filterFor(type, tag))),
+            timer,
+            caches,
+            metrics,
             timeout,
             retry
         );
@@ -164,19 +200,29 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
     public T build() {
         ClassLoader classLoader = type.javaType().getClassLoader();
 
-        Map<Method, RpcMethodClientBase<T>> clients = new HashMap<>(type.methods().size(), 1.0f);
+        Map<Method, RpcMethodClientBase<?>> clients = new HashMap<>(type.methods().size(), 1.0f);
 
         for (RpcMethodInfo method : type.methods()) {
             RpcMethodClientBase<T> client;
 
+            RpcMethodMetrics methodMetrics = metrics.client(type, tag, method);
+
             if (method.splitArg().isPresent()) {
-                client = new RpcSplitAggregateMethodClient<>(type, tag, method, channel, retryPolicy(method), timeout);
+                client = new RpcSplitAggregateMethodClient<>(
+                    type, tag, method, channel, methodMetrics, retryPolicy(method), timeout, timer
+                );
             } else if (method.aggregate().isPresent()) {
-                client = new RpcAggregateMethodClient<>(type, tag, method, channel, retryPolicy(method), timeout);
+                client = new RpcAggregateMethodClient<>(type, tag, method, channel, methodMetrics, retryPolicy(method), timeout, timer);
             } else if (method.broadcast().isPresent()) {
-                client = new RpcBroadcastMethodClient<>(type, tag, method, channel, retryPolicy(method), timeout);
+                client = new RpcBroadcastMethodClient<>(type, tag, method, channel, methodMetrics, retryPolicy(method), timeout);
+            } else if (method.isStream()) {
+                client = new RpcStreamMethodClient<>(type, tag, method, channel, methodMetrics, timeout);
+            } else if (method.batch().isPresent()) {
+                client = new RpcBatchMethodClient<>(type, tag, method, channel, methodMetrics, retryPolicy(method), timeout, timer);
             } else {
-                client = new RpcMethodClient<>(type, tag, method, channel, retryPolicy(method), timeout);
+                RpcResultCache cache = method.cache().isPresent() ? caches.cacheFor(type, tag, method) : null;
+
+                client = new RpcMethodClient<>(type, tag, method, channel, methodMetrics, retryPolicy(method), timeout, cache);
             }
 
             clients.put(method.javaMethod(), client);
@@ -184,19 +230,7 @@ class DefaultRpcClientBuilder<T> implements RpcClientBuilder<T> {
 
         Class<?>[] proxyType = {type.javaType()};
 
-        return (T)Proxy.newProxyInstance(classLoader, proxyType, (proxy, method, args) -> {
-            RpcMethodClientBase client = clients.get(method);
-
-            if (client == null) {
-                if (method.getDeclaringClass().equals(Object.class)) {
-                    return method.invoke(this, args);
-                } else {
-                    throw new UnsupportedOperationException("Method is not supported by RPC: " + method);
-                }
-            } else {
-                return client.invoke(args);
-            }
-        });
+        return (T)Proxy.newProxyInstance(classLoader, proxyType, new RpcProxyHandler(this, clients));
     }
 
     private GenericRetryConfigurer retryPolicy(RpcMethodInfo method) {
@@ -29,12 +29,21 @@ class DefaultRpcServerJmx implements RpcServerJmx {
 
     private final RpcServerInfo server;
 
+    private final RpcConcurrencyLimiter limiter;
+
     private final ClusterView cluster;
 
-    public DefaultRpcServerJmx(RpcInterfaceInfo<?> rpcInterface, String tag, RpcServerInfo server, ClusterView cluster) {
+    public DefaultRpcServerJmx(
+        RpcInterfaceInfo<?> rpcInterface,
+        String tag,
+        RpcServerInfo server,
+        RpcConcurrencyLimiter limiter,
+        ClusterView cluster
+    ) {
         this.rpcInterface = rpcInterface;
         this.tag = tag;
         this.server = server;
+        this.limiter = limiter;
         this.cluster = cluster;
     }
 
@@ -67,4 +76,19 @@ class DefaultRpcServerJmx implements RpcServerJmx {
     public ClusterNodeJmx[] getTopology() {
         return cluster.topology().stream().map(ClusterNodeJmx::of).toArray(ClusterNodeJmx[]::new);
     }
+
+    @Override
+    public int getConcurrencyLimit() {
+        return limiter != null ? limiter.limit() : 0;
+    }
+
+    @Override
+    public int getConcurrentCalls() {
+        return limiter != null ? limiter.inFlight() : 0;
+    }
+
+    @Override
+    public long getRejectedCalls() {
+        return limiter != null ? limiter.rejected() : 0;
+    }
 }
@@ -17,12 +17,14 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.cluster.ClusterView;
+import io.hekate.cluster.event.ClusterEventType;
 import io.hekate.codec.CodecFactory;
 import io.hekate.codec.CodecService;
 import io.hekate.core.HekateException;
 import io.hekate.core.inject.InjectionService;
 import io.hekate.core.internal.util.ArgAssert;
 import io.hekate.core.internal.util.ConfigCheck;
+import io.hekate.core.internal.util.Utils;
 import io.hekate.core.jmx.JmxService;
 import io.hekate.core.report.ConfigReporter;
 import io.hekate.core.service.ConfigurationContext;
@@ -35,29 +37,44 @@ import io.hekate.messaging.MessagingChannel;
 import io.hekate.messaging.MessagingChannelConfig;
 import io.hekate.messaging.MessagingConfigProvider;
 import io.hekate.messaging.MessagingService;
-import io.hekate.messaging.intercept.ClientMessageInterceptor;
+import io.hekate.messaging.intercept.AllMessageInterceptor;
+import io.hekate.messaging.intercept.ClientReceiveContext;
 import io.hekate.messaging.intercept.ClientSendContext;
+import io.hekate.messaging.intercept.ServerReceiveContext;
+import io.hekate.messaging.loadbalance.DefaultLoadBalancer;
 import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcCache;
 import io.hekate.rpc.RpcClientBuilder;
 import io.hekate.rpc.RpcClientConfig;
 import io.hekate.rpc.RpcClientConfigProvider;
+import io.hekate.rpc.RpcConcurrencyLimitConfig;
+import io.hekate.rpc.RpcExecutorConfig;
 import io.hekate.rpc.RpcInterfaceInfo;
 import io.hekate.rpc.RpcServerConfig;
 import io.hekate.rpc.RpcServerConfigProvider;
 import io.hekate.rpc.RpcServerInfo;
 import io.hekate.rpc.RpcService;
 import io.hekate.rpc.RpcServiceFactory;
+import io.hekate.rpc.internal.RpcProtocol.RpcCacheInvalidation;
 import io.hekate.rpc.internal.RpcProtocol.RpcCall;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallBatchResult;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
+import io.hekate.rpc.internal.RpcProtocol.RpcCompactBatchCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCompactCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCompactSplitCall;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamCancel;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamDemand;
 import io.hekate.util.StateGuard;
+import io.hekate.util.async.Waiting;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -84,8 +101,12 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
     private final int nioThreads;
 
+    private final String eventLoopGroup;
+
     private final long idleSocketTimeout;
 
+    private final long streamIdleTimeout;
+
     private final MessagingBackPressureConfig backPressure;
 
     private final StateGuard guard = new StateGuard(RpcService.class);
@@ -94,12 +115,26 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
     private final List<RpcServerConfig> serverConfigs = new ArrayList<>();
 
+    private final List<RpcExecutorConfig> executorConfigs = new ArrayList<>();
+
     private final Map<RpcTypeKey, RpcClientBuilder<?>> clients = new ConcurrentHashMap<>();
 
     private List<RpcServerInfo> servers;
 
     private RpcMethodHandler[] methods;
 
+    private RpcConcurrencyLimiter[] limiters;
+
+    private RpcMethodMetrics[] methodMetrics;
+
+    private Map<RpcServerInfo, RpcConcurrencyLimiter> serverLimiters;
+
+    private String[] executorNames;
+
+    private RpcExecutorPool[] executors;
+
+    private List<RpcExecutorPool> executorPools;
+
     private RpcTypeAnalyzer types;
 
     private JmxService jmx;
@@ -110,16 +145,27 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
     private MessagingChannel<RpcProtocol> channel;
 
+    private RpcTimer timer;
+
+    private RpcStreamSessions streams;
+
+    private volatile RpcCacheManager caches;
+
+    private RpcMetrics metrics;
+
     public DefaultRpcService(RpcServiceFactory factory) {
         ArgAssert.notNull(factory, "Factory");
 
         workerThreads = factory.getWorkerThreads();
         nioThreads = factory.getNioThreads();
+        eventLoopGroup = factory.getEventLoopGroup();
         idleSocketTimeout = factory.getIdleSocketTimeout();
+        streamIdleTimeout = factory.getStreamIdleTimeout();
         backPressure = new MessagingBackPressureConfig(factory.getBackPressure());
 
         nullSafe(factory.getClients()).forEach(clientConfigs::add);
         nullSafe(factory.getServers()).forEach(serverConfigs::add);
+        nullSafe(factory.getExecutors()).forEach(executorConfigs::add);
 
         nullSafe(factory.getClientProviders()).forEach(provider ->
             nullSafe(provider.configureRpcClients()).forEach(clientConfigs::add)
@@ -166,6 +212,21 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
             nullSafe(provider.configureRpcServers()).forEach(serverConfigs::add)
         );
 
+        // Validate executor configurations.
+        Set<String> uniqueExecutors = new HashSet<>();
+
+        executorConfigs.forEach(cfg -> {
+            ConfigCheck check = ConfigCheck.get(RpcExecutorConfig.class);
+
+            check.notEmpty(cfg.getName(), "name");
+            check.validSysName(cfg.getName(), "name");
+            check.unique(cfg.getName(), uniqueExecutors, "name");
+            check.positive(cfg.getThreads(), "thread pool size");
+            check.positive(cfg.getMaxQueueSize(), "maximum queue size");
+
+            uniqueExecutors.add(cfg.getName());
+        });
+
         // Register RPC servers.
         List<RpcServerInfo> serversInfo = new ArrayList<>();
 
@@ -173,6 +234,12 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
         List<RpcMethodHandler> allMethods = new ArrayList<>();
 
+        List<RpcConcurrencyLimiter> allLimiters = new ArrayList<>();
+
+        List<String> allExecutors = new ArrayList<>();
+
+        Map<RpcServerInfo, RpcConcurrencyLimiter> limitersInfo = new HashMap<>();
+
         serverConfigs.forEach(cfg -> {
             ConfigCheck check = ConfigCheck.get(RpcServerConfig.class);
 
@@ -195,7 +262,32 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
                 .map(RpcInterface::type)
                 .collect(toList());
 
-            serversInfo.add(new RpcServerInfo(cfg.getHandler(), rpcTypes, tags));
+            RpcServerInfo serverInfo = new RpcServerInfo(cfg.getHandler(), rpcTypes, tags);
+
+            serversInfo.add(serverInfo);
+
+            // Concurrency limiter (optional).
+            RpcConcurrencyLimiter limiter;
+
+            if (cfg.getConcurrencyLimit() == null) {
+                limiter = null;
+            } else {
+                RpcConcurrencyLimitConfig limit = cfg.getConcurrencyLimit();
+
+                ConfigCheck limitCheck = ConfigCheck.get(RpcConcurrencyLimitConfig.class);
+
+                limitCheck.positive(limit.getMinLimit(), "minimum limit");
+                limitCheck.greaterOrEquals(limit.getMaxLimit(), limit.getMinLimit(), "maximum limit");
+                limitCheck.range(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(), "initial limit");
+                limitCheck.isTrue(limit.getBackoffRatio() > 0 && limit.getBackoffRatio() < 1,
+                    "backoff ratio must be within the (0, 1) range.");
+                limitCheck.isTrue(limit.getLatencyTolerance() >= 1,
+                    "latency tolerance must be greater than or equals to 1.");
+
+                limiter = new RpcConcurrencyLimiter(limit);
+
+                limitersInfo.put(serverInfo, limiter);
+            }
 
             rpcs.forEach(rpc -> {
                 RpcInterfaceInfo type = rpc.type();
@@ -204,9 +296,17 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
                 // Index methods.
                 rpc.methods().forEach(method -> {
+                    String executor = method.method().executor().orElse(null);
+
+                    if (executor != null && !uniqueExecutors.contains(executor)) {
+                        throw check.fail("Unknown RPC executor [executor=" + executor + ", method=" + method.method().javaMethod() + ']');
+                    }
+
                     int idx = allMethods.size();
 
                     allMethods.add(method);
+                    allLimiters.add(limiter);
+                    allExecutors.add(executor);
 
                     rpcMethods.add(new SimpleEntry<>(method, idx));
                 });
@@ -251,8 +351,12 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
         if (!allMethods.isEmpty()) {
             methods = allMethods.toArray(RpcMethodHandler.EMPTY_ARRAY);
+            limiters = allLimiters.toArray(new RpcConcurrencyLimiter[0]);
+            executorNames = allExecutors.toArray(new String[0]);
         }
 
+        serverLimiters = limitersInfo;
+
         servers = unmodifiableList(serversInfo);
     }
 
@@ -289,33 +393,101 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
         MessagingChannelConfig<RpcProtocol> cfg = MessagingChannelConfig.of(RpcProtocol.class)
             .withName(RPC_CHANNEL)
             .withNioThreads(nioThreads)
+            .withEventLoopGroup(eventLoopGroup)
             .withWorkerThreads(workerThreads)
             .withIdleSocketTimeout(idleSocketTimeout)
             .withBackPressure(backPressure)
             .withLogCategory(RpcProtocol.class.getName())
-            .withMessageCodec(new RpcProtocolCodecFactory(codec))
-            .withInterceptor(new ClientMessageInterceptor<RpcProtocol>() {
+            .withLoadBalancer(new RpcOverloadLoadBalancer(new DefaultLoadBalancer<>()))
+            .withMessageCodec(new RpcProtocolCodecFactory(codec, idx -> methods[idx].argsCodec()))
+            .withInterceptor(new AllMessageInterceptor<RpcProtocol>() {
                 @Override
                 public void interceptClientSend(ClientSendContext<RpcProtocol> ctx) {
                     // Convert method call to its compact representations.
                     if (ctx.payload() instanceof RpcCall) {
                         RpcCall<?> req = (RpcCall<?>)ctx.payload();
 
+                        // Notify about the node that was selected for this attempt.
+                        if (req.sendListener() != null) {
+                            req.sendListener().accept(ctx.receiver());
+                        }
+
                         // Use the method's index instead of the method signature.
                         int methodIdx = ctx.receiver().service(RpcService.class).intProperty(req.methodIdxKey());
 
-                        if (req.isSplit()) {
-                            ctx.overrideMessage(new RpcCompactSplitCall(methodIdx, req.args()));
+                        RpcCompactCall compact;
+
+                        if (req.isBatch()) {
+                            compact = new RpcCompactBatchCall(methodIdx, req.argsCodec(), req.batch());
+                        } else if (req.isSplit()) {
+                            compact = new RpcCompactSplitCall(methodIdx, req.argsCodec(), req.args());
                         } else {
-                            ctx.overrideMessage(new RpcCompactCall(methodIdx, req.args()));
+                            compact = new RpcCompactCall(methodIdx, req.argsCodec(), req.args());
+                        }
+
+                        // Arguments' size is recorded by the codec once the message gets encoded.
+                        compact.setMetrics(req.metrics());
+
+                        ctx.overrideMessage(compact);
+
+                        // Propagate the remaining time budget of this call.
+                        if (req.deadline() != 0) {
+                            ctx.metaData().set(RpcDeadlineContext.META_DATA_KEY, RpcDeadlineContext.remainingOf(req.deadline()));
+                        }
+                    }
+                }
+
+                @Override
+                public void interceptClientReceiveResponse(ClientReceiveContext<RpcProtocol> ctx) {
+                    // Register the size of a result that was decoded by the codec.
+                    if (ctx.outboundContext().payload() instanceof RpcCall) {
+                        RpcMethodMetrics metrics = ((RpcCall<?>)ctx.outboundContext().payload()).metrics();
+
+                        if (metrics != null) {
+                            int size = 0;
+
+                            if (ctx.payload() instanceof RpcCallResult) {
+                                size = ((RpcCallResult)ctx.payload()).resultSize();
+                            } else if (ctx.payload() instanceof RpcCallBatchResult) {
+                                size = ((RpcCallBatchResult)ctx.payload()).resultSize();
+                            }
+
+                            if (size > 0) {
+                                metrics.onResult(size);
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public void interceptServerReceive(ServerReceiveContext<RpcProtocol> ctx) {
+                    if (ctx.payload() instanceof RpcCompactCall) {
+                        RpcCompactCall call = (RpcCompactCall)ctx.payload();
+
+                        // Register the size of arguments that were decoded by the codec.
+                        RpcMethodMetrics[] metrics = methodMetrics;
+
+                        if (metrics != null && call.argsSize() > 0) {
+                            metrics[call.methodIdx()].onArgs(call.argsSize());
                         }
+
+                        // Latency of a call includes the time in the queue of worker threads.
+                        call.setReceivedAt(ctx.receivedAtNanos());
+
+                        // Convert the remaining time budget of a call into a local deadline.
+                        ctx.readMetaData().ifPresent(metaData -> {
+                            Long remaining = metaData.get(RpcDeadlineContext.META_DATA_KEY);
+
+                            if (remaining != null) {
+                                call.setDeadline(RpcDeadlineContext.deadlineOf(remaining));
+                            }
+                        });
                     }
                 }
             });
 
-        if (methods != null) {
-            cfg.withReceiver(this::handleMessage);
-        }
+        // Receiver is registered even if there are no RPC servers in order to receive cache invalidations.
+        cfg.withReceiver(this::handleMessage);
 
         return singleton(cfg);
     }
@@ -330,6 +502,50 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
             // Initialize RPC messaging channel.
             channel = messaging.channel(RPC_CHANNEL, RpcProtocol.class);
 
+            // Initialize caches of RPC results.
+            caches = new RpcCacheManager(channel);
+
+            // Initialize per-method metrics.
+            metrics = new RpcMetrics(ctx.localNode().id(), ctx.metrics());
+
+            if (methods != null) {
+                methodMetrics = new RpcMethodMetrics[methods.length];
+
+                for (int i = 0; i < methods.length; i++) {
+                    methodMetrics[i] = metrics.server(methods[i].rpc(), methods[i].method());
+                }
+            }
+
+            // Initialize timer for batched calls, aggregation deadlines and idle streams (thread is started only if needed).
+            timer = new RpcTimer("RpcTimer");
+
+            // Initialize registry of RPC streams (elements are pulled by the RPC worker threads).
+            streams = new RpcStreamSessions(channel.executor(), timer, streamIdleTimeout);
+
+            // Cancel streams of clients that left the cluster.
+            channel.cluster().addListener(event ->
+                streams.cancel(event.asChange().removed()), ClusterEventType.CHANGE
+            );
+
+            // Initialize thread pools for RPC methods that are annotated with @RpcExecutor.
+            Map<String, RpcExecutorPool> pools = new HashMap<>();
+
+            executorConfigs.forEach(cfg ->
+                pools.put(cfg.getName(), new RpcExecutorPool(cfg, RpcMetrics.nodeTags(ctx.localNode().id()), ctx.metrics()))
+            );
+
+            executorPools = new ArrayList<>(pools.values());
+
+            if (executorNames != null) {
+                executors = new RpcExecutorPool[executorNames.length];
+
+                for (int i = 0; i < executorNames.length; i++) {
+                    if (executorNames[i] != null) {
+                        executors[i] = pools.get(executorNames[i]);
+                    }
+                }
+            }
+
             // Initialize clients.
             clientConfigs.forEach(cfg -> {
                 RpcTypeKey key = new RpcTypeKey(cfg.getRpcInterface(), cfg.getTag());
@@ -356,7 +572,7 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
                             ClusterView cluster = clusterOf(rpcFace.javaType());
 
-                            jmx.register(new DefaultRpcServerJmx(rpcFace, null, server, cluster), name);
+                            jmx.register(new DefaultRpcServerJmx(rpcFace, null, server, serverLimiters.get(server), cluster), name);
                         } else {
                             // Register one JMX bean per each tag.
                             for (String tag : server.tags()) {
@@ -364,7 +580,7 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
 
                                 ClusterView cluster = clusterOf(rpcFace.javaType(), tag);
 
-                                jmx.register(new DefaultRpcServerJmx(rpcFace, tag, server, cluster), name);
+                                jmx.register(new DefaultRpcServerJmx(rpcFace, tag, server, serverLimiters.get(server), cluster), name);
                             }
                         }
                     }
@@ -383,12 +599,34 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
             log.debug("Terminating...");
         }
 
-        guard.becomeTerminated(() -> {
+        Waiting done = guard.becomeTerminated(() -> {
             clients.clear();
 
+            streams.cancelAll();
+
             channel = null;
+            caches = null;
+
+            metrics.removeAll();
+
+            metrics = null;
+
+            List<Waiting> waiting = new ArrayList<>();
+
+            waiting.add(timer.terminate());
+
+            timer = null;
+
+            executorPools.forEach(pool -> waiting.add(pool.terminate()));
+
+            executorPools = null;
+            executors = null;
+
+            return waiting;
         });
 
+        done.awaitUninterruptedly();
+
         if (DEBUG) {
             log.debug("Terminated.");
         }
@@ -431,6 +669,24 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
         });
     }
 
+    @Override
+    public CompletableFuture<Void> invalidateCache(Class<?> type, String tag, String method, Object... args) {
+        ArgAssert.notNull(type, "Type");
+        ArgAssert.notNull(method, "Method");
+        ArgAssert.notNull(args, "Arguments");
+
+        return guard.withReadLockAndStateCheck(() -> {
+            RpcInterfaceInfo<?> rpcType = types.analyzeType(type);
+
+            ArgAssert.check(
+                rpcType.methods().stream().anyMatch(m -> m.cache().isPresent() && m.signature().equals(method)),
+                "No @" + RpcCache.class.getSimpleName() + " method with signature " + method + " in " + rpcType.name() + '.'
+            );
+
+            return caches.invalidateCluster(rpcType, Utils.nullOrTrim(tag), method, args);
+        });
+    }
+
     @Override
     public List<RpcServerInfo> servers() {
         return servers;
@@ -446,17 +702,94 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
         return workerThreads;
     }
 
+    private void handleCall(Message<RpcProtocol> msg, int methodIdx, RpcConcurrencyLimiter limiter) {
+        RpcMethodHandler handler = methods[methodIdx];
+
+        RpcCompactCall call = (RpcCompactCall)msg.payload();
+
+        // Do not waste resources if caller is not waiting for results anymore.
+        if (call.isExpired()) {
+            handler.rejectExpired(msg, limiter);
+
+            return;
+        }
+
+        // Make the deadline available to the RPC method and to its nested RPC calls.
+        Long prevDeadline = RpcDeadlineContext.enter(call.deadline());
+
+        try {
+            if (call instanceof RpcCompactBatchCall) {
+                handler.handleBatch(msg, limiter, methodMetrics[methodIdx]);
+            } else if (handler.method().isStream()) {
+                handler.handleStream(msg, streams, methodMetrics[methodIdx]);
+            } else {
+                handler.handle(msg, limiter, methodMetrics[methodIdx]);
+            }
+        } finally {
+            RpcDeadlineContext.exit(prevDeadline);
+        }
+    }
+
     private void handleMessage(Message<RpcProtocol> msg) {
         RpcProtocol rpcMsg = msg.payload();
 
         switch (rpcMsg.type()) {
             case COMPACT_CALL_REQUEST:
-            case COMPACT_SPLIT_CALL_REQUEST: {
-                RpcCompactCall call = (RpcCompactCall)rpcMsg;
+            case COMPACT_SPLIT_CALL_REQUEST:
+            case COMPACT_BATCH_CALL_REQUEST: {
+                int methodIdx = ((RpcCompactCall)rpcMsg).methodIdx();
+
+                RpcMethodHandler handler = methods[methodIdx];
+
+                RpcExecutorPool[] executors = this.executors;
+
+                // Can be null if service is already terminated.
+                if (executors == null) {
+                    handler.rejectTerminated(msg);
+
+                    break;
+                }
+
+                // Streams are not limited since they are long-living and are throttled by the client's demand.
+                RpcConcurrencyLimiter limiter = handler.method().isStream() ? null : limiters[methodIdx];
+
+                // Acquire a permit before the call gets queued so that excessive calls would be rejected without waiting in the queue.
+                if (limiter != null && !limiter.tryAcquire()) {
+                    handler.rejectOverload(msg, limiter);
+
+                    break;
+                }
 
-                RpcMethodHandler handler = methods[call.methodIdx()];
+                RpcExecutorPool executor = executors[methodIdx];
 
-                handler.handle(msg);
+                if (executor == null) {
+                    // Execute on the messaging worker thread.
+                    handleCall(msg, methodIdx, limiter);
+                } else if (!executor.execute(() -> handleCall(msg, methodIdx, limiter))) {
+                    handler.rejectQueueOverflow(msg, executor, limiter);
+                }
+
+                break;
+            }
+            case STREAM_DEMAND: {
+                RpcStreamDemand demand = (RpcStreamDemand)rpcMsg;
+
+                streams.demand(demand.streamId(), demand.chunks());
+
+                break;
+            }
+            case STREAM_CANCEL: {
+                streams.cancel(((RpcStreamCancel)rpcMsg).streamId());
+
+                break;
+            }
+            case CACHE_INVALIDATION: {
+                RpcCacheManager caches = this.caches;
+
+                // Can be null if service is already terminated.
+                if (caches != null) {
+                    caches.invalidateLocal((RpcCacheInvalidation)rpcMsg);
+                }
 
                 break;
             }
@@ -465,6 +798,8 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
             case OBJECT_RESPONSE:
             case NULL_RESPONSE:
             case ERROR_RESPONSE:
+            case BATCH_RESPONSE:
+            case STREAM_CHUNK:
             default: {
                 throw new IllegalArgumentException("Unexpected message type: " + rpcMsg);
             }
@@ -480,6 +815,9 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
             type,
             key.tag(),
             channel,
+            timer,
+            caches,
+            metrics,
             cfg != null ? cfg.getTimeout() : 0,
             cfg != null ? cfg.getRetryPolicy() : null
         );
@@ -495,6 +833,16 @@ public class DefaultRpcService implements RpcService, CoreService, MessagingConf
         return this.channel.filter(filterFor(type, tag));
     }
 
+    // Package level for testing purposes.
+    RpcTimer timer() {
+        return timer;
+    }
+
+    // Package level for testing purposes.
+    int streamsSize() {
+        return streams.size();
+    }
+
     @Override
     public String toString() {
         return RpcService.class.getSimpleName();
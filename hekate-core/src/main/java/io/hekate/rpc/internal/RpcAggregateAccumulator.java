@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static io.hekate.rpc.internal.RpcUtils.mergeToList;
+import static io.hekate.rpc.internal.RpcUtils.mergeToMap;
+import static io.hekate.rpc.internal.RpcUtils.mergeToSet;
+
+/**
+ * Incrementally merges results of an RPC aggregation.
+ *
+ * <p>
+ * Each partial result is merged into the accumulator as soon as it is received, so that the partial result itself can be garbage
+ * collected right away instead of being kept until all other results are received. Implementations are not thread-safe.
+ * </p>
+ */
+abstract class RpcAggregateAccumulator {
+    private static class MapAccumulator extends RpcAggregateAccumulator {
+        private final Map<Object, Object> merged = new HashMap<>();
+
+        @Override
+        public void add(RpcProtocol result) {
+            mergeToMap(result, merged);
+        }
+
+        @Override
+        public Object result() {
+            return merged;
+        }
+    }
+
+    private static class SetAccumulator extends RpcAggregateAccumulator {
+        private final Set<Object> merged = new HashSet<>();
+
+        @Override
+        public void add(RpcProtocol result) {
+            mergeToSet(result, merged);
+        }
+
+        @Override
+        public Object result() {
+            return merged;
+        }
+    }
+
+    private static class ListAccumulator extends RpcAggregateAccumulator {
+        private final List<Object> merged = new ArrayList<>();
+
+        @Override
+        public void add(RpcProtocol result) {
+            mergeToList(result, merged);
+        }
+
+        @Override
+        public Object result() {
+            return merged;
+        }
+    }
+
+    /**
+     * Merges the specified partial result into this accumulator.
+     *
+     * @param result Partial result.
+     */
+    public abstract void add(RpcProtocol result);
+
+    /**
+     * Returns the merged result.
+     *
+     * @return Merged result.
+     */
+    public abstract Object result();
+
+    /**
+     * Returns the factory of accumulators for the specified return type of an RPC method.
+     *
+     * @param returnType Return type ({@link Map}, {@link Set} or any other {@link java.util.Collection}).
+     *
+     * @return Factory of accumulators.
+     */
+    public static Supplier<RpcAggregateAccumulator> factoryFor(Class<?> returnType) {
+        if (returnType.equals(Map.class)) {
+            return MapAccumulator::new;
+        } else if (returnType.equals(Set.class)) {
+            return SetAccumulator::new;
+        } else {
+            return ListAccumulator::new;
+        }
+    }
+}
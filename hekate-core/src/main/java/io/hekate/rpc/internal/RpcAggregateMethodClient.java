@@ -17,9 +17,11 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.cluster.ClusterNode;
+import io.hekate.messaging.MessageTimeoutException;
 import io.hekate.messaging.MessagingChannel;
-import io.hekate.messaging.operation.AggregateFuture;
-import io.hekate.messaging.operation.AggregateResult;
+import io.hekate.messaging.MessagingFuture;
+import io.hekate.messaging.loadbalance.UnknownRouteException;
+import io.hekate.messaging.operation.Response;
 import io.hekate.messaging.retry.GenericRetryConfigurer;
 import io.hekate.rpc.RpcAggregate;
 import io.hekate.rpc.RpcAggregateException;
@@ -28,149 +30,212 @@ import io.hekate.rpc.RpcMethodInfo;
 import io.hekate.rpc.RpcService;
 import io.hekate.rpc.internal.RpcProtocol.RpcCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.hekate.rpc.internal.RpcUtils.mergeToList;
-import static io.hekate.rpc.internal.RpcUtils.mergeToMap;
-import static io.hekate.rpc.internal.RpcUtils.mergeToSet;
-
 class RpcAggregateMethodClient<T> extends RpcMethodClientBase<T> {
+    /**
+     * Aggregation of a single RPC call.
+     *
+     * <p>
+     * Results are merged into the {@link RpcAggregateAccumulator} as soon as they are received from the remote nodes. Per-node results
+     * are kept only if the {@link RpcAggregate.RemoteErrors#FAIL} policy is used, since they are exposed via
+     * {@link RpcAggregateException#partialResults()}.
+     * </p>
+     */
+    private class Aggregation extends MessagingFuture<Object> {
+        private final RpcAggregateAccumulator accumulator;
+
+        private final Set<ClusterNode> pending;
+
+        private final Map<ClusterNode, Object> partialResults;
+
+        private Map<ClusterNode, Throwable> errors;
+
+        public Aggregation(List<ClusterNode> nodes) {
+            this.accumulator = accumulatorFactory.get();
+            this.pending = new HashSet<>(nodes);
+            this.partialResults = remoteErrors == RpcAggregate.RemoteErrors.FAIL ? new HashMap<>(nodes.size(), 1.0f) : null;
+        }
+
+        public void onResponse(ClusterNode node, Throwable err, Response<RpcProtocol> rsp) {
+            synchronized (accumulator) {
+                // Ignore if node was already expired by the deadline.
+                if (!pending.remove(node)) {
+                    return;
+                }
+
+                if (err == null) {
+                    RpcProtocol result = rsp.payload();
+
+                    // Merge right away so that the partial result could be released.
+                    accumulator.add(result);
+
+                    if (partialResults != null) {
+                        partialResults.put(node, result instanceof RpcCallResult ? ((RpcCallResult)result).result() : null);
+                    }
+                } else if (!(err instanceof UnknownRouteException)) {
+                    // Unknown route means that node had left the cluster before the request had been submitted (not an error).
+                    addError(node, err);
+                }
+
+                if (!pending.isEmpty()) {
+                    return;
+                }
+            }
+
+            completeAggregation();
+        }
+
+        public void expire() {
+            synchronized (accumulator) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                String errMsg = "RPC aggregation deadline exceeded [deadline=" + deadline + "ms]";
+
+                MessageTimeoutException err = new MessageTimeoutException(errMsg);
+
+                pending.forEach(node -> addError(node, err));
+
+                pending.clear();
+            }
+
+            completeAggregation();
+        }
+
+        private void addError(ClusterNode node, Throwable err) {
+            if (errors == null) {
+                errors = new HashMap<>();
+            }
+
+            errors.put(node, err);
+        }
+
+        private void completeAggregation() {
+            Object result;
+            Map<ClusterNode, Throwable> failed;
+
+            synchronized (accumulator) {
+                result = accumulator.result();
+                failed = errors;
+            }
+
+            if (failed == null || remoteErrors == RpcAggregate.RemoteErrors.IGNORE) {
+                complete(result);
+            } else if (remoteErrors == RpcAggregate.RemoteErrors.WARN) {
+                if (log.isWarnEnabled()) {
+                    failed.forEach((node, err) ->
+                        log.warn("RPC aggregation failed [remote-node={}, method={}#{}]", node, rpc().name(), method().signature(), err)
+                    );
+                }
+
+                complete(result);
+            } else {
+                String errMsg = "RPC aggregation failed [method=" + rpc().name() + '#' + method().signature() + ']';
+
+                completeExceptionally(new RpcAggregateException(errMsg, failed, partialResults));
+            }
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(RpcService.class);
 
-    private final Function<AggregateResult<RpcProtocol>, ?> converter;
+    private final Supplier<RpcAggregateAccumulator> accumulatorFactory;
+
+    private final RpcAggregate.RemoteErrors remoteErrors;
 
     private final GenericRetryConfigurer retryPolicy;
 
     private final long timeout;
 
+    private final long deadline;
+
+    private final RpcTimer timer;
+
     public RpcAggregateMethodClient(
         RpcInterfaceInfo<T> rpc,
         String tag,
         RpcMethodInfo method,
         MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
         GenericRetryConfigurer retryPolicy,
-        long timeout
+        long timeout,
+        RpcTimer timer
     ) {
-        super(rpc, tag, method, channel);
+        super(rpc, tag, method, channel, metrics);
 
         this.retryPolicy = retryPolicy;
         this.timeout = timeout;
+        this.timer = timer;
 
-        ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        // Error handling.
-        ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         RpcAggregate config = method.aggregate().orElseThrow(() ->
             new AssertionError("Not an aggregate method [rpc=" + rpc + ", method=" + method + ']')
         );
 
-        Consumer<AggregateResult<RpcProtocol>> errorCheck;
+        this.remoteErrors = config.remoteErrors();
+        this.deadline = config.deadline();
+        this.accumulatorFactory = RpcAggregateAccumulator.factoryFor(method.realReturnType());
+    }
 
-        if (config.remoteErrors() == RpcAggregate.RemoteErrors.IGNORE) {
-            errorCheck = null;
-        } else {
-            errorCheck = aggregate -> {
-                if (!aggregate.isSuccess()) {
-                    if (config.remoteErrors() == RpcAggregate.RemoteErrors.WARN) {
-                        if (log.isWarnEnabled()) {
-                            aggregate.errors().forEach((node, err) ->
-                                log.warn("RPC aggregation failed [remote-node={}, method={}#{}]", node, rpc.name(), method.signature(), err)
-                            );
-                        }
-                    } else {
-                        String errMsg = "RPC aggregation failed [method=" + rpc.name() + '#' + method.signature() + ']';
+    @Override
+    protected Object doInvoke(Object affinity, Object[] args) {
+        // Inherit the deadline of an RPC call that is being processed by the current thread (if any).
+        long callTimeout = RpcDeadlineContext.effectiveTimeout(timeout);
 
-                        Map<ClusterNode, Object> partialResults = new HashMap<>(aggregate.resultsByNode().size(), 1.0f);
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), args)
+            .withDeadline(RpcDeadlineContext.deadlineOf(callTimeout))
+            .withMetrics(metrics());
 
-                        aggregate.resultsByNode().forEach((node, response) -> {
-                            if (response instanceof RpcCallResult) {
-                                partialResults.put(node, ((RpcCallResult)response).result());
-                            } else {
-                                partialResults.put(node, null);
-                            }
-                        });
+        List<ClusterNode> nodes;
 
-                        throw new RpcAggregateException(errMsg, aggregate.errors(), partialResults);
-                    }
-                }
-            };
+        if (affinity == null) {
+            // Use the whole topology if affinity key is not specified.
+            nodes = channel().cluster().topology().nodes();
+        } else {
+            // Use only those nodes that are mapped to the affinity key.
+            nodes = channel().partitions().map(affinity).nodes();
         }
 
-        ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        // Aggregation of results.
-        ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        if (method.realReturnType().equals(Map.class)) {
-            converter = aggregate -> {
-                if (errorCheck != null) {
-                    errorCheck.accept(aggregate);
-                }
-
-                Map<Object, Object> merged = new HashMap<>();
-
-                aggregate.results().forEach(rpcResult ->
-                    mergeToMap(rpcResult, merged)
-                );
-
-                return merged;
-            };
-        } else if (method.realReturnType().equals(Set.class)) {
-            converter = aggregate -> {
-                if (errorCheck != null) {
-                    errorCheck.accept(aggregate);
-                }
+        Aggregation future = new Aggregation(nodes);
 
-                Set<Object> merged = new HashSet<>();
-
-                aggregate.results().forEach(rpcResult ->
-                    mergeToSet(rpcResult, merged)
-                );
-
-                return merged;
-            };
+        if (nodes.isEmpty()) {
+            future.completeAggregation();
         } else {
-            converter = aggregate -> {
-                if (errorCheck != null) {
-                    errorCheck.accept(aggregate);
-                }
-
-                List<Object> merged = new ArrayList<>();
+            // Submit a separate request to each node so that results could be merged incrementally as they arrive.
+            for (ClusterNode node : nodes) {
+                channel().withLoadBalancer((msg, ctx) -> node.id())
+                    .newRequest(call)
+                    .withAffinity(affinity)
+                    .withTimeout(callTimeout, TimeUnit.MILLISECONDS)
+                    .withRetry(retry -> {
+                        if (retryPolicy != null) {
+                            retryPolicy.configure(retry);
+                        }
+                    })
+                    .submit((err, rsp) -> future.onResponse(node, err, rsp));
+            }
 
-                aggregate.results().forEach(rpcResult ->
-                    mergeToList(rpcResult, merged)
-                );
+            if (deadline > 0 && !future.isDone()) {
+                ScheduledFuture<?> expire = timer.schedule(future::expire, deadline);
 
-                return merged;
-            };
+                future.whenComplete((ignore, err) -> expire.cancel(false));
+            }
         }
-    }
-
-    @Override
-    protected Object doInvoke(Object affinity, Object[] args) {
-        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), args);
-
-        AggregateFuture<RpcProtocol> future = channel().newAggregate(call)
-            .withAffinity(affinity)
-            .withTimeout(timeout, TimeUnit.MILLISECONDS)
-            .withRetry(retry -> {
-                if (retryPolicy != null) {
-                    retryPolicy.configure(retry);
-                }
-            })
-            .submit();
 
         if (method().isAsync()) {
-            return future.thenApply(converter);
+            return future;
         } else {
-            return converter.apply(future.sync());
+            return future.sync();
         }
     }
 }
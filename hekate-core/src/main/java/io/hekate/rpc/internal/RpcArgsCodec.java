@@ -0,0 +1,328 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.DataReader;
+import io.hekate.codec.DataWriter;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Codec of RPC method arguments.
+ *
+ * <p>
+ * Since both sides of an RPC call know the exact parameter types of the method (method indexes are resolved by the method signature),
+ * arguments of primitive types and of some common JDK types are written directly to the {@link DataWriter} without boxing and without
+ * any type information. All other arguments are written as a single object via the delegate codec.
+ * </p>
+ */
+class RpcArgsCodec {
+    /** Encoding of a method parameter. */
+    private enum Kind {
+        BOOLEAN,
+
+        BYTE,
+
+        SHORT,
+
+        CHAR,
+
+        INT,
+
+        LONG,
+
+        FLOAT,
+
+        DOUBLE,
+
+        STRING,
+
+        UUID,
+
+        BYTES,
+
+        OBJECT
+    }
+
+    private static final Map<Class<?>, Kind> KINDS = new HashMap<>();
+
+    /** Marker of a {@code null} value of a nullable parameter. */
+    private static final int NULL = 0;
+
+    /** Marker of a non-{@code null} value of a nullable parameter. */
+    private static final int NOT_NULL = 1;
+
+    static {
+        KINDS.put(boolean.class, Kind.BOOLEAN);
+        KINDS.put(byte.class, Kind.BYTE);
+        KINDS.put(short.class, Kind.SHORT);
+        KINDS.put(char.class, Kind.CHAR);
+        KINDS.put(int.class, Kind.INT);
+        KINDS.put(long.class, Kind.LONG);
+        KINDS.put(float.class, Kind.FLOAT);
+        KINDS.put(double.class, Kind.DOUBLE);
+        KINDS.put(Boolean.class, Kind.BOOLEAN);
+        KINDS.put(Byte.class, Kind.BYTE);
+        KINDS.put(Short.class, Kind.SHORT);
+        KINDS.put(Character.class, Kind.CHAR);
+        KINDS.put(Integer.class, Kind.INT);
+        KINDS.put(Long.class, Kind.LONG);
+        KINDS.put(Float.class, Kind.FLOAT);
+        KINDS.put(Double.class, Kind.DOUBLE);
+        KINDS.put(String.class, Kind.STRING);
+        KINDS.put(UUID.class, Kind.UUID);
+        KINDS.put(byte[].class, Kind.BYTES);
+    }
+
+    /** Encoding of each parameter. */
+    private final Kind[] kinds;
+
+    /** Flags of nullable parameters (non-primitive types). */
+    @ToStringIgnore
+    private final boolean[] nullable;
+
+    /** Amount of parameters that are encoded via the delegate codec. */
+    @ToStringIgnore
+    private final int objects;
+
+    /** Indexes of parameters that are encoded via the delegate codec. */
+    @ToStringIgnore
+    private final int[] objectIdxs;
+
+    public RpcArgsCodec(Method method) {
+        Class<?>[] params = method.getParameterTypes();
+
+        this.kinds = new Kind[params.length];
+        this.nullable = new boolean[params.length];
+        this.objectIdxs = new int[params.length];
+
+        int objects = 0;
+
+        for (int i = 0; i < params.length; i++) {
+            Kind kind = KINDS.getOrDefault(params[i], Kind.OBJECT);
+
+            kinds[i] = kind;
+            nullable[i] = !params[i].isPrimitive();
+
+            if (kind == Kind.OBJECT) {
+                objectIdxs[objects++] = i;
+            }
+        }
+
+        this.objects = objects;
+    }
+
+    public void encode(Object[] args, DataWriter out, Codec<Object> delegate) throws IOException {
+        for (int i = 0; i < kinds.length; i++) {
+            Kind kind = kinds[i];
+
+            if (kind != Kind.OBJECT) {
+                Object arg = args[i];
+
+                if (nullable[i]) {
+                    if (arg == null) {
+                        out.writeByte(NULL);
+
+                        continue;
+                    } else {
+                        out.writeByte(NOT_NULL);
+                    }
+                }
+
+                writeArg(kind, arg, out);
+            }
+        }
+
+        // Write all other arguments at once in order to minimize the overhead of the delegate codec.
+        if (objects == 1) {
+            delegate.encode(args[objectIdxs[0]], out);
+        } else if (objects > 1) {
+            Object[] other = new Object[objects];
+
+            for (int i = 0; i < objects; i++) {
+                other[i] = args[objectIdxs[i]];
+            }
+
+            delegate.encode(other, out);
+        }
+    }
+
+    public Object[] decode(DataReader in, Codec<Object> delegate) throws IOException {
+        if (kinds.length == 0) {
+            return null;
+        }
+
+        Object[] args = new Object[kinds.length];
+
+        for (int i = 0; i < kinds.length; i++) {
+            Kind kind = kinds[i];
+
+            if (kind != Kind.OBJECT) {
+                if (!nullable[i] || in.readByte() != NULL) {
+                    args[i] = readArg(kind, in);
+                }
+            }
+        }
+
+        if (objects == 1) {
+            args[objectIdxs[0]] = delegate.decode(in);
+        } else if (objects > 1) {
+            Object[] other = (Object[])delegate.decode(in);
+
+            for (int i = 0; i < objects; i++) {
+                args[objectIdxs[i]] = other[i];
+            }
+        }
+
+        return args;
+    }
+
+    private static void writeArg(Kind kind, Object arg, DataWriter out) throws IOException {
+        switch (kind) {
+            case BOOLEAN: {
+                out.writeBoolean((Boolean)arg);
+
+                break;
+            }
+            case BYTE: {
+                out.writeByte((Byte)arg);
+
+                break;
+            }
+            case SHORT: {
+                out.writeShort((Short)arg);
+
+                break;
+            }
+            case CHAR: {
+                out.writeChar((Character)arg);
+
+                break;
+            }
+            case INT: {
+                out.writeVarInt((Integer)arg);
+
+                break;
+            }
+            case LONG: {
+                out.writeVarLong((Long)arg);
+
+                break;
+            }
+            case FLOAT: {
+                out.writeFloat((Float)arg);
+
+                break;
+            }
+            case DOUBLE: {
+                out.writeDouble((Double)arg);
+
+                break;
+            }
+            case STRING: {
+                writeBytes(((String)arg).getBytes(UTF_8), out);
+
+                break;
+            }
+            case UUID: {
+                UUID uuid = (UUID)arg;
+
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+
+                break;
+            }
+            case BYTES: {
+                writeBytes((byte[])arg, out);
+
+                break;
+            }
+            case OBJECT:
+            default: {
+                throw new IllegalArgumentException("Unexpected argument kind: " + kind);
+            }
+        }
+    }
+
+    private static Object readArg(Kind kind, DataReader in) throws IOException {
+        switch (kind) {
+            case BOOLEAN: {
+                return in.readBoolean();
+            }
+            case BYTE: {
+                return in.readByte();
+            }
+            case SHORT: {
+                return in.readShort();
+            }
+            case CHAR: {
+                return in.readChar();
+            }
+            case INT: {
+                return in.readVarInt();
+            }
+            case LONG: {
+                return in.readVarLong();
+            }
+            case FLOAT: {
+                return in.readFloat();
+            }
+            case DOUBLE: {
+                return in.readDouble();
+            }
+            case STRING: {
+                return new String(readBytes(in), UTF_8);
+            }
+            case UUID: {
+                return new UUID(in.readLong(), in.readLong());
+            }
+            case BYTES: {
+                return readBytes(in);
+            }
+            case OBJECT:
+            default: {
+                throw new IllegalArgumentException("Unexpected argument kind: " + kind);
+            }
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataWriter out) throws IOException {
+        out.writeVarIntUnsigned(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataReader in) throws IOException {
+        byte[] bytes = new byte[in.readVarIntUnsigned()];
+
+        in.readFully(bytes);
+
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
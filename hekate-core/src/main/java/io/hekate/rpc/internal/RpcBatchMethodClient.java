@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterNode;
+import io.hekate.messaging.MessagingChannel;
+import io.hekate.messaging.MessagingFuture;
+import io.hekate.messaging.retry.GenericRetryConfigurer;
+import io.hekate.rpc.RpcBatch;
+import io.hekate.rpc.RpcInterfaceInfo;
+import io.hekate.rpc.RpcMethodInfo;
+import io.hekate.rpc.internal.RpcProtocol.RpcCall;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallBatchResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class RpcBatchMethodClient<T> extends RpcMethodClientBase<T> {
+    private static class Batch {
+        private final Object affinity;
+
+        private final Object[][] calls;
+
+        private final List<MessagingFuture<Object>> futures;
+
+        private volatile Future<?> flushTask;
+
+        public Batch(Object affinity, int maxSize) {
+            this.affinity = affinity;
+            this.calls = new Object[maxSize][];
+            this.futures = new ArrayList<>(maxSize);
+        }
+
+        public void add(Object[] args, MessagingFuture<Object> future) {
+            calls[futures.size()] = args;
+
+            futures.add(future);
+        }
+
+        public int size() {
+            return futures.size();
+        }
+    }
+
+    /** Batch key for calls that are not bound to any partition. */
+    private static final Object NO_AFFINITY = new Object();
+
+    private final GenericRetryConfigurer retryPolicy;
+
+    private final long timeout;
+
+    private final int maxSize;
+
+    private final long delay;
+
+    private final RpcTimer timer;
+
+    /** Pending batches by the primary node of their partition (guarded by this map). */
+    private final Map<Object, Batch> pending = new HashMap<>();
+
+    public RpcBatchMethodClient(
+        RpcInterfaceInfo<T> rpc,
+        String tag,
+        RpcMethodInfo method,
+        MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
+        GenericRetryConfigurer retryPolicy,
+        long timeout,
+        RpcTimer timer
+    ) {
+        super(rpc, tag, method, channel, metrics);
+
+        RpcBatch batch = method.batch().get();
+
+        this.retryPolicy = retryPolicy;
+        this.timeout = timeout;
+        this.timer = timer;
+        this.maxSize = batch.maxSize();
+        this.delay = batch.delay();
+    }
+
+    @Override
+    protected Object doInvoke(Object affinity, Object[] args) {
+        MessagingFuture<Object> future = new MessagingFuture<>();
+
+        Object key = batchKey(affinity);
+
+        Batch batch;
+        boolean first;
+        boolean full;
+
+        synchronized (pending) {
+            batch = pending.get(key);
+
+            first = batch == null;
+
+            if (first) {
+                batch = new Batch(affinity, maxSize);
+
+                pending.put(key, batch);
+            }
+
+            batch.add(args, future);
+
+            full = batch.size() >= maxSize;
+
+            if (full) {
+                pending.remove(key);
+            }
+        }
+
+        if (full) {
+            Future<?> flushTask = batch.flushTask;
+
+            // Cancel the delayed flush (if it was already scheduled).
+            if (flushTask != null) {
+                flushTask.cancel(false);
+            }
+
+            send(batch);
+        } else if (first) {
+            scheduleFlush(key, batch);
+        }
+
+        if (method().isAsync()) {
+            return future;
+        } else {
+            return future.sync();
+        }
+    }
+
+    private Object batchKey(Object affinity) {
+        if (affinity != null) {
+            ClusterNode primary = channel().partitions().map(affinity).primaryNode();
+
+            if (primary != null) {
+                return primary;
+            }
+        }
+
+        return NO_AFFINITY;
+    }
+
+    private void scheduleFlush(Object key, Batch batch) {
+        // If timer is terminated then batch is flushed in the caller thread so that the messaging channel would fail the batch.
+        batch.flushTask = timer.scheduleFlush(() -> flush(key, batch), delay);
+    }
+
+    private void flush(Object key, Batch batch) {
+        synchronized (pending) {
+            // Batch could had been already sent due to the size limit.
+            if (!pending.remove(key, batch)) {
+                return;
+            }
+        }
+
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        Object[][] calls = batch.size() == batch.calls.length ? batch.calls : Arrays.copyOf(batch.calls, batch.size());
+
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), calls)
+            .withMetrics(metrics());
+
+        channel().newRequest(call)
+            .withAffinity(batch.affinity)
+            .withTimeout(timeout, TimeUnit.MILLISECONDS)
+            .withRetry(retry -> {
+                if (retryPolicy != null) {
+                    retryPolicy.configure(retry);
+                }
+            })
+            .submit((err, rsp) -> {
+                List<MessagingFuture<Object>> futures = batch.futures;
+
+                if (err == null) {
+                    RpcCallBatchResult result = rsp.payload(RpcCallBatchResult.class);
+
+                    for (int i = 0; i < futures.size(); i++) {
+                        if (result.error(i) == null) {
+                            futures.get(i).complete(result.result(i));
+                        } else {
+                            futures.get(i).completeExceptionally(result.error(i));
+                        }
+                    }
+                } else {
+                    futures.forEach(future -> future.completeExceptionally(err));
+                }
+            });
+    }
+}
@@ -48,10 +48,11 @@ class RpcBroadcastMethodClient<T> extends RpcMethodClientBase<T> {
         String tag,
         RpcMethodInfo method,
         MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
         GenericRetryConfigurer retryPolicy,
         long timeout
     ) {
-        super(rpc, tag, method, channel);
+        super(rpc, tag, method, channel, metrics);
 
         this.retryPolicy = retryPolicy;
         this.timeout = timeout;
@@ -99,10 +100,15 @@ class RpcBroadcastMethodClient<T> extends RpcMethodClientBase<T> {
 
     @Override
     protected Object doInvoke(Object affinity, Object[] args) {
-        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), args);
+        // Inherit the deadline of an RPC call that is being processed by the current thread (if any).
+        long callTimeout = RpcDeadlineContext.effectiveTimeout(timeout);
+
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), args)
+            .withDeadline(RpcDeadlineContext.deadlineOf(callTimeout))
+            .withMetrics(metrics());
 
         AggregateFuture<RpcProtocol> future = channel().newAggregate(call)
-            .withTimeout(timeout, TimeUnit.MILLISECONDS)
+            .withTimeout(callTimeout, TimeUnit.MILLISECONDS)
             .withAffinity(affinity)
             .withRetry(retry -> {
                 if (retryPolicy != null) {
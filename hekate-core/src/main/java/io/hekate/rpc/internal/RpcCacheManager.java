@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.messaging.MessagingChannel;
+import io.hekate.messaging.operation.AckMode;
+import io.hekate.rpc.RpcCache;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.RpcInterfaceInfo;
+import io.hekate.rpc.RpcMethodInfo;
+import io.hekate.rpc.internal.RpcProtocol.RpcCacheInvalidation;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.hekate.rpc.internal.RpcUtils.filterFor;
+
+/**
+ * Registry of {@link RpcResultCache}s of the local node.
+ *
+ * <p>
+ * Caches are shared by all clients of the same RPC interface, tag and method. Invalidations are broadcast to all nodes via the RPC
+ * messaging channel (see {@link RpcCacheInvalidation}).
+ * </p>
+ */
+class RpcCacheManager {
+    private static class CacheKey {
+        private final String rpc;
+
+        private final String tag;
+
+        private final String signature;
+
+        public CacheKey(String rpc, String tag, String signature) {
+            this.rpc = rpc;
+            this.tag = tag;
+            this.signature = signature;
+        }
+
+        public boolean matches(RpcCacheInvalidation invalidation) {
+            return rpc.equals(invalidation.rpc())
+                && signature.equals(invalidation.signature())
+                && Objects.equals(tag, invalidation.tag());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+
+            CacheKey other = (CacheKey)o;
+
+            return rpc.equals(other.rpc)
+                && signature.equals(other.signature)
+                && Objects.equals(tag, other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rpc, tag, signature);
+        }
+    }
+
+    @ToStringIgnore
+    private final MessagingChannel<RpcProtocol> channel;
+
+    private final Map<CacheKey, RpcResultCache> caches = new ConcurrentHashMap<>();
+
+    public RpcCacheManager(MessagingChannel<RpcProtocol> channel) {
+        this.channel = channel;
+    }
+
+    public RpcResultCache cacheFor(RpcInterfaceInfo<?> rpc, String tag, RpcMethodInfo method) {
+        CacheKey key = new CacheKey(rpc.name(), tag, method.signature());
+
+        return caches.computeIfAbsent(key, missing -> {
+            RpcCache cfg = method.cache().get();
+
+            return new RpcResultCache(cfg.maxSize(), cfg.ttl(), channel.cluster().filter(filterFor(rpc, tag)));
+        });
+    }
+
+    public CompletableFuture<Void> invalidateCluster(RpcInterfaceInfo<?> rpc, String tag, String signature, Object[] args) {
+        RpcCacheInvalidation invalidation = new RpcCacheInvalidation(rpc.name(), tag, signature, args.length == 0 ? null : args);
+
+        return channel.newBroadcast(invalidation)
+            .withAckMode(AckMode.REQUIRED)
+            .submit()
+            .thenAccept(result -> {
+                if (!result.isSuccess()) {
+                    Throwable cause = result.errors().values().iterator().next();
+
+                    throw new RpcException("Failed to invalidate cache on some of the nodes "
+                        + "[nodes=" + result.errors().keySet() + ']', cause);
+                }
+            });
+    }
+
+    public void invalidateLocal(RpcCacheInvalidation invalidation) {
+        caches.forEach((key, cache) -> {
+            if (key.matches(invalidation)) {
+                if (invalidation.args() == null) {
+                    cache.invalidateAll();
+                } else {
+                    cache.invalidate(invalidation.args());
+                }
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.rpc.RpcConcurrencyLimitConfig;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive (additive increase/multiplicative decrease) concurrency limiter of an RPC server.
+ *
+ * <p>
+ * Latency of each call is compared to the {@link Baseline} of its own method, so that methods with different latency profiles could
+ * share the same limiter. The limit is decreased at most once per window: calls that were started before the last decrease are not
+ * treated as a signal of overload since they were already in progress when the limiter reacted to it.
+ * </p>
+ *
+ * @see RpcConcurrencyLimitConfig
+ */
+class RpcConcurrencyLimiter {
+    /**
+     * Latency baseline of a single RPC method.
+     */
+    static class Baseline {
+        private final AtomicLong baseline = new AtomicLong(Long.MAX_VALUE);
+
+        private final AtomicLong windowMin = new AtomicLong(Long.MAX_VALUE);
+
+        private final AtomicInteger windowSamples = new AtomicInteger();
+
+        /**
+         * Registers a latency sample and returns the current baseline.
+         *
+         * @param latency Latency in nanoseconds.
+         *
+         * @return Baseline latency in nanoseconds.
+         */
+        long update(long latency) {
+            // Track the lowest latency as a baseline of a non-overloaded server.
+            long current = baseline.accumulateAndGet(latency, Math::min);
+
+            windowMin.accumulateAndGet(latency, Math::min);
+
+            if (windowSamples.incrementAndGet() == BASELINE_WINDOW) {
+                windowSamples.set(0);
+
+                current = windowMin.getAndSet(Long.MAX_VALUE);
+
+                baseline.set(current);
+            }
+
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.format(this);
+        }
+    }
+
+    /** Amount of samples after which the baseline latency gets re-evaluated (so that it could adapt to a slower environment). */
+    private static final int BASELINE_WINDOW = 1000;
+
+    /** Latency below which calls are never treated as overloaded (filters out the scheduling noise of very fast calls). */
+    private static final long LATENCY_NOISE = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Marker for {@link #decreasedAt} if limit has never been decreased. */
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final double latencyTolerance;
+
+    @ToStringIgnore
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @ToStringIgnore
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicInteger limit;
+
+    @ToStringIgnore
+    private final AtomicLong decreasedAt = new AtomicLong(NEVER);
+
+    public RpcConcurrencyLimiter(RpcConcurrencyLimitConfig cfg) {
+        this.minLimit = cfg.getMinLimit();
+        this.maxLimit = cfg.getMaxLimit();
+        this.backoffRatio = cfg.getBackoffRatio();
+        this.latencyTolerance = cfg.getLatencyTolerance();
+        this.limit = new AtomicInteger(cfg.getInitialLimit());
+    }
+
+    /**
+     * Tries to acquire a permit for processing an RPC call.
+     *
+     * @return {@code true} if permit was acquired (must be {@link #release(long, Baseline) released}) or {@code false} if call should be
+     * rejected.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= limit.get()) {
+                rejected.increment();
+
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit that was acquired via {@link #tryAcquire()} and adjusts the limit based on the call's latency.
+     *
+     * @param startedAt Time in {@link System#nanoTime() nanoseconds} when the call was received (including the time in queue).
+     * @param baseline Latency baseline of the call's method.
+     */
+    public void release(long startedAt, Baseline baseline) {
+        release(startedAt, 1, baseline);
+    }
+
+    /**
+     * Releases a permit that was acquired via {@link #tryAcquire()} for a batch of calls and adjusts the limit based on the latency per
+     * call (so that batches of different sizes could share the same baseline with individual calls).
+     *
+     * @param startedAt Time in {@link System#nanoTime() nanoseconds} when the batch was received (including the time in queue).
+     * @param calls Amount of calls in the batch.
+     * @param baseline Latency baseline of the call's method.
+     */
+    public void release(long startedAt, int calls, Baseline baseline) {
+        long now = System.nanoTime();
+
+        long latency = (now - startedAt) / Math.max(1, calls);
+
+        int concurrent = inFlight.getAndDecrement();
+
+        adjust(startedAt, now, baseline.update(latency), latency, concurrent);
+    }
+
+    /**
+     * Releases a permit that was acquired via {@link #tryAcquire()} without adjusting the limit (f.e. if call was rejected before
+     * processing).
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void adjust(long startedAt, long now, long baseline, long latency, int concurrent) {
+        if (latency > LATENCY_NOISE && latency > baseline * latencyTolerance) {
+            long lastDecrease = decreasedAt.get();
+
+            // Multiplicative decrease if latency grows (only once per window and only by a single thread).
+            if ((lastDecrease == NEVER || startedAt - lastDecrease > 0) && decreasedAt.compareAndSet(lastDecrease, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int)(current * backoffRatio)));
+            }
+        } else {
+            // Additive increase if limit is actually utilized.
+            limit.updateAndGet(current -> concurrent * 2 >= current ? Math.min(maxLimit, current + 1) : current);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
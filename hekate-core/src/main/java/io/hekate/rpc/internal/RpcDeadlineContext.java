@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.messaging.MessageMetaData;
+import io.hekate.messaging.MessageMetaData.MetaDataCodec;
+import io.hekate.messaging.MessageTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.OptionalLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Deadline of an RPC call that is being processed by the current thread.
+ *
+ * <p>
+ * Deadlines are propagated between nodes as the remaining time budget in milliseconds (see {@link #META_DATA_KEY}) so that they do not
+ * depend on clocks of different nodes being synchronized. Locally, deadlines are represented as absolute {@link System#nanoTime()}
+ * values.
+ * </p>
+ */
+public final class RpcDeadlineContext {
+    /** Message meta-data key of the remaining time budget (in milliseconds) of an RPC call. */
+    static final MessageMetaData.Key<Long> META_DATA_KEY = MessageMetaData.Key.of("hekate.rpc.deadline", new MetaDataCodec<Long>() {
+        @Override
+        public byte[] encode(Long value) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+        }
+
+        @Override
+        public Long decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+    });
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RpcDeadlineContext() {
+        // No-op.
+    }
+
+    /**
+     * Returns the remaining time (in milliseconds) of the RPC call that is being processed by the current thread.
+     *
+     * @return Remaining time (zero or negative if deadline has passed) or an empty value if there is no deadline.
+     */
+    public static OptionalLong remainingTime() {
+        Long deadline = DEADLINE.get();
+
+        if (deadline == null) {
+            return OptionalLong.empty();
+        } else {
+            return OptionalLong.of(NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        }
+    }
+
+    /**
+     * Returns the timeout for a nested RPC call based on the deadline of the RPC call that is being processed by the current thread.
+     *
+     * @param timeout Own timeout of the nested call in milliseconds (zero if not limited).
+     *
+     * @return The minimum of the own timeout and the remaining time of the current RPC call.
+     *
+     * @throws MessageTimeoutException If deadline of the current RPC call has already passed (nested call must not be submitted since
+     * its result will never be used by the caller).
+     */
+    static long effectiveTimeout(long timeout) throws MessageTimeoutException {
+        Long deadline = DEADLINE.get();
+
+        if (deadline == null) {
+            return timeout;
+        }
+
+        long remaining = NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+        if (remaining <= 0) {
+            throw new MessageTimeoutException("Deadline of the RPC call has passed before submitting a nested call [exceeded-by="
+                + -remaining + "ms]");
+        }
+
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+
+    /**
+     * Converts the specified timeout into a deadline.
+     *
+     * @param timeout Timeout in milliseconds (zero if not limited).
+     *
+     * @return Deadline or zero if timeout is not limited.
+     */
+    static long deadlineOf(long timeout) {
+        return timeout > 0 ? System.nanoTime() + MILLISECONDS.toNanos(timeout) : 0;
+    }
+
+    /**
+     * Returns the remaining time budget in milliseconds of the specified deadline.
+     *
+     * @param deadline Deadline.
+     *
+     * @return Remaining time (at least 1 millisecond).
+     */
+    static long remainingOf(long deadline) {
+        // At least 1 millisecond since zero means "no timeout".
+        return Math.max(1, NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * Binds the specified deadline to the current thread.
+     *
+     * @param deadline Deadline (zero if there is no deadline).
+     *
+     * @return Deadline that was bound to the current thread before this method call (must be passed to {@link #exit(Long)}).
+     */
+    static Long enter(long deadline) {
+        Long prev = DEADLINE.get();
+
+        if (deadline == 0) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadline);
+        }
+
+        return prev;
+    }
+
+    /**
+     * Restores the deadline that was bound to the current thread before the {@link #enter(long)} method call.
+     *
+     * @param prev Result of the {@link #enter(long)} method call.
+     */
+    static void exit(Long prev) {
+        if (prev == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(prev);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.util.HekateThreadFactory;
+import io.hekate.rpc.RpcExecutorConfig;
+import io.hekate.util.async.Waiting;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static io.hekate.util.async.AsyncUtils.shutdown;
+
+/**
+ * Bounded thread pool for execution of RPC methods that are annotated with {@link io.hekate.rpc.RpcExecutor}.
+ */
+class RpcExecutorPool {
+    private final String name;
+
+    private final int maxQueueSize;
+
+    @ToStringIgnore
+    private final ThreadPoolExecutor pool;
+
+    @ToStringIgnore
+    private final MeterRegistry metrics;
+
+    @ToStringIgnore
+    private final List<Meter> meters = new ArrayList<>();
+
+    @ToStringIgnore
+    private final Counter rejected;
+
+    @ToStringIgnore
+    private final Timer waitTime;
+
+    @ToStringIgnore
+    private final Timer execTime;
+
+    public RpcExecutorPool(RpcExecutorConfig cfg, Tags nodeTags, MeterRegistry metrics) {
+        this.name = cfg.getName();
+        this.maxQueueSize = cfg.getMaxQueueSize();
+        this.metrics = metrics;
+
+        this.pool = new ThreadPoolExecutor(
+            cfg.getThreads(),
+            cfg.getThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxQueueSize),
+            new HekateThreadFactory("RpcExecutor-" + name)
+        );
+
+        meters.add(Gauge.builder("hekate.rpc.executor.queue", pool, p -> p.getQueue().size())
+            .tags(nodeTags)
+            .tag("executor", name)
+            .register(metrics)
+        );
+
+        meters.add(Gauge.builder("hekate.rpc.executor.active", pool, ThreadPoolExecutor::getActiveCount)
+            .tags(nodeTags)
+            .tag("executor", name)
+            .register(metrics)
+        );
+
+        rejected = Counter.builder("hekate.rpc.executor.rejected")
+            .tags(nodeTags)
+            .tag("executor", name)
+            .register(metrics);
+
+        waitTime = Timer.builder("hekate.rpc.executor.wait.time")
+            .tags(nodeTags)
+            .tag("executor", name)
+            .register(metrics);
+
+        execTime = Timer.builder("hekate.rpc.executor.exec.time")
+            .tags(nodeTags)
+            .tag("executor", name)
+            .register(metrics);
+
+        meters.add(rejected);
+        meters.add(waitTime);
+        meters.add(execTime);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Submits the specified task for asynchronous execution.
+     *
+     * @param task Task.
+     *
+     * @return {@code false} if task was rejected due to the queue overflow or due to this pool being terminated.
+     */
+    public boolean execute(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            pool.execute(() -> {
+                long startedAt = System.nanoTime();
+
+                waitTime.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+
+                try {
+                    task.run();
+                } finally {
+                    execTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+
+            return false;
+        }
+    }
+
+    public Waiting terminate() {
+        // Unregister meters since the registry would otherwise return them (bound to this terminated pool) upon re-initialization.
+        // Meters are tagged with the local node identifier and, therefore, are never shared with other nodes of the same registry.
+        meters.forEach(metrics::remove);
+
+        return shutdown(pool);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
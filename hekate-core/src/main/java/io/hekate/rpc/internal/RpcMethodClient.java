@@ -17,13 +17,16 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.messaging.MessagingChannel;
+import io.hekate.messaging.MessagingFuture;
 import io.hekate.messaging.operation.RequestFuture;
 import io.hekate.messaging.operation.Response;
 import io.hekate.messaging.retry.GenericRetryConfigurer;
+import io.hekate.messaging.retry.RetryRoutingPolicy;
 import io.hekate.rpc.RpcInterfaceInfo;
 import io.hekate.rpc.RpcMethodInfo;
 import io.hekate.rpc.internal.RpcProtocol.RpcCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -42,38 +45,89 @@ class RpcMethodClient<T> extends RpcMethodClientBase<T> {
 
     private final long timeout;
 
+    private final RpcResultCache cache;
+
     public RpcMethodClient(
         RpcInterfaceInfo<T> rpc,
         String tag,
         RpcMethodInfo method,
         MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
         GenericRetryConfigurer retryPolicy,
-        long timeout
+        long timeout,
+        RpcResultCache cache
     ) {
-        super(rpc, tag, method, channel);
+        super(rpc, tag, method, channel, metrics);
 
         this.retryPolicy = retryPolicy;
         this.timeout = timeout;
+        this.cache = cache;
     }
 
     @Override
     protected Object doInvoke(Object affinity, Object[] args) {
-        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), args);
+        if (cache == null) {
+            RequestFuture<RpcProtocol> future = submit(affinity, args);
+
+            if (method().isAsync()) {
+                return future.thenApply(RESPONSE_CONVERTER);
+            } else {
+                return RESPONSE_CONVERTER.apply(future.sync());
+            }
+        } else {
+            CompletableFuture<Object> cached = cache.get(args, () -> {
+                CompletableFuture<Object> result = new CompletableFuture<>();
+
+                submit(affinity, args).whenComplete((rsp, err) -> {
+                    if (err == null) {
+                        result.complete(RESPONSE_CONVERTER.apply(rsp));
+                    } else {
+                        result.completeExceptionally(err);
+                    }
+                });
+
+                return result;
+            });
 
-        RequestFuture<RpcProtocol> future = channel().newRequest(call)
+            // Cached future is shared by multiple callers and must not be exposed to them.
+            MessagingFuture<Object> future = new MessagingFuture<>();
+
+            cached.whenComplete((result, err) -> {
+                if (err == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(err);
+                }
+            });
+
+            if (method().isAsync()) {
+                return future;
+            } else {
+                return future.sync();
+            }
+        }
+    }
+
+    private RequestFuture<RpcProtocol> submit(Object affinity, Object[] args) {
+        // Inherit the deadline of an RPC call that is being processed by the current thread (if any).
+        long callTimeout = RpcDeadlineContext.effectiveTimeout(timeout);
+
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), args)
+            .withDeadline(RpcDeadlineContext.deadlineOf(callTimeout))
+            .withMetrics(metrics());
+
+        return channel().newRequest(call)
             .withAffinity(affinity)
-            .withTimeout(timeout, TimeUnit.MILLISECONDS)
+            .withTimeout(callTimeout, TimeUnit.MILLISECONDS)
             .withRetry(retry -> {
                 if (retryPolicy != null) {
+                    // Let the load balancer pick another node if call was rejected by an overloaded server
+                    // (see RpcOverloadLoadBalancer; other errors are retried on the same node).
+                    retry.route(RetryRoutingPolicy.RE_ROUTE);
+
                     retryPolicy.configure(retry);
                 }
             })
             .submit();
-
-        if (method().isAsync()) {
-            return future.thenApply(RESPONSE_CONVERTER);
-        } else {
-            return RESPONSE_CONVERTER.apply(future.sync());
-        }
     }
 }
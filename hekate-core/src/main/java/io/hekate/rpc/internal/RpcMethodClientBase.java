@@ -18,10 +18,12 @@ package io.hekate.rpc.internal;
 
 import io.hekate.core.HekateException;
 import io.hekate.core.HekateExecutionException;
+import io.hekate.messaging.MessageTimeoutException;
 import io.hekate.messaging.MessagingChannel;
 import io.hekate.rpc.RpcException;
 import io.hekate.rpc.RpcInterfaceInfo;
 import io.hekate.rpc.RpcMethodInfo;
+import java.util.concurrent.CompletableFuture;
 
 abstract class RpcMethodClientBase<T> {
     private final RpcInterfaceInfo<T> rpc;
@@ -32,13 +34,25 @@ abstract class RpcMethodClientBase<T> {
 
     private final String methodIdxKey;
 
+    private final RpcArgsCodec argsCodec;
+
     private final MessagingChannel<RpcProtocol> channel;
 
-    public RpcMethodClientBase(RpcInterfaceInfo<T> rpc, String tag, RpcMethodInfo method, MessagingChannel<RpcProtocol> channel) {
+    private final RpcMethodMetrics metrics;
+
+    public RpcMethodClientBase(
+        RpcInterfaceInfo<T> rpc,
+        String tag,
+        RpcMethodInfo method,
+        MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics
+    ) {
         this.rpc = rpc;
         this.tag = tag;
         this.method = method;
         this.channel = channel;
+        this.metrics = metrics;
+        this.argsCodec = new RpcArgsCodec(method.javaMethod());
 
         if (tag == null) {
             methodIdxKey = RpcUtils.methodProperty(rpc, method);
@@ -58,14 +72,41 @@ abstract class RpcMethodClientBase<T> {
             affinity = null;
         }
 
+        long startedAt = metrics.onCallStart();
+
         try {
+            Object result;
+
             try {
-                return doInvoke(affinity, args);
+                result = doInvoke(affinity, args);
             } catch (HekateExecutionException e) {
                 // Unwrap asynchronous messaging error.
                 throw e.getCause();
+            } catch (MessageTimeoutException e) {
+                // Deadline of the outer RPC call has passed before submission (see RpcDeadlineContext#effectiveTimeout(long)).
+                if (method.isAsync()) {
+                    CompletableFuture<Object> expired = new CompletableFuture<>();
+
+                    expired.completeExceptionally(e);
+
+                    result = expired;
+                } else {
+                    throw e;
+                }
             }
+
+            if (method.isAsync()) {
+                ((CompletableFuture<?>)result).whenComplete((ignore, err) ->
+                    metrics.onCallComplete(startedAt, err)
+                );
+            } else {
+                metrics.onCallComplete(startedAt, null);
+            }
+
+            return result;
         } catch (Throwable e) {
+            metrics.onCallComplete(startedAt, e);
+
             throw reThrow(e);
         }
     }
@@ -86,10 +127,18 @@ abstract class RpcMethodClientBase<T> {
         return channel;
     }
 
+    public RpcMethodMetrics metrics() {
+        return metrics;
+    }
+
     public String methodIdxKey() {
         return methodIdxKey;
     }
 
+    public RpcArgsCodec argsCodec() {
+        return argsCodec;
+    }
+
     private Exception reThrow(Throwable error) throws Exception {
         if (error instanceof RpcException) {
             // Re-throw RPC errors as is.
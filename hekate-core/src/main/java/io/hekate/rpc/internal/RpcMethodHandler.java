@@ -17,17 +17,23 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.messaging.Message;
+import io.hekate.messaging.MessageTimeoutException;
+import io.hekate.messaging.MessagingChannelClosedException;
 import io.hekate.messaging.MessagingEndpoint;
 import io.hekate.rpc.RpcInterfaceInfo;
 import io.hekate.rpc.RpcMethodInfo;
+import io.hekate.rpc.RpcServerOverloadException;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallBatchResult;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallError;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallNullResult;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
+import io.hekate.rpc.internal.RpcProtocol.RpcCompactBatchCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCompactCall;
-import java.lang.reflect.InvocationTargetException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,10 +48,18 @@ class RpcMethodHandler {
 
     private final RpcInterfaceInfo<?> rpc;
 
+    private final RpcArgsCodec argsCodec;
+
+    private final RpcMethodInvoker invoker;
+
+    private final RpcConcurrencyLimiter.Baseline latencyBaseline = new RpcConcurrencyLimiter.Baseline();
+
     public RpcMethodHandler(RpcInterfaceInfo<?> rpc, RpcMethodInfo method, Object target) {
         this.rpc = rpc;
         this.method = method;
         this.target = target;
+        this.argsCodec = new RpcArgsCodec(method.javaMethod());
+        this.invoker = RpcMethodInvoker.of(method.javaMethod(), target);
     }
 
     public RpcInterfaceInfo<?> rpc() {
@@ -60,18 +74,37 @@ class RpcMethodHandler {
         return target;
     }
 
-    public void handle(Message<RpcProtocol> msg) {
+    public RpcArgsCodec argsCodec() {
+        return argsCodec;
+    }
+
+    /**
+     * Handles an RPC call.
+     *
+     * @param msg Message.
+     * @param limiter Concurrency limiter whose permit was already acquired for this call (or {@code null} if not limited).
+     * @param metrics Metrics.
+     */
+    public void handle(Message<RpcProtocol> msg, RpcConcurrencyLimiter limiter, RpcMethodMetrics metrics) {
         // Enforces type check.
         RpcCompactCall call = msg.payload(RpcCompactCall.class);
 
+        long startedAt = metrics.onCallStart();
+
         doHandle(call.args(), msg.endpoint(), (err, result) -> {
+            metrics.onCallComplete(startedAt, err);
+
+            if (limiter != null) {
+                limiter.release(call.receivedAt(), latencyBaseline);
+            }
+
             if (err == null) {
                 if (result == null) {
                     // Null result (works for void method too).
                     msg.reply(RpcCallNullResult.INSTANCE);
                 } else {
                     // Non-null result.
-                    msg.reply(new RpcCallResult(result));
+                    msg.reply(new RpcCallResult(result, metrics));
                 }
             } else {
                 msg.reply(new RpcCallError(err));
@@ -79,18 +112,134 @@ class RpcMethodHandler {
         });
     }
 
-    protected void doHandle(Object[] args, MessagingEndpoint<RpcProtocol> from, BiConsumer<Throwable, Object> callback) {
+    public void handleStream(Message<RpcProtocol> msg, RpcStreamSessions streams, RpcMethodMetrics metrics) {
+        // Enforces type check.
+        RpcCompactCall call = msg.payload(RpcCompactCall.class);
+
+        // Only the method invocation is measured since the stream's lifetime is controlled by the client.
+        long startedAt = metrics.onCallStart();
+
+        Stream<?> stream;
+
         try {
-            Object result;
+            stream = (Stream<?>)invoker.invoke(call.args());
 
-            if (args == null) {
-                // Call without arguments.
-                result = method.javaMethod().invoke(target);
-            } else {
-                // Call with arguments.
-                result = method.javaMethod().invoke(target, args);
+            metrics.onCallComplete(startedAt, null);
+        } catch (Throwable t) {
+            metrics.onCallComplete(startedAt, t);
+
+            if (log.isErrorEnabled()) {
+                log.error("RPC failure [from={}, method={}#{}]", msg.endpoint().remoteAddress(), rpc.name(), method.signature(), t);
             }
 
+            msg.reply(new RpcCallError(t));
+
+            return;
+        }
+
+        streams.open(msg, stream);
+    }
+
+    /**
+     * Handles a batch of RPC calls.
+     *
+     * @param msg Message.
+     * @param limiter Concurrency limiter whose permit was already acquired for this batch (or {@code null} if not limited). Batch is
+     * limited as a single call since it is processed as a single unit of work.
+     * @param metrics Metrics.
+     */
+    public void handleBatch(Message<RpcProtocol> msg, RpcConcurrencyLimiter limiter, RpcMethodMetrics metrics) {
+        // Enforces type check.
+        RpcCompactBatchCall call = msg.payload(RpcCompactBatchCall.class);
+
+        Object[][] batch = call.batch();
+
+        Object[] results = new Object[batch.length];
+        Throwable[] errors = new Throwable[batch.length];
+
+        AtomicInteger remaining = new AtomicInteger(batch.length);
+
+        for (int i = 0; i < batch.length; i++) {
+            int idx = i;
+
+            // Each call of a batch is measured individually.
+            long callStartedAt = metrics.onCallStart();
+
+            doHandle(batch[i], msg.endpoint(), (err, result) -> {
+                metrics.onCallComplete(callStartedAt, err);
+
+                if (err == null) {
+                    results[idx] = result;
+                } else {
+                    errors[idx] = err;
+                }
+
+                // Reply once all calls of this batch are completed (some of them can be asynchronous).
+                if (remaining.decrementAndGet() == 0) {
+                    if (limiter != null) {
+                        // Latency is normalized per call since batches can be of different sizes.
+                        limiter.release(call.receivedAt(), batch.length, latencyBaseline);
+                    }
+
+                    msg.reply(new RpcCallBatchResult(results, errors, metrics));
+                }
+            });
+        }
+    }
+
+    public void rejectOverload(Message<RpcProtocol> msg, RpcConcurrencyLimiter limiter) {
+        if (log.isDebugEnabled()) {
+            log.debug("Rejected RPC call due to concurrency limit [from={}, method={}#{}, limit={}]",
+                msg.endpoint().remoteAddress(), rpc.name(), method.signature(), limiter.limit());
+        }
+
+        msg.reply(new RpcCallError(new RpcServerOverloadException("RPC server is overloaded [method=" + rpc.name() + '#'
+            + method.signature() + ", limit=" + limiter.limit() + ']')));
+    }
+
+    public void rejectExpired(Message<RpcProtocol> msg, RpcConcurrencyLimiter limiter) {
+        if (limiter != null) {
+            // Expired call has spent its whole time budget in the queue, which is a signal of an overload.
+            limiter.release(msg.payload(RpcCompactCall.class).receivedAt(), latencyBaseline);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Skipped RPC call since its deadline has passed [from={}, method={}#{}]",
+                msg.endpoint().remoteAddress(), rpc.name(), method.signature());
+        }
+
+        msg.reply(new RpcCallError(new MessageTimeoutException("RPC deadline has passed before the call could be processed "
+            + "[method=" + rpc.name() + '#' + method.signature() + ']')));
+    }
+
+    public void rejectTerminated(Message<RpcProtocol> msg) {
+        if (log.isDebugEnabled()) {
+            log.debug("Rejected RPC call since service is terminated [from={}, method={}#{}]",
+                msg.endpoint().remoteAddress(), rpc.name(), method.signature());
+        }
+
+        msg.reply(new RpcCallError(new MessagingChannelClosedException("RPC service is terminated [method=" + rpc.name() + '#'
+            + method.signature() + ']', null)));
+    }
+
+    public void rejectQueueOverflow(Message<RpcProtocol> msg, RpcExecutorPool executor, RpcConcurrencyLimiter limiter) {
+        if (limiter != null) {
+            limiter.cancel();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Rejected RPC call due to executor queue overflow [from={}, method={}#{}, executor={}]",
+                msg.endpoint().remoteAddress(), rpc.name(), method.signature(), executor.name());
+        }
+
+        msg.reply(new RpcCallError(new RpcServerOverloadException("RPC executor queue is full [method=" + rpc.name() + '#'
+            + method.signature() + ", executor=" + executor.name() + ", max-queue-size=" + executor.maxQueueSize() + ']')));
+    }
+
+    protected void doHandle(Object[] args, MessagingEndpoint<RpcProtocol> from, BiConsumer<Throwable, Object> callback) {
+        try {
+            Object result = invoker.invoke(args);
+
             if (result == null) {
                 // Synchronous null result (works for void method too).
                 callback.accept(null, null);
@@ -115,15 +264,6 @@ class RpcMethodHandler {
                 // Synchronous non-null result.
                 callback.accept(null, result);
             }
-        } catch (InvocationTargetException e) {
-            // Unwrap reflections error.
-            Throwable cause = e.getCause();
-
-            if (log.isErrorEnabled()) {
-                log.error("RPC failure [from={}, method={}#{}]", from.remoteAddress(), rpc.name(), method.signature(), cause);
-            }
-
-            callback.accept(cause, null);
         } catch (Throwable t) {
             if (log.isErrorEnabled()) {
                 log.error("RPC failure [from={}, method={}#{}]", from.remoteAddress(), rpc.name(), method.signature(), t);
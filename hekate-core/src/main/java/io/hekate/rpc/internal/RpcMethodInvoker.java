@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Invoker of an RPC method that is bound to a target object.
+ *
+ * <p>
+ * Invocations go through a pre-bound {@link MethodHandle} that spreads an array of arguments to the method's parameters. Unlike
+ * {@link Method#invoke(Object, Object...)}, this doesn't perform access checks and doesn't wrap errors into
+ * {@link java.lang.reflect.InvocationTargetException} on every call.
+ * </p>
+ *
+ * <p>
+ * This class is public only for benchmarking purposes and is not a part of the public API.
+ * </p>
+ */
+public final class RpcMethodInvoker {
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Method method;
+
+    @ToStringIgnore
+    private final MethodHandle handle;
+
+    private RpcMethodInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+    }
+
+    /**
+     * Creates a new invoker of the specified method.
+     *
+     * @param method Method.
+     * @param target Target object (must be an instance of the method's declaring class).
+     *
+     * @return Invoker.
+     */
+    public static RpcMethodInvoker of(Method method, Object target) {
+        MethodHandle handle;
+
+        try {
+            // Use a private copy of the method since making it accessible must not affect the caller's instance.
+            Method copy = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+
+            // Interfaces of RPC handlers are not necessarily accessible from this package.
+            copy.setAccessible(true);
+
+            handle = MethodHandles.lookup().unreflect(copy);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Failed to access RPC method [method=" + method + ']', e);
+        }
+
+        handle = handle.bindTo(target)
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(INVOKE_TYPE);
+
+        return new RpcMethodInvoker(method, handle);
+    }
+
+    /**
+     * Returns the method.
+     *
+     * @return Method.
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Invokes the method.
+     *
+     * @param args Arguments (can be {@code null} if method doesn't have parameters).
+     *
+     * @return Result of the method (boxed if method returns a primitive value or {@code null} if method is {@code void}).
+     *
+     * @throws Exception Error thrown by the method (as is).
+     */
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return (Object)handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of an RPC method on the client side or on the server side.
+ *
+ * <p>
+ * Metrics are tagged only with the RPC interface name, RPC tag and method signature (and never with node addresses, arguments or error
+ * types) so that the number of meters is bounded by the number of RPC methods.
+ * </p>
+ */
+class RpcMethodMetrics {
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final MeterRegistry metrics;
+
+    private final Gauge activeGauge;
+
+    private final Timer time;
+
+    private final Counter errors;
+
+    private final DistributionSummary argsSize;
+
+    private final DistributionSummary resultSize;
+
+    public RpcMethodMetrics(String prefix, Tags tags, MeterRegistry metrics) {
+        this.metrics = metrics;
+
+        time = Timer.builder(prefix + ".time")
+            .tags(tags)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(metrics);
+
+        errors = Counter.builder(prefix + ".errors")
+            .tags(tags)
+            .register(metrics);
+
+        argsSize = DistributionSummary.builder(prefix + ".args.size")
+            .tags(tags)
+            .baseUnit("bytes")
+            .register(metrics);
+
+        resultSize = DistributionSummary.builder(prefix + ".result.size")
+            .tags(tags)
+            .baseUnit("bytes")
+            .register(metrics);
+
+        activeGauge = Gauge.builder(prefix + ".active", active, AtomicInteger::get)
+            .tags(tags)
+            .register(metrics);
+    }
+
+    /**
+     * Registers the beginning of a call.
+     *
+     * @return Start time that must be passed to {@link #onCallComplete(long, Throwable)}.
+     */
+    public long onCallStart() {
+        active.incrementAndGet();
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Registers the completion of a call.
+     *
+     * @param startedAt Result of the {@link #onCallStart()} method call.
+     * @param err Error (or {@code null} if call was successful).
+     */
+    public void onCallComplete(long startedAt, Throwable err) {
+        active.decrementAndGet();
+
+        time.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        if (err != null) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Registers the size of serialized arguments (encoded on the client side or decoded on the server side).
+     *
+     * @param bytes Size in bytes.
+     */
+    public void onArgs(int bytes) {
+        argsSize.record(bytes);
+    }
+
+    /**
+     * Registers the size of a serialized result (encoded on the server side or decoded on the client side).
+     *
+     * @param bytes Size in bytes.
+     */
+    public void onResult(int bytes) {
+        resultSize.record(bytes);
+    }
+
+    /**
+     * Removes meters of this instance from the {@link MeterRegistry}.
+     */
+    public void remove() {
+        metrics.remove(time);
+        metrics.remove(errors);
+        metrics.remove(argsSize);
+        metrics.remove(resultSize);
+        metrics.remove(activeGauge);
+    }
+}
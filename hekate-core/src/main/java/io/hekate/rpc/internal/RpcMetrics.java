@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.rpc.RpcInterfaceInfo;
+import io.hekate.rpc.RpcMethodInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link RpcMethodMetrics}.
+ *
+ * <p>
+ * Client-side metrics are shared by all clients of the same RPC interface, tag and method. Server-side metrics are shared by all servers
+ * of the same RPC interface and method and are not tagged with RPC tags since method indexes (and, therefore, calls) are shared by all
+ * tags of the same server.
+ * </p>
+ *
+ * <p>
+ * All meters are tagged with the identifier of the local node so that nodes that share the same {@link MeterRegistry} do not share
+ * meters and could safely remove their own meters when leaving the cluster.
+ * </p>
+ */
+class RpcMetrics {
+    private final Tags nodeTags;
+
+    private final MeterRegistry metrics;
+
+    private final Map<String, RpcMethodMetrics> clients = new ConcurrentHashMap<>();
+
+    private final Map<String, RpcMethodMetrics> servers = new ConcurrentHashMap<>();
+
+    public RpcMetrics(ClusterNodeId node, MeterRegistry metrics) {
+        this.nodeTags = nodeTags(node);
+        this.metrics = metrics;
+    }
+
+    public RpcMethodMetrics client(RpcInterfaceInfo<?> rpc, String tag, RpcMethodInfo method) {
+        String key = rpc.name() + '#' + method.signature() + (tag == null ? "" : '#' + tag);
+
+        return clients.computeIfAbsent(key, missing ->
+            new RpcMethodMetrics("hekate.rpc.client", Tags.of(
+                "rpc", rpc.name(),
+                "tag", tag == null ? "" : tag,
+                "method", method.signature()
+            ).and(nodeTags), metrics)
+        );
+    }
+
+    public RpcMethodMetrics server(RpcInterfaceInfo<?> rpc, RpcMethodInfo method) {
+        String key = rpc.name() + '#' + method.signature();
+
+        return servers.computeIfAbsent(key, missing ->
+            new RpcMethodMetrics("hekate.rpc.server", Tags.of(
+                "rpc", rpc.name(),
+                "method", method.signature()
+            ).and(nodeTags), metrics)
+        );
+    }
+
+    /**
+     * Returns tags that identify meters of the specified node.
+     *
+     * @param node Node.
+     *
+     * @return Tags.
+     */
+    public static Tags nodeTags(ClusterNodeId node) {
+        return Tags.of("node", node.toString());
+    }
+
+    /**
+     * Removes all meters of this registry from the {@link MeterRegistry} (so that they could be re-registered upon re-initialization of
+     * the RPC service).
+     */
+    public void removeAll() {
+        clients.values().forEach(RpcMethodMetrics::remove);
+        servers.values().forEach(RpcMethodMetrics::remove);
+
+        clients.clear();
+        servers.clear();
+    }
+}
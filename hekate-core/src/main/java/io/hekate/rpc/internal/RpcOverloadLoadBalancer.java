@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterNode;
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.messaging.loadbalance.LoadBalancer;
+import io.hekate.messaging.loadbalance.LoadBalancerContext;
+import io.hekate.messaging.loadbalance.LoadBalancerException;
+import io.hekate.messaging.retry.FailedAttempt;
+import io.hekate.messaging.retry.RetryRoutingPolicy;
+import io.hekate.rpc.RpcServerOverloadException;
+import io.hekate.util.format.ToString;
+
+/**
+ * Load balancer that re-routes {@link RetryRoutingPolicy#RE_ROUTE} retries only if the previous attempt was rejected with
+ * {@link RpcServerOverloadException}.
+ *
+ * <p>
+ * Other failures are retried on the same node as long as it is within the cluster topology (same as
+ * {@link RetryRoutingPolicy#PREFER_SAME_NODE}). All other routing decisions are delegated to the underlying load balancer.
+ * </p>
+ */
+class RpcOverloadLoadBalancer implements LoadBalancer<RpcProtocol> {
+    private final LoadBalancer<RpcProtocol> delegate;
+
+    public RpcOverloadLoadBalancer(LoadBalancer<RpcProtocol> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ClusterNodeId route(RpcProtocol msg, LoadBalancerContext ctx) throws LoadBalancerException {
+        if (ctx.failure().isPresent()) {
+            FailedAttempt failure = ctx.failure().get();
+
+            if (failure.routing() == RetryRoutingPolicy.RE_ROUTE && !failure.isCausedBy(RpcServerOverloadException.class)) {
+                ClusterNode lastNode = failure.lastTriedNode();
+
+                if (ctx.topology().contains(lastNode)) {
+                    return lastNode.id();
+                }
+            }
+        }
+
+        return delegate.route(msg, ctx);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
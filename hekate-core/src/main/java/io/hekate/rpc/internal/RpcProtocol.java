@@ -26,6 +26,7 @@ import io.hekate.util.format.ToStringIgnore;
 import io.hekate.util.trace.TraceInfo;
 import io.hekate.util.trace.Traceable;
 import java.lang.reflect.Method;
+import java.util.function.Consumer;
 
 abstract class RpcProtocol implements Traceable {
     enum Type {
@@ -41,7 +42,19 @@ abstract class RpcProtocol implements Traceable {
 
         NULL_RESPONSE,
 
-        ERROR_RESPONSE
+        ERROR_RESPONSE,
+
+        COMPACT_BATCH_CALL_REQUEST,
+
+        BATCH_RESPONSE,
+
+        CACHE_INVALIDATION,
+
+        STREAM_CHUNK,
+
+        STREAM_DEMAND,
+
+        STREAM_CANCEL
     }
 
     static class RpcCall<T> extends RpcProtocol implements RpcRequest {
@@ -53,29 +66,89 @@ abstract class RpcProtocol implements Traceable {
 
         private final RpcMethodInfo method;
 
+        @ToStringIgnore
+        private final RpcArgsCodec argsCodec;
+
         @ToStringIgnore
         private final boolean split;
 
         @ToStringIgnore
         private final Object[] args;
 
-        public RpcCall(String methodIdxKey, RpcInterfaceInfo<T> type, String tag, RpcMethodInfo method, Object[] args) {
-            this(methodIdxKey, type, tag, method, args, false);
+        @ToStringIgnore
+        private final Object[][] batch;
+
+        @ToStringIgnore
+        private long deadline;
+
+        @ToStringIgnore
+        private RpcMethodMetrics metrics;
+
+        @ToStringIgnore
+        private Consumer<ClusterNode> sendListener;
+
+        public RpcCall(
+            String methodIdxKey,
+            RpcInterfaceInfo<T> type,
+            String tag,
+            RpcMethodInfo method,
+            RpcArgsCodec argsCodec,
+            Object[] args
+        ) {
+            this(methodIdxKey, type, tag, method, argsCodec, args, false);
+        }
+
+        public RpcCall(
+            String methodIdxKey,
+            RpcInterfaceInfo<T> type,
+            String tag,
+            RpcMethodInfo method,
+            RpcArgsCodec argsCodec,
+            Object[][] batch
+        ) {
+            this(methodIdxKey, type, tag, method, argsCodec, batch[0], false, batch);
         }
 
-        public RpcCall(String methodIdxKey, RpcInterfaceInfo<T> type, String tag, RpcMethodInfo method, Object[] args, boolean split) {
+        public RpcCall(
+            String methodIdxKey,
+            RpcInterfaceInfo<T> type,
+            String tag,
+            RpcMethodInfo method,
+            RpcArgsCodec argsCodec,
+            Object[] args,
+            boolean split
+        ) {
+            this(methodIdxKey, type, tag, method, argsCodec, args, split, null);
+        }
+
+        private RpcCall(
+            String methodIdxKey,
+            RpcInterfaceInfo<T> type,
+            String tag,
+            RpcMethodInfo method,
+            RpcArgsCodec argsCodec,
+            Object[] args,
+            boolean split,
+            Object[][] batch
+        ) {
             this.methodIdxKey = methodIdxKey;
             this.type = type;
             this.tag = tag;
             this.method = method;
+            this.argsCodec = argsCodec;
             this.args = args;
             this.split = split;
+            this.batch = batch;
         }
 
         public String methodIdxKey() {
             return methodIdxKey;
         }
 
+        public RpcArgsCodec argsCodec() {
+            return argsCodec;
+        }
+
         @Override
         public String rpcTag() {
             return tag;
@@ -96,11 +169,64 @@ abstract class RpcProtocol implements Traceable {
             return method.javaMethod();
         }
 
+        /**
+         * Returns arguments of the first call if this is a {@link #isBatch() batch}.
+         *
+         * @return Arguments.
+         */
         @Override
         public Object[] args() {
             return args;
         }
 
+        public boolean isBatch() {
+            return batch != null;
+        }
+
+        /**
+         * Returns the deadline of this call (see {@link RpcDeadlineContext#deadlineOf(long)}).
+         *
+         * @return Deadline or zero if this call doesn't have a deadline.
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        public RpcCall<T> withDeadline(long deadline) {
+            this.deadline = deadline;
+
+            return this;
+        }
+
+        public RpcMethodMetrics metrics() {
+            return metrics;
+        }
+
+        public RpcCall<T> withMetrics(RpcMethodMetrics metrics) {
+            this.metrics = metrics;
+
+            return this;
+        }
+
+        /**
+         * Returns the listener that gets notified with the target node of each attempt to send this call.
+         *
+         * @return Listener or {@code null} if not specified.
+         */
+        public Consumer<ClusterNode> sendListener() {
+            return sendListener;
+        }
+
+        public RpcCall<T> withSendListener(Consumer<ClusterNode> sendListener) {
+            this.sendListener = sendListener;
+
+            return this;
+        }
+
+        public Object[][] batch() {
+            return batch;
+        }
+
         @Override
         public boolean hasArgs() {
             return args != null;
@@ -121,6 +247,7 @@ abstract class RpcProtocol implements Traceable {
             return TraceInfo.of(rpcInterface().getName() + '/' + method().getName())
                 .withTag("tag", tag)
                 .withTag("split", split)
+                .withTag("batch", batch == null ? null : batch.length)
                 .withTag("args", args == null ? 0 : args.length);
         }
     }
@@ -128,11 +255,27 @@ abstract class RpcProtocol implements Traceable {
     static class RpcCompactCall extends RpcProtocol {
         private final int methodIdx;
 
+        @ToStringIgnore
+        private final RpcArgsCodec argsCodec;
+
         @ToStringIgnore
         private final Object[] args;
 
-        public RpcCompactCall(int methodIdx, Object[] args) {
+        @ToStringIgnore
+        private long deadline;
+
+        @ToStringIgnore
+        private long receivedAt;
+
+        @ToStringIgnore
+        private int argsSize;
+
+        @ToStringIgnore
+        private RpcMethodMetrics metrics;
+
+        public RpcCompactCall(int methodIdx, RpcArgsCodec argsCodec, Object[] args) {
             this.methodIdx = methodIdx;
+            this.argsCodec = argsCodec;
             this.args = args;
         }
 
@@ -140,10 +283,71 @@ abstract class RpcProtocol implements Traceable {
             return methodIdx;
         }
 
+        public RpcArgsCodec argsCodec() {
+            return argsCodec;
+        }
+
         public Object[] args() {
             return args;
         }
 
+        /**
+         * Returns the deadline of this call (see {@link RpcDeadlineContext#deadlineOf(long)}).
+         *
+         * @return Deadline or zero if this call doesn't have a deadline.
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        public void setDeadline(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the time in {@link System#nanoTime() nanoseconds} when this call was received from the network (only set on the
+         * receiver side).
+         *
+         * @return Time when this call was received.
+         */
+        public long receivedAt() {
+            return receivedAt;
+        }
+
+        public void setReceivedAt(long receivedAt) {
+            this.receivedAt = receivedAt;
+        }
+
+        /**
+         * Returns the size of decoded arguments in bytes (only set on the receiver side).
+         *
+         * @return Size of arguments or zero if this call wasn't decoded from a network buffer.
+         */
+        public int argsSize() {
+            return argsSize;
+        }
+
+        public void setArgsSize(int argsSize) {
+            this.argsSize = argsSize;
+        }
+
+        /**
+         * Returns metrics for recording the size of encoded arguments (only set on the sender side).
+         *
+         * @return Metrics or {@code null}.
+         */
+        public RpcMethodMetrics metrics() {
+            return metrics;
+        }
+
+        public void setMetrics(RpcMethodMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        public boolean isExpired() {
+            return deadline != 0 && deadline - System.nanoTime() <= 0;
+        }
+
         @Override
         public Type type() {
             return Type.COMPACT_CALL_REQUEST;
@@ -157,8 +361,8 @@ abstract class RpcProtocol implements Traceable {
     }
 
     static class RpcCompactSplitCall extends RpcCompactCall {
-        public RpcCompactSplitCall(int methodIdx, Object[] args) {
-            super(methodIdx, args);
+        public RpcCompactSplitCall(int methodIdx, RpcArgsCodec argsCodec, Object[] args) {
+            super(methodIdx, argsCodec, args);
         }
 
         @Override
@@ -167,17 +371,76 @@ abstract class RpcProtocol implements Traceable {
         }
     }
 
+    static class RpcCompactBatchCall extends RpcCompactCall {
+        @ToStringIgnore
+        private final Object[][] batch;
+
+        public RpcCompactBatchCall(int methodIdx, RpcArgsCodec argsCodec, Object[][] batch) {
+            super(methodIdx, argsCodec, null);
+
+            this.batch = batch;
+        }
+
+        public Object[][] batch() {
+            return batch;
+        }
+
+        @Override
+        public Type type() {
+            return Type.COMPACT_BATCH_CALL_REQUEST;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("compact-batch-call/" + methodIdx())
+                .withTag("batch", batch.length);
+        }
+    }
+
     static class RpcCallResult extends RpcProtocol {
         private final Object result;
 
+        @ToStringIgnore
+        private final RpcMethodMetrics metrics;
+
+        @ToStringIgnore
+        private int resultSize;
+
         public RpcCallResult(Object result) {
+            this(result, null);
+        }
+
+        public RpcCallResult(Object result, RpcMethodMetrics metrics) {
             this.result = result;
+            this.metrics = metrics;
         }
 
         public Object result() {
             return result;
         }
 
+        /**
+         * Returns metrics for recording the size of the encoded result (only set on the sender side).
+         *
+         * @return Metrics or {@code null}.
+         */
+        public RpcMethodMetrics metrics() {
+            return metrics;
+        }
+
+        /**
+         * Returns the size of the decoded result in bytes (only set on the receiver side).
+         *
+         * @return Size of the result or zero if this result wasn't decoded from a network buffer.
+         */
+        public int resultSize() {
+            return resultSize;
+        }
+
+        public void setResultSize(int resultSize) {
+            this.resultSize = resultSize;
+        }
+
         @Override
         public Type type() {
             return Type.OBJECT_RESPONSE;
@@ -207,6 +470,224 @@ abstract class RpcProtocol implements Traceable {
         }
     }
 
+    static class RpcCallBatchResult extends RpcProtocol {
+        @ToStringIgnore
+        private final Object[] results;
+
+        @ToStringIgnore
+        private final Throwable[] errors;
+
+        @ToStringIgnore
+        private final RpcMethodMetrics metrics;
+
+        @ToStringIgnore
+        private int resultSize;
+
+        public RpcCallBatchResult(Object[] results, Throwable[] errors) {
+            this(results, errors, null);
+        }
+
+        public RpcCallBatchResult(Object[] results, Throwable[] errors, RpcMethodMetrics metrics) {
+            this.results = results;
+            this.errors = errors;
+            this.metrics = metrics;
+        }
+
+        public int size() {
+            return results.length;
+        }
+
+        public Object result(int idx) {
+            return results[idx];
+        }
+
+        public Throwable error(int idx) {
+            return errors[idx];
+        }
+
+        /**
+         * Returns metrics for recording the size of encoded results (only set on the sender side).
+         *
+         * @return Metrics or {@code null}.
+         */
+        public RpcMethodMetrics metrics() {
+            return metrics;
+        }
+
+        /**
+         * Returns the size of decoded results in bytes (only set on the receiver side).
+         *
+         * @return Size of results or zero if these results weren't decoded from a network buffer.
+         */
+        public int resultSize() {
+            return resultSize;
+        }
+
+        public void setResultSize(int resultSize) {
+            this.resultSize = resultSize;
+        }
+
+        @Override
+        public Type type() {
+            return Type.BATCH_RESPONSE;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("batch-result")
+                .withTag("size", results.length);
+        }
+    }
+
+    static class RpcCacheInvalidation extends RpcProtocol {
+        private final String rpc;
+
+        private final String tag;
+
+        private final String signature;
+
+        @ToStringIgnore
+        private final Object[] args;
+
+        public RpcCacheInvalidation(String rpc, String tag, String signature, Object[] args) {
+            this.rpc = rpc;
+            this.tag = tag;
+            this.signature = signature;
+            this.args = args;
+        }
+
+        public String rpc() {
+            return rpc;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        /**
+         * Returns the signature of the invalidated method (see {@link io.hekate.rpc.RpcMethodInfo#signature()}).
+         *
+         * @return Method signature.
+         */
+        public String signature() {
+            return signature;
+        }
+
+        /**
+         * Returns arguments of the invalidated call or {@code null} if all cached results of the method should be invalidated.
+         *
+         * @return Arguments or {@code null}.
+         */
+        public Object[] args() {
+            return args;
+        }
+
+        @Override
+        public Type type() {
+            return Type.CACHE_INVALIDATION;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("cache-invalidation/" + rpc + '#' + signature)
+                .withTag("tag", tag);
+        }
+    }
+
+    static class RpcStreamChunk extends RpcProtocol {
+        private final long streamId;
+
+        private final boolean last;
+
+        @ToStringIgnore
+        private final Object[] elements;
+
+        public RpcStreamChunk(long streamId, Object[] elements, boolean last) {
+            this.streamId = streamId;
+            this.elements = elements;
+            this.last = last;
+        }
+
+        public long streamId() {
+            return streamId;
+        }
+
+        public Object[] elements() {
+            return elements;
+        }
+
+        public boolean isLast() {
+            return last;
+        }
+
+        @Override
+        public Type type() {
+            return Type.STREAM_CHUNK;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("stream-chunk")
+                .withTag("stream", streamId)
+                .withTag("size", elements.length)
+                .withTag("last", last);
+        }
+    }
+
+    static class RpcStreamDemand extends RpcProtocol {
+        private final long streamId;
+
+        private final int chunks;
+
+        public RpcStreamDemand(long streamId, int chunks) {
+            this.streamId = streamId;
+            this.chunks = chunks;
+        }
+
+        public long streamId() {
+            return streamId;
+        }
+
+        public int chunks() {
+            return chunks;
+        }
+
+        @Override
+        public Type type() {
+            return Type.STREAM_DEMAND;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("stream-demand")
+                .withTag("stream", streamId)
+                .withTag("chunks", chunks);
+        }
+    }
+
+    static class RpcStreamCancel extends RpcProtocol {
+        private final long streamId;
+
+        public RpcStreamCancel(long streamId) {
+            this.streamId = streamId;
+        }
+
+        public long streamId() {
+            return streamId;
+        }
+
+        @Override
+        public Type type() {
+            return Type.STREAM_CANCEL;
+        }
+
+        @Override
+        public TraceInfo traceInfo() {
+            return TraceInfo.of("stream-cancel")
+                .withTag("stream", streamId);
+        }
+    }
+
     static class RpcCallError extends RpcProtocol implements FailureResponse {
         private final Throwable cause;
 
@@ -19,22 +19,46 @@ package io.hekate.rpc.internal;
 import io.hekate.codec.Codec;
 import io.hekate.codec.DataReader;
 import io.hekate.codec.DataWriter;
+import io.hekate.network.netty.NettyBufferAware;
+import io.hekate.rpc.internal.RpcProtocol.RpcCacheInvalidation;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallBatchResult;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallError;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallNullResult;
 import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
+import io.hekate.rpc.internal.RpcProtocol.RpcCompactBatchCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCompactCall;
 import io.hekate.rpc.internal.RpcProtocol.RpcCompactSplitCall;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamCancel;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamChunk;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamDemand;
 import io.hekate.rpc.internal.RpcProtocol.Type;
 import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import io.netty.buffer.ByteBuf;
 import java.io.IOException;
+import java.util.function.IntFunction;
 
 class RpcProtocolCodec implements Codec<RpcProtocol> {
     private static final Type[] TYPES_CACHE = Type.values();
 
+    /** Marker of a {@code null} result of a {@link RpcCallBatchResult}. */
+    private static final int BATCH_NULL = 0;
+
+    /** Marker of a non-{@code null} result of a {@link RpcCallBatchResult}. */
+    private static final int BATCH_OBJECT = 1;
+
+    /** Marker of an error of a {@link RpcCallBatchResult}. */
+    private static final int BATCH_ERROR = 2;
+
     private final Codec<Object> delegate;
 
-    public RpcProtocolCodec(Codec<Object> delegate) {
+    /** Resolves arguments codecs of local RPC methods by their indexes. */
+    @ToStringIgnore
+    private final IntFunction<RpcArgsCodec> argsCodecs;
+
+    public RpcProtocolCodec(Codec<Object> delegate, IntFunction<RpcArgsCodec> argsCodecs) {
         this.delegate = delegate;
+        this.argsCodecs = argsCodecs;
     }
 
     @Override
@@ -57,26 +81,142 @@ class RpcProtocolCodec implements Codec<RpcProtocol> {
             case COMPACT_CALL_REQUEST: {
                 RpcCompactCall request = (RpcCompactCall)msg;
 
+                int start = out.size();
+
                 out.writeVarInt(request.methodIdx());
 
-                delegate.encode(request.args(), out);
+                request.argsCodec().encode(request.args(), out, delegate);
+
+                recordArgs(request.metrics(), out.size() - start);
 
                 break;
             }
             case COMPACT_SPLIT_CALL_REQUEST: {
                 RpcCompactSplitCall request = (RpcCompactSplitCall)msg;
 
+                int start = out.size();
+
                 out.writeVarInt(request.methodIdx());
 
-                delegate.encode(request.args(), out);
+                request.argsCodec().encode(request.args(), out, delegate);
+
+                recordArgs(request.metrics(), out.size() - start);
+
+                break;
+            }
+            case COMPACT_BATCH_CALL_REQUEST: {
+                RpcCompactBatchCall request = (RpcCompactBatchCall)msg;
+
+                int start = out.size();
+
+                out.writeVarInt(request.methodIdx());
+
+                Object[][] batch = request.batch();
+
+                out.writeVarIntUnsigned(batch.length);
+
+                for (Object[] args : batch) {
+                    request.argsCodec().encode(args, out, delegate);
+                }
+
+                recordArgs(request.metrics(), out.size() - start);
 
                 break;
             }
             case OBJECT_RESPONSE: {
                 RpcCallResult response = (RpcCallResult)msg;
 
+                int start = out.size();
+
                 delegate.encode(response.result(), out);
 
+                recordResult(response.metrics(), out.size() - start);
+
+                break;
+            }
+            case BATCH_RESPONSE: {
+                RpcCallBatchResult response = (RpcCallBatchResult)msg;
+
+                int start = out.size();
+
+                out.writeVarIntUnsigned(response.size());
+
+                for (int i = 0; i < response.size(); i++) {
+                    Throwable error = response.error(i);
+                    Object result = response.result(i);
+
+                    if (error != null) {
+                        out.writeByte(BATCH_ERROR);
+
+                        delegate.encode(error, out);
+                    } else if (result != null) {
+                        out.writeByte(BATCH_OBJECT);
+
+                        delegate.encode(result, out);
+                    } else {
+                        out.writeByte(BATCH_NULL);
+                    }
+                }
+
+                recordResult(response.metrics(), out.size() - start);
+
+                break;
+            }
+            case CACHE_INVALIDATION: {
+                RpcCacheInvalidation invalidation = (RpcCacheInvalidation)msg;
+
+                out.writeUTF(invalidation.rpc());
+                out.writeUTF(invalidation.signature());
+
+                if (invalidation.tag() == null) {
+                    out.writeBoolean(false);
+                } else {
+                    out.writeBoolean(true);
+                    out.writeUTF(invalidation.tag());
+                }
+
+                if (invalidation.args() == null) {
+                    out.writeBoolean(false);
+                } else {
+                    out.writeBoolean(true);
+
+                    delegate.encode(invalidation.args(), out);
+                }
+
+                break;
+            }
+            case STREAM_CHUNK: {
+                RpcStreamChunk chunk = (RpcStreamChunk)msg;
+
+                out.writeVarLongUnsigned(chunk.streamId());
+                out.writeBoolean(chunk.isLast());
+                out.writeVarIntUnsigned(chunk.elements().length);
+
+                for (Object element : chunk.elements()) {
+                    if (element == null) {
+                        out.writeBoolean(false);
+                    } else {
+                        out.writeBoolean(true);
+
+                        delegate.encode(element, out);
+                    }
+                }
+
+                break;
+            }
+            case STREAM_DEMAND: {
+                RpcStreamDemand demand = (RpcStreamDemand)msg;
+
+                out.writeVarLongUnsigned(demand.streamId());
+                out.writeVarIntUnsigned(demand.chunks());
+
+                break;
+            }
+            case STREAM_CANCEL: {
+                RpcStreamCancel cancel = (RpcStreamCancel)msg;
+
+                out.writeVarLongUnsigned(cancel.streamId());
+
                 break;
             }
             case NULL_RESPONSE: {
@@ -105,23 +245,119 @@ class RpcProtocolCodec implements Codec<RpcProtocol> {
 
         switch (type) {
             case COMPACT_CALL_REQUEST: {
+                int start = readerIndex(in);
+
                 int methodIdx = in.readVarInt();
 
-                Object[] args = (Object[])delegate.decode(in);
+                RpcArgsCodec argsCodec = argsCodecs.apply(methodIdx);
+
+                Object[] args = argsCodec.decode(in, delegate);
+
+                RpcCompactCall request = new RpcCompactCall(methodIdx, argsCodec, args);
 
-                return new RpcCompactCall(methodIdx, args);
+                request.setArgsSize(decodedSince(in, start));
+
+                return request;
             }
             case COMPACT_SPLIT_CALL_REQUEST: {
+                int start = readerIndex(in);
+
                 int methodIdx = in.readVarInt();
 
-                Object[] args = (Object[])delegate.decode(in);
+                RpcArgsCodec argsCodec = argsCodecs.apply(methodIdx);
+
+                Object[] args = argsCodec.decode(in, delegate);
 
-                return new RpcCompactSplitCall(methodIdx, args);
+                RpcCompactSplitCall request = new RpcCompactSplitCall(methodIdx, argsCodec, args);
+
+                request.setArgsSize(decodedSince(in, start));
+
+                return request;
+            }
+            case COMPACT_BATCH_CALL_REQUEST: {
+                int start = readerIndex(in);
+
+                int methodIdx = in.readVarInt();
+
+                RpcArgsCodec argsCodec = argsCodecs.apply(methodIdx);
+
+                Object[][] batch = new Object[in.readVarIntUnsigned()][];
+
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i] = argsCodec.decode(in, delegate);
+                }
+
+                RpcCompactBatchCall request = new RpcCompactBatchCall(methodIdx, argsCodec, batch);
+
+                request.setArgsSize(decodedSince(in, start));
+
+                return request;
             }
             case OBJECT_RESPONSE: {
+                int start = readerIndex(in);
+
                 Object obj = delegate.decode(in);
 
-                return new RpcCallResult(obj);
+                RpcCallResult response = new RpcCallResult(obj);
+
+                response.setResultSize(decodedSince(in, start));
+
+                return response;
+            }
+            case BATCH_RESPONSE: {
+                int start = readerIndex(in);
+
+                int size = in.readVarIntUnsigned();
+
+                Object[] results = new Object[size];
+                Throwable[] errors = new Throwable[size];
+
+                for (int i = 0; i < size; i++) {
+                    int marker = in.readByte();
+
+                    if (marker == BATCH_ERROR) {
+                        errors[i] = (Throwable)delegate.decode(in);
+                    } else if (marker == BATCH_OBJECT) {
+                        results[i] = delegate.decode(in);
+                    }
+                }
+
+                RpcCallBatchResult response = new RpcCallBatchResult(results, errors);
+
+                response.setResultSize(decodedSince(in, start));
+
+                return response;
+            }
+            case CACHE_INVALIDATION: {
+                String rpc = in.readUTF();
+                String signature = in.readUTF();
+                String tag = in.readBoolean() ? in.readUTF() : null;
+                Object[] args = in.readBoolean() ? (Object[])delegate.decode(in) : null;
+
+                return new RpcCacheInvalidation(rpc, tag, signature, args);
+            }
+            case STREAM_CHUNK: {
+                long streamId = in.readVarLongUnsigned();
+                boolean last = in.readBoolean();
+
+                Object[] elements = new Object[in.readVarIntUnsigned()];
+
+                for (int i = 0; i < elements.length; i++) {
+                    if (in.readBoolean()) {
+                        elements[i] = delegate.decode(in);
+                    }
+                }
+
+                return new RpcStreamChunk(streamId, elements, last);
+            }
+            case STREAM_DEMAND: {
+                long streamId = in.readVarLongUnsigned();
+                int chunks = in.readVarIntUnsigned();
+
+                return new RpcStreamDemand(streamId, chunks);
+            }
+            case STREAM_CANCEL: {
+                return new RpcStreamCancel(in.readVarLongUnsigned());
             }
             case NULL_RESPONSE: {
                 return RpcCallNullResult.INSTANCE;
@@ -139,6 +375,29 @@ class RpcProtocolCodec implements Codec<RpcProtocol> {
         }
     }
 
+    private static void recordArgs(RpcMethodMetrics metrics, int bytes) {
+        if (metrics != null) {
+            metrics.onArgs(bytes);
+        }
+    }
+
+    private static void recordResult(RpcMethodMetrics metrics, int bytes) {
+        if (metrics != null) {
+            metrics.onResult(bytes);
+        }
+    }
+
+    private static int readerIndex(DataReader in) {
+        ByteBuf buf = in instanceof NettyBufferAware ? ((NettyBufferAware)in).buffer() : null;
+
+        return buf == null ? -1 : buf.readerIndex();
+    }
+
+    private static int decodedSince(DataReader in, int start) {
+        // Size is unknown if reader is not backed by a buffer.
+        return start < 0 ? 0 : readerIndex(in) - start;
+    }
+
     @Override
     public String toString() {
         return ToString.format(this);
@@ -19,17 +19,23 @@ package io.hekate.rpc.internal;
 import io.hekate.codec.Codec;
 import io.hekate.codec.CodecFactory;
 import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.function.IntFunction;
 
 class RpcProtocolCodecFactory implements CodecFactory<RpcProtocol> {
     private final CodecFactory<Object> delegate;
 
-    public RpcProtocolCodecFactory(CodecFactory<Object> delegate) {
+    @ToStringIgnore
+    private final IntFunction<RpcArgsCodec> argsCodecs;
+
+    public RpcProtocolCodecFactory(CodecFactory<Object> delegate, IntFunction<RpcArgsCodec> argsCodecs) {
         this.delegate = delegate;
+        this.argsCodecs = argsCodecs;
     }
 
     @Override
     public Codec<RpcProtocol> createCodec() {
-        return new RpcProtocolCodec(delegate.createCodec());
+        return new RpcProtocolCodec(delegate.createCodec(), argsCodecs);
     }
 
     @Override
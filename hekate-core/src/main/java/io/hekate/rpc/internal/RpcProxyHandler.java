@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Invocation handler of RPC client proxies.
+ *
+ * <p>
+ * Proxy classes pass the same {@link Method} instances on every call, and therefore methods are resolved by identity. Identity lookups
+ * are cheaper than {@link Method#equals(Object)}-based lookups, which compare the declaring class, name, return type and parameter
+ * types. Method instances are learned on the first call of each method.
+ * </p>
+ */
+class RpcProxyHandler implements InvocationHandler {
+    private final Object owner;
+
+    /** Method clients (resolved by {@link Method#equals(Object)}). */
+    @ToStringIgnore
+    private final Map<Method, RpcMethodClientBase<?>> clients;
+
+    /** Method clients (resolved by identity; copy-on-write). */
+    @ToStringIgnore
+    private volatile Map<Method, RpcMethodClientBase<?>> resolved = new IdentityHashMap<>();
+
+    public RpcProxyHandler(Object owner, Map<Method, RpcMethodClientBase<?>> clients) {
+        this.owner = owner;
+        this.clients = clients;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        RpcMethodClientBase<?> client = resolved.get(method);
+
+        if (client == null) {
+            client = resolve(method);
+
+            if (client == null) {
+                if (method.getDeclaringClass().equals(Object.class)) {
+                    return method.invoke(owner, args);
+                } else {
+                    throw new UnsupportedOperationException("Method is not supported by RPC: " + method);
+                }
+            }
+        }
+
+        return client.invoke(args);
+    }
+
+    private synchronized RpcMethodClientBase<?> resolve(Method method) {
+        RpcMethodClientBase<?> client = clients.get(method);
+
+        if (client != null && !resolved.containsKey(method)) {
+            Map<Method, RpcMethodClientBase<?>> copy = new IdentityHashMap<>(resolved);
+
+            copy.put(method, client);
+
+            resolved = copy;
+        }
+
+        return client;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterHash;
+import io.hekate.cluster.ClusterTopology;
+import io.hekate.cluster.ClusterView;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Client-side cache of results of an {@link io.hekate.rpc.RpcCache}-annotated method.
+ *
+ * <p>
+ * Cache is bounded by size (least recently used entries are evicted first) and entries expire after the configured time to live. Each
+ * entry holds a future of the call's result so that concurrent calls with the same arguments share the same remote call. The whole
+ * cache is cleared once the topology of RPC servers changes.
+ * </p>
+ */
+class RpcResultCache {
+    private static class Key {
+        private final Object[] args;
+
+        private final int hash;
+
+        public Key(Object[] args) {
+            this(args, Arrays.deepHashCode(args));
+        }
+
+        private Key(Object[] args, int hash) {
+            this.args = args;
+            this.hash = hash;
+        }
+
+        /**
+         * Returns a copy of this key that doesn't share any arrays with the caller (so that the caller could reuse them).
+         *
+         * @return Copy of this key.
+         */
+        public Key copy() {
+            return new Key(args == null ? null : copyArray(args), hash);
+        }
+
+        private static Object[] copyArray(Object[] array) {
+            Object[] copy = array.clone();
+
+            for (int i = 0; i < copy.length; i++) {
+                Object elem = copy[i];
+
+                if (elem instanceof Object[]) {
+                    copy[i] = copyArray((Object[])elem);
+                } else if (elem != null && elem.getClass().isArray()) {
+                    int len = Array.getLength(elem);
+
+                    Object primitives = Array.newInstance(elem.getClass().getComponentType(), len);
+
+                    System.arraycopy(elem, 0, primitives, 0, len);
+
+                    copy[i] = primitives;
+                }
+            }
+
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key)o;
+
+            return hash == other.hash && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Entry {
+        private final CompletableFuture<Object> future;
+
+        private volatile long expiresAt;
+
+        public Entry(CompletableFuture<Object> future) {
+            this.future = future;
+        }
+    }
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    @ToStringIgnore
+    private final ClusterView cluster;
+
+    @ToStringIgnore
+    private final Map<Key, Entry> entries;
+
+    @ToStringIgnore
+    private ClusterTopology topology;
+
+    @ToStringIgnore
+    private ClusterHash topologyHash;
+
+    public RpcResultCache(int maxSize, long ttl, ClusterView cluster) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.cluster = cluster;
+
+        // Access-ordered map for LRU eviction.
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return super.size() > RpcResultCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a future result of the call with the specified arguments.
+     *
+     * <p>
+     * If there is no cached result (or if it is expired) then the specified loader gets called and its future gets cached. Failed results
+     * are removed from the cache.
+     * </p>
+     *
+     * @param args Call arguments.
+     * @param loader Loader of a result.
+     *
+     * @return Future result.
+     */
+    public CompletableFuture<Object> get(Object[] args, Supplier<CompletableFuture<Object>> loader) {
+        Key key = new Key(args);
+
+        Entry entry;
+
+        synchronized (entries) {
+            checkTopology();
+
+            Entry existing = entries.get(key);
+
+            if (existing != null && !isExpired(existing)) {
+                return existing.future;
+            }
+
+            entry = new Entry(new CompletableFuture<>());
+
+            entries.put(key.copy(), entry);
+        }
+
+        loader.get().whenComplete((result, err) -> {
+            if (err == null) {
+                entry.expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+
+                entry.future.complete(result);
+            } else {
+                // Do not cache failures.
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+
+                entry.future.completeExceptionally(err);
+            }
+        });
+
+        return entry.future;
+    }
+
+    /**
+     * Invalidates the cached result of the call with the specified arguments.
+     *
+     * @param args Call arguments.
+     */
+    public void invalidate(Object[] args) {
+        synchronized (entries) {
+            entries.remove(new Key(args));
+        }
+    }
+
+    /**
+     * Invalidates all cached results.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the amount of cached results.
+     *
+     * @return Amount of cached results.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        long expiresAt = entry.expiresAt;
+
+        return expiresAt != 0 && System.nanoTime() - expiresAt >= 0;
+    }
+
+    private void checkTopology() {
+        ClusterTopology newTopology = cluster.topology();
+
+        if (newTopology != topology) {
+            ClusterHash newHash = newTopology.hash();
+
+            if (topologyHash != null && !topologyHash.equals(newHash)) {
+                entries.clear();
+            }
+
+            topology = newTopology;
+            topologyHash = newHash;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -16,82 +16,223 @@
 
 package io.hekate.rpc.internal;
 
+import io.hekate.cluster.ClusterNode;
+import io.hekate.messaging.MessageTimeoutException;
 import io.hekate.messaging.MessagingFuture;
 import io.hekate.messaging.operation.RequestCallback;
 import io.hekate.messaging.operation.Response;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Function;
+import io.hekate.rpc.RpcAggregate;
+import io.hekate.rpc.RpcAggregateException;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.RpcService;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallResult;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregation of a split RPC call.
+ *
+ * <p>
+ * Each part of the split argument is tracked separately together with the node that it was sent to (see {@link Part#onSend(ClusterNode)}),
+ * so that failed and expired parts could be reported per node in the same way as {@link RpcAggregateMethodClient} does. Per-node results
+ * are kept only if the {@link RpcAggregate.RemoteErrors#FAIL} policy is used, since they are exposed via
+ * {@link RpcAggregateException#partialResults()}.
+ * </p>
+ */
+class RpcSplitAggregateFuture extends MessagingFuture<Object> {
+    /** Part of a split call. */
+    class Part implements RequestCallback<RpcProtocol> {
+        /** Node of the last attempt to submit this part ({@code null} if the part wasn't sent yet). */
+        private volatile ClusterNode node;
+
+        public Part(ClusterNode node) {
+            this.node = node;
+        }
+
+        /**
+         * Notifies on the node that was selected for the next attempt to submit this part.
+         *
+         * @param node Node.
+         */
+        public void onSend(ClusterNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public void onComplete(Throwable err, Response<RpcProtocol> rsp) {
+            onPartComplete(this, err, rsp);
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RpcService.class);
 
-class RpcSplitAggregateFuture extends MessagingFuture<Object> implements RequestCallback<RpcProtocol> {
-    private final int parts;
+    private final String method;
 
-    private final List<RpcProtocol> responses;
+    private final RpcAggregate.RemoteErrors remoteErrors;
 
-    private final RpcErrorMappingPolicy errorPolicy;
+    private final RpcAggregateAccumulator accumulator;
 
-    private final Function<List<RpcProtocol>, Object> aggregator;
+    private final Set<Part> pending = new HashSet<>();
 
-    private int collectedParts;
+    private final Map<ClusterNode, Object> partialResults;
 
-    private Throwable firstError;
+    private Map<ClusterNode, Throwable> errors;
 
-    public RpcSplitAggregateFuture(int parts, RpcErrorMappingPolicy errorPolicy, Function<List<RpcProtocol>, Object> aggregator) {
-        this.parts = parts;
-        this.errorPolicy = errorPolicy;
-        this.aggregator = aggregator;
-        this.responses = new ArrayList<>(parts);
+    /** Error of a part that failed before it could be sent to any node. */
+    private Throwable unroutedError;
+
+    public RpcSplitAggregateFuture(String method, RpcAggregate.RemoteErrors remoteErrors, RpcAggregateAccumulator accumulator) {
+        this.method = method;
+        this.remoteErrors = remoteErrors;
+        this.accumulator = accumulator;
+        this.partialResults = remoteErrors == RpcAggregate.RemoteErrors.FAIL ? new HashMap<>() : null;
     }
 
-    @Override
-    public void onComplete(Throwable err, Response<RpcProtocol> rsp) {
-        if (!isDone()) {
-            Throwable mappedErr = null;
+    /**
+     * Registers a new part of this aggregation. All parts must be registered before any of them gets submitted.
+     *
+     * @param node Target node if known in advance (f.e. primary node of a partition) or {@code null}.
+     *
+     * @return New part.
+     */
+    public Part newPart(ClusterNode node) {
+        Part part = new Part(node);
+
+        synchronized (accumulator) {
+            pending.add(part);
+        }
 
-            // Check for errors.
-            if (err != null && errorPolicy != null) {
-                mappedErr = errorPolicy.apply(err);
+        return part;
+    }
+
+    /**
+     * Completes this future with whatever results were collected so far. Parts that didn't complete yet are handled according to the
+     * error policy as if they had failed with a {@link MessageTimeoutException} on the nodes that they were sent to.
+     *
+     * @param deadline Deadline in milliseconds (for error message).
+     */
+    public void expire(long deadline) {
+        synchronized (accumulator) {
+            if (pending.isEmpty()) {
+                return;
             }
 
-            // Collect/aggregate results.
-            boolean allDone = false;
+            MessageTimeoutException err = new MessageTimeoutException("RPC aggregation deadline exceeded [deadline=" + deadline + "ms]");
 
-            Object okResult = null;
-            Throwable errResult = null;
+            pending.forEach(part -> addError(part.node, err));
 
-            synchronized (responses) {
-                if (mappedErr == null) {
-                    if (rsp != null) { // <-- Can be null if there was a real error but it was ignored by the error policy.
-                        responses.add(rsp.payload());
-                    }
-                } else {
-                    if (firstError == null) {
-                        firstError = mappedErr;
-                    }
-                }
+            pending.clear();
+        }
+
+        completeAggregation();
+    }
+
+    /**
+     * Completes this future once all of the registered parts are completed.
+     */
+    public void completeAggregation() {
+        Object result;
+        Map<ClusterNode, Throwable> failed;
+        Throwable unrouted;
+
+        synchronized (accumulator) {
+            if (!pending.isEmpty()) {
+                return;
+            }
+
+            result = accumulator.result();
+            failed = errors;
+            unrouted = unroutedError;
+        }
+
+        if (failed == null && unrouted == null) {
+            complete(result);
+        } else if (remoteErrors == RpcAggregate.RemoteErrors.IGNORE) {
+            if (log.isDebugEnabled()) {
+                logErrors(failed, unrouted, true);
+            }
+
+            complete(result);
+        } else if (remoteErrors == RpcAggregate.RemoteErrors.WARN) {
+            if (log.isWarnEnabled()) {
+                logErrors(failed, unrouted, false);
+            }
+
+            complete(result);
+        } else {
+            String errMsg = "RPC aggregation failed [method=" + method + ']';
+
+            if (failed == null) {
+                // None of the failed parts was sent to a remote node.
+                completeExceptionally(new RpcException(errMsg, unrouted));
+            } else {
+                completeExceptionally(new RpcAggregateException(errMsg, failed, partialResults));
+            }
+        }
+    }
+
+    private void onPartComplete(Part part, Throwable err, Response<RpcProtocol> rsp) {
+        synchronized (accumulator) {
+            // Ignore if part was already expired by the deadline.
+            if (!pending.remove(part)) {
+                return;
+            }
 
-                // Check if we've collected all results.
-                collectedParts++;
+            if (err == null) {
+                RpcProtocol result = rsp.payload();
 
-                if (collectedParts == parts) {
-                    allDone = true;
+                // Merge right away so that the partial result could be released.
+                accumulator.add(result);
 
-                    // Check if should complete successfully or exceptionally.
-                    if (firstError == null) {
-                        okResult = aggregator.apply(responses);
-                    } else {
-                        errResult = firstError;
-                    }
+                if (partialResults != null && part.node != null) {
+                    partialResults.put(part.node, result instanceof RpcCallResult ? ((RpcCallResult)result).result() : null);
                 }
+            } else {
+                addError(part.node, err);
             }
 
-            // Complete if we've collected all results.
-            if (allDone) {
-                if (errResult == null) {
-                    complete(okResult);
+            if (!pending.isEmpty()) {
+                return;
+            }
+        }
+
+        completeAggregation();
+    }
+
+    private void addError(ClusterNode node, Throwable err) {
+        if (node == null) {
+            if (unroutedError == null) {
+                unroutedError = err;
+            }
+        } else {
+            if (errors == null) {
+                errors = new HashMap<>();
+            }
+
+            errors.put(node, err);
+        }
+    }
+
+    private void logErrors(Map<ClusterNode, Throwable> failed, Throwable unrouted, boolean debug) {
+        if (failed != null) {
+            failed.forEach((node, err) -> {
+                if (debug) {
+                    log.debug("RPC aggregation failed [remote-node={}, method={}]", node, method, err);
                 } else {
-                    completeExceptionally(errResult);
+                    log.warn("RPC aggregation failed [remote-node={}, method={}]", node, method, err);
                 }
+            });
+        }
+
+        if (unrouted != null) {
+            if (debug) {
+                log.debug("RPC aggregation failed [method={}]", method, unrouted);
+            } else {
+                log.warn("RPC aggregation failed [method={}]", method, unrouted);
             }
         }
     }
@@ -16,17 +16,18 @@
 
 package io.hekate.rpc.internal;
 
+import io.hekate.cluster.ClusterNode;
 import io.hekate.core.internal.util.ArgAssert;
 import io.hekate.messaging.MessagingChannel;
 import io.hekate.messaging.MessagingFuture;
 import io.hekate.messaging.loadbalance.EmptyTopologyException;
 import io.hekate.messaging.loadbalance.LoadBalancers;
 import io.hekate.messaging.retry.GenericRetryConfigurer;
+import io.hekate.partition.PartitionMapper;
 import io.hekate.rpc.RpcAggregate;
-import io.hekate.rpc.RpcException;
 import io.hekate.rpc.RpcInterfaceInfo;
 import io.hekate.rpc.RpcMethodInfo;
-import io.hekate.rpc.RpcService;
+import io.hekate.rpc.RpcSplit;
 import io.hekate.rpc.internal.RpcProtocol.RpcCall;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -35,41 +36,65 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import static io.hekate.rpc.internal.RpcUtils.mergeToList;
-import static io.hekate.rpc.internal.RpcUtils.mergeToMap;
-import static io.hekate.rpc.internal.RpcUtils.mergeToSet;
+import java.util.function.Supplier;
 
 class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
-    private static final Logger log = LoggerFactory.getLogger(RpcService.class);
+    /** Part of a {@link RpcSplit.Mode#PARTITIONED partitioned} argument. */
+    private static class PartitionedPart {
+        /** Affinity key that is mapped to the same partition as elements of this part. */
+        private final Object affinity;
+
+        /** Primary node of the partition. */
+        private final ClusterNode node;
+
+        private final Object part;
+
+        public PartitionedPart(Object affinity, ClusterNode node, Object part) {
+            this.affinity = affinity;
+            this.node = node;
+            this.part = part;
+        }
+    }
+
+    /** Affinity key for {@code null} elements of a {@link RpcSplit.Mode#PARTITIONED partitioned} argument. */
+    private static final Integer NULL_AFFINITY = 0;
 
     private final int splitArgIdx;
 
+    private final Class<?> splitArgType;
+
+    private final boolean partitioned;
+
     private final RpcArgSplitter splitter;
 
-    private final RpcErrorMappingPolicy errorPolicy;
+    private final RpcAggregate.RemoteErrors remoteErrors;
 
-    private final Function<List<RpcProtocol>, Object> aggregator;
+    private final Supplier<RpcAggregateAccumulator> accumulator;
 
     private final GenericRetryConfigurer retryPolicy;
 
     private final long timeout;
 
+    private final long deadline;
+
+    private final RpcTimer timer;
+
     public RpcSplitAggregateMethodClient(
         RpcInterfaceInfo<T> rpc,
         String tag,
         RpcMethodInfo method,
         MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
         GenericRetryConfigurer retryPolicy,
-        long timeout
+        long timeout,
+        RpcTimer timer
     ) {
-        super(rpc, tag, method, channel);
+        super(rpc, tag, method, channel, metrics);
 
         this.timeout = timeout;
+        this.timer = timer;
         this.retryPolicy = retryPolicy;
         this.splitArgIdx = method.splitArg().orElseThrow(() ->
             new AssertionError("Split argument index is not defined.")
@@ -78,10 +103,12 @@ class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         // Splitting.
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        Class<?> splitArgType = method.splitArgType().orElseThrow(() ->
+        this.splitArgType = method.splitArgType().orElseThrow(() ->
             new AssertionError("Split argument index is not defined.")
         );
 
+        this.partitioned = method.splitMode().orElse(RpcSplit.Mode.EVEN) == RpcSplit.Mode.PARTITIONED;
+
         if (splitArgType.equals(Map.class)) {
             // Map.
             splitter = (arg, clusterSize) -> {
@@ -111,75 +138,17 @@ class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         // Aggregation.
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        Class<?> returnType = method.realReturnType();
-
-        if (returnType.equals(Map.class)) {
-            // Map.
-            aggregator = results -> {
-                Map<Object, Object> merged = new HashMap<>();
-
-                results.forEach(result ->
-                    mergeToMap(result, merged)
-                );
-
-                return merged;
-            };
-        } else if (returnType.equals(Set.class)) {
-            // Set.
-            aggregator = results -> {
-                Set<Object> merged = new HashSet<>();
-
-                results.forEach(result ->
-                    mergeToSet(result, merged)
-                );
-
-                return merged;
-            };
-        } else {
-            // Collection/List.
-            aggregator = results -> {
-                List<Object> merged = new ArrayList<>();
-
-                results.forEach(result ->
-                    mergeToList(result, merged)
-                );
-
-                return merged;
-            };
-        }
+        this.accumulator = RpcAggregateAccumulator.factoryFor(method.realReturnType());
 
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         // Error handling.
         ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-        RpcAggregate.RemoteErrors policy = method.aggregate()
-            .orElseThrow(() ->
-                new AssertionError("Not an aggregate method [rpc=" + rpc + ", method=" + method + ']')
-            )
-            .remoteErrors();
-
-        if (policy == RpcAggregate.RemoteErrors.IGNORE) {
-            errorPolicy = err -> {
-                if (log.isDebugEnabled()) {
-                    log.debug("RPC aggregation failed [method={}]", method, err);
-                }
-
-                return null;
-            };
-        } else {
-            errorPolicy = err -> {
-                if (policy == RpcAggregate.RemoteErrors.WARN) {
-                    if (log.isWarnEnabled()) {
-                        log.warn("RPC aggregation failed [method={}#{}]", rpc.name(), method.signature(), err);
-                    }
-
-                    return null;
-                } else {
-                    String errMsg = "RPC aggregation failed [method=" + rpc.name() + '#' + method.signature() + ']';
+        RpcAggregate config = method.aggregate().orElseThrow(() ->
+            new AssertionError("Not an aggregate method [rpc=" + rpc + ", method=" + method + ']')
+        );
 
-                    return new RpcException(errMsg, err);
-                }
-            };
-        }
+        this.remoteErrors = config.remoteErrors();
+        this.deadline = config.deadline();
     }
 
     @Override
@@ -187,7 +156,12 @@ class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
         // RPC messaging future.
         MessagingFuture<Object> future;
 
-        int clusterSize = channel().cluster().topology().size();
+        // Inherit the deadline of an RPC call that is being processed by the current thread (if any).
+        long callTimeout = RpcDeadlineContext.effectiveTimeout(timeout);
+
+        PartitionMapper partitions = partitioned ? channel().partitions().snapshot() : null;
+
+        int clusterSize = partitioned ? partitions.topology().size() : channel().cluster().topology().size();
 
         // Check that RPC topology is not empty.
         if (clusterSize == 0) {
@@ -196,33 +170,53 @@ class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
             future = new MessagingFuture<>();
 
             future.completeExceptionally(err);
+        } else if (partitioned) {
+            // Split argument by the primary nodes of partitions.
+            Collection<PartitionedPart> parts = splitPartitioned(args, partitions);
+
+            RpcSplitAggregateFuture aggrFuture = newAggregation();
+
+            // Register all parts before submitting any of them so that aggregation wouldn't complete prematurely.
+            List<RpcSplitAggregateFuture.Part> callbacks = new ArrayList<>(parts.size());
+
+            for (PartitionedPart part : parts) {
+                callbacks.add(aggrFuture.newPart(part.node));
+            }
+
+            // Use the affinity key of each part to route it to the primary node.
+            int idx = 0;
+
+            for (PartitionedPart part : parts) {
+                submit(substituteArgs(args, part.part), part.affinity, channel(), callTimeout, callbacks.get(idx++));
+            }
+
+            completeOrScheduleDeadline(aggrFuture);
+
+            future = aggrFuture;
         } else {
             // Split argument into parts.
             Object[] parts = split(args, clusterSize);
 
-            RpcSplitAggregateFuture aggrFuture = new RpcSplitAggregateFuture(parts.length, errorPolicy, aggregator);
+            RpcSplitAggregateFuture aggrFuture = newAggregation();
+
+            // Register all parts before submitting any of them so that aggregation wouldn't complete prematurely.
+            RpcSplitAggregateFuture.Part[] callbacks = new RpcSplitAggregateFuture.Part[parts.length];
+
+            for (int i = 0; i < parts.length; i++) {
+                callbacks[i] = aggrFuture.newPart(null); // <-- Node will be known once the part gets routed.
+            }
 
             // Use Round Robin load balancing to distribute parts among the cluster nodes.
             MessagingChannel<RpcProtocol> roundRobin = channel().withLoadBalancer(LoadBalancers.newRoundRobin());
 
-            // Process each part as a separate RPC request with a shared callback.
-            for (Object part : parts) {
+            // Process each part as a separate RPC request with its own callback.
+            for (int i = 0; i < parts.length; i++) {
                 // Replace the original argument with the part that should be sent to the remote node.
-                Object[] partArgs = substituteArgs(args, part);
-
-                // Submit RPC request.
-                RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), partArgs, true /* <- Split. */);
-
-                roundRobin.newRequest(call)
-                    .withTimeout(timeout, TimeUnit.MILLISECONDS)
-                    .withRetry(retry -> {
-                        if (retryPolicy != null) {
-                            retryPolicy.configure(retry);
-                        }
-                    })
-                    .submit(aggrFuture); // <- Future is a callback.
+                submit(substituteArgs(args, parts[i]), null, roundRobin, callTimeout, callbacks[i]);
             }
 
+            completeOrScheduleDeadline(aggrFuture);
+
             future = aggrFuture;
         }
 
@@ -234,6 +228,100 @@ class RpcSplitAggregateMethodClient<T> extends RpcMethodClientBase<T> {
         }
     }
 
+    private void submit(
+        Object[] partArgs,
+        Object affinity,
+        MessagingChannel<RpcProtocol> target,
+        long callTimeout,
+        RpcSplitAggregateFuture.Part callback
+    ) {
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), partArgs, true /* <- Split. */)
+            .withDeadline(RpcDeadlineContext.deadlineOf(callTimeout))
+            .withMetrics(metrics())
+            .withSendListener(callback::onSend);
+
+        target.newRequest(call)
+            .withAffinity(affinity)
+            .withTimeout(callTimeout, TimeUnit.MILLISECONDS)
+            .withRetry(retry -> {
+                if (retryPolicy != null) {
+                    retryPolicy.configure(retry);
+                }
+            })
+            .submit(callback);
+    }
+
+    private RpcSplitAggregateFuture newAggregation() {
+        return new RpcSplitAggregateFuture(rpc().name() + '#' + method().signature(), remoteErrors, accumulator.get());
+    }
+
+    private void completeOrScheduleDeadline(RpcSplitAggregateFuture aggrFuture) {
+        // Complete right away if there were no parts to submit.
+        aggrFuture.completeAggregation();
+
+        if (deadline > 0 && !aggrFuture.isDone()) {
+            ScheduledFuture<?> expire = timer.schedule(() -> aggrFuture.expire(deadline), deadline);
+
+            aggrFuture.whenComplete((ignore, err) -> expire.cancel(false));
+        }
+    }
+
+    private Collection<PartitionedPart> splitPartitioned(Object[] args, PartitionMapper partitions) {
+        Object arg = ArgAssert.notNull(args[splitArgIdx], "Splittable argument");
+
+        Map<ClusterNode, PartitionedPart> parts = new HashMap<>();
+
+        if (splitArgType.equals(Map.class)) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> map = (Map<Object, Object>)arg;
+
+            for (Map.Entry<Object, Object> e : map.entrySet()) {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> part = (Map<Object, Object>)partOf(e.getKey(), partitions, parts).part;
+
+                part.put(e.getKey(), e.getValue());
+            }
+        } else {
+            @SuppressWarnings("unchecked")
+            Collection<Object> col = (Collection<Object>)arg;
+
+            for (Object o : col) {
+                @SuppressWarnings("unchecked")
+                Collection<Object> part = (Collection<Object>)partOf(o, partitions, parts).part;
+
+                part.add(o);
+            }
+        }
+
+        return parts.values();
+    }
+
+    private PartitionedPart partOf(Object key, PartitionMapper partitions, Map<ClusterNode, PartitionedPart> parts) {
+        Object affinity = key != null ? key : NULL_AFFINITY;
+
+        ClusterNode node = partitions.map(affinity).primaryNode();
+
+        PartitionedPart part = parts.get(node);
+
+        if (part == null) {
+            Object container;
+
+            if (splitArgType.equals(Map.class)) {
+                container = new HashMap<>();
+            } else if (splitArgType.equals(Set.class)) {
+                container = new HashSet<>();
+            } else {
+                container = new ArrayList<>();
+            }
+
+            part = new PartitionedPart(affinity, node, container);
+
+            parts.put(node, part);
+        }
+
+        return part;
+    }
+
     private Object[] split(Object[] args, int clusterSize) {
         Object arg = ArgAssert.notNull(args[splitArgIdx], "Splittable argument");
 
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.core.HekateException;
+import io.hekate.core.HekateInterruptedException;
+import io.hekate.messaging.MessageTimeoutException;
+import io.hekate.messaging.MessagingChannel;
+import io.hekate.messaging.operation.ResponsePart;
+import io.hekate.messaging.operation.SubscribeCallback;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.RpcInterfaceInfo;
+import io.hekate.rpc.RpcMethodInfo;
+import io.hekate.rpc.internal.RpcProtocol.RpcCall;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamCancel;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamChunk;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamDemand;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+class RpcStreamMethodClient<T> extends RpcMethodClientBase<T> {
+    private class StreamIterator implements Iterator<Object>, SubscribeCallback<RpcProtocol> {
+        /** Queue of received chunks (or an error). */
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+        private Object[] chunk;
+
+        private int pos;
+
+        private boolean finished;
+
+        private long streamId;
+
+        private ClusterNodeId server;
+
+        private boolean cancelled;
+
+        @Override
+        public void onComplete(Throwable err, ResponsePart<RpcProtocol> rsp) {
+            if (err == null) {
+                RpcStreamChunk part = rsp.payload(RpcStreamChunk.class);
+
+                boolean cancel;
+
+                synchronized (this) {
+                    streamId = part.streamId();
+                    server = rsp.endpoint().remoteNodeId();
+
+                    cancel = cancelled && !part.isLast();
+                }
+
+                if (cancel) {
+                    // Stream was closed before the first chunk was received.
+                    sendCancel();
+                }
+
+                queue.add(part);
+            } else {
+                queue.add(err);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (chunk == null || pos == chunk.length) {
+                if (finished) {
+                    return false;
+                }
+
+                Object next;
+
+                try {
+                    // Only the time of waiting for the server is limited (not the time that is spent by the consumer between chunks).
+                    next = timeout > 0 ? queue.poll(timeout, TimeUnit.MILLISECONDS) : queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    throw new HekateInterruptedException("Thread was interrupted while awaiting for RPC stream elements.", e);
+                }
+
+                if (next == null) {
+                    close();
+
+                    throw streamError(new MessageTimeoutException("RPC stream timed out [timeout=" + timeout + ']'));
+                }
+
+                if (next instanceof Throwable) {
+                    finished = true;
+
+                    throw streamError((Throwable)next);
+                }
+
+                RpcStreamChunk part = (RpcStreamChunk)next;
+
+                chunk = part.elements();
+                pos = 0;
+
+                if (part.isLast()) {
+                    finished = true;
+                } else {
+                    // Replenish the credit of the consumed chunk.
+                    sendDemand();
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return chunk[pos++];
+        }
+
+        public void close() {
+            if (!finished) {
+                finished = true;
+
+                boolean cancel;
+
+                synchronized (this) {
+                    cancelled = true;
+
+                    // Stream identifier is not known until the first chunk is received.
+                    cancel = server != null;
+                }
+
+                if (cancel) {
+                    sendCancel();
+                }
+            }
+        }
+
+        private void sendDemand() {
+            long id;
+            ClusterNodeId node;
+
+            synchronized (this) {
+                id = streamId;
+                node = server;
+            }
+
+            channel().forNode(node)
+                .newSend(new RpcStreamDemand(id, 1))
+                .submit();
+        }
+
+        private void sendCancel() {
+            long id;
+            ClusterNodeId node;
+
+            synchronized (this) {
+                id = streamId;
+                node = server;
+            }
+
+            channel().forNode(node)
+                .newSend(new RpcStreamCancel(id))
+                .submit();
+        }
+
+        private RuntimeException streamError(Throwable err) {
+            if (err instanceof RpcException) {
+                return (RpcException)err;
+            } else if (err instanceof HekateException) {
+                // Wrap internal errors (network errors, messaging errors, etc).
+                return new RpcException("RPC stream failure [method=" + method() + ']', err);
+            } else if (err instanceof RuntimeException) {
+                return (RuntimeException)err;
+            } else if (err instanceof Error) {
+                throw (Error)err;
+            } else {
+                return new RpcException("RPC stream failure [method=" + method() + ']', err);
+            }
+        }
+    }
+
+    private final long timeout;
+
+    public RpcStreamMethodClient(
+        RpcInterfaceInfo<T> rpc,
+        String tag,
+        RpcMethodInfo method,
+        MessagingChannel<RpcProtocol> channel,
+        RpcMethodMetrics metrics,
+        long timeout
+    ) {
+        super(rpc, tag, method, channel, metrics);
+
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected Object doInvoke(Object affinity, Object[] args) {
+        RpcCall<T> call = new RpcCall<>(methodIdxKey(), rpc(), tag(), method(), argsCodec(), args)
+            .withMetrics(metrics());
+
+        StreamIterator iterator = new StreamIterator();
+
+        // Timeout is handled by the iterator since the server doesn't send anything until the client consumes chunks.
+        channel().newSubscribe(call)
+            .withAffinity(affinity)
+            .submit(iterator);
+
+        Spliterator<Object> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+}
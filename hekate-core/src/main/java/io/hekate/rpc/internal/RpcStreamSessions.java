@@ -0,0 +1,385 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.cluster.ClusterNode;
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.messaging.Message;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.internal.RpcProtocol.RpcCallError;
+import io.hekate.rpc.internal.RpcProtocol.RpcStreamChunk;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server-side registry of {@link Stream}s that are returned by RPC methods.
+ *
+ * <p>
+ * Elements of a stream are pulled lazily and are sent to the client in chunks via {@link Message#partialReply(Object)}. Each chunk
+ * consumes one credit; the client grants more credits (see {@link RpcProtocol.RpcStreamDemand}) as it consumes chunks, so that at most
+ * {@link #INITIAL_CREDITS} chunks are in flight per stream. Elements are pulled by the RPC worker threads without holding any locks, so
+ * that slow streams do not block the messaging threads.
+ * </p>
+ *
+ * <p>
+ * If the client doesn't request more elements within the idle timeout (f.e. if it stopped consuming the stream without closing it) then
+ * the stream is closed and the client gets an error.
+ * </p>
+ */
+class RpcStreamSessions {
+    /** Maximum amount of elements per chunk. */
+    static final int CHUNK_SIZE = 128;
+
+    /** Amount of chunks that can be sent before the client requests more. */
+    static final int INITIAL_CREDITS = 2;
+
+    private class Session {
+        private final long id;
+
+        private final Message<RpcProtocol> msg;
+
+        private final ClusterNodeId from;
+
+        private final Stream<?> stream;
+
+        private final Iterator<?> iterator;
+
+        /** Amount of chunks that can be sent to the client (guarded by this session). */
+        private int credits = INITIAL_CREDITS;
+
+        /** Flag indicating that some thread is pulling elements from the stream (guarded by this session). */
+        private boolean pumping;
+
+        /** Flag indicating that the stream must be cancelled once the current chunk is sent (guarded by this session). */
+        private boolean cancelled;
+
+        /** Flag indicating that the stream is closed (guarded by this session). */
+        private boolean done;
+
+        /** Expiration of the session if the client doesn't request more elements (guarded by this session). */
+        private Future<?> idleCheck;
+
+        /** Elements of the chunk that is being pulled from the stream (to be sent if the stream fails). */
+        private Object[] buffer;
+
+        /** Amount of elements in the {@link #buffer}. */
+        private int pending;
+
+        public Session(long id, Message<RpcProtocol> msg, Stream<?> stream) {
+            this.id = id;
+            this.msg = msg;
+            this.from = msg.endpoint().remoteNodeId();
+            this.stream = stream;
+            this.iterator = stream.iterator();
+        }
+
+        public void start() {
+            synchronized (this) {
+                pumping = true;
+            }
+
+            pump();
+        }
+
+        public void demand(int chunks) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+
+                credits += chunks;
+
+                if (idleCheck != null) {
+                    idleCheck.cancel(false);
+
+                    idleCheck = null;
+                }
+
+                if (pumping) {
+                    // Will be processed by the pumping thread.
+                    return;
+                }
+
+                pumping = true;
+            }
+
+            executor.execute(this::pump);
+        }
+
+        public void cancel() {
+            synchronized (this) {
+                if (done || cancelled) {
+                    return;
+                }
+
+                cancelled = true;
+
+                if (pumping) {
+                    // Will be processed by the pumping thread.
+                    return;
+                }
+
+                done = true;
+            }
+
+            close();
+
+            // Complete the client's subscription.
+            msg.reply(new RpcStreamChunk(id, EMPTY_CHUNK, true));
+        }
+
+        private void pump() {
+            while (true) {
+                boolean cancel;
+
+                synchronized (this) {
+                    cancel = cancelled;
+
+                    if (cancel) {
+                        done = true;
+                        pumping = false;
+                    } else if (credits == 0) {
+                        pumping = false;
+
+                        scheduleIdleCheck();
+
+                        return;
+                    } else {
+                        credits--;
+                    }
+                }
+
+                if (cancel) {
+                    close();
+
+                    msg.reply(new RpcStreamChunk(id, EMPTY_CHUNK, true));
+
+                    return;
+                }
+
+                Object[] chunk;
+                boolean last;
+
+                try {
+                    chunk = nextChunk();
+
+                    last = !iterator.hasNext();
+
+                    buffer = null;
+                    pending = 0;
+                } catch (Throwable t) {
+                    if (log.isErrorEnabled()) {
+                        log.error("RPC stream failure [from={}, stream={}]", msg.endpoint().remoteAddress(), id, t);
+                    }
+
+                    fail(t);
+
+                    return;
+                }
+
+                if (last) {
+                    synchronized (this) {
+                        done = true;
+                        pumping = false;
+                    }
+
+                    close();
+
+                    msg.reply(new RpcStreamChunk(id, chunk, true));
+
+                    return;
+                } else {
+                    msg.partialReply(new RpcStreamChunk(id, chunk, false), err -> {
+                        if (err != null) {
+                            // Client is not reachable.
+                            cancel();
+                        }
+                    });
+                }
+            }
+        }
+
+        private void fail(Throwable error) {
+            synchronized (this) {
+                done = true;
+                pumping = false;
+            }
+
+            close();
+
+            // Send elements that were pulled before the failure.
+            if (pending > 0) {
+                msg.partialReply(new RpcStreamChunk(id, Arrays.copyOf(buffer, pending), false));
+            }
+
+            msg.reply(new RpcCallError(error));
+        }
+
+        private void scheduleIdleCheck() {
+            assert Thread.holdsLock(this) : "Thread must hold lock.";
+
+            if (idleTimeout > 0 && !done) {
+                try {
+                    idleCheck = timer.schedule(this::expireIfIdle, idleTimeout);
+                } catch (RejectedExecutionException e) {
+                    // Ignore (service is terminated and all streams are cancelled anyway).
+                }
+            }
+        }
+
+        private void expireIfIdle() {
+            synchronized (this) {
+                // Check that the client didn't request more elements concurrently.
+                if (done || pumping || credits > 0) {
+                    return;
+                }
+
+                done = true;
+            }
+
+            if (log.isWarnEnabled()) {
+                log.warn("Closing idle RPC stream [from={}, stream={}, idle-timeout={}]", msg.endpoint().remoteAddress(), id, idleTimeout);
+            }
+
+            close();
+
+            msg.reply(new RpcCallError(new RpcException("RPC stream was closed by the server due to inactivity of the client "
+                + "[idle-timeout=" + idleTimeout + ']')));
+        }
+
+        private Object[] nextChunk() {
+            buffer = new Object[CHUNK_SIZE];
+            pending = 0;
+
+            while (pending < CHUNK_SIZE && iterator.hasNext()) {
+                buffer[pending++] = iterator.next();
+            }
+
+            return pending < CHUNK_SIZE ? Arrays.copyOf(buffer, pending) : buffer;
+        }
+
+        private void close() {
+            sessions.remove(id, this);
+
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                if (log.isWarnEnabled()) {
+                    log.warn("Failed to close RPC stream [stream={}]", id, e);
+                }
+            }
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RpcStreamSessions.class);
+
+    private static final Object[] EMPTY_CHUNK = new Object[0];
+
+    private final AtomicLong idGen = new AtomicLong();
+
+    @ToStringIgnore
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    @ToStringIgnore
+    private final Executor executor;
+
+    @ToStringIgnore
+    private final RpcTimer timer;
+
+    private final long idleTimeout;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param executor Executor for pulling elements from streams.
+     * @param timer Timer for expiration of idle streams.
+     * @param idleTimeout Idle timeout in milliseconds (zero to disable).
+     */
+    public RpcStreamSessions(Executor executor, RpcTimer timer, long idleTimeout) {
+        this.executor = executor;
+        this.timer = timer;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Starts streaming of the specified stream as a response to the specified subscription message.
+     *
+     * @param msg Subscription message.
+     * @param stream Stream (can be {@code null}).
+     */
+    public void open(Message<RpcProtocol> msg, Stream<?> stream) {
+        long id = idGen.incrementAndGet();
+
+        if (stream == null) {
+            msg.reply(new RpcStreamChunk(id, EMPTY_CHUNK, true));
+        } else {
+            Session session = new Session(id, msg, stream);
+
+            sessions.put(id, session);
+
+            // Pull the first chunks on the current thread (it is the RPC worker that invoked the method).
+            session.start();
+        }
+    }
+
+    public void demand(long id, int chunks) {
+        Session session = sessions.get(id);
+
+        if (session != null) {
+            session.demand(chunks);
+        }
+    }
+
+    public void cancel(long id) {
+        Session session = sessions.get(id);
+
+        if (session != null) {
+            session.cancel();
+        }
+    }
+
+    public void cancel(Collection<ClusterNode> clients) {
+        sessions.values().stream()
+            .filter(session -> clients.stream().anyMatch(node -> node.id().equals(session.from)))
+            .forEach(Session::cancel);
+    }
+
+    public void cancelAll() {
+        sessions.values().forEach(Session::cancel);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
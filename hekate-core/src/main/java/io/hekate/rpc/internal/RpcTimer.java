@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.util.HekateThreadFactory;
+import io.hekate.util.async.Waiting;
+import io.hekate.util.format.ToString;
+import io.hekate.util.format.ToStringIgnore;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static io.hekate.util.async.AsyncUtils.shutdown;
+
+/**
+ * Timer for flushing of batched calls and for aggregation deadlines.
+ *
+ * <p>
+ * The timer thread is started lazily upon the first scheduled task, so that it doesn't exist unless some method really needs it.
+ * Pending flushes are tracked and get executed upon {@link #terminate() termination} so that batched calls wouldn't hang.
+ * </p>
+ */
+class RpcTimer {
+    /** Flush of a batch that is tracked until it is executed or cancelled. */
+    private class FlushTask extends FutureTask<Void> {
+        private volatile Future<?> scheduled;
+
+        public FlushTask(Runnable flush) {
+            super(flush, null);
+        }
+
+        @Override
+        protected void done() {
+            flushes.remove(this);
+
+            Future<?> scheduled = this.scheduled;
+
+            if (isCancelled() && scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    private final String name;
+
+    @ToStringIgnore
+    private final Set<FlushTask> flushes = ConcurrentHashMap.newKeySet();
+
+    /** Timer thread (guarded by this instance). */
+    @ToStringIgnore
+    private ScheduledThreadPoolExecutor executor;
+
+    /** Termination flag (guarded by this instance). */
+    private boolean terminated;
+
+    public RpcTimer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Schedules the specified task.
+     *
+     * @param task Task.
+     * @param delay Delay in milliseconds.
+     *
+     * @return Future of the task.
+     *
+     * @throws RejectedExecutionException If this timer is terminated.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay) {
+        synchronized (this) {
+            if (terminated) {
+                throw new RejectedExecutionException("RPC timer is terminated.");
+            }
+
+            return executor().schedule(task, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schedules the flush of a batch. If this timer is terminated, then the flush is executed in the caller thread.
+     *
+     * @param flush Flush task.
+     * @param delay Delay in milliseconds.
+     *
+     * @return Future that can be used to cancel the flush.
+     */
+    public Future<?> scheduleFlush(Runnable flush, long delay) {
+        FlushTask task = new FlushTask(flush);
+
+        flushes.add(task);
+
+        synchronized (this) {
+            if (!terminated) {
+                task.scheduled = executor().schedule(task, delay, TimeUnit.MILLISECONDS);
+
+                return task;
+            }
+        }
+
+        task.run();
+
+        return task;
+    }
+
+    /**
+     * Executes all pending flushes and terminates the timer thread.
+     *
+     * @return Waiting for the timer thread termination.
+     */
+    public Waiting terminate() {
+        ScheduledThreadPoolExecutor executor;
+
+        synchronized (this) {
+            terminated = true;
+
+            executor = this.executor;
+
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+
+        // Flush pending batches immediately so that callers wouldn't wait for timer delays.
+        for (FlushTask flush : flushes) {
+            flush.run();
+        }
+
+        return shutdown(executor);
+    }
+
+    // Package level for testing purposes.
+    synchronized boolean isStarted() {
+        return executor != null;
+    }
+
+    private ScheduledThreadPoolExecutor executor() {
+        assert Thread.holdsLock(this) : "Thread must hold lock.";
+
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, new HekateThreadFactory(name));
+
+            executor.setRemoveOnCancelPolicy(true);
+        }
+
+        return executor;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.format(this);
+    }
+}
@@ -28,10 +28,14 @@ import io.hekate.codec.fst.FstCodecFactory;
 import io.hekate.codec.internal.DefaultCodecService;
 import io.hekate.codec.kryo.KryoCodecFactory;
 import io.hekate.util.format.ToString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -44,11 +48,15 @@ import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(Parameterized.class)
 public class CodecServiceTest extends HekateTestBase {
@@ -141,6 +149,80 @@ public class CodecServiceTest extends HekateTestBase {
         assertEquals("test", codec.decode(codec.encode("test")));
     }
 
+    @Test
+    public void testEncodeDecodeBuffers() throws Exception {
+        ByteBuf buf = service.encodeToBuffer("test");
+
+        try {
+            assertTrue(buf.isDirect());
+
+            // Same format as byte arrays.
+            assertArrayEquals(service.encode("test"), ByteBufUtil.getBytes(buf));
+
+            assertEquals("test", service.decode(buf.nioBuffer()));
+            assertEquals("test", service.decode(buf));
+
+            assertEquals(0, buf.readableBytes());
+        } finally {
+            buf.release();
+        }
+
+        EncoderDecoder<String> codec = service.forType(String.class);
+
+        ByteBuffer nio = ByteBuffer.allocateDirect(1024);
+
+        codec.encode("one", nio);
+        codec.encode("two", nio);
+
+        nio.flip();
+
+        assertEquals("one", service.decode(nio));
+        assertEquals("two", service.decode(nio));
+        assertFalse(nio.hasRemaining());
+    }
+
+    @Test
+    public void testEncodeToSmallBuffer() throws Exception {
+        EncoderDecoder<Object> codec = service.forType(Object.class);
+
+        for (Object obj : asList("test", new ArrayList<>(nCopies(20, "some-string")))) {
+            int size = codec.encode(obj).length;
+
+            assertTrue(size < 256);
+
+            for (ByteBuffer nio : asList(ByteBuffer.allocate(size + 2), ByteBuffer.allocateDirect(size + 2))) {
+                // Exactly the required space.
+                nio.position(2);
+
+                codec.encode(obj, nio);
+
+                assertFalse(nio.hasRemaining());
+
+                nio.flip().position(2);
+
+                assertEquals(obj, codec.decode(nio));
+
+                // One byte less than required.
+                nio.clear().position(3);
+
+                expect(CodecException.class, () -> codec.encode(obj, nio));
+
+                assertEquals(3, nio.position());
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeToBufferOverflow() throws Exception {
+        ByteBuffer nio = ByteBuffer.allocate(8);
+
+        nio.position(2);
+
+        expect(CodecException.class, () -> service.forType(String.class).encode(new String(new char[1024]), nio));
+
+        assertEquals(2, nio.position());
+    }
+
     @Test
     public void testCodecFactory() {
         assertSame(codecFactory, ThreadLocalCodecFactory.tryUnwrap(service.codecFactory()));
@@ -163,6 +245,10 @@ public class CodecServiceTest extends HekateTestBase {
         encodeDecodeAsByteArray(codec, before, check);
 
         encodeDecodeAsByteArrayWithOffset(codec, before, check);
+
+        encodeDecodeAsByteBuf(codec, before, check);
+
+        encodeDecodeAsByteBuffer(codec, before, check);
     }
 
     private <T> void encodeDecodeAsStream(EncoderDecoder<T> codec, T before, BiConsumer<T, T> check) throws IOException {
@@ -179,6 +265,47 @@ public class CodecServiceTest extends HekateTestBase {
         check.accept(before, codec.decode(codec.encode(before)));
     }
 
+    private <T> void encodeDecodeAsByteBuf(EncoderDecoder<T> codec, T before, BiConsumer<T, T> check) {
+        ByteBuf buf = codec.encodeToBuffer(before);
+
+        try {
+            check.accept(before, codec.decode(buf));
+
+            assertEquals(0, buf.readableBytes());
+
+            // Must be compatible with byte arrays in both directions.
+            buf.clear();
+
+            buf.writeBytes(codec.encode(before));
+
+            check.accept(before, codec.decode(buf));
+
+            buf.clear();
+
+            codec.encode(before, buf);
+
+            check.accept(before, codec.decode(ByteBufUtil.getBytes(buf)));
+        } finally {
+            buf.release();
+        }
+    }
+
+    private <T> void encodeDecodeAsByteBuffer(EncoderDecoder<T> codec, T before, BiConsumer<T, T> check) {
+        for (ByteBuffer buf : asList(ByteBuffer.allocate(64 * 1024), ByteBuffer.allocateDirect(64 * 1024))) {
+            buf.position(3);
+
+            codec.encode(before, buf);
+
+            int end = buf.position();
+
+            buf.flip().position(3);
+
+            check.accept(before, codec.decode(buf));
+
+            assertEquals(end, buf.position());
+        }
+    }
+
     private <T> void encodeDecodeAsByteArrayWithOffset(EncoderDecoder<T> codec, T before, BiConsumer<T, T> check) throws IOException {
         byte[] bytes = codec.encode(before);
 
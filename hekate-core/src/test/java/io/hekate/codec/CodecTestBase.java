@@ -17,7 +17,12 @@
 package io.hekate.codec;
 
 import io.hekate.HekateTestBase;
+import io.hekate.network.netty.NettyBufferAware;
 import io.hekate.util.format.ToString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
@@ -145,6 +150,36 @@ public abstract class CodecTestBase<T extends CodecFactory<Object>> extends Heka
         }
     }
 
+    protected static class ByteBufWriter extends StreamDataWriter implements NettyBufferAware {
+        private final ByteBuf buf;
+
+        public ByteBufWriter(ByteBuf buf) {
+            super(new ByteBufOutputStream(buf));
+
+            this.buf = buf;
+        }
+
+        @Override
+        public ByteBuf buffer() {
+            return buf;
+        }
+    }
+
+    protected static class ByteBufReader extends StreamDataReader implements NettyBufferAware {
+        private final ByteBuf buf;
+
+        public ByteBufReader(ByteBuf buf) {
+            super(new ByteBufInputStream(buf));
+
+            this.buf = buf;
+        }
+
+        @Override
+        public ByteBuf buffer() {
+            return buf;
+        }
+    }
+
     protected final T factory;
 
     public CodecTestBase(T factory) {
@@ -266,6 +301,56 @@ public abstract class CodecTestBase<T extends CodecFactory<Object>> extends Heka
         });
     }
 
+    @Test
+    public void testEncodeDecodeByteBuf() throws Exception {
+        for (boolean direct : new boolean[]{true, false}) {
+            repeat(3, i -> {
+                List<ObjA> list = new ArrayList<>();
+
+                for (int j = 0; j < 100 * (i + 1); j++) {
+                    list.add(new ObjA(j, "test-" + j));
+                }
+
+                // Large enough to require expansion of the buffer.
+                ObjB msg = new ObjB(new ObjA(i, new String(new byte[1024 * 64], UTF_8)), list);
+
+                ByteBuf buf = direct ? Unpooled.directBuffer(16) : Unpooled.buffer(16);
+
+                try {
+                    // Some data before the encoded object.
+                    buf.writeInt(i);
+
+                    // Use new codecs for each step since stateful codecs expect messages to be decoded exactly once.
+                    factory.createCodec().encode(msg, new ByteBufWriter(buf));
+
+                    byte[] bytes = new byte[buf.readableBytes() - Integer.BYTES];
+
+                    buf.getBytes(Integer.BYTES, bytes);
+
+                    // Must be compatible with stream-based IO in both directions.
+                    assertEquals(msg, factory.createCodec().decode(new StreamDataReader(new ByteArrayInputStream(bytes))));
+
+                    assertEquals(i, buf.readInt());
+                    assertEquals(msg, factory.createCodec().decode(new ByteBufReader(buf)));
+                    assertEquals(0, buf.readableBytes());
+
+                    buf.clear();
+
+                    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+                    factory.createCodec().encode(msg, new StreamDataWriter(bout));
+
+                    buf.writeBytes(bout.toByteArray());
+
+                    assertEquals(msg, factory.createCodec().decode(new ByteBufReader(buf)));
+                    assertEquals(0, buf.readableBytes());
+                } finally {
+                    buf.release();
+                }
+            });
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected <V> V encodeDecode(Codec<Object> encoder, Codec<Object> decoder, V msg) throws Exception {
         ByteArrayOutputStream bout = new ByteArrayOutputStream();
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec;
+
+import io.hekate.codec.fst.FstCodecFactory;
+import io.hekate.codec.kryo.KryoCodecFactory;
+import io.hekate.codec.tagged.TaggedCodecFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(Parameterized.class)
+public class DictionaryCodecTest extends CodecTestBase<DictionaryCodecFactory<Object>> {
+    /** Codec that writes maps of strings via {@link DataWriter#writeUTF(String)}. */
+    private static class MapCodec implements Codec<Object> {
+        @Override
+        public boolean isStateful() {
+            return false;
+        }
+
+        @Override
+        public Class<Object> baseType() {
+            return Object.class;
+        }
+
+        @Override
+        public void encode(Object obj, DataWriter out) throws IOException {
+            @SuppressWarnings("unchecked")
+            Map<String, String> map = (Map<String, String>)obj;
+
+            out.writeVarIntUnsigned(map.size());
+
+            for (Map.Entry<String, String> e : map.entrySet()) {
+                if (e.getKey().equals("fail")) {
+                    throw new IOException("Expected error.");
+                }
+
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue());
+            }
+        }
+
+        @Override
+        public Object decode(DataReader in) throws IOException {
+            int size = in.readVarIntUnsigned();
+
+            Map<String, String> map = new LinkedHashMap<>();
+
+            for (int i = 0; i < size; i++) {
+                map.put(in.readUTF(), in.readUTF());
+            }
+
+            return map;
+        }
+    }
+
+    public DictionaryCodecTest(DictionaryCodecFactory<Object> factory) {
+        super(factory);
+    }
+
+    @Parameters(name = "{index}: factory={0}")
+    public static Collection<Object[]> getParams() {
+        return Arrays.asList(
+            new Object[]{new DictionaryCodecFactory<>(new JdkCodecFactory<>())},
+            new Object[]{new DictionaryCodecFactory<>(new KryoCodecFactory<>())},
+            new Object[]{new DictionaryCodecFactory<>(new TaggedCodecFactory<>())}
+        );
+    }
+
+    @Test
+    public void testStateful() {
+        assertTrue(factory.createCodec().isStateful());
+    }
+
+    @Test
+    public void testConfig() {
+        JdkCodecFactory<Object> delegate = new JdkCodecFactory<>();
+
+        DictionaryCodecFactory<Object> cfg = new DictionaryCodecFactory<>(delegate);
+
+        assertSame(delegate, cfg.delegate());
+
+        assertEquals(DictionaryCodecFactory.DEFAULT_MAX_ENTRIES, cfg.getMaxEntries());
+        assertEquals(DictionaryCodecFactory.DEFAULT_MAX_STRING_LENGTH, cfg.getMaxStringLength());
+
+        cfg.setMaxEntries(10);
+        cfg.setMaxStringLength(20);
+
+        assertEquals(10, cfg.getMaxEntries());
+        assertEquals(20, cfg.getMaxStringLength());
+
+        assertSame(cfg, cfg.withMaxEntries(100));
+        assertSame(cfg, cfg.withMaxStringLength(200));
+
+        assertEquals(100, cfg.getMaxEntries());
+        assertEquals(200, cfg.getMaxStringLength());
+    }
+
+    @Test
+    public void testRepeatedStrings() throws Exception {
+        DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(MapCodec::new);
+
+        Codec<Object> encoder = dict.createCodec();
+        Codec<Object> decoder = dict.createCodec();
+
+        Map<String, String> msg = new LinkedHashMap<>();
+
+        for (int i = 0; i < 10; i++) {
+            msg.put("some-long-key-" + i, "some-long-value-" + i);
+        }
+
+        int firstSize = encodedSize(encoder, decoder, msg);
+        int secondSize = encodedSize(encoder, decoder, msg);
+
+        say("First size: " + firstSize + ", second size: " + secondSize);
+
+        // 1 byte for size + 1 byte per each of 20 references.
+        assertEquals(21, secondSize);
+    }
+
+    @Test
+    public void testBuiltInCodecsWithDictionary() throws Exception {
+        List<CodecFactory<Object>> builtIn = Arrays.asList(
+            new KryoCodecFactory<>(),
+            new KryoCodecFactory<>().withCacheUnknownTypes(true),
+            new TaggedCodecFactory<>()
+        );
+
+        Map<String, Object> msg = new HashMap<>();
+
+        for (int i = 0; i < 10; i++) {
+            msg.put("some-long-key-" + i, "some-long-value-" + i);
+        }
+
+        // Unregistered class.
+        msg.put("obj", new ObjB(new ObjA(1, "some-long-value-1"), singletonList(new ObjA(2, "some-long-value-2"))));
+
+        for (CodecFactory<Object> delegate : builtIn) {
+            DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(delegate);
+
+            Codec<Object> encoder = dict.createCodec();
+            Codec<Object> decoder = dict.createCodec();
+
+            int plainSize = encodedSize(delegate.createCodec(), delegate.createCodec(), msg);
+
+            int firstSize = encodedSize(encoder, decoder, msg);
+
+            assertTrue(((DictionaryCodec<Object>)encoder).outboundSize() > 0);
+
+            // Strings and class names of subsequent messages are written as references.
+            repeat(3, i -> {
+                int size = encodedSize(encoder, decoder, msg);
+
+                say(delegate + ": plain=" + plainSize + ", first=" + firstSize + ", next=" + size);
+
+                assertTrue(delegate.toString(), size < plainSize / 2);
+            });
+        }
+    }
+
+    @Test
+    public void testBuiltInCodecsPassThrough() throws Exception {
+        List<CodecFactory<Object>> builtIn = Arrays.asList(new JdkCodecFactory<>(), new FstCodecFactory<>());
+
+        Map<String, String> msg = new HashMap<>();
+
+        for (int i = 0; i < 10; i++) {
+            msg.put("some-long-key-" + i, "some-long-value-" + i);
+        }
+
+        for (CodecFactory<Object> delegate : builtIn) {
+            DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(delegate);
+
+            Codec<Object> encoder = dict.createCodec();
+            Codec<Object> decoder = dict.createCodec();
+
+            int plainSize = encodedSize(delegate.createCodec(), delegate.createCodec(), msg);
+
+            // Built-in codecs write strings on their own, so the dictionary is neither used nor adds any overhead.
+            repeat(3, i -> {
+                assertEquals(delegate.toString(), plainSize, encodedSize(encoder, decoder, msg));
+
+                assertEquals(0, ((DictionaryCodec<Object>)encoder).outboundSize());
+            });
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(MapCodec::new).withMaxEntries(3);
+
+        Codec<Object> encoder = dict.createCodec();
+        Codec<Object> decoder = dict.createCodec();
+
+        repeat(100, i -> {
+            Map<String, String> msg = new LinkedHashMap<>();
+
+            msg.put("key-" + i % 5, "value-" + i % 7);
+            msg.put("key-" + i % 2, "value-" + i % 3);
+
+            assertEquals(msg, encodeDecode(encoder, decoder, msg));
+
+            assertTrue(((DictionaryCodec<Object>)encoder).outboundSize() <= 3);
+        });
+    }
+
+    @Test
+    public void testMaxStringLength() throws Exception {
+        DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(MapCodec::new).withMaxStringLength(5);
+
+        Codec<Object> encoder = dict.createCodec();
+        Codec<Object> decoder = dict.createCodec();
+
+        Map<String, String> msg = new LinkedHashMap<>();
+
+        msg.put("short", "too-long");
+
+        repeat(3, i -> {
+            assertEquals(msg, encodeDecode(encoder, decoder, msg));
+
+            assertEquals(1, ((DictionaryCodec<Object>)encoder).outboundSize());
+        });
+    }
+
+    @Test
+    public void testRollbackOnEncodeFailure() throws Exception {
+        DictionaryCodecFactory<Object> dict = new DictionaryCodecFactory<>(MapCodec::new).withMaxEntries(2);
+
+        Codec<Object> encoder = dict.createCodec();
+        Codec<Object> decoder = dict.createCodec();
+
+        Map<String, String> msg = new LinkedHashMap<>();
+
+        msg.put("a", "b");
+
+        assertEquals(msg, encodeDecode(encoder, decoder, msg));
+
+        Map<String, String> failed = new LinkedHashMap<>();
+
+        failed.put("c", "d");
+        failed.put("fail", "fail");
+
+        try {
+            encoder.encode(failed, new StreamDataWriter(new ByteArrayOutputStream()));
+
+            fail("Error was expected.");
+        } catch (IOException e) {
+            assertEquals("Expected error.", e.getMessage());
+        }
+
+        // Strings of the failed message must be re-defined.
+        failed.remove("fail");
+
+        assertEquals(failed, encodeDecode(encoder, decoder, failed));
+        assertEquals(msg, encodeDecode(encoder, decoder, msg));
+    }
+
+    @Test
+    public void testConfigMismatch() throws Exception {
+        Codec<Object> encoder = new DictionaryCodecFactory<>(MapCodec::new).withMaxEntries(10).createCodec();
+        Codec<Object> decoder = new DictionaryCodecFactory<>(MapCodec::new).withMaxEntries(1).createCodec();
+
+        Map<String, String> msg = new LinkedHashMap<>();
+
+        msg.put("a", "b");
+
+        expect(CodecException.class, () -> encodeDecode(encoder, decoder, msg));
+    }
+
+    private static int encodedSize(Codec<Object> encoder, Codec<Object> decoder, Object msg) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+        encoder.encode(msg, new StreamDataWriter(bout));
+
+        assertEquals(msg, decoder.decode(new StreamDataReader(new ByteArrayInputStream(bout.toByteArray()))));
+
+        return bout.size();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.internal;
+
+import io.hekate.HekateTestBase;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ByteArrayOutputStreamPoolTest extends HekateTestBase {
+    private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    @Test
+    public void testThreadLocalReuse() throws Exception {
+        ByteArrayOutputStreamPool pool = new ByteArrayOutputStreamPool(MAX_BUFFER_SIZE, 0);
+
+        ByteArrayOutputStream buf = pool.acquire(String.class);
+
+        buf.write(1);
+
+        pool.recycle(buf, String.class);
+
+        assertEquals(0, pool.hits());
+        assertEquals(1, pool.misses());
+
+        repeat(10, i -> {
+            ByteArrayOutputStream reused = pool.acquire(String.class);
+
+            assertEquals(0, reused.size());
+
+            reused.write(i);
+
+            assertArrayEquals(new byte[]{(byte)i}, reused.toByteArray());
+
+            pool.recycle(reused, String.class);
+        });
+
+        assertEquals(10, pool.hits());
+        assertEquals(1, pool.misses());
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testSharedPool() throws Exception {
+        ByteArrayOutputStreamPool pool = new ByteArrayOutputStreamPool(MAX_BUFFER_SIZE, MAX_BUFFER_SIZE);
+
+        // Nested buffers -> only one can be cached by the thread.
+        List<ByteArrayOutputStream> buffers = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            buffers.add(pool.acquire(null));
+        }
+
+        buffers.forEach(buf -> pool.recycle(buf, null));
+
+        assertEquals(3 * ByteArrayOutputStreamPool.MIN_BUFFER_SIZE, pool.retainedBytes());
+
+        // Shared buffers must be available to other threads.
+        runAsync(() -> {
+            for (int i = 0; i < 3; i++) {
+                pool.acquire(null);
+            }
+
+            return null;
+        }).get();
+
+        assertEquals(3, pool.hits());
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testPrediction() {
+        ByteArrayOutputStreamPool pool = new ByteArrayOutputStreamPool(MAX_BUFFER_SIZE, MAX_BUFFER_SIZE);
+
+        ByteArrayOutputStream buf = pool.acquire(Long.class);
+
+        buf.write(new byte[10_000], 0, 10_000);
+
+        pool.recycle(buf, Long.class);
+
+        // Cached buffer is smaller than the predicted size -> must allocate a new one.
+        ByteArrayOutputStream predicted = pool.acquire(Long.class);
+
+        assertEquals(0, pool.hits());
+        assertEquals(2, pool.misses());
+
+        pool.recycle(predicted, Long.class);
+
+        // Cached buffer is large enough for the predicted size.
+        pool.recycle(pool.acquire(Long.class), Long.class);
+
+        assertEquals(1, pool.hits());
+
+        // Shrink slowly.
+        for (int i = 0; i < 100; i++) {
+            pool.recycle(pool.acquire(Long.class), Long.class);
+        }
+
+        assertEquals(2, pool.misses());
+
+        // Other types are not affected.
+        assertEquals(0, pool.acquire(Integer.class).size());
+    }
+
+    @Test
+    public void testMaxBufferSize() {
+        ByteArrayOutputStreamPool pool = new ByteArrayOutputStreamPool(1024, MAX_BUFFER_SIZE);
+
+        ByteArrayOutputStream buf = pool.acquire(null);
+
+        buf.write(new byte[4096], 0, 4096);
+
+        pool.recycle(buf, null);
+
+        assertEquals(1, pool.drops());
+        assertEquals(0, pool.retainedBytes());
+    }
+
+    @Test
+    public void testMaxRetainedBytes() {
+        ByteArrayOutputStreamPool pool = new ByteArrayOutputStreamPool(MAX_BUFFER_SIZE, ByteArrayOutputStreamPool.MIN_BUFFER_SIZE * 2);
+
+        List<ByteArrayOutputStream> buffers = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            buffers.add(pool.acquire(null));
+        }
+
+        buffers.forEach(buf -> pool.recycle(buf, null));
+
+        // 1 cached by the thread + 2 in the shared pool.
+        assertEquals(ByteArrayOutputStreamPool.MIN_BUFFER_SIZE * 2, pool.retainedBytes());
+        assertEquals(7, pool.drops());
+    }
+}
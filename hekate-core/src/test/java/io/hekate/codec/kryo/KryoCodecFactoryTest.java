@@ -23,6 +23,12 @@ import com.esotericsoftware.kryo.io.Output;
 import io.hekate.HekateTestBase;
 import io.hekate.codec.CodecTestBase.ObjA;
 import io.hekate.codec.CodecTestBase.ObjB;
+import io.hekate.codec.kryo.scan.KryoScanTypes;
+import io.hekate.codec.kryo.scan.KryoScanTypes.Annotated;
+import io.hekate.codec.kryo.scan.KryoScanTypes.AnnotatedEnum;
+import io.hekate.codec.kryo.scan.KryoScanTypes.Plain;
+import io.hekate.codec.kryo.scan.KryoScanTypes.Register;
+import java.util.Arrays;
 import org.junit.Test;
 import org.objenesis.strategy.InstantiatorStrategy;
 import org.objenesis.strategy.StdInstantiatorStrategy;
@@ -31,6 +37,7 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -206,4 +213,83 @@ public class KryoCodecFactoryTest extends HekateTestBase {
 
         assertNotNull(factory.createCodec());
     }
+
+    @Test
+    public void testScanPackages() throws Exception {
+        assertNull(factory.getScanPackages());
+        assertTrue(factory.scannedTypes().isEmpty());
+
+        factory.setScanPackages(singletonList("io.hekate.codec.kryo.scan"));
+
+        assertEquals(singletonList("io.hekate.codec.kryo.scan"), factory.getScanPackages());
+
+        assertEquals(
+            Arrays.asList(KryoScanTypes.class, Annotated.class, AnnotatedEnum.class, Plain.class),
+            factory.scannedTypes()
+        );
+
+        factory.setScanPackages(null);
+
+        assertNull(factory.getScanPackages());
+        assertTrue(factory.scannedTypes().isEmpty());
+
+        assertSame(factory, factory.withScanPackage("io.hekate.codec.kryo.scan"));
+
+        assertEquals(singletonList("io.hekate.codec.kryo.scan"), factory.getScanPackages());
+        assertEquals(4, factory.scannedTypes().size());
+
+        assertNotNull(factory.createCodec());
+    }
+
+    @Test
+    public void testScanAnnotation() throws Exception {
+        assertNull(factory.getScanAnnotation());
+
+        factory.setScanAnnotation(Register.class);
+
+        assertSame(Register.class, factory.getScanAnnotation());
+
+        factory.setScanAnnotation(null);
+
+        assertNull(factory.getScanAnnotation());
+
+        assertSame(factory, factory.withScanAnnotation(Register.class));
+
+        assertSame(Register.class, factory.getScanAnnotation());
+
+        factory.withScanPackage("io.hekate.codec.kryo.scan");
+
+        assertEquals(Arrays.asList(Annotated.class, AnnotatedEnum.class), factory.scannedTypes());
+
+        assertNotNull(factory.createCodec());
+    }
+
+    @Test
+    public void testFingerprint() throws Exception {
+        assertNull(factory.fingerprint());
+
+        factory.withKnownType(ObjA.class);
+
+        String fingerprint = factory.fingerprint();
+
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, new KryoCodecFactory<>().withKnownType(ObjA.class).fingerprint());
+
+        assertNotEquals(fingerprint, new KryoCodecFactory<>().withKnownType(ObjB.class).fingerprint());
+        assertNotEquals(fingerprint, new KryoCodecFactory<>().withKnownType(ObjA.class).withKnownType(ObjB.class).fingerprint());
+        assertNotEquals(fingerprint, new KryoCodecFactory<>().withKnownType(ObjA.class).withUnsafeIo(false).fingerprint());
+    }
+
+    @Test
+    public void testFingerprintOfScannedTypes() throws Exception {
+        factory.withScanPackage("io.hekate.codec.kryo.scan");
+
+        KryoCodecFactory<Object> explicit = new KryoCodecFactory<>()
+            .withKnownType(Plain.class)
+            .withKnownType(AnnotatedEnum.class)
+            .withKnownType(KryoScanTypes.class)
+            .withKnownType(Annotated.class);
+
+        assertEquals(explicit.fingerprint(), factory.fingerprint());
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.kryo;
+
+import io.hekate.HekateNodeTestBase;
+import io.hekate.cluster.ClusterRejectedJoinException;
+import io.hekate.codec.CodecTestBase.ObjA;
+import io.hekate.codec.CodecTestBase.ObjB;
+import io.hekate.core.HekateException;
+import io.hekate.core.internal.HekateTestNode;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KryoCodecJoinRejectTest extends HekateNodeTestBase {
+    @Test
+    public void testSameRegistrations() throws Exception {
+        HekateTestNode existing = createNode(boot ->
+            boot.withDefaultCodec(new KryoCodecFactory<>().withKnownType(ObjA.class).withScanPackage("io.hekate.codec.kryo.scan"))
+        ).join();
+
+        HekateTestNode joining = createNode(boot ->
+            boot.withDefaultCodec(new KryoCodecFactory<>().withScanPackage("io.hekate.codec.kryo.scan").withKnownType(ObjA.class))
+        ).join();
+
+        awaitForTopology(existing, joining);
+    }
+
+    @Test
+    public void testRegistrationsMismatch() throws Exception {
+        KryoCodecFactory<Object> existingCodec = new KryoCodecFactory<>().withKnownType(ObjA.class);
+        KryoCodecFactory<Object> joiningCodec = new KryoCodecFactory<>().withKnownType(ObjA.class).withKnownType(ObjB.class);
+
+        HekateTestNode existing = createNode(boot ->
+            boot.withDefaultCodec(existingCodec)
+        ).join();
+
+        try {
+            createNode(boot ->
+                boot.withDefaultCodec(joiningCodec)
+            ).join();
+
+            fail("Error not thrown.");
+        } catch (HekateException e) {
+            assertTrue(getStacktrace(e), e.isCausedBy(ClusterRejectedJoinException.class));
+            assertEquals(
+                "Invalid default codec - fingerprint mismatch between the joining node and the cluster "
+                    + "[joining-fingerprint=" + joiningCodec.fingerprint()
+                    + ", cluster-fingerprint=" + existingCodec.fingerprint()
+                    + ", rejected-by=" + existing.localNode().address()
+                    + "]",
+                e.findCause(ClusterRejectedJoinException.class).rejectReason()
+            );
+        }
+    }
+
+    @Test
+    public void testUnverifiedJoinsVerified() throws Exception {
+        createNode(boot ->
+            boot.withDefaultCodec(new KryoCodecFactory<>().withKnownType(ObjA.class))
+        ).join();
+
+        try {
+            createNode(boot ->
+                boot.withDefaultCodec(new KryoCodecFactory<>())
+            ).join();
+
+            fail("Error not thrown.");
+        } catch (HekateException e) {
+            assertTrue(getStacktrace(e), e.isCausedBy(ClusterRejectedJoinException.class));
+        }
+    }
+}
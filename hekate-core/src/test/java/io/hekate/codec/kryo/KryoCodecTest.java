@@ -16,7 +16,10 @@
 
 package io.hekate.codec.kryo;
 
+import io.hekate.codec.Codec;
 import io.hekate.codec.CodecTestBase;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -54,4 +57,29 @@ public class KryoCodecTest extends CodecTestBase<KryoCodecFactory<Object>> {
     public void testStateless() {
         assertEquals(factory.isCacheUnknownTypes(), factory.createCodec().isStateful());
     }
+
+    @Test
+    public void testByteBufPartialRead() throws Exception {
+        Codec<Object> codec = factory.createCodec();
+
+        ByteBuf buf = Unpooled.directBuffer();
+
+        try {
+            ByteBufWriter out = new ByteBufWriter(buf);
+
+            codec.encode(new ObjA(1, "one"), out);
+            codec.encode(new ObjA(2, "two"), out);
+
+            buf.writeInt(100500);
+
+            ByteBufReader in = new ByteBufReader(buf);
+
+            // Must consume only the bytes of the decoded object.
+            assertEquals(new ObjA(1, "one"), codec.decode(in));
+            assertEquals(new ObjA(2, "two"), codec.decode(in));
+            assertEquals(100500, buf.readInt());
+        } finally {
+            buf.release();
+        }
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.kryo.scan;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+public class KryoScanTypes {
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Register {
+        // No-op.
+    }
+
+    public interface SomeInterface {
+        // No-op.
+    }
+
+    public abstract static class SomeAbstract implements SomeInterface {
+        // No-op.
+    }
+
+    @Register
+    public static class Annotated extends SomeAbstract {
+        // No-op.
+    }
+
+    public static class Plain {
+        // No-op.
+    }
+
+    @Register
+    public enum AnnotatedEnum {
+        A {
+            @Override
+            public String toString() {
+                return "a";
+            }
+        },
+
+        B
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.HekateNodeTestBase;
+import io.hekate.codec.JdkCodecFactory;
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.core.jmx.JmxService;
+import io.hekate.core.jmx.JmxServiceFactory;
+import io.hekate.messaging.MessagingChannel;
+import io.hekate.messaging.MessagingChannelConfig;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Test;
+
+import static io.hekate.core.jmx.JmxTestUtils.jmxAttribute;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CodecStatsJmxTest extends HekateNodeTestBase {
+    @Test
+    public void test() throws Exception {
+        StatsCodecFactory<Object> defaultCodec = new StatsCodecFactory<>(new JdkCodecFactory<>());
+        StatsCodecFactory<Object> channelCodec = new StatsCodecFactory<>(new JdkCodecFactory<>()).withSamplingInterval(1);
+
+        HekateTestNode node = createNode(boot -> {
+            boot.withDefaultCodec(defaultCodec);
+            boot.withService(JmxServiceFactory.class);
+            boot.withMessaging(messaging ->
+                messaging.withChannel(MessagingChannelConfig.of(Object.class)
+                    .withName("test.channel")
+                    .withMessageCodec(channelCodec)
+                    .withReceiver(msg -> msg.reply("response"))
+                )
+            );
+        }).join();
+
+        assertEquals(StatsCodecFactory.DEFAULT_NAME, defaultCodec.name());
+        assertEquals("test.channel", channelCodec.name());
+
+        MessagingChannel<Object> channel = node.messaging().channel("test.channel");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("response", get(channel.newRequest("request").submit()).payload());
+        }
+
+        JmxService jmx = node.get(JmxService.class);
+
+        // Default codec.
+        ObjectName defaultName = jmx.nameFor(CodecStatsJmx.class, StatsCodecFactory.DEFAULT_NAME);
+
+        assertEquals(StatsCodecFactory.DEFAULT_NAME, jmxAttribute(defaultName, "Name", String.class, node));
+
+        // Channel codec.
+        ObjectName name = jmx.nameFor(CodecStatsJmx.class, "test.channel");
+
+        assertEquals("test.channel", jmxAttribute(name, "Name", String.class, node));
+        assertEquals(channelCodec.delegate().toString(), jmxAttribute(name, "CodecFactory", String.class, node));
+        assertEquals(1, (int)jmxAttribute(name, "SamplingInterval", Integer.class, node));
+        assertTrue(jmxAttribute(name, "TrackedTypes", Integer.class, node) > 0);
+
+        for (String attr : new String[]{"TopByBytes", "TopByCount", "TopByTime"}) {
+            CompositeData[] top = jmxAttribute(name, attr, CompositeData[].class, node);
+
+            assertTrue(top.length > 0);
+            assertTrue((Long)top[0].get("encodeCount") > 0);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.stats;
+
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecTestBase;
+import io.hekate.codec.JdkCodecFactory;
+import io.hekate.codec.kryo.KryoCodecFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class StatsCodecTest extends CodecTestBase<StatsCodecFactory<Object>> {
+    public StatsCodecTest(StatsCodecFactory<Object> factory) {
+        super(factory);
+    }
+
+    @Parameters(name = "{index}: factory={0}")
+    public static Collection<Object[]> getParams() {
+        return Arrays.asList(
+            new Object[]{new StatsCodecFactory<>(new JdkCodecFactory<>())},
+            new Object[]{new StatsCodecFactory<>(new KryoCodecFactory<>()).withSamplingInterval(1)}
+        );
+    }
+
+    @Test
+    public void testConfig() {
+        JdkCodecFactory<Object> delegate = new JdkCodecFactory<>();
+
+        StatsCodecFactory<Object> cfg = new StatsCodecFactory<>(delegate);
+
+        assertSame(delegate, cfg.delegate());
+        assertNull(cfg.name());
+
+        assertEquals(StatsCodecFactory.DEFAULT_SAMPLING_INTERVAL, cfg.getSamplingInterval());
+        assertEquals(StatsCodecFactory.DEFAULT_MAX_TYPES, cfg.getMaxTypes());
+        assertEquals(StatsCodecFactory.DEFAULT_TOP_SIZE, cfg.getTopSize());
+
+        assertSame(cfg, cfg.withSamplingInterval(1));
+        assertSame(cfg, cfg.withMaxTypes(2));
+        assertSame(cfg, cfg.withTopSize(3));
+
+        assertEquals(1, cfg.getSamplingInterval());
+        assertEquals(2, cfg.getMaxTypes());
+        assertEquals(3, cfg.getTopSize());
+    }
+
+    @Test
+    public void testStateful() {
+        assertEquals(factory.delegate().createCodec().isStateful(), factory.createCodec().isStateful());
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertNull(new StatsCodecFactory<>(new JdkCodecFactory<>()).fingerprint());
+
+        KryoCodecFactory<Object> kryo = new KryoCodecFactory<>().withKnownType(ObjA.class);
+
+        assertNotNull(kryo.fingerprint());
+        assertEquals(kryo.fingerprint(), new StatsCodecFactory<>(kryo).fingerprint());
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        StatsCodecFactory<Object> stats = new StatsCodecFactory<>(factory.delegate()).withSamplingInterval(1);
+
+        Codec<Object> encoder = stats.createCodec();
+        Codec<Object> decoder = stats.createCodec();
+
+        repeat(3, i -> encodeDecode(encoder, decoder, new ObjA(i, "test" + i)));
+
+        encodeDecode(encoder, decoder, "test");
+
+        List<CodecTypeStats> all = stats.stats();
+
+        assertEquals(2, all.size());
+
+        CodecTypeStats objA = all.stream().filter(s -> s.getType().equals(ObjA.class.getName())).findFirst().get();
+
+        assertEquals(3, objA.getEncodeCount());
+        assertEquals(3, objA.getDecodeCount());
+        assertTrue(objA.getEncodedBytes() > 0);
+        assertTrue(objA.getMaxSize() > 0);
+        assertTrue(objA.getMaxSize() <= objA.getEncodedBytes());
+        assertEquals(objA.getEncodedBytes() / 3, objA.getAvgSize());
+        assertTrue(objA.getTotalTimeNanos() > 0);
+
+        // Must be sorted by bytes.
+        assertEquals(ObjA.class.getName(), all.get(0).getType());
+    }
+
+    @Test
+    public void testMaxTypes() throws Exception {
+        StatsCodecFactory<Object> stats = new StatsCodecFactory<>(factory.delegate()).withMaxTypes(1);
+
+        Codec<Object> encoder = stats.createCodec();
+        Codec<Object> decoder = stats.createCodec();
+
+        encodeDecode(encoder, decoder, "test");
+        encodeDecode(encoder, decoder, 1);
+        encodeDecode(encoder, decoder, 2L);
+
+        List<CodecTypeStats> all = stats.stats();
+
+        assertEquals(2, all.size());
+        assertTrue(all.stream().anyMatch(s -> s.getType().equals(String.class.getName()) && s.getEncodeCount() == 1));
+        assertTrue(all.stream().anyMatch(s -> s.getType().equals(StatsCodecFactory.OTHER_TYPE) && s.getEncodeCount() == 2));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        StatsCodecFactory<Object> stats = new StatsCodecFactory<>(factory.delegate()).withSamplingInterval(1);
+
+        Codec<Object> encoder = stats.createCodec();
+        Codec<Object> decoder = stats.createCodec();
+
+        // Before binding.
+        encodeDecode(encoder, decoder, "test");
+
+        SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+
+        assertTrue(stats.bindTo("test", metrics));
+        assertFalse(stats.bindTo("other", new SimpleMeterRegistry()));
+
+        assertEquals("test", stats.name());
+
+        // After binding.
+        encodeDecode(encoder, decoder, "test");
+        encodeDecode(encoder, decoder, new ObjA(1, "test"));
+
+        String str = String.class.getName();
+
+        assertEquals(2, metrics.get("hekate.codec.encode.count").tags("codec", "test", "type", str).functionCounter().count(), 0);
+        assertEquals(2, metrics.get("hekate.codec.decode.count").tags("codec", "test", "type", str).functionCounter().count(), 0);
+        assertEquals(1, metrics.get("hekate.codec.encode.time").tags("codec", "test", "type", str).timer().count());
+        assertEquals(1, metrics.get("hekate.codec.decode.time").tags("codec", "test", "type", str).timer().count());
+        assertEquals(1, metrics.get("hekate.codec.size").tags("codec", "test", "type", str).summary().count());
+
+        String objA = ObjA.class.getName();
+
+        assertEquals(1, metrics.get("hekate.codec.encode.count").tags("codec", "test", "type", objA).functionCounter().count(), 0);
+        assertTrue(metrics.get("hekate.codec.encode.bytes").tags("codec", "test", "type", objA).functionCounter().count() > 0);
+    }
+}
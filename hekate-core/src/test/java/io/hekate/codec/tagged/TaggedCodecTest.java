@@ -0,0 +1,538 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.codec.tagged;
+
+import io.hekate.cluster.ClusterNodeId;
+import io.hekate.codec.Codec;
+import io.hekate.codec.CodecException;
+import io.hekate.codec.CodecTestBase;
+import io.hekate.codec.StreamDataReader;
+import io.hekate.codec.StreamDataWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class TaggedCodecTest extends CodecTestBase<TaggedCodecFactory<Object>> {
+    public static class AllTypes {
+        private boolean boolVal;
+
+        private byte byteVal;
+
+        private short shortVal;
+
+        private char charVal;
+
+        private int intVal;
+
+        private long longVal;
+
+        private float floatVal;
+
+        private double doubleVal;
+
+        private Integer boxedVal;
+
+        private String strVal;
+
+        private byte[] bytesVal;
+
+        private int[] intsVal;
+
+        private String[] stringsVal;
+
+        private TimeUnit enumVal;
+
+        private BigInteger bigIntVal;
+
+        private BigDecimal bigDecVal;
+
+        private List<Object> listVal;
+
+        private Set<String> setVal;
+
+        private Map<String, Object> mapVal;
+
+        private SortedSet<String> sortedSetVal;
+
+        private SortedMap<String, Integer> sortedMapVal;
+
+        private ObjA objVal;
+
+        private Object anyVal;
+
+        private transient String transientVal;
+    }
+
+    public static class EvolutionV1 {
+        @Tag(1)
+        private int count;
+
+        @Tag(2)
+        private String name;
+    }
+
+    public static class EvolutionV2 {
+        @Tag(1)
+        private long total;
+
+        @Tag(3)
+        private String added = "default";
+
+        @Tag(4)
+        private Object extra;
+    }
+
+    public static class Parent {
+        @Tag(1)
+        protected int parentVal;
+    }
+
+    public static class Child extends Parent {
+        @Tag(2)
+        private int childVal;
+    }
+
+    public static class HidingParent {
+        protected int val;
+    }
+
+    public static class HidingChild extends HidingParent {
+        private String val;
+    }
+
+    public static class JdkTypes {
+        private UUID uuid;
+
+        private ClusterNodeId nodeId;
+
+        private Date date;
+
+        private Instant instant;
+
+        private Duration duration;
+
+        private LocalDate localDate;
+
+        private LocalTime localTime;
+
+        private LocalDateTime localDateTime;
+
+        private OffsetDateTime offsetDateTime;
+
+        private ZonedDateTime zonedDateTime;
+
+        private Optional<String> optional;
+
+        private Optional<String> emptyOptional;
+
+        private boolean[] bools;
+
+        private short[] shorts;
+
+        private char[] chars;
+
+        private long[] longs;
+
+        private float[] floats;
+
+        private double[] doubles;
+    }
+
+    public static class DuplicateTags {
+        @Tag(1)
+        private int val1;
+
+        @Tag(1)
+        private int val2;
+    }
+
+    public static class NoDefaultConstructor {
+        private final int val;
+
+        public NoDefaultConstructor(int val) {
+            this.val = val;
+        }
+    }
+
+    public static class SerializableNoDefaultConstructor implements Serializable {
+        private static final long serialVersionUID = 1;
+
+        private final int val;
+
+        public SerializableNoDefaultConstructor(int val) {
+            this.val = val;
+        }
+    }
+
+    public TaggedCodecTest(TaggedCodecFactory<Object> factory) {
+        super(factory);
+    }
+
+    @Parameters(name = "{index}: factory={0}")
+    public static Collection<Object[]> getParams() {
+        return singletonList(new Object[]{new TaggedCodecFactory<>()});
+    }
+
+    @Test
+    public void testStateless() {
+        assertFalse(factory.createCodec().isStateful());
+    }
+
+    @Test
+    public void testAllTypes() throws Exception {
+        AllTypes before = new AllTypes();
+
+        before.boolVal = true;
+        before.byteVal = -1;
+        before.shortVal = Short.MIN_VALUE;
+        before.charVal = 'x';
+        before.intVal = Integer.MAX_VALUE;
+        before.longVal = Long.MIN_VALUE;
+        before.floatVal = 1.5f;
+        before.doubleVal = -2.5;
+        before.boxedVal = 100500;
+        before.strVal = "test-" + (char)0 + "-€";
+        before.bytesVal = new byte[]{1, 2, 3};
+        before.intsVal = new int[]{-1, 0, 1};
+        before.stringsVal = new String[]{"a", null, "c"};
+        before.enumVal = TimeUnit.SECONDS;
+        before.bigIntVal = BigInteger.TEN.pow(30);
+        before.bigDecVal = new BigDecimal("123.456");
+        before.listVal = asList(1, 2L, "three", null, TimeUnit.DAYS);
+        before.setVal = new HashSet<>(asList("a", "b"));
+        before.mapVal = singletonMap("key", new ObjA(1, "value"));
+        before.sortedSetVal = new TreeSet<>(asList("x", "y"));
+        before.sortedMapVal = new TreeMap<>(singletonMap("z", 1));
+        before.objVal = new ObjA(2, "obj");
+        before.anyVal = new ObjB(new ObjA(3, "nested"), singletonList(new ObjA(4, "list")));
+        before.transientVal = "transient";
+
+        Codec<Object> codec = factory.createCodec();
+
+        AllTypes after = encodeDecode(codec, codec, before);
+
+        assertEquals(before.boolVal, after.boolVal);
+        assertEquals(before.byteVal, after.byteVal);
+        assertEquals(before.shortVal, after.shortVal);
+        assertEquals(before.charVal, after.charVal);
+        assertEquals(before.intVal, after.intVal);
+        assertEquals(before.longVal, after.longVal);
+        assertEquals(before.floatVal, after.floatVal, 0);
+        assertEquals(before.doubleVal, after.doubleVal, 0);
+        assertEquals(before.boxedVal, after.boxedVal);
+        assertEquals(before.strVal, after.strVal);
+        assertArrayEquals(before.bytesVal, after.bytesVal);
+        assertArrayEquals(before.intsVal, after.intsVal);
+        assertArrayEquals(before.stringsVal, after.stringsVal);
+        assertEquals(before.enumVal, after.enumVal);
+        assertEquals(before.bigIntVal, after.bigIntVal);
+        assertEquals(before.bigDecVal, after.bigDecVal);
+        assertEquals(before.listVal, after.listVal);
+        assertEquals(before.setVal, after.setVal);
+        assertEquals(before.mapVal, after.mapVal);
+        assertEquals(before.sortedSetVal, after.sortedSetVal);
+        assertEquals(TreeSet.class, after.sortedSetVal.getClass());
+        assertEquals(before.sortedMapVal, after.sortedMapVal);
+        assertEquals(TreeMap.class, after.sortedMapVal.getClass());
+        assertEquals(before.objVal, after.objVal);
+        assertEquals(before.anyVal, after.anyVal);
+        assertNull(after.transientVal);
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        Codec<Object> codec = factory.createCodec();
+
+        assertNull(encodeDecode(codec, codec, null));
+
+        AllTypes after = encodeDecode(codec, codec, new AllTypes());
+
+        assertNull(after.strVal);
+        assertNull(after.boxedVal);
+        assertNull(after.listVal);
+        assertNull(after.anyVal);
+    }
+
+    @Test
+    public void testInheritance() throws Exception {
+        Child before = new Child();
+
+        before.parentVal = 1;
+        before.childVal = 2;
+
+        Codec<Object> codec = factory.createCodec();
+
+        Child after = encodeDecode(codec, codec, before);
+
+        assertEquals(1, after.parentVal);
+        assertEquals(2, after.childVal);
+    }
+
+    @Test
+    public void testHiddenField() throws Exception {
+        HidingChild before = new HidingChild();
+
+        before.val = "child";
+        ((HidingParent)before).val = 100500;
+
+        Codec<Object> codec = factory.createCodec();
+
+        HidingChild after = encodeDecode(codec, codec, before);
+
+        assertEquals("child", after.val);
+        assertEquals(100500, ((HidingParent)after).val);
+    }
+
+    @Test
+    public void testJdkTypes() throws Exception {
+        JdkTypes before = new JdkTypes();
+
+        before.uuid = UUID.randomUUID();
+        before.nodeId = new ClusterNodeId();
+        before.date = new Date();
+        before.instant = Instant.now();
+        before.duration = Duration.ofSeconds(-100, 500);
+        before.localDate = LocalDate.of(1900, 1, 1);
+        before.localTime = LocalTime.now();
+        before.localDateTime = LocalDateTime.now();
+        before.offsetDateTime = OffsetDateTime.now(ZoneOffset.ofHours(-5));
+        before.zonedDateTime = ZonedDateTime.now(ZoneId.of("Europe/Paris"));
+        before.optional = Optional.of("test");
+        before.emptyOptional = Optional.empty();
+        before.bools = new boolean[]{true, false};
+        before.shorts = new short[]{Short.MIN_VALUE, 0, Short.MAX_VALUE};
+        before.chars = new char[]{'a', 'b'};
+        before.longs = new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE};
+        before.floats = new float[]{-1.5f, 1.5f};
+        before.doubles = new double[]{-2.5, 2.5};
+
+        Codec<Object> codec = factory.createCodec();
+
+        JdkTypes after = encodeDecode(codec, codec, before);
+
+        assertEquals(before.uuid, after.uuid);
+        assertEquals(before.nodeId, after.nodeId);
+        assertEquals(before.date, after.date);
+        assertEquals(before.instant, after.instant);
+        assertEquals(before.duration, after.duration);
+        assertEquals(before.localDate, after.localDate);
+        assertEquals(before.localTime, after.localTime);
+        assertEquals(before.localDateTime, after.localDateTime);
+        assertEquals(before.offsetDateTime, after.offsetDateTime);
+        assertEquals(before.zonedDateTime, after.zonedDateTime);
+        assertEquals(before.optional, after.optional);
+        assertEquals(before.emptyOptional, after.emptyOptional);
+        assertArrayEquals(before.bools, after.bools);
+        assertArrayEquals(before.shorts, after.shorts);
+        assertArrayEquals(before.chars, after.chars);
+        assertArrayEquals(before.longs, after.longs);
+        assertArrayEquals(before.floats, after.floats, 0);
+        assertArrayEquals(before.doubles, after.doubles, 0);
+
+        // Unknown fields of such types can be skipped.
+        EvolutionV2 v2 = new EvolutionV2();
+
+        v2.total = 1;
+        v2.extra = asList(before, before.uuid, before.zonedDateTime, before.optional, before.longs);
+
+        EvolutionV1 v1 = (EvolutionV1)decodeAs(EvolutionV1.class, encode(EvolutionV2.class, v2));
+
+        assertEquals(1, v1.count);
+    }
+
+    @Test
+    public void testJdkTypesCompactness() throws Exception {
+        // Type + 2 longs (no Java serialization).
+        assertEquals(1 + 16, encode(UUID.class, UUID.randomUUID()).length);
+        assertEquals(1 + 16, encode(ClusterNodeId.class, new ClusterNodeId()).length);
+
+        // Type + class reference + class name + length + values (no per-element value types).
+        assertEquals(1 + 1 + 2 + 3 + 1 + 3, encode(int[].class, new int[]{1, 2, 3}).length);
+    }
+
+    @Test
+    public void testAddedFieldGetsDefault() throws Exception {
+        EvolutionV1 v1 = new EvolutionV1();
+
+        v1.count = 10;
+        v1.name = "v1";
+
+        EvolutionV2 v2 = (EvolutionV2)decodeAs(EvolutionV2.class, encode(EvolutionV1.class, v1));
+
+        // Same tag with wider type (and different name).
+        assertEquals(10, v2.total);
+
+        // Missing field.
+        assertEquals("default", v2.added);
+    }
+
+    @Test
+    public void testUnknownFieldSkipped() throws Exception {
+        Map<String, Object> complex = new HashMap<>();
+
+        complex.put("list", asList(new ObjA(1, "a"), new int[]{1, 2}, TimeUnit.HOURS));
+        complex.put("bytes", new byte[]{1, 2, 3});
+        complex.put("decimal", BigDecimal.ONE);
+
+        EvolutionV2 v2 = new EvolutionV2();
+
+        v2.total = Long.MAX_VALUE;
+        v2.extra = complex;
+
+        EvolutionV1 v1 = (EvolutionV1)decodeAs(EvolutionV1.class, encode(EvolutionV2.class, v2));
+
+        assertEquals(-1, v1.count);
+        assertNull(v1.name);
+
+        // Make sure that the stream is positioned properly after skipping.
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+        factory.createCodec().encode(asList(v2, complex, "tail"), new StreamDataWriter(bout));
+
+        byte[] bytes = replace(bout.toByteArray(), EvolutionV2.class.getName(), EvolutionV1.class.getName());
+
+        List<?> decoded = (List<?>)factory.createCodec().decode(new StreamDataReader(new ByteArrayInputStream(bytes)));
+
+        assertEquals(EvolutionV1.class, decoded.get(0).getClass());
+        assertEquals("tail", decoded.get(2));
+    }
+
+    @Test
+    public void testDuplicateTags() throws Exception {
+        Codec<Object> codec = factory.createCodec();
+
+        expectExactMessage(CodecException.class, "Duplicated field tag (use @Tag to assign unique tags) "
+            + "[type=" + DuplicateTags.class.getName() + ", tag=1, field1=val1, field2=val2]", () ->
+            encodeDecode(codec, codec, new DuplicateTags())
+        );
+    }
+
+    @Test
+    public void testUnsupportedType() throws Exception {
+        Codec<Object> codec = factory.createCodec();
+
+        expect(CodecException.class, () -> encodeDecode(codec, codec, new NoDefaultConstructor(1)));
+    }
+
+    @Test
+    public void testSerializableFallback() throws Exception {
+        Codec<Object> codec = factory.createCodec();
+
+        SerializableNoDefaultConstructor after = encodeDecode(codec, codec, new SerializableNoDefaultConstructor(100500));
+
+        assertEquals(100500, after.val);
+
+        assertEquals(singletonList(TimeUnit.SECONDS), encodeDecode(codec, codec, new ArrayList<>(singletonList(TimeUnit.SECONDS))));
+    }
+
+    @Test
+    public void testCompactness() throws Exception {
+        EvolutionV1 v1 = new EvolutionV1();
+
+        v1.count = 1;
+        v1.name = "a";
+
+        // Type + class reference + class name + 2 * (tag + type + value) + end.
+        int expected = 1 + 1 + 2 + EvolutionV1.class.getName().length() + (1 + 1 + 1) + (1 + 1 + 2) + 1;
+
+        assertEquals(expected, encode(EvolutionV1.class, v1).length);
+
+        // Class names are written only once per message.
+        int expectedList = 1 + 1 + expected + (expected - 2 - EvolutionV1.class.getName().length());
+
+        assertEquals(expectedList, encode(List.class, asList(v1, v1)).length);
+    }
+
+    private byte[] encode(Class<?> type, Object obj) throws IOException {
+        assertTrue(type.isInstance(obj));
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+
+        factory.createCodec().encode(obj, new StreamDataWriter(bout));
+
+        return bout.toByteArray();
+    }
+
+    private Object decodeAs(Class<?> type, byte[] bytes) throws IOException {
+        // Class names of both versions have the same length, so we can simply replace one with another.
+        String from = type == EvolutionV1.class ? EvolutionV2.class.getName() : EvolutionV1.class.getName();
+
+        byte[] replaced = replace(bytes, from, type.getName());
+
+        return factory.createCodec().decode(new StreamDataReader(new ByteArrayInputStream(replaced)));
+    }
+
+    private static byte[] replace(byte[] bytes, String from, String to) {
+        byte[] fromBytes = from.getBytes(UTF_8);
+        byte[] toBytes = to.getBytes(UTF_8);
+
+        assertEquals(fromBytes.length, toBytes.length);
+
+        byte[] result = bytes.clone();
+
+        for (int i = 0; i <= result.length - fromBytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(result, i, i + fromBytes.length), fromBytes)) {
+                System.arraycopy(toBytes, 0, result, i, toBytes.length);
+            }
+        }
+
+        return result;
+    }
+}
@@ -260,6 +260,36 @@ public class MessagingChannelConfigTest extends HekateTestBase {
         assertEquals(10, cfg.getWarnOnRetry());
     }
 
+    @Test
+    public void testWarmUpConnections() {
+        assertFalse(cfg.isWarmUpConnections());
+
+        cfg.setWarmUpConnections(true);
+
+        assertTrue(cfg.isWarmUpConnections());
+
+        cfg.setWarmUpConnections(false);
+
+        assertFalse(cfg.isWarmUpConnections());
+
+        assertSame(cfg, cfg.withWarmUpConnections(true));
+
+        assertTrue(cfg.isWarmUpConnections());
+    }
+
+    @Test
+    public void testWarmUpParallelism() {
+        assertEquals(MessagingChannelConfig.DEFAULT_WARM_UP_PARALLELISM, cfg.getWarmUpParallelism());
+
+        cfg.setWarmUpParallelism(10001);
+
+        assertEquals(10001, cfg.getWarmUpParallelism());
+
+        assertSame(cfg, cfg.withWarmUpParallelism(10002));
+
+        assertEquals(10002, cfg.getWarmUpParallelism());
+    }
+
     @Test
     public void testToString() {
         assertTrue(cfg.toString(), cfg.toString().startsWith(MessagingChannelConfig.class.getSimpleName()));
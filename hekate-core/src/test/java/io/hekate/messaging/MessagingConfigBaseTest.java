@@ -21,6 +21,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 public class MessagingConfigBaseTest extends HekateTestBase {
@@ -43,6 +44,19 @@ public class MessagingConfigBaseTest extends HekateTestBase {
         assertEquals(10002, cfg.getNioThreads());
     }
 
+    @Test
+    public void testEventLoopGroup() {
+        assertNull(cfg.getEventLoopGroup());
+
+        cfg.setEventLoopGroup("test");
+
+        assertEquals("test", cfg.getEventLoopGroup());
+
+        assertSame(cfg, cfg.withEventLoopGroup("test2"));
+
+        assertEquals("test2", cfg.getEventLoopGroup());
+    }
+
     @Test
     public void testIdleSocketTimeout() {
         assertEquals(0, cfg.getIdleSocketTimeout());
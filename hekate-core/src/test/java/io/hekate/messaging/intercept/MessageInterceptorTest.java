@@ -24,6 +24,7 @@ import io.hekate.messaging.internal.MessagingServiceTestBase;
 import io.hekate.messaging.internal.TestChannel;
 import io.hekate.messaging.operation.AckMode;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
@@ -97,6 +98,12 @@ public class MessageInterceptorTest extends MessagingServiceTestBase {
                     assertNotNull(ctx.from());
                     assertNotNull(ctx.channelName());
 
+                    // Verify receive time.
+                    long sinceReceived = System.nanoTime() - ctx.receivedAtNanos();
+
+                    assertTrue(sinceReceived >= 0);
+                    assertTrue(sinceReceived < TimeUnit.SECONDS.toNanos(AWAIT_TIMEOUT));
+
                     // Store attribute to verify later.
                     ctx.setAttribute("test-attr", "test-val");
 
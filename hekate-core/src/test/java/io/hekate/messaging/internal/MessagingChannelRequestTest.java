@@ -35,6 +35,7 @@ import io.hekate.messaging.loadbalance.LoadBalancerException;
 import io.hekate.messaging.loadbalance.UnknownRouteException;
 import io.hekate.messaging.operation.RequestFuture;
 import io.hekate.messaging.operation.Response;
+import io.hekate.network.NetworkClient;
 import io.hekate.network.NetworkEndpointClosedException;
 import io.hekate.network.NetworkException;
 import io.hekate.network.NetworkFuture;
@@ -173,6 +174,37 @@ public class MessagingChannelRequestTest extends MessagingServiceTestBase {
         });
     }
 
+    @Test
+    public void testWarmUpConnections() throws Exception {
+        TestChannel sender = createChannel(c -> c.withWarmUpConnections(true).withWarmUpParallelism(1)).join();
+
+        List<TestChannel> receivers = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            receivers.add(createChannel(c -> c.setReceiver(msg -> msg.reply("ok"))).join());
+        }
+
+        List<TestChannel> all = new ArrayList<>(receivers);
+
+        all.add(sender);
+
+        awaitForChannelsTopology(all);
+
+        // Connections must be accepted by receivers before any message is sent.
+        for (TestChannel receiver : receivers) {
+            busyWait("warm-up connection", () -> receiver.impl().inboundConnections() == 1);
+        }
+
+        for (TestChannel receiver : receivers) {
+            assertSame(NetworkClient.State.CONNECTED, sender.impl().clientOf(receiver.nodeId()).connection().state());
+
+            assertEquals("ok", sender.channel().forNode(receiver.nodeId()).newRequest("test").response());
+
+            // Warmed up connection is reused.
+            assertEquals(1, receiver.impl().inboundConnections());
+        }
+    }
+
     @Test
     public void testNoFailuresWithSmallIdleTimeout() throws Exception {
         TestChannel sender = createChannel(c -> c.setIdleSocketTimeout(25)).join();
@@ -82,6 +82,71 @@ public class NetworkConnectorConfigTest extends HekateTestBase {
         assertEquals(20, cfg.getNioThreads());
     }
 
+    @Test
+    public void testEventLoopGroup() throws Exception {
+        assertNull(cfg.getEventLoopGroup());
+
+        cfg.setEventLoopGroup("test");
+
+        assertEquals("test", cfg.getEventLoopGroup());
+
+        assertSame(cfg, cfg.withEventLoopGroup("test2"));
+
+        assertEquals("test2", cfg.getEventLoopGroup());
+    }
+
+    @Test
+    public void testReadLimit() throws Exception {
+        assertEquals(0, cfg.getReadLimit());
+
+        cfg.setReadLimit(1024);
+
+        assertEquals(1024, cfg.getReadLimit());
+
+        assertSame(cfg, cfg.withReadLimit(2048));
+
+        assertEquals(2048, cfg.getReadLimit());
+    }
+
+    @Test
+    public void testWriteLimit() throws Exception {
+        assertEquals(0, cfg.getWriteLimit());
+
+        cfg.setWriteLimit(1024);
+
+        assertEquals(1024, cfg.getWriteLimit());
+
+        assertSame(cfg, cfg.withWriteLimit(2048));
+
+        assertEquals(2048, cfg.getWriteLimit());
+    }
+
+    @Test
+    public void testGlobalReadLimit() throws Exception {
+        assertEquals(0, cfg.getGlobalReadLimit());
+
+        cfg.setGlobalReadLimit(1024);
+
+        assertEquals(1024, cfg.getGlobalReadLimit());
+
+        assertSame(cfg, cfg.withGlobalReadLimit(2048));
+
+        assertEquals(2048, cfg.getGlobalReadLimit());
+    }
+
+    @Test
+    public void testGlobalWriteLimit() throws Exception {
+        assertEquals(0, cfg.getGlobalWriteLimit());
+
+        cfg.setGlobalWriteLimit(1024);
+
+        assertEquals(1024, cfg.getGlobalWriteLimit());
+
+        assertSame(cfg, cfg.withGlobalWriteLimit(2048));
+
+        assertEquals(2048, cfg.getGlobalWriteLimit());
+    }
+
     @Test
     public void testLogCategory() {
         assertNull(cfg.getLogCategory());
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network;
+
+import io.hekate.HekateTestBase;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkEventLoopGroupConfigTest extends HekateTestBase {
+    private final NetworkEventLoopGroupConfig cfg = new NetworkEventLoopGroupConfig();
+
+    @Test
+    public void testName() {
+        assertNull(cfg.getName());
+
+        cfg.setName("test");
+
+        assertEquals("test", cfg.getName());
+
+        assertSame(cfg, cfg.withName("test2"));
+
+        assertEquals("test2", cfg.getName());
+    }
+
+    @Test
+    public void testNioThreads() {
+        assertEquals(0, cfg.getNioThreads());
+
+        cfg.setNioThreads(10);
+
+        assertEquals(10, cfg.getNioThreads());
+
+        assertSame(cfg, cfg.withNioThreads(20));
+
+        assertEquals(20, cfg.getNioThreads());
+    }
+
+    @Test
+    public void testToString() {
+        assertTrue(cfg.toString(), cfg.toString().startsWith(NetworkEventLoopGroupConfig.class.getSimpleName()));
+    }
+}
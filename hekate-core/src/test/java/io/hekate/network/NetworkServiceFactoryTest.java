@@ -278,6 +278,30 @@ public class NetworkServiceFactoryTest extends HekateTestBase {
         assertTrue(cfg.getConnectors().contains(m2));
     }
 
+    @Test
+    public void testEventLoopGroups() {
+        assertNull(cfg.getEventLoopGroups());
+
+        NetworkEventLoopGroupConfig g1 = new NetworkEventLoopGroupConfig();
+        NetworkEventLoopGroupConfig g2 = new NetworkEventLoopGroupConfig();
+
+        cfg.setEventLoopGroups(singletonList(g1));
+
+        assertNotNull(cfg.getEventLoopGroups());
+        assertTrue(cfg.getEventLoopGroups().contains(g1));
+
+        cfg.setEventLoopGroups(null);
+
+        assertNull(cfg.getEventLoopGroups());
+
+        assertTrue(cfg.withEventLoopGroup(g1).getEventLoopGroups().contains(g1));
+
+        cfg.withEventLoopGroup(g2);
+
+        assertTrue(cfg.getEventLoopGroups().contains(g1));
+        assertTrue(cfg.getEventLoopGroups().contains(g2));
+    }
+
     @Test
     public void testConfigProviders() {
         assertNull(cfg.getConfigProviders());
@@ -18,15 +18,20 @@ package io.hekate.network.internal;
 
 import io.hekate.HekateNodeParamTestBase;
 import io.hekate.HekateTestContext;
+import io.hekate.core.HekateConfigurationException;
 import io.hekate.core.HekateException;
 import io.hekate.core.internal.HekateTestNode;
 import io.hekate.core.internal.util.ErrorUtils;
 import io.hekate.network.NetworkClient;
 import io.hekate.network.NetworkConnector;
 import io.hekate.network.NetworkConnectorConfig;
+import io.hekate.network.NetworkEventLoopGroupConfig;
 import io.hekate.test.NetworkClientCallbackMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -119,6 +124,63 @@ public class NettyNetworkServiceTest extends HekateNodeParamTestBase {
         }
     }
 
+    @Test
+    public void testServerTrafficShaping() throws Exception {
+        int messages = 64;
+        int limit = 16 * 1024;
+
+        String msg = new String(new char[1024]).replace('\0', 'x');
+
+        MeterRegistry metrics = new SimpleMeterRegistry();
+
+        AtomicInteger received = new AtomicInteger();
+
+        HekateTestNode serverNode = createNode(boot -> {
+            boot.withMetrics(metrics);
+            boot.withNetwork(net ->
+                net.withConnector(new NetworkConnectorConfig<String>()
+                    .withProtocol("test")
+                    .withReadLimit(limit)
+                    .withServerHandler((message, from) ->
+                        received.incrementAndGet()
+                    )
+                )
+            );
+        }).join();
+
+        HekateTestNode clientNode = createNode(boot ->
+            boot.withNetwork(net ->
+                net.withConnector(new NetworkConnectorConfig<String>()
+                    .withProtocol("test")
+                )
+            )
+        ).join();
+
+        NetworkClient<String> client = clientNode.network().<String>connector("test").newClient();
+
+        try {
+            client.connect(serverNode.localNode().socket(), new NetworkClientCallbackMock<>()).get();
+
+            long startedAt = System.nanoTime();
+
+            for (int i = 0; i < messages; i++) {
+                client.send(msg);
+            }
+
+            busyWait("all messages received", () -> received.get() == messages);
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            assertTrue(metrics.get("hekate.network.throttle.read").tag("protocol", "test").timer().count() > 0);
+
+            say("Elapsed: " + elapsed + "ms");
+
+            assertTrue("elapsed=" + elapsed, elapsed >= 500);
+        } finally {
+            client.disconnect();
+        }
+    }
+
     @Test
     public void testPortAutoIncrement() throws Exception {
         repeat(3, i -> {
@@ -147,4 +209,88 @@ public class NettyNetworkServiceTest extends HekateNodeParamTestBase {
             assertTrue(ErrorUtils.isCausedBy(IOException.class, e));
         }
     }
+
+    @Test
+    public void testEventLoopGroup() throws Exception {
+        HekateTestNode node = createNode(boot ->
+            boot.withNetwork(net -> {
+                net.withEventLoopGroup(new NetworkEventLoopGroupConfig()
+                    .withName("shared-group")
+                    .withNioThreads(1)
+                );
+
+                for (String protocol : new String[]{"test1", "test2"}) {
+                    net.withConnector(new NetworkConnectorConfig<String>()
+                        .withProtocol(protocol)
+                        .withEventLoopGroup("shared-group")
+                        .withServerHandler((message, from) ->
+                            from.send(Thread.currentThread().getName())
+                        )
+                    );
+                }
+            })
+        ).join();
+
+        for (String protocol : new String[]{"test1", "test2"}) {
+            NetworkClient<String> client = node.network().<String>connector(protocol).newClient();
+
+            try {
+                NetworkClientCallbackMock<String> callback = new NetworkClientCallbackMock<>();
+
+                client.connect(node.localNode().socket(), callback);
+
+                client.send("test");
+
+                busyWait("response", () -> !callback.getMessages().isEmpty());
+
+                String thread = callback.getMessages().get(0);
+
+                assertTrue(thread, thread.contains("NioWorker-shared-group"));
+            } finally {
+                client.disconnect();
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownEventLoopGroup() throws Exception {
+        try {
+            createNode(boot ->
+                boot.withNetwork(net ->
+                    net.withConnector(new NetworkConnectorConfig<String>()
+                        .withProtocol("test")
+                        .withEventLoopGroup("no-such-group")
+                    )
+                )
+            ).join();
+
+            fail("Error was expected.");
+        } catch (HekateException e) {
+            assertTrue(ErrorUtils.isCausedBy(HekateConfigurationException.class, e));
+        }
+    }
+
+    @Test
+    public void testEventLoopGroupWithNioThreads() throws Exception {
+        try {
+            createNode(boot ->
+                boot.withNetwork(net -> {
+                    net.withEventLoopGroup(new NetworkEventLoopGroupConfig()
+                        .withName("test-group")
+                        .withNioThreads(1)
+                    );
+
+                    net.withConnector(new NetworkConnectorConfig<String>()
+                        .withProtocol("test")
+                        .withNioThreads(1)
+                        .withEventLoopGroup("test-group")
+                    );
+                })
+            ).join();
+
+            fail("Error was expected.");
+        } catch (HekateException e) {
+            assertTrue(ErrorUtils.isCausedBy(HekateConfigurationException.class, e));
+        }
+    }
 }
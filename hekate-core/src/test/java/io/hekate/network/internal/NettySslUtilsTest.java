@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.internal;
+
+import io.hekate.HekateTestBase;
+import io.hekate.HekateTestContext;
+import io.hekate.network.NetworkSslConfig;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslProvider;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NettySslUtilsTest extends HekateTestBase {
+    @Test
+    public void testResolveProvider() {
+        NetworkSslConfig cfg = new NetworkSslConfig();
+
+        assertSame(SslProvider.JDK, NettySslUtils.resolveProvider(cfg.withProvider(NetworkSslConfig.Provider.JDK)));
+        assertSame(SslProvider.OPENSSL, NettySslUtils.resolveProvider(cfg.withProvider(NetworkSslConfig.Provider.OPEN_SSL)));
+
+        SslProvider auto = NettySslUtils.resolveProvider(cfg.withProvider(NetworkSslConfig.Provider.AUTO));
+
+        assertSame(OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK, auto);
+    }
+
+    @Test
+    public void testPreferredCiphersFirst() {
+        NetworkSslConfig cfg = new NetworkSslConfig()
+            .withProvider(NetworkSslConfig.Provider.JDK)
+            .withKeyStorePath("ssl/hekate-test1.jks")
+            .withKeyStorePassword("hekate-test1");
+
+        SslContext server = NettySslUtils.serverContext(cfg, HekateTestContext.defaultContext().resources());
+        SslContext client = NettySslUtils.clientContext(cfg, HekateTestContext.defaultContext().resources());
+
+        for (SslContext ctx : new SslContext[]{server, client}) {
+            List<String> ciphers = ctx.cipherSuites();
+
+            assertFalse(ciphers.isEmpty());
+
+            // First cipher must be one of the preferred ciphers.
+            assertTrue(ciphers.toString(), NettySslUtils.PREFERRED_CIPHERS.contains(ciphers.get(0)));
+
+            // No duplicates.
+            assertEquals(ciphers.size(), ciphers.stream().distinct().count());
+        }
+    }
+}
@@ -114,6 +114,42 @@ public class NettyClientFactoryTest extends HekateTestBase {
         assertSame(ctx, factory.getSsl());
     }
 
+    @Test
+    public void testTrafficShaping() {
+        NettyTrafficShaping shaping = new NettyTrafficShaping(1, 2, 0, 0, null);
+
+        assertNull(factory.getTrafficShaping());
+
+        factory.setTrafficShaping(shaping);
+
+        assertSame(shaping, factory.getTrafficShaping());
+
+        factory.setTrafficShaping(null);
+
+        assertNull(factory.getTrafficShaping());
+
+        assertSame(factory, factory.withTrafficShaping(shaping));
+        assertSame(shaping, factory.getTrafficShaping());
+    }
+
+    @Test
+    public void testSslMetricsSink() {
+        NettySslMetricsSink metrics = mock(NettySslMetricsSink.class);
+
+        assertNull(factory.getSslMetrics());
+
+        factory.setSslMetrics(metrics);
+
+        assertSame(metrics, factory.getSslMetrics());
+
+        factory.setSslMetrics(null);
+
+        assertNull(factory.getSslMetrics());
+
+        assertSame(factory, factory.withSslMetrics(metrics));
+        assertSame(metrics, factory.getSslMetrics());
+    }
+
     @Test
     public void testMetricsSink() {
         NettyMetricsSink metrics = mock(NettyMetricsSink.class);
@@ -121,6 +121,24 @@ public class NettyServerFactoryTest extends HekateTestBase {
         assertSame(ctx, factory.getSsl());
     }
 
+    @Test
+    public void testSslMetricsSink() {
+        NettySslMetricsSink metrics = mock(NettySslMetricsSink.class);
+
+        assertNull(factory.getSslMetrics());
+
+        factory.setSslMetrics(metrics);
+
+        assertSame(metrics, factory.getSslMetrics());
+
+        factory.setSslMetrics(null);
+
+        assertNull(factory.getSslMetrics());
+
+        assertSame(factory, factory.withSslMetrics(metrics));
+        assertSame(metrics, factory.getSslMetrics());
+    }
+
     @Test
     public void testMetricsFactory() {
         NettyMetricsFactory metrics = mock(NettyMetricsFactory.class);
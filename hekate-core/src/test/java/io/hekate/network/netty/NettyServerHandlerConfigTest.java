@@ -47,6 +47,24 @@ public class NettyServerHandlerConfigTest extends HekateTestBase {
         assertSame(eventLoop, cfg.getEventLoop());
     }
 
+    @Test
+    public void testTrafficShaping() {
+        NettyTrafficShaping shaping = new NettyTrafficShaping(1, 2, 0, 0, null);
+
+        assertNull(cfg.getTrafficShaping());
+
+        cfg.setTrafficShaping(shaping);
+
+        assertSame(shaping, cfg.getTrafficShaping());
+
+        cfg.setTrafficShaping(null);
+
+        assertNull(cfg.getTrafficShaping());
+
+        assertSame(cfg, cfg.withTrafficShaping(shaping));
+        assertSame(shaping, cfg.getTrafficShaping());
+    }
+
     @Test
     public void testToString() {
         assertEquals(ToString.format(cfg), cfg.toString());
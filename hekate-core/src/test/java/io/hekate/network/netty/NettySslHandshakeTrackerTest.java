@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.network.netty;
+
+import io.hekate.HekateTestBase;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.OpenSslX509KeyManagerFactory;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.net.ssl.KeyManagerFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class NettySslHandshakeTrackerTest extends HekateTestBase {
+    private static final String TLS_13 = "TLSv1.3";
+
+    private static final String TLS_12 = "TLSv1.2";
+
+    private final NettySslMetricsSink clientMetrics = mock(NettySslMetricsSink.class);
+
+    private final NettySslMetricsSink serverMetrics = mock(NettySslMetricsSink.class);
+
+    @Test
+    public void testTls13Resumption() throws Exception {
+        checkResumption(SslProvider.JDK, SslProvider.JDK, TLS_13);
+    }
+
+    @Test
+    public void testTls12Resumption() throws Exception {
+        checkResumption(SslProvider.JDK, SslProvider.JDK, TLS_12);
+    }
+
+    @Test
+    public void testResumptionOpenSslServer() throws Exception {
+        assumeTrue(OpenSsl.isAvailable());
+
+        // TLS 1.2 since JDK clients can't resume TLS 1.3 sessions of BoringSSL servers.
+        checkResumption(SslProvider.JDK, SslProvider.OPENSSL, TLS_12);
+    }
+
+    @Test
+    public void testTls13NoResumption() throws Exception {
+        SslContext server = serverContext(SslProvider.JDK, TLS_13);
+
+        repeat(3, i -> {
+            // New client context has an empty session cache and, therefore, always performs a full handshake.
+            assertEquals(TLS_13, handshake(clientContext(SslProvider.JDK, TLS_13), server));
+        });
+
+        verify(clientMetrics, times(3)).onHandshake(anyLong(), eq(false));
+        verify(serverMetrics, times(3)).onHandshake(anyLong(), eq(false));
+
+        verify(clientMetrics, never()).onHandshake(anyLong(), eq(true));
+        verify(serverMetrics, never()).onHandshake(anyLong(), eq(true));
+    }
+
+    private void checkResumption(SslProvider clientProvider, SslProvider serverProvider, String protocol) throws Exception {
+        SslContext client = clientContext(clientProvider, protocol);
+        SslContext server = serverContext(serverProvider, protocol);
+
+        repeat(3, i ->
+            assertEquals(protocol, handshake(client, server))
+        );
+
+        // First handshake establishes a new session and subsequent handshakes resume it.
+        verify(clientMetrics).onHandshake(anyLong(), eq(false));
+        verify(clientMetrics, times(2)).onHandshake(anyLong(), eq(true));
+
+        verify(serverMetrics).onHandshake(anyLong(), eq(false));
+        verify(serverMetrics, times(2)).onHandshake(anyLong(), eq(true));
+
+        verify(clientMetrics, never()).onHandshakeFailure();
+        verify(serverMetrics, never()).onHandshakeFailure();
+    }
+
+    private String handshake(SslContext clientCtx, SslContext serverCtx) {
+        // Use the same peer address for all connections so that client could reuse its cached sessions.
+        SslHandler clientSsl = clientCtx.newHandler(ByteBufAllocator.DEFAULT, "localhost", 10001);
+        SslHandler serverSsl = serverCtx.newHandler(ByteBufAllocator.DEFAULT);
+
+        EmbeddedChannel server = new EmbeddedChannel(serverSsl, new NettySslHandshakeTracker(serverSsl, serverMetrics));
+        EmbeddedChannel client = new EmbeddedChannel(clientSsl, new NettySslHandshakeTracker(clientSsl, clientMetrics));
+
+        try {
+            // Exchange handshake messages (and post-handshake messages, like TLS 1.3 session tickets).
+            for (int i = 0; i < 10; i++) {
+                transfer(client, server);
+                transfer(server, client);
+            }
+
+            // Trackers remove themselves once the handshake is completed.
+            assertNull(client.pipeline().get(NettySslHandshakeTracker.class));
+            assertNull(server.pipeline().get(NettySslHandshakeTracker.class));
+
+            return clientSsl.engine().getSession().getProtocol();
+        } finally {
+            client.finishAndReleaseAll();
+            server.finishAndReleaseAll();
+        }
+    }
+
+    private static void transfer(EmbeddedChannel from, EmbeddedChannel to) {
+        for (Object msg = from.readOutbound(); msg != null; msg = from.readOutbound()) {
+            to.writeInbound(msg);
+        }
+    }
+
+    private static SslContext clientContext(SslProvider provider, String protocol) throws Exception {
+        return SslContextBuilder.forClient()
+            .sslProvider(provider)
+            .protocols(protocol)
+            .trustManager(InsecureTrustManagerFactory.INSTANCE)
+            .build();
+    }
+
+    private static SslContext serverContext(SslProvider provider, String protocol) throws Exception {
+        KeyManagerFactory keyManager;
+
+        if (provider == SslProvider.OPENSSL) {
+            keyManager = new OpenSslX509KeyManagerFactory();
+        } else {
+            keyManager = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        }
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+
+        try (InputStream in = NettySslHandshakeTrackerTest.class.getClassLoader().getResourceAsStream("ssl/hekate-test1.jks")) {
+            keyStore.load(in, "hekate-test1".toCharArray());
+        }
+
+        keyManager.init(keyStore, "hekate-test1".toCharArray());
+
+        SslContext ctx = SslContextBuilder.forServer(keyManager)
+            .sslProvider(provider)
+            .protocols(protocol)
+            .build();
+
+        if (provider == SslProvider.OPENSSL) {
+            // OpenSSL resumes TLS 1.3 sessions only via session tickets, which are disabled unless ticket keys are specified.
+            ((OpenSslSessionContext)ctx.sessionContext()).setTicketKeys(new OpenSslSessionTicketKey(
+                randomBytes(OpenSslSessionTicketKey.NAME_SIZE),
+                randomBytes(OpenSslSessionTicketKey.HMAC_KEY_SIZE),
+                randomBytes(OpenSslSessionTicketKey.AES_KEY_SIZE)
+            ));
+        }
+
+        return ctx;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+
+        ThreadLocalRandom.current().nextBytes(bytes);
+
+        return bytes;
+    }
+}
@@ -31,6 +31,7 @@ import io.hekate.network.NetworkServer;
 import io.hekate.network.NetworkServerCallbackMock;
 import io.hekate.network.NetworkServerHandler;
 import io.hekate.network.NetworkServerHandlerMock;
+import io.hekate.network.NetworkSslConfig;
 import io.hekate.network.internal.NetworkTestBase;
 import io.hekate.test.NetworkClientCallbackMock;
 import io.netty.bootstrap.ServerBootstrap;
@@ -51,6 +52,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Exchanger;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
@@ -62,6 +64,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 public class NetworkClientTest extends NetworkTestBase {
     public NetworkClientTest(HekateTestContext textContext) {
@@ -1050,4 +1060,89 @@ public class NetworkClientTest extends NetworkTestBase {
             listener.assertNoErrors();
         });
     }
+
+    @Test
+    public void testTrafficShaping() throws Exception {
+        int messages = 32;
+        int limit = 16 * 1024;
+
+        String msg = new String(new char[1024]).replace('\0', 'x');
+
+        NettyMetricsSink serverMetrics = mock(NettyMetricsSink.class);
+        NettyMetricsSink clientMetrics = mock(NettyMetricsSink.class);
+
+        NettyTrafficShaping serverShaping = new NettyTrafficShaping(limit, 0, 0, 0, null);
+        NettyTrafficShaping clientShaping = new NettyTrafficShaping(0, limit, 0, 0, null);
+
+        AtomicInteger received = new AtomicInteger();
+
+        NetworkServer server = createAndConfigureServer(
+            createHandler((m, from) -> received.incrementAndGet()),
+            h -> h.withTrafficShaping(serverShaping),
+            // Use a larger heartbeat interval since heartbeats can be delayed by traffic shaping.
+            f -> f.withMetrics(protocol -> serverMetrics).withHeartbeatInterval(1000)
+        );
+
+        server.start(newServerAddress()).get();
+
+        NetworkClient<String> client = createClient(f -> f
+            .withTrafficShaping(clientShaping)
+            .withMetrics(clientMetrics)
+        );
+
+        client.connect(server.address(), new NetworkClientCallbackMock<>()).get();
+
+        long startedAt = System.nanoTime();
+
+        for (int i = 0; i < messages; i++) {
+            client.send(msg);
+        }
+
+        busyWait("all messages received", () -> received.get() == messages);
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        say("Elapsed: " + elapsed + "ms");
+
+        assertTrue("elapsed=" + elapsed, elapsed >= 500);
+
+        verify(clientMetrics, atLeastOnce()).onWriteThrottled(anyLong());
+        verify(serverMetrics, atLeastOnce()).onReadThrottled(anyLong());
+    }
+
+    @Test
+    public void testSslHandshakeMetrics() throws Exception {
+        assumeTrue(context().ssl().isPresent());
+
+        NettySslMetricsSink serverMetrics = mock(NettySslMetricsSink.class);
+        NettySslMetricsSink clientMetrics = mock(NettySslMetricsSink.class);
+
+        NetworkServer server = createAndConfigureServer(f -> f.withSslMetrics(serverMetrics));
+
+        server.start(newServerAddress()).get();
+
+        NetworkClient<String> client = createClient(f -> f.withSslMetrics(clientMetrics));
+
+        repeat(3, i -> {
+            client.connect(server.address(), new NetworkClientCallbackMock<>()).get();
+
+            client.disconnect().get();
+        });
+
+        if (context().ssl().get().getProvider() == NetworkSslConfig.Provider.OPEN_SSL) {
+            // OpenSSL clients don't cache sessions, so every handshake is a full one.
+            verify(clientMetrics, timeout(AWAIT_TIMEOUT * 1000).times(3)).onHandshake(anyLong(), eq(false));
+            verify(serverMetrics, timeout(AWAIT_TIMEOUT * 1000).times(3)).onHandshake(anyLong(), eq(false));
+        } else {
+            // First handshake establishes a new session and subsequent handshakes resume it.
+            verify(clientMetrics, timeout(AWAIT_TIMEOUT * 1000)).onHandshake(anyLong(), eq(false));
+            verify(clientMetrics, timeout(AWAIT_TIMEOUT * 1000).times(2)).onHandshake(anyLong(), eq(true));
+
+            verify(serverMetrics, timeout(AWAIT_TIMEOUT * 1000)).onHandshake(anyLong(), eq(false));
+            verify(serverMetrics, timeout(AWAIT_TIMEOUT * 1000).times(2)).onHandshake(anyLong(), eq(true));
+        }
+
+        verify(clientMetrics, never()).onHandshakeFailure();
+        verify(serverMetrics, never()).onHandshakeFailure();
+    }
 }
@@ -28,6 +28,7 @@ import io.hekate.network.NetworkEndpointClosedException;
 import io.hekate.network.NetworkMessage;
 import io.hekate.network.NetworkSendCallbackMock;
 import io.hekate.network.NetworkServer;
+import io.hekate.network.NetworkServerBatchHandler;
 import io.hekate.network.NetworkServerCallbackMock;
 import io.hekate.network.NetworkServerFailure;
 import io.hekate.network.NetworkServerHandler;
@@ -47,11 +48,14 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Assume;
 import org.junit.Test;
 
+import static java.util.Collections.synchronizedList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -474,6 +478,50 @@ public class NetworkServerTest extends NetworkTestBase {
         }
     }
 
+    @Test
+    public void testBatchHandler() throws Exception {
+        int messages = 1000;
+
+        List<String> received = synchronizedList(new ArrayList<>());
+
+        AtomicInteger batches = new AtomicInteger();
+
+        NetworkServer server = createServer();
+
+        server.addHandler(createHandler("test-batch", (NetworkServerBatchHandler<String>)(batch, from) -> {
+            assertFalse(batch.isEmpty());
+
+            batches.incrementAndGet();
+
+            for (NetworkMessage<String> msg : batch) {
+                received.add(msg.decode());
+            }
+        }));
+
+        server.start(newServerAddress()).get();
+
+        NetworkClient<String> client = createClient(c -> c.setProtocol("test-batch"));
+
+        client.connect(server.address(), new NetworkClientCallbackMock<>()).get();
+
+        for (int i = 0; i < messages; i++) {
+            client.send("msg_" + i);
+        }
+
+        busyWait("all messages", () -> received.size() == messages);
+
+        for (int i = 0; i < messages; i++) {
+            assertEquals("msg_" + i, received.get(i));
+        }
+
+        assertTrue(batches.get() > 0);
+        assertTrue(batches.get() <= messages);
+
+        client.disconnect().get();
+
+        server.stop().get();
+    }
+
     @Test
     public void testServerClientInExternalThread() throws Exception {
         NetworkServer server = createServer();
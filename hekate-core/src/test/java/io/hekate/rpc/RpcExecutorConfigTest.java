@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc;
+
+import io.hekate.HekateTestBase;
+import io.hekate.util.format.ToString;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RpcExecutorConfigTest extends HekateTestBase {
+    private final RpcExecutorConfig cfg = new RpcExecutorConfig();
+
+    @Test
+    public void testName() {
+        assertNull(cfg.getName());
+
+        cfg.setName("test");
+
+        assertEquals("test", cfg.getName());
+
+        assertSame(cfg, cfg.withName("test2"));
+
+        assertEquals("test2", cfg.getName());
+    }
+
+    @Test
+    public void testThreads() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), cfg.getThreads());
+
+        cfg.setThreads(10);
+
+        assertEquals(10, cfg.getThreads());
+
+        assertSame(cfg, cfg.withThreads(20));
+
+        assertEquals(20, cfg.getThreads());
+    }
+
+    @Test
+    public void testMaxQueueSize() {
+        assertEquals(RpcExecutorConfig.DEFAULT_MAX_QUEUE_SIZE, cfg.getMaxQueueSize());
+
+        cfg.setMaxQueueSize(10);
+
+        assertEquals(10, cfg.getMaxQueueSize());
+
+        assertSame(cfg, cfg.withMaxQueueSize(20));
+
+        assertEquals(20, cfg.getMaxQueueSize());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals(ToString.format(cfg), cfg.toString());
+    }
+}
@@ -72,6 +72,24 @@ public class RpcServerConfigTest extends HekateTestBase {
         assertEquals(singleton("three"), cfg.getTags());
     }
 
+    @Test
+    public void testConcurrencyLimit() {
+        assertNull(cfg.getConcurrencyLimit());
+
+        RpcConcurrencyLimitConfig limit = new RpcConcurrencyLimitConfig();
+
+        cfg.setConcurrencyLimit(limit);
+
+        assertSame(limit, cfg.getConcurrencyLimit());
+
+        cfg.setConcurrencyLimit(null);
+
+        assertNull(cfg.getConcurrencyLimit());
+
+        assertSame(cfg, cfg.withConcurrencyLimit(limit));
+        assertSame(limit, cfg.getConcurrencyLimit());
+    }
+
     @Test
     public void testToString() {
         assertEquals(ToString.format(cfg), cfg.toString());
@@ -75,6 +75,9 @@ public class RpcServerJmxTest extends HekateNodeTestBase {
                     .withHandler(new TestRpc())
                     .withTag("tag-2")
                     .withTag("tag-3")
+                    .withConcurrencyLimit(new RpcConcurrencyLimitConfig()
+                        .withInitialLimit(10)
+                    )
                 );
             });
         }).join();
@@ -105,6 +108,12 @@ public class RpcServerJmxTest extends HekateNodeTestBase {
         assertTrue((int)jmxAttribute(name, "InterfaceVersion", Integer.class, node) > 0);
         assertTrue((int)jmxAttribute(name, "InterfaceMinClientVersion", Integer.class, node) > 0);
 
+        int limit = tag != null && !"tag-1".equals(tag) ? 10 : 0;
+
+        assertEquals(limit, (int)jmxAttribute(name, "ConcurrencyLimit", Integer.class, node));
+        assertEquals(0, (int)jmxAttribute(name, "ConcurrentCalls", Integer.class, node));
+        assertEquals(0L, (long)jmxAttribute(name, "RejectedCalls", Long.class, node));
+
         ClusterTopology topology = node.rpc().clusterOf(rpcFace.javaType(), tag).topology();
 
         assertEquals(1, topology.size());
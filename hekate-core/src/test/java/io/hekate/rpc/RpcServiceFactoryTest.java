@@ -122,6 +122,37 @@ public class RpcServiceFactoryTest extends HekateTestBase {
         assertEquals(100, factory.getWorkerThreads());
     }
 
+    @Test
+    public void testStreamIdleTimeout() {
+        assertEquals(RpcServiceFactory.DEFAULT_STREAM_IDLE_TIMEOUT, factory.getStreamIdleTimeout());
+
+        factory.setStreamIdleTimeout(10);
+
+        assertEquals(10, factory.getStreamIdleTimeout());
+
+        assertSame(factory, factory.withStreamIdleTimeout(100));
+        assertEquals(100, factory.getStreamIdleTimeout());
+    }
+
+    @Test
+    public void testExecutors() {
+        assertNull(factory.getExecutors());
+
+        RpcExecutorConfig e1 = new RpcExecutorConfig();
+        RpcExecutorConfig e2 = new RpcExecutorConfig();
+
+        factory.setExecutors(asList(e1, e2));
+
+        assertEquals(asList(e1, e2), factory.getExecutors());
+
+        factory.setExecutors(null);
+
+        assertNull(factory.getExecutors());
+
+        assertSame(factory, factory.withExecutor(e1));
+        assertEquals(singletonList(e1), factory.getExecutors());
+    }
+
     @Test
     public void testToString() {
         assertEquals(ToString.format(factory), factory.toString());
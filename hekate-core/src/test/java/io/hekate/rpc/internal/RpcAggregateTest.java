@@ -17,6 +17,7 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.core.internal.HekateTestNode;
+import io.hekate.messaging.MessageTimeoutException;
 import io.hekate.rpc.Rpc;
 import io.hekate.rpc.RpcAggregate;
 import io.hekate.rpc.RpcAggregateException;
@@ -26,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -40,6 +42,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -70,6 +73,12 @@ public class RpcAggregateTest extends RpcServiceTestBase {
         @RpcAggregate
         Collection<Object> errors(Object arg);
 
+        @RpcAggregate(remoteErrors = IGNORE, deadline = 100)
+        List<Object> deadline(Object arg);
+
+        @RpcAggregate(deadline = 100)
+        List<Object> failDeadline(Object arg);
+
         @RpcRetry
         @RpcAggregate
         List<Object> retry(Object arg);
@@ -460,4 +469,62 @@ public class RpcAggregateTest extends RpcServiceTestBase {
             reset(rpc1, rpc2);
         });
     }
+
+    @Test
+    public void testDeadline() throws Exception {
+        repeat(3, i -> {
+            CountDownLatch latch = new CountDownLatch(1);
+
+            try {
+                when(rpc1.deadline(i)).thenReturn(asList(i, i, i));
+                when(rpc2.deadline(i)).thenAnswer(x -> {
+                    await(latch);
+
+                    return asList(i, i, i);
+                });
+
+                List<Object> result = clientRpc.deadline(i);
+
+                assertEquals(asList(i, i, i), result);
+            } finally {
+                latch.countDown();
+            }
+
+            verify(rpc1).deadline(i);
+            busyWait("server 2 call", () -> mockingDetails(rpc2).getInvocations().size() == 1);
+
+            reset(rpc1, rpc2);
+        });
+    }
+
+    @Test
+    public void testFailDeadline() throws Exception {
+        repeat(3, i -> {
+            CountDownLatch latch = new CountDownLatch(1);
+
+            try {
+                when(rpc1.failDeadline(i)).thenReturn(asList(i, i, i));
+                when(rpc2.failDeadline(i)).thenAnswer(x -> {
+                    await(latch);
+
+                    return asList(i, i, i);
+                });
+
+                RpcAggregateException err = expect(RpcAggregateException.class, () -> clientRpc.failDeadline(i));
+
+                assertEquals(1, err.partialResults().size());
+                assertEquals(asList(i, i, i), err.partialResults().get(server1.localNode()));
+
+                assertEquals(1, err.errors().size());
+                assertEquals(MessageTimeoutException.class, err.errors().get(server2.localNode()).getClass());
+            } finally {
+                latch.countDown();
+            }
+
+            verify(rpc1).failDeadline(i);
+            busyWait("server 2 call", () -> mockingDetails(rpc2).getInvocations().size() == 1);
+
+            reset(rpc1, rpc2);
+        });
+    }
 }
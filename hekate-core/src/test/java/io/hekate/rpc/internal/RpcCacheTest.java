@@ -0,0 +1,322 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcCache;
+import io.hekate.test.HekateTestError;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class RpcCacheTest extends RpcServiceTestBase {
+    @Rpc
+    public interface CacheRpc {
+        @RpcCache
+        Object call(Object arg);
+
+        @RpcCache
+        Object call(Object arg, int[] array);
+
+        @RpcCache
+        CompletableFuture<Object> callAsync(Object arg);
+
+        @RpcCache(ttl = 50)
+        Object callTtl(Object arg);
+
+        @RpcCache(maxSize = 2)
+        Object callSize(Object arg);
+    }
+
+    public RpcCacheTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testCacheHit() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        // Other proxy of the same interface must share the same cache.
+        CacheRpc otherProxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        repeat(3, i -> {
+            when(rpc.call("arg" + i)).thenReturn("result" + i);
+            when(rpc.call("arg" + i, new int[]{i})).thenReturn("array-result" + i);
+
+            for (int j = 0; j < 3; j++) {
+                assertEquals("result" + i, proxy.call("arg" + i));
+                assertEquals("result" + i, otherProxy.call("arg" + i));
+                assertEquals("array-result" + i, proxy.call("arg" + i, new int[]{i}));
+            }
+
+            verify(rpc).call("arg" + i);
+            verify(rpc).call("arg" + i, new int[]{i});
+            verifyNoMoreInteractions(rpc);
+            reset(rpc);
+        });
+    }
+
+    @Test
+    public void testErrorIsNotCached() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.call(any())).thenThrow(new RuntimeException(HekateTestError.MESSAGE));
+
+        repeat(3, i ->
+            expectExactMessage(RuntimeException.class, HekateTestError.MESSAGE, () -> proxy.call("arg"))
+        );
+
+        verify(rpc, times(3)).call("arg");
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        repeat(3, i -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+
+            when(rpc.callAsync("arg" + i)).thenReturn(result);
+
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+            for (int j = 0; j < 10; j++) {
+                futures.add(proxy.callAsync("arg" + i));
+            }
+
+            assertNotSame(futures.get(0), futures.get(1));
+
+            result.complete("result" + i);
+
+            for (CompletableFuture<Object> future : futures) {
+                assertEquals("result" + i, get(future));
+            }
+
+            verify(rpc).callAsync("arg" + i);
+            verifyNoMoreInteractions(rpc);
+            reset(rpc);
+        });
+    }
+
+    @Test
+    public void testTtl() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.callTtl("arg")).thenReturn("result");
+
+        repeat(3, i -> {
+            assertEquals("result", proxy.callTtl("arg"));
+
+            sleep(100);
+        });
+
+        verify(rpc, times(3)).callTtl("arg");
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.callSize(any())).then(call -> "result" + call.getArgument(0));
+
+        assertEquals("result1", proxy.callSize(1));
+        assertEquals("result2", proxy.callSize(2));
+        assertEquals("result1", proxy.callSize(1));
+
+        // Evicts the least recently used entry (2).
+        assertEquals("result3", proxy.callSize(3));
+
+        assertEquals("result1", proxy.callSize(1));
+        assertEquals("result2", proxy.callSize(2));
+
+        verify(rpc).callSize(1);
+        verify(rpc, times(2)).callSize(2);
+        verify(rpc).callSize(3);
+        verifyNoMoreInteractions(rpc);
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        ClientAndServer ctx = prepareClientAndServer(rpc);
+
+        CacheRpc proxy = ctx.client().rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.call(any())).then(call -> "result" + call.getArgument(0));
+
+        repeat(3, i -> {
+            assertEquals("result1", proxy.call(1));
+            assertEquals("result2", proxy.call(2));
+
+            // Invalidate a single result.
+            get(ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call(java.lang.Object)", 1));
+
+            assertEquals("result1", proxy.call(1));
+            assertEquals("result2", proxy.call(2));
+
+            verify(rpc, times(2)).call(1);
+            verify(rpc).call(2);
+
+            // Invalidate all results.
+            get(ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call(java.lang.Object)"));
+
+            assertEquals("result1", proxy.call(1));
+            assertEquals("result2", proxy.call(2));
+
+            verify(rpc, times(3)).call(1);
+            verify(rpc, times(2)).call(2);
+            verifyNoMoreInteractions(rpc);
+            reset(rpc);
+
+            when(rpc.call(any())).then(call -> "result" + call.getArgument(0));
+
+            get(ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call(java.lang.Object)"));
+        });
+    }
+
+    @Test
+    public void testInvalidateOverloaded() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        ClientAndServer ctx = prepareClientAndServer(rpc);
+
+        CacheRpc proxy = ctx.client().rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.call(any())).thenReturn("result");
+        when(rpc.call(any(), any())).thenReturn("array-result");
+
+        assertEquals("result", proxy.call(1));
+        assertEquals("array-result", proxy.call(1, new int[]{1}));
+
+        // Must not affect the overloaded method.
+        get(ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call(java.lang.Object)"));
+
+        assertEquals("result", proxy.call(1));
+        assertEquals("array-result", proxy.call(1, new int[]{1}));
+
+        verify(rpc, times(2)).call(1);
+        verify(rpc).call(1, new int[]{1});
+
+        get(ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call(java.lang.Object,int[])", 1, new int[]{1}));
+
+        assertEquals("array-result", proxy.call(1, new int[]{1}));
+
+        verify(rpc, times(2)).call(1, new int[]{1});
+        verifyNoMoreInteractions(rpc);
+
+        // Method name without signature.
+        expectExactMessage(IllegalArgumentException.class,
+            "No @RpcCache method with signature call in " + CacheRpc.class.getName() + '.',
+            () -> ctx.server().rpc().invalidateCache(CacheRpc.class, null, "call")
+        );
+    }
+
+    @Test
+    public void testCallerCanReuseArguments() throws Exception {
+        CacheRpc rpc = mock(CacheRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        CacheRpc proxy = client.rpc().clientFor(CacheRpc.class).build();
+
+        when(rpc.call(any(), any())).then(call -> "result" + ((int[])call.getArgument(1))[0]);
+
+        int[] array = {1};
+
+        assertEquals("result1", proxy.call("arg", array));
+
+        // Modification of the argument must not affect the cached key.
+        array[0] = 2;
+
+        assertEquals("result2", proxy.call("arg", array));
+        assertEquals("result1", proxy.call("arg", new int[]{1}));
+        assertEquals("result2", proxy.call("arg", new int[]{2}));
+
+        verify(rpc).call("arg", new int[]{1});
+        verify(rpc).call("arg", new int[]{2});
+        verifyNoMoreInteractions(rpc);
+    }
+
+    @Test
+    public void testTopologyChange() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        CacheRpc rpc1 = mock(CacheRpc.class);
+        CacheRpc rpc2 = mock(CacheRpc.class);
+
+        when(rpc1.call(any())).then(call -> "result" + call.getArgument(0) + calls.incrementAndGet());
+        when(rpc2.call(any())).then(call -> "result" + call.getArgument(0) + calls.incrementAndGet());
+
+        ClientAndServer ctx = prepareClientAndServer(rpc1);
+
+        CacheRpc proxy = ctx.client().rpc().clientFor(CacheRpc.class).build();
+
+        assertEquals("result11", proxy.call(1));
+        assertEquals("result11", proxy.call(1));
+
+        // Node without RPC server doesn't affect the cache.
+        HekateTestNode other = createNode().join();
+
+        awaitForTopology(ctx.client(), ctx.server(), other);
+
+        assertEquals("result11", proxy.call(1));
+
+        // New RPC server invalidates the cache.
+        HekateTestNode server2 = prepareServer(rpc2, null);
+
+        awaitForTopology(ctx.client(), ctx.server(), other, server2);
+
+        assertEquals("result12", proxy.call(1));
+        assertEquals("result12", proxy.call(1));
+
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcConcurrencyLimitConfig;
+import io.hekate.rpc.RpcExecutor;
+import io.hekate.rpc.RpcExecutorConfig;
+import io.hekate.rpc.RpcRetry;
+import io.hekate.rpc.RpcServerConfig;
+import io.hekate.rpc.RpcServerOverloadException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RpcConcurrencyLimitTest extends RpcServiceTestBase {
+    @Rpc
+    public interface LimitRpc {
+        CompletableFuture<Object> slow();
+
+        Object fast();
+
+        @RpcRetry(errors = RpcServerOverloadException.class, maxAttempts = "3", delay = "1")
+        Object retry();
+
+        @RpcRetry(maxAttempts = "1", delay = "1")
+        Object retryAny();
+    }
+
+    @Rpc
+    @RpcExecutor("single")
+    public interface QueuedRpc {
+        String block();
+    }
+
+    public RpcConcurrencyLimitTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testRejectAboveLimit() throws Exception {
+        LimitRpc rpc = mock(LimitRpc.class);
+
+        HekateTestNode server = prepareLimitedServer(rpc);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        LimitRpc proxy = client.rpc().clientFor(LimitRpc.class).build();
+
+        repeat(3, i -> {
+            CompletableFuture<Object> slow = new CompletableFuture<>();
+
+            when(rpc.slow()).thenReturn(slow);
+            when(rpc.fast()).thenReturn("ok" + i);
+
+            // Occupy the only permit.
+            CompletableFuture<Object> slowCall = proxy.slow();
+
+            expect(RpcServerOverloadException.class, proxy::fast);
+
+            slow.complete("slow" + i);
+
+            assertEquals("slow" + i, get(slowCall));
+            assertEquals("ok" + i, proxy.fast());
+        });
+    }
+
+    @Test
+    public void testRejectBeforeExecutorQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        HekateTestNode server = createNode(boot ->
+            boot.withRpc(rpc -> {
+                rpc.withExecutor(new RpcExecutorConfig().withName("single").withThreads(1));
+                rpc.withServer(new RpcServerConfig()
+                    .withHandler((QueuedRpc)() -> {
+                        started.countDown();
+
+                        await(release);
+
+                        return "ok";
+                    })
+                    .withConcurrencyLimit(new RpcConcurrencyLimitConfig()
+                        .withMinLimit(1)
+                        .withInitialLimit(1)
+                        .withMaxLimit(1)
+                    )
+                );
+            })
+        ).join();
+
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        QueuedRpc proxy = client.rpc().clientFor(QueuedRpc.class).build();
+
+        // Occupy the only permit and the only thread.
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(proxy::block);
+
+        await(started);
+
+        // Must be rejected immediately instead of waiting in the executor's queue.
+        expect(RpcServerOverloadException.class, proxy::block);
+
+        release.countDown();
+
+        assertEquals("ok", get(blocked));
+
+        // Permit must be released.
+        assertEquals("ok", proxy.block());
+    }
+
+    @Test
+    public void testRetryOnAnotherNode() throws Exception {
+        LimitRpc rpc1 = mock(LimitRpc.class);
+        LimitRpc rpc2 = mock(LimitRpc.class);
+
+        HekateTestNode server1 = prepareLimitedServer(rpc1);
+        HekateTestNode server2 = prepareLimitedServer(rpc2);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server1, server2);
+
+        CompletableFuture<Object> slow = new CompletableFuture<>();
+
+        when(rpc1.slow()).thenReturn(slow);
+        when(rpc1.retry()).thenReturn("ok");
+        when(rpc2.retry()).thenReturn("ok");
+
+        // Occupy the only permit of the first server.
+        CompletableFuture<Object> slowCall = client.rpc().clientFor(LimitRpc.class)
+            .filter(n -> n.equals(server1.localNode()))
+            .build()
+            .slow();
+
+        LimitRpc proxy = client.rpc().clientFor(LimitRpc.class).build();
+
+        repeat(10, i ->
+            assertEquals("ok", proxy.retry())
+        );
+
+        slow.complete("slow");
+
+        assertEquals("slow", get(slowCall));
+    }
+
+    @Test
+    public void testRetryOtherErrorsOnSameNode() throws Exception {
+        LimitRpc rpc1 = mock(LimitRpc.class);
+        LimitRpc rpc2 = mock(LimitRpc.class);
+
+        HekateTestNode server1 = prepareLimitedServer(rpc1);
+        HekateTestNode server2 = prepareLimitedServer(rpc2);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server1, server2);
+
+        LimitRpc proxy = client.rpc().clientFor(LimitRpc.class).build();
+
+        repeat(10, i -> {
+            reset(rpc1, rpc2);
+
+            when(rpc1.retryAny()).thenThrow(TEST_ERROR).thenReturn("ok");
+            when(rpc2.retryAny()).thenThrow(TEST_ERROR).thenReturn("ok");
+
+            assertEquals("ok", proxy.retryAny());
+
+            LimitRpc tried = mockingDetails(rpc1).getInvocations().isEmpty() ? rpc2 : rpc1;
+            LimitRpc other = tried == rpc1 ? rpc2 : rpc1;
+
+            // Non-overload errors must be retried on the same node.
+            verify(tried, times(2)).retryAny();
+            verify(other, never()).retryAny();
+        });
+    }
+
+    @Test
+    public void testLimitAdjustment() {
+        RpcConcurrencyLimiter limiter = new RpcConcurrencyLimiter(new RpcConcurrencyLimitConfig()
+            .withMinLimit(1)
+            .withInitialLimit(2)
+            .withMaxLimit(4)
+        );
+
+        assertEquals(2, limiter.limit());
+
+        // Fill up to the limit.
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, limiter.inFlight());
+        assertEquals(1, limiter.rejected());
+
+        RpcConcurrencyLimiter.Baseline baseline = new RpcConcurrencyLimiter.Baseline();
+
+        // Fast calls at full utilization -> Increase.
+        limiter.release(System.nanoTime(), baseline);
+
+        assertEquals(3, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        limiter.release(System.nanoTime(), baseline);
+        limiter.release(System.nanoTime(), baseline);
+
+        // Should not grow above the maximum.
+        assertEquals(4, limiter.limit());
+
+        long slowStartedAt = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+        // Slow call -> Decrease.
+        limiter.release(slowStartedAt, baseline);
+
+        assertEquals(3, limiter.limit());
+
+        // Slow call that was started before the last decrease -> No decrease (at most one decrease per window).
+        assertTrue(limiter.tryAcquire());
+
+        limiter.release(slowStartedAt, baseline);
+
+        assertEquals(3, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void testBatchLatencyPerCall() {
+        RpcConcurrencyLimiter limiter = new RpcConcurrencyLimiter(new RpcConcurrencyLimitConfig()
+            .withMinLimit(1)
+            .withInitialLimit(10)
+            .withMaxLimit(100)
+        );
+
+        RpcConcurrencyLimiter.Baseline baseline = new RpcConcurrencyLimiter.Baseline();
+
+        long callLatency = TimeUnit.MILLISECONDS.toNanos(5);
+
+        // Single call.
+        assertTrue(limiter.tryAcquire());
+
+        limiter.release(System.nanoTime() - callLatency, baseline);
+
+        // Batches of different sizes with the same latency per call -> No decrease.
+        for (int size : new int[]{10, 50, 100}) {
+            assertTrue(limiter.tryAcquire());
+
+            limiter.release(System.nanoTime() - callLatency * size, size, baseline);
+        }
+
+        assertEquals(10, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void testMixedLatencyMethods() throws Exception {
+        RpcConcurrencyLimiter limiter = new RpcConcurrencyLimiter(new RpcConcurrencyLimitConfig()
+            .withMinLimit(1)
+            .withInitialLimit(10)
+            .withMaxLimit(100)
+        );
+
+        RpcConcurrencyLimiter.Baseline fast = new RpcConcurrencyLimiter.Baseline();
+        RpcConcurrencyLimiter.Baseline slow = new RpcConcurrencyLimiter.Baseline();
+
+        long slowLatency = TimeUnit.MILLISECONDS.toNanos(50);
+
+        repeat(100, i -> {
+            assertTrue(limiter.tryAcquire());
+
+            limiter.release(System.nanoTime(), fast);
+
+            assertTrue(limiter.tryAcquire());
+
+            limiter.release(System.nanoTime() - slowLatency, slow);
+        });
+
+        // Slow method is compared to its own baseline and doesn't look like an overload.
+        assertEquals(10, limiter.limit());
+
+        // Slow method becomes even slower -> Decrease.
+        assertTrue(limiter.tryAcquire());
+
+        limiter.release(System.nanoTime() - slowLatency * 10, slow);
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private HekateTestNode prepareLimitedServer(LimitRpc handler) throws Exception {
+        return createNode(boot ->
+            boot.withRpc(rpc ->
+                rpc.withServer(new RpcServerConfig()
+                    .withHandler(handler)
+                    .withConcurrencyLimit(new RpcConcurrencyLimitConfig()
+                        .withMinLimit(1)
+                        .withInitialLimit(1)
+                        .withMaxLimit(1)
+                    )
+                )
+            )
+        ).join();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.messaging.MessageTimeoutException;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcDeadline;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.RpcExecutor;
+import io.hekate.rpc.RpcExecutorConfig;
+import io.hekate.rpc.RpcServerConfig;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RpcDeadlineTest extends RpcServiceTestBase {
+    private static final long NO_DEADLINE = -1;
+
+    @Rpc
+    public interface InnerRpc {
+        long remainingTime();
+    }
+
+    @Rpc
+    public interface OuterRpc {
+        long remainingTime();
+    }
+
+    @Rpc
+    @RpcExecutor("single")
+    public interface QueuedRpc {
+        String block();
+
+        int count();
+    }
+
+    private static class InnerRpcImpl implements InnerRpc {
+        @Override
+        public long remainingTime() {
+            return RpcDeadline.remainingTime().orElse(NO_DEADLINE);
+        }
+    }
+
+    private static class QueuedRpcImpl implements QueuedRpc {
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String block() {
+            started.countDown();
+
+            await(release);
+
+            return "ok";
+        }
+
+        @Override
+        public int count() {
+            return count.incrementAndGet();
+        }
+    }
+
+    public RpcDeadlineTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testRemainingTime() throws Exception {
+        ClientAndServer ctx = prepareClientAndServer(new InnerRpcImpl());
+
+        assertEquals(NO_DEADLINE, ctx.client().rpc().clientFor(InnerRpc.class).build().remainingTime());
+
+        long remaining = ctx.client().rpc().clientFor(InnerRpc.class)
+            .withTimeout(AWAIT_TIMEOUT, TimeUnit.SECONDS)
+            .build()
+            .remainingTime();
+
+        assertTrue(remaining > 0);
+        assertTrue(remaining <= TimeUnit.SECONDS.toMillis(AWAIT_TIMEOUT));
+
+        // Deadline must not leak out of the RPC call.
+        assertFalse(RpcDeadline.remainingTime().isPresent());
+    }
+
+    @Test
+    public void testNestedCallInheritsDeadline() throws Exception {
+        HekateTestNode inner = prepareServer(new InnerRpcImpl(), null);
+
+        OuterRpc outer = new OuterRpc() {
+            @Override
+            public long remainingTime() {
+                // Nested call with a much larger timeout.
+                return inner.rpc().clientFor(InnerRpc.class)
+                    .withTimeout(1, TimeUnit.HOURS)
+                    .build()
+                    .remainingTime();
+            }
+        };
+
+        HekateTestNode server = prepareServer(outer, null);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server, inner);
+
+        long remaining = client.rpc().clientFor(OuterRpc.class)
+            .withTimeout(AWAIT_TIMEOUT, TimeUnit.SECONDS)
+            .build()
+            .remainingTime();
+
+        assertTrue(remaining > 0);
+        assertTrue(remaining <= TimeUnit.SECONDS.toMillis(AWAIT_TIMEOUT));
+    }
+
+    @Test
+    public void testNestedCallFailsFastIfDeadlinePassed() throws Exception {
+        AtomicInteger innerCalls = new AtomicInteger();
+
+        HekateTestNode inner = prepareServer(new InnerRpc() {
+            @Override
+            public long remainingTime() {
+                return innerCalls.incrementAndGet();
+            }
+        }, null);
+
+        CompletableFuture<Throwable> nestedErr = new CompletableFuture<>();
+
+        OuterRpc outer = new OuterRpc() {
+            @Override
+            public long remainingTime() {
+                // Wait for the deadline to pass.
+                while (RpcDeadline.remainingTime().getAsLong() > 0) {
+                    sleep(10);
+                }
+
+                try {
+                    return inner.rpc().clientFor(InnerRpc.class).build().remainingTime();
+                } catch (Throwable t) {
+                    nestedErr.complete(t);
+
+                    throw t;
+                }
+            }
+        };
+
+        HekateTestNode server = prepareServer(outer, null);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server, inner);
+
+        expect(RpcException.class, () ->
+            client.rpc().clientFor(OuterRpc.class)
+                .withTimeout(50, TimeUnit.MILLISECONDS)
+                .build()
+                .remainingTime()
+        );
+
+        RpcException err = (RpcException)get(nestedErr);
+
+        assertTrue(err.isCausedBy(MessageTimeoutException.class));
+
+        // Nested call must not be submitted.
+        assertEquals(0, innerCalls.get());
+    }
+
+    @Test
+    public void testSkipExpiredCall() throws Exception {
+        QueuedRpcImpl rpc = new QueuedRpcImpl();
+
+        HekateTestNode server = createNode(boot ->
+            boot.withRpc(cfg -> {
+                cfg.withServer(new RpcServerConfig().withHandler(rpc));
+                cfg.withExecutor(new RpcExecutorConfig().withName("single").withThreads(1));
+            })
+        ).join();
+
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        QueuedRpc proxy = client.rpc().clientFor(QueuedRpc.class).build();
+
+        // Occupy the only thread.
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(proxy::block);
+
+        await(rpc.started);
+
+        // Enqueue a call that will expire while waiting in the queue.
+        RpcException err = expect(RpcException.class, () ->
+            client.rpc().clientFor(QueuedRpc.class)
+                .withTimeout(50, TimeUnit.MILLISECONDS)
+                .build()
+                .count()
+        );
+
+        assertTrue(err.isCausedBy(MessageTimeoutException.class));
+
+        rpc.release.countDown();
+
+        assertEquals("ok", get(blocked));
+
+        // Calls are processed in FIFO order -> Expired call must be skipped before this one.
+        assertEquals(1, proxy.count());
+    }
+}
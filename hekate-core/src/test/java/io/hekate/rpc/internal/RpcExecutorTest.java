@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.HekateConfigurationException;
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcExecutor;
+import io.hekate.rpc.RpcExecutorConfig;
+import io.hekate.rpc.RpcServerConfig;
+import io.hekate.rpc.RpcServerOverloadException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RpcExecutorTest extends RpcServiceTestBase {
+    @Rpc
+    @RpcExecutor("slow")
+    public interface ExecutorRpc {
+        String slow();
+
+        @RpcExecutor("")
+        String fast();
+
+        String block();
+    }
+
+    private static class ExecutorRpcImpl implements ExecutorRpc {
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String slow() {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public String fast() {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public String block() {
+            started.countDown();
+
+            await(release);
+
+            return "ok";
+        }
+    }
+
+    private final MeterRegistry metrics = new SimpleMeterRegistry();
+
+    public RpcExecutorTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testExecutorThreads() throws Exception {
+        HekateTestNode server = prepareServer(new ExecutorRpcImpl());
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        ExecutorRpc proxy = client.rpc().clientFor(ExecutorRpc.class).build();
+
+        repeat(5, i -> {
+            assertTrue(proxy.slow(), proxy.slow().contains("RpcExecutor-slow"));
+            assertFalse(proxy.fast(), proxy.fast().contains("RpcExecutor-slow"));
+        });
+
+        // Execution time is recorded after the reply is sent.
+        busyWait("execution time", () ->
+            metrics.get("hekate.rpc.executor.exec.time").tag("executor", "slow").timer().count() == 10
+        );
+
+        assertEquals(10, metrics.get("hekate.rpc.executor.wait.time").tag("executor", "slow").timer().count());
+    }
+
+    @Test
+    public void testRejectQueueOverflow() throws Exception {
+        ExecutorRpcImpl rpc = new ExecutorRpcImpl();
+
+        HekateTestNode server = prepareServer(rpc);
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        ExecutorRpc proxy = client.rpc().clientFor(ExecutorRpc.class).build();
+
+        // Occupy the only thread.
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(proxy::block);
+
+        await(rpc.started);
+
+        // Occupy the only queue slot.
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(proxy::slow);
+
+        busyWait("queued call", () ->
+            metrics.get("hekate.rpc.executor.queue").tag("executor", "slow").gauge().value() == 1
+        );
+
+        expect(RpcServerOverloadException.class, proxy::slow);
+
+        assertEquals(1, metrics.get("hekate.rpc.executor.rejected").tag("executor", "slow").counter().count(), 0);
+
+        // Methods that are executed by worker threads are not affected.
+        assertFalse(proxy.fast().contains("RpcExecutor-slow"));
+
+        rpc.release.countDown();
+
+        assertEquals("ok", get(blocked));
+        assertTrue(get(queued).contains("RpcExecutor-slow"));
+    }
+
+    @Test
+    public void testMetricsRemovedOnLeave() throws Exception {
+        HekateTestNode server = prepareServer(new ExecutorRpcImpl());
+
+        // Meters are tagged with the node identifier since the registry can be shared by multiple nodes.
+        String nodeId = server.localNode().id().toString();
+
+        assertNotNull(metrics.find("hekate.rpc.executor.queue").tag("executor", "slow").tag("node", nodeId).gauge());
+
+        server.leave();
+
+        assertNull(metrics.find("hekate.rpc.executor.queue").tag("executor", "slow").gauge());
+        assertNull(metrics.find("hekate.rpc.executor.exec.time").tag("executor", "slow").timer());
+
+        server.join();
+
+        ExecutorRpc proxy = server.rpc().clientFor(ExecutorRpc.class).build();
+
+        proxy.slow();
+
+        // Meters are bound to the new thread pool (execution time is recorded after the reply is sent).
+        busyWait("execution time", () ->
+            metrics.get("hekate.rpc.executor.exec.time").tag("executor", "slow").timer().count() == 1
+        );
+    }
+
+    @Test
+    public void failIfUnknownExecutor() throws Exception {
+        expect(HekateConfigurationException.class, "Unknown RPC executor [executor=slow", () ->
+            createNode(boot ->
+                boot.withRpc(rpc ->
+                    rpc.withServer(new RpcServerConfig().withHandler(new ExecutorRpcImpl()))
+                )
+            ).join()
+        );
+    }
+
+    private HekateTestNode prepareServer(ExecutorRpc handler) throws Exception {
+        return createNode(boot -> {
+            boot.withMetrics(metrics);
+            boot.withRpc(rpc -> {
+                rpc.withServer(new RpcServerConfig().withHandler(handler));
+                rpc.withExecutor(new RpcExecutorConfig()
+                    .withName("slow")
+                    .withThreads(1)
+                    .withMaxQueueSize(1)
+                );
+            });
+        }).join();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcServerConfig;
+import io.hekate.test.HekateTestError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RpcMetricsTest extends RpcServiceTestBase {
+    @Rpc
+    public interface MetricsRpc {
+        String call(String arg);
+
+        void fail();
+    }
+
+    private static class MetricsRpcImpl implements MetricsRpc {
+        @Override
+        public String call(String arg) {
+            return arg + arg;
+        }
+
+        @Override
+        public void fail() {
+            throw new RuntimeException(HekateTestError.MESSAGE);
+        }
+    }
+
+    private final MeterRegistry clientMetrics = new SimpleMeterRegistry();
+
+    private final MeterRegistry serverMetrics = new SimpleMeterRegistry();
+
+    public RpcMetricsTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testCalls() throws Exception {
+        MetricsRpc proxy = prepare(null);
+
+        repeat(5, i -> assertEquals("testtest", proxy.call("test")));
+
+        String method = "call(java.lang.String)";
+
+        assertEquals(5, search(clientMetrics, "hekate.rpc.client.time", "", method).timer().count());
+        assertEquals(0, search(clientMetrics, "hekate.rpc.client.errors", "", method).counter().count(), 0);
+        assertEquals(0, search(clientMetrics, "hekate.rpc.client.active", "", method).gauge().value(), 0);
+
+        assertEquals(5, search(serverMetrics, "hekate.rpc.server.time", null, method).timer().count());
+        assertEquals(0, search(serverMetrics, "hekate.rpc.server.errors", null, method).counter().count(), 0);
+        assertEquals(0, search(serverMetrics, "hekate.rpc.server.active", null, method).gauge().value(), 0);
+
+        DistributionSummary clientArgs = search(clientMetrics, "hekate.rpc.client.args.size", "", method).summary();
+        DistributionSummary serverArgs = search(serverMetrics, "hekate.rpc.server.args.size", null, method).summary();
+        DistributionSummary serverResult = search(serverMetrics, "hekate.rpc.server.result.size", null, method).summary();
+        DistributionSummary clientResult = search(clientMetrics, "hekate.rpc.client.result.size", "", method).summary();
+
+        assertEquals(5, clientArgs.count());
+        assertTrue(clientArgs.totalAmount() > 0);
+
+        assertEquals(5, serverResult.count());
+        assertTrue(serverResult.totalAmount() > 0);
+
+        // Same payloads are measured on both sides.
+        assertEquals(clientArgs.count(), serverArgs.count());
+        assertEquals(clientArgs.totalAmount(), serverArgs.totalAmount(), 0);
+
+        assertEquals(serverResult.count(), clientResult.count());
+        assertEquals(serverResult.totalAmount(), clientResult.totalAmount(), 0);
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        MetricsRpc proxy = prepare(null);
+
+        repeat(3, i -> expectExactMessage(RuntimeException.class, HekateTestError.MESSAGE, proxy::fail));
+
+        assertEquals(3, search(clientMetrics, "hekate.rpc.client.time", "", "fail()").timer().count());
+        assertEquals(3, search(clientMetrics, "hekate.rpc.client.errors", "", "fail()").counter().count(), 0);
+
+        assertEquals(3, search(serverMetrics, "hekate.rpc.server.time", null, "fail()").timer().count());
+        assertEquals(3, search(serverMetrics, "hekate.rpc.server.errors", null, "fail()").counter().count(), 0);
+    }
+
+    @Test
+    public void testTags() throws Exception {
+        MetricsRpc proxy = prepare("b");
+
+        proxy.call("test");
+
+        String method = "call(java.lang.String)";
+
+        assertEquals(1, search(clientMetrics, "hekate.rpc.client.time", "b", method).timer().count());
+
+        // Server-side metrics are shared by all tags of the server and are not tagged with RPC tags.
+        Timer serverTime = search(serverMetrics, "hekate.rpc.server.time", null, method).timer();
+
+        assertEquals(1, serverTime.count());
+        assertNull(serverTime.getId().getTag("tag"));
+    }
+
+    @Test
+    public void testMetricsRemovedOnLeave() throws Exception {
+        HekateTestNode node = createNode(boot -> {
+            boot.withMetrics(serverMetrics);
+            boot.withRpc(rpc ->
+                rpc.withServer(new RpcServerConfig().withHandler(new MetricsRpcImpl()))
+            );
+        }).join();
+
+        String method = "call(java.lang.String)";
+
+        MetricsRpc proxy = node.rpc().clientFor(MetricsRpc.class).build();
+
+        repeat(3, i -> assertEquals("testtest", proxy.call("test")));
+
+        Gauge oldActive = search(serverMetrics, "hekate.rpc.server.active", null, method).gauge();
+
+        node.leave();
+
+        assertTrue(serverMetrics.find("hekate.rpc.server.active").gauges().isEmpty());
+        assertTrue(serverMetrics.find("hekate.rpc.server.time").timers().isEmpty());
+        assertTrue(serverMetrics.find("hekate.rpc.client.active").gauges().isEmpty());
+        assertTrue(serverMetrics.find("hekate.rpc.client.time").timers().isEmpty());
+
+        node.join();
+
+        MetricsRpc newProxy = node.rpc().clientFor(MetricsRpc.class).build();
+
+        assertEquals("testtest", newProxy.call("test"));
+
+        // Meters are re-registered and are bound to the new instances.
+        assertNotSame(oldActive, search(serverMetrics, "hekate.rpc.server.active", null, method).gauge());
+        assertEquals(1, search(serverMetrics, "hekate.rpc.server.time", null, method).timer().count());
+        assertEquals(1, search(serverMetrics, "hekate.rpc.client.time", "", method).timer().count());
+    }
+
+    @Test
+    public void testSharedRegistry() throws Exception {
+        HekateTestNode node1 = createNode(boot -> {
+            boot.withMetrics(serverMetrics);
+            boot.withRpc(rpc ->
+                rpc.withServer(new RpcServerConfig().withHandler(new MetricsRpcImpl()))
+            );
+        }).join();
+
+        HekateTestNode node2 = createNode(boot -> {
+            boot.withMetrics(serverMetrics);
+            boot.withRpc(rpc ->
+                rpc.withServer(new RpcServerConfig().withHandler(new MetricsRpcImpl()))
+            );
+        }).join();
+
+        awaitForTopology(node1, node2);
+
+        String method = "call(java.lang.String)";
+
+        node1.rpc().clientFor(MetricsRpc.class).forRemotes().build().call("test");
+        node2.rpc().clientFor(MetricsRpc.class).forRemotes().build().call("test");
+
+        // Each node has its own meters.
+        assertEquals(2, serverMetrics.find("hekate.rpc.server.time").tag("method", method).timers().size());
+
+        String nodeId1 = node1.localNode().id().toString();
+        String nodeId2 = node2.localNode().id().toString();
+
+        Timer time1 = search(serverMetrics, "hekate.rpc.server.time", null, method).tag("node", nodeId1).timer();
+        Timer time2 = search(serverMetrics, "hekate.rpc.server.time", null, method).tag("node", nodeId2).timer();
+
+        assertNotSame(time1, time2);
+        assertEquals(1, time1.count());
+        assertEquals(1, time2.count());
+
+        node1.leave();
+
+        // Meters of the remaining node are not affected.
+        assertNull(serverMetrics.find("hekate.rpc.server.time").tag("node", nodeId1).timer());
+        assertSame(time2, search(serverMetrics, "hekate.rpc.server.time", null, method).timer());
+    }
+
+    private MetricsRpc prepare(String tag) throws Exception {
+        HekateTestNode server = createNode(boot -> {
+            boot.withMetrics(serverMetrics);
+            boot.withRpc(rpc -> {
+                RpcServerConfig cfg = new RpcServerConfig().withHandler(new MetricsRpcImpl());
+
+                if (tag != null) {
+                    cfg.withTag("a").withTag(tag);
+                }
+
+                rpc.withServer(cfg);
+            });
+        }).join();
+
+        HekateTestNode client = createNode(boot ->
+            boot.withMetrics(clientMetrics)
+        ).join();
+
+        awaitForTopology(client, server);
+
+        return client.rpc().clientFor(MetricsRpc.class, tag).build();
+    }
+
+    private static RequiredSearch search(MeterRegistry metrics, String name, String tag, String method) {
+        RequiredSearch search = metrics.get(name)
+            .tag("rpc", MetricsRpc.class.getName())
+            .tag("method", method);
+
+        // Server-side meters are not tagged with RPC tags.
+        return tag == null ? search : search.tag("tag", tag);
+    }
+}
@@ -17,30 +17,42 @@
 package io.hekate.rpc.internal;
 
 import io.hekate.core.internal.HekateTestNode;
+import io.hekate.messaging.MessageTimeoutException;
 import io.hekate.messaging.loadbalance.EmptyTopologyException;
+import io.hekate.partition.PartitionMapper;
 import io.hekate.rpc.Rpc;
 import io.hekate.rpc.RpcAggregate;
+import io.hekate.rpc.RpcAggregateException;
+import io.hekate.rpc.RpcClientBuilder;
 import io.hekate.rpc.RpcException;
 import io.hekate.rpc.RpcRetry;
 import io.hekate.rpc.RpcSplit;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.Test;
 
 import static io.hekate.rpc.RpcAggregate.RemoteErrors.IGNORE;
 import static io.hekate.rpc.RpcAggregate.RemoteErrors.WARN;
+import static io.hekate.rpc.RpcSplit.Mode.PARTITIONED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalMatchers.or;
 import static org.mockito.ArgumentMatchers.any;
@@ -49,6 +61,7 @@ import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -79,6 +92,12 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
         @RpcAggregate
         Collection<Object> errors(@RpcSplit List<Object> arg);
 
+        @RpcAggregate(remoteErrors = IGNORE, deadline = 100)
+        List<Object> deadline(@RpcSplit List<Object> arg);
+
+        @RpcAggregate(deadline = 100)
+        List<Object> failDeadline(@RpcSplit List<Object> arg);
+
         @RpcRetry
         @RpcAggregate
         List<Object> retry(@RpcSplit List<Object> arg);
@@ -86,6 +105,12 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
         @RpcAggregate
         @RpcRetry(maxAttempts = "1", delay = "10", maxDelay = "100")
         List<Object> retryMethod(@RpcSplit List<Object> arg);
+
+        @RpcAggregate
+        List<Object> partitionedList(@RpcSplit(mode = PARTITIONED) List<Object> arg);
+
+        @RpcAggregate
+        Map<Object, Object> partitionedMap(@RpcSplit(mode = PARTITIONED) Map<Object, Object> arg);
     }
 
     private final AggregateRpc rpc1 = mock(AggregateRpc.class);
@@ -94,6 +119,8 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
 
     private AggregateRpc clientRpc;
 
+    private PartitionMapper clientPartitions;
+
     private HekateTestNode server1;
 
     private HekateTestNode server2;
@@ -115,9 +142,11 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
 
         client = ctx.client();
 
-        clientRpc = client.rpc().clientFor(AggregateRpc.class)
-            .withTimeout(AWAIT_TIMEOUT, TimeUnit.SECONDS)
-            .build();
+        RpcClientBuilder<AggregateRpc> builder = client.rpc().clientFor(AggregateRpc.class)
+            .withTimeout(AWAIT_TIMEOUT, TimeUnit.SECONDS);
+
+        clientRpc = builder.build();
+        clientPartitions = builder.partitions();
     }
 
     @Test
@@ -139,6 +168,61 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
         });
     }
 
+    @Test
+    public void testPartitionedList() throws Exception {
+        Set<Object> received1 = ConcurrentHashMap.newKeySet();
+        Set<Object> received2 = ConcurrentHashMap.newKeySet();
+
+        when(rpc1.partitionedList(anyList())).thenAnswer(call -> {
+            received1.addAll(call.getArgument(0));
+
+            return call.getArgument(0);
+        });
+
+        when(rpc2.partitionedList(anyList())).thenAnswer(call -> {
+            received2.addAll(call.getArgument(0));
+
+            return call.getArgument(0);
+        });
+
+        List<Object> keys = IntStream.range(0, 100).boxed().collect(toList());
+
+        List<Object> result = clientRpc.partitionedList(keys);
+
+        assertEquals(new HashSet<>(keys), new HashSet<>(result));
+
+        assertFalse(received1.isEmpty());
+        assertFalse(received2.isEmpty());
+
+        assertEquals(primaryKeys(keys, server1), received1);
+        assertEquals(primaryKeys(keys, server2), received2);
+    }
+
+    @Test
+    public void testPartitionedMap() throws Exception {
+        Set<Object> received1 = ConcurrentHashMap.newKeySet();
+        Set<Object> received2 = ConcurrentHashMap.newKeySet();
+
+        when(rpc1.partitionedMap(anyMap())).thenAnswer(call -> {
+            received1.addAll(call.<Map<Object, Object>>getArgument(0).keySet());
+
+            return call.getArgument(0);
+        });
+
+        when(rpc2.partitionedMap(anyMap())).thenAnswer(call -> {
+            received2.addAll(call.<Map<Object, Object>>getArgument(0).keySet());
+
+            return call.getArgument(0);
+        });
+
+        Map<Object, Object> map = IntStream.range(0, 100).boxed().collect(toMap(k -> "key" + k, k -> k));
+
+        assertEquals(map, clientRpc.partitionedMap(map));
+
+        assertEquals(primaryKeys(map.keySet(), server1), received1);
+        assertEquals(primaryKeys(map.keySet(), server2), received2);
+    }
+
     @Test
     public void testSmallList() throws Exception {
         repeat(3, i -> {
@@ -430,7 +514,13 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
             when(rpc1.errors(singletonList(i))).thenThrow(TEST_ERROR);
             when(rpc2.errors(singletonList(i))).thenThrow(TEST_ERROR);
 
-            expect(RpcException.class, () -> clientRpc.errors(asList(i, i)));
+            RpcAggregateException err = expect(RpcAggregateException.class, () -> clientRpc.errors(asList(i, i)));
+
+            assertTrue(err.partialResults().isEmpty());
+
+            assertEquals(2, err.errors().size());
+            assertEquals(TEST_ERROR.getClass(), err.errors().get(server1.localNode()).getClass());
+            assertEquals(TEST_ERROR.getClass(), err.errors().get(server2.localNode()).getClass());
 
             verify(rpc1).errors(singletonList(i));
             verify(rpc2).errors(singletonList(i));
@@ -446,7 +536,13 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
             when(rpc1.errors(singletonList(i))).thenReturn(asList(i, i, i));
             when(rpc2.errors(singletonList(i))).thenThrow(TEST_ERROR);
 
-            expect(RpcException.class, () -> clientRpc.errors(asList(i, i)));
+            RpcAggregateException err = expect(RpcAggregateException.class, () -> clientRpc.errors(asList(i, i)));
+
+            assertEquals(1, err.partialResults().size());
+            assertEquals(asList(i, i, i), err.partialResults().get(server1.localNode()));
+
+            assertEquals(1, err.errors().size());
+            assertEquals(TEST_ERROR.getClass(), err.errors().get(server2.localNode()).getClass());
 
             verify(rpc1).errors(singletonList(i));
             verify(rpc2).errors(singletonList(i));
@@ -456,6 +552,64 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
         });
     }
 
+    @Test
+    public void testDeadline() throws Exception {
+        repeat(3, i -> {
+            CountDownLatch latch = new CountDownLatch(1);
+
+            try {
+                when(rpc1.deadline(singletonList(i))).thenReturn(asList(i, i, i));
+                when(rpc2.deadline(singletonList(i))).thenAnswer(x -> {
+                    await(latch);
+
+                    return asList(i, i, i);
+                });
+
+                List<Object> result = clientRpc.deadline(asList(i, i));
+
+                assertEquals(asList(i, i, i), result);
+            } finally {
+                latch.countDown();
+            }
+
+            verify(rpc1).deadline(singletonList(i));
+            busyWait("server 2 call", () -> mockingDetails(rpc2).getInvocations().size() == 1);
+
+            reset(rpc1, rpc2);
+        });
+    }
+
+    @Test
+    public void testFailDeadline() throws Exception {
+        repeat(3, i -> {
+            CountDownLatch latch = new CountDownLatch(1);
+
+            try {
+                when(rpc1.failDeadline(singletonList(i))).thenReturn(asList(i, i, i));
+                when(rpc2.failDeadline(singletonList(i))).thenAnswer(x -> {
+                    await(latch);
+
+                    return asList(i, i, i);
+                });
+
+                RpcAggregateException err = expect(RpcAggregateException.class, () -> clientRpc.failDeadline(asList(i, i)));
+
+                assertEquals(1, err.partialResults().size());
+                assertEquals(asList(i, i, i), err.partialResults().get(server1.localNode()));
+
+                assertEquals(1, err.errors().size());
+                assertEquals(MessageTimeoutException.class, err.errors().get(server2.localNode()).getClass());
+            } finally {
+                latch.countDown();
+            }
+
+            verify(rpc1).failDeadline(singletonList(i));
+            busyWait("server 2 call", () -> mockingDetails(rpc2).getInvocations().size() == 1);
+
+            reset(rpc1, rpc2);
+        });
+    }
+
     @Test
     public void testRecursiveResult() throws Exception {
         AggregateRpc nestedRpc1 = server1.rpc().clientFor(AggregateRpc.class)
@@ -548,4 +702,10 @@ public class RpcSplitAggregateTest extends RpcServiceTestBase {
             reset(rpc1, rpc2);
         });
     }
+
+    private Set<Object> primaryKeys(Collection<Object> keys, HekateTestNode node) {
+        return keys.stream()
+            .filter(key -> clientPartitions.map(key).primaryNode().equals(node.localNode()))
+            .collect(toCollection(HashSet::new));
+    }
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2021 The Hekate Project
+ *
+ * The Hekate Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.hekate.rpc.internal;
+
+import io.hekate.core.internal.HekateTestNode;
+import io.hekate.core.internal.util.ErrorUtils;
+import io.hekate.messaging.MessageTimeoutException;
+import io.hekate.rpc.Rpc;
+import io.hekate.rpc.RpcException;
+import io.hekate.rpc.RpcServerConfig;
+import io.hekate.test.HekateTestError;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RpcStreamTest extends RpcServiceTestBase {
+    @Rpc
+    public interface StreamRpc {
+        Stream<Object> stream(int size);
+    }
+
+    public RpcStreamTest(MultiCodecTestContext ctx) {
+        super(ctx);
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call -> {
+            int size = call.getArgument(0);
+
+            return IntStream.range(0, size).mapToObj(i -> i % 10 == 0 ? null : "value" + i);
+        });
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        for (int size : new int[]{0, 1, RpcStreamSessions.CHUNK_SIZE - 1, RpcStreamSessions.CHUNK_SIZE, 10_000}) {
+            List<Object> expected = IntStream.range(0, size).mapToObj(i -> i % 10 == 0 ? null : "value" + i).collect(toList());
+
+            try (Stream<Object> stream = proxy.stream(size)) {
+                assertEquals(expected, stream.collect(toList()));
+            }
+        }
+    }
+
+    @Test
+    public void testNullStream() throws Exception {
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        try (Stream<Object> stream = proxy.stream(1)) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            IntStream.range(0, Integer.MAX_VALUE).peek(i -> pulled.incrementAndGet()).boxed()
+        );
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        // Maximum amount of elements that can be pulled by the server ahead of the client:
+        // initial credits + one credit of the chunk that is being consumed + one look-ahead element.
+        int maxPulled = RpcStreamSessions.CHUNK_SIZE * (RpcStreamSessions.INITIAL_CREDITS + 1) + 1;
+
+        try (Stream<Object> stream = proxy.stream(0)) {
+            Iterator<Object> it = stream.iterator();
+
+            for (int i = 0; i < RpcStreamSessions.CHUNK_SIZE * 10; i++) {
+                assertTrue(it.hasNext());
+                assertEquals(i, it.next());
+
+                if (i % RpcStreamSessions.CHUNK_SIZE == 0) {
+                    sleep(50);
+
+                    assertTrue(pulled.get() <= i + maxPulled);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            Stream.iterate(0, i -> i + 1).map(i -> (Object)i).onClose(closed::countDown)
+        );
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        try (Stream<Object> stream = proxy.stream(0)) {
+            assertEquals(10, stream.limit(10).count());
+        }
+
+        await(closed);
+    }
+
+    @Test
+    public void testCancelBeforeFirstChunk() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            Stream.iterate(0, i -> i + 1).map(i -> (Object)i).onClose(closed::countDown)
+        );
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        proxy.stream(0).close();
+
+        await(closed);
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            Stream.iterate(0, i -> i + 1).map(i -> (Object)i).onClose(closed::countDown)
+        );
+
+        HekateTestNode server = createNode(boot -> boot.withRpc(it -> {
+            it.withStreamIdleTimeout(200);
+            it.withServer(new RpcServerConfig().withHandler(rpc));
+        })).join();
+
+        HekateTestNode client = createNode().join();
+
+        awaitForTopology(client, server);
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        // Short-circuiting operation without closing the stream.
+        assertEquals(0, proxy.stream(0).findFirst().orElse(null));
+
+        await(closed);
+
+        busyWait("streams cleanup", () -> ((DefaultRpcService)server.rpc()).streamsSize() == 0);
+
+        // Slow client gets an error once it reaches the end of the elements that were received before the stream expired.
+        Iterator<Object> it = proxy.stream(0).iterator();
+
+        assertEquals(0, it.next());
+
+        sleep(500);
+
+        RpcException err = expect(RpcException.class, () -> {
+            while (it.hasNext()) {
+                it.next();
+            }
+        });
+
+        assertTrue(ErrorUtils.stackTrace(err), err.getMessage().contains("inactivity"));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            IntStream.range(0, RpcStreamSessions.CHUNK_SIZE * 10).mapToObj(i -> {
+                // Block the server before the last chunk.
+                if (i == RpcStreamSessions.CHUNK_SIZE * 9) {
+                    await(unblock);
+                }
+
+                return i;
+            })
+        );
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class)
+            .withTimeout(200, TimeUnit.MILLISECONDS)
+            .build();
+
+        try (Stream<Object> stream = proxy.stream(0)) {
+            Iterator<Object> it = stream.iterator();
+
+            // Time that is spent by the client between chunks doesn't count.
+            for (int i = 0; i < RpcStreamSessions.CHUNK_SIZE * 4; i++) {
+                assertEquals(i, it.next());
+
+                if (i % RpcStreamSessions.CHUNK_SIZE == 0) {
+                    sleep(300);
+                }
+            }
+
+            // Waiting for the blocked server.
+            RpcException err = expect(RpcException.class, () -> {
+                while (it.hasNext()) {
+                    it.next();
+                }
+            });
+
+            assertTrue(ErrorUtils.stackTrace(err), ErrorUtils.isCausedBy(MessageTimeoutException.class, err));
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).then(call ->
+            IntStream.range(0, RpcStreamSessions.CHUNK_SIZE * 3).mapToObj(i -> {
+                if (i == RpcStreamSessions.CHUNK_SIZE * 2) {
+                    throw new RuntimeException(HekateTestError.MESSAGE);
+                }
+
+                return i;
+            })
+        );
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        AtomicInteger received = new AtomicInteger();
+
+        try (Stream<Object> stream = proxy.stream(0)) {
+            expectExactMessage(RuntimeException.class, HekateTestError.MESSAGE, () ->
+                stream.forEach(e -> received.incrementAndGet())
+            );
+        }
+
+        assertEquals(RpcStreamSessions.CHUNK_SIZE * 2, received.get());
+    }
+
+    @Test
+    public void testMethodError() throws Exception {
+        StreamRpc rpc = mock(StreamRpc.class);
+
+        when(rpc.stream(anyInt())).thenThrow(new RuntimeException(HekateTestError.MESSAGE));
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        StreamRpc proxy = client.rpc().clientFor(StreamRpc.class).build();
+
+        try (Stream<Object> stream = proxy.stream(0)) {
+            Iterator<Object> it = stream.iterator();
+
+            expectExactMessage(RuntimeException.class, HekateTestError.MESSAGE, it::hasNext);
+
+            assertFalse(it.hasNext());
+        }
+    }
+}
@@ -27,6 +27,7 @@ import io.hekate.messaging.loadbalance.EmptyTopologyException;
 import io.hekate.partition.PartitionMapper;
 import io.hekate.rpc.Rpc;
 import io.hekate.rpc.RpcAffinityKey;
+import io.hekate.rpc.RpcBatch;
 import io.hekate.rpc.RpcClientBuilder;
 import io.hekate.rpc.RpcClientConfig;
 import io.hekate.rpc.RpcException;
@@ -36,15 +37,22 @@ import io.hekate.test.HekateTestError;
 import io.hekate.test.NonSerializable;
 import io.hekate.test.NonSerializableTestException;
 import io.hekate.test.SerializableTestException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.InvalidObjectException;
 import java.io.NotSerializableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -53,6 +61,7 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -109,6 +118,26 @@ public class RpcUnicastTest extends RpcServiceTestBase {
         CompletableFuture<Object> call();
     }
 
+    @Rpc
+    public interface TestRpcWithPrimitives {
+        Object call(long id, int version, String key);
+
+        Object callMixed(boolean b, byte b1, short s, char c, float f, double d, Integer boxed, UUID uuid, byte[] bytes, Object o1,
+            Object o2);
+    }
+
+    @Rpc
+    public interface TestRpcWithBatch {
+        @RpcBatch(maxSize = 4, delay = 60_000)
+        CompletableFuture<Object> callBySize(Object arg);
+
+        @RpcBatch(maxSize = 4, delay = 60_000)
+        Object call(@RpcAffinityKey Object arg);
+
+        @RpcBatch(maxSize = 64, delay = 300)
+        CompletableFuture<Object> callByDelay(Object arg);
+    }
+
     @Rpc
     public interface TestRpcWithError {
         Object callWithError() throws SerializableTestException;
@@ -129,6 +158,186 @@ public class RpcUnicastTest extends RpcServiceTestBase {
         assertNotNull(proxy.toString());
     }
 
+    @Test
+    public void testPrimitiveArgs() throws Exception {
+        TestRpcWithPrimitives rpc = mock(TestRpcWithPrimitives.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        TestRpcWithPrimitives proxy = client.rpc().clientFor(TestRpcWithPrimitives.class).build();
+
+        repeat(3, i -> {
+            when(rpc.call(Long.MAX_VALUE - i, -i, "key" + i)).thenReturn("result" + i);
+
+            assertEquals("result" + i, proxy.call(Long.MAX_VALUE - i, -i, "key" + i));
+
+            when(rpc.call(i, i, null)).thenReturn("null-result" + i);
+
+            assertEquals("null-result" + i, proxy.call(i, i, null));
+
+            UUID uuid = UUID.randomUUID();
+            byte[] bytes = {1, 2, (byte)i};
+
+            when(rpc.callMixed(true, (byte)i, (short)-i, 'x', 1.5f, -i / 3.0, i, uuid, bytes, "o" + i, null)).thenReturn("mixed" + i);
+
+            assertEquals("mixed" + i, proxy.callMixed(true, (byte)i, (short)-i, 'x', 1.5f, -i / 3.0, i, uuid, bytes, "o" + i, null));
+
+            when(rpc.callMixed(false, (byte)0, (short)0, 'y', 0, 0, null, null, null, null, i)).thenReturn("nulls" + i);
+
+            assertEquals("nulls" + i, proxy.callMixed(false, (byte)0, (short)0, 'y', 0, 0, null, null, null, null, i));
+        });
+    }
+
+    @Test
+    public void testBatchBySize() throws Exception {
+        TestRpcWithBatch rpc = mock(TestRpcWithBatch.class);
+
+        MeterRegistry metrics = new SimpleMeterRegistry();
+
+        HekateTestNode client = prepareBatchClient(rpc, metrics);
+
+        TestRpcWithBatch proxy = client.rpc().clientFor(TestRpcWithBatch.class).build();
+
+        // Timer thread must not be started until it is needed.
+        assertFalse(((DefaultRpcService)client.rpc()).timer().isStarted());
+
+        repeat(3, i -> {
+            when(rpc.callBySize("ok" + i)).thenReturn(CompletableFuture.completedFuture("result" + i));
+            when(rpc.callBySize("null" + i)).thenReturn(null);
+            when(rpc.callBySize("error" + i)).thenThrow(new RuntimeException(HekateTestError.MESSAGE));
+
+            CompletableFuture<Object> ok = proxy.callBySize("ok" + i);
+            CompletableFuture<Object> nul = proxy.callBySize("null" + i);
+            CompletableFuture<Object> err = proxy.callBySize("error" + i);
+
+            // Batch is not full.
+            assertFalse(ok.isDone());
+            assertFalse(nul.isDone());
+            assertFalse(err.isDone());
+
+            CompletableFuture<Object> last = proxy.callBySize("ok" + i);
+
+            assertEquals("result" + i, get(ok));
+            assertNull(get(nul));
+            assertEquals("result" + i, get(last));
+
+            ExecutionException e = expect(ExecutionException.class, () -> get(err));
+
+            assertEquals(RuntimeException.class, e.getCause().getClass());
+            assertEquals(HekateTestError.MESSAGE, e.getCause().getMessage());
+
+            verify(rpc, times(2)).callBySize("ok" + i);
+            verify(rpc).callBySize("null" + i);
+            verify(rpc).callBySize("error" + i);
+            verifyNoMoreInteractions(rpc);
+            reset(rpc);
+
+            // One request per each batch of 4 calls.
+            assertEquals(i + 1, wireRequests(metrics, "callBySize(java.lang.Object)"));
+        });
+
+        assertTrue(((DefaultRpcService)client.rpc()).timer().isStarted());
+    }
+
+    @Test
+    public void testBatchByDelay() throws Exception {
+        TestRpcWithBatch rpc = mock(TestRpcWithBatch.class);
+
+        when(rpc.callByDelay(any())).then(call -> CompletableFuture.completedFuture("result" + call.getArgument(0)));
+
+        MeterRegistry metrics = new SimpleMeterRegistry();
+
+        HekateTestNode client = prepareBatchClient(rpc, metrics);
+
+        TestRpcWithBatch proxy = client.rpc().clientFor(TestRpcWithBatch.class).build();
+
+        repeat(3, i -> {
+            long start = System.nanoTime();
+
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+            for (int j = 0; j < 3; j++) {
+                futures.add(proxy.callByDelay(j));
+            }
+
+            // Batch is not full.
+            futures.forEach(future -> assertFalse(future.isDone()));
+
+            for (int j = 0; j < 3; j++) {
+                assertEquals("result" + j, get(futures.get(j)));
+            }
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+
+            assertEquals(i + 1, wireRequests(metrics, "callByDelay(java.lang.Object)"));
+        });
+    }
+
+    @Test
+    public void testBatchFlushOnTerminate() throws Exception {
+        TestRpcWithBatch rpc = mock(TestRpcWithBatch.class);
+
+        HekateTestNode client = prepareClientAndServer(rpc).client();
+
+        TestRpcWithBatch proxy = client.rpc().clientFor(TestRpcWithBatch.class).build();
+
+        CompletableFuture<Object> first = proxy.callBySize("first");
+        CompletableFuture<Object> second = proxy.callBySize("second");
+
+        // Batch is not full.
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        client.leave();
+
+        // Partial batch must be flushed upon termination instead of waiting for the batch delay (or forever).
+        for (CompletableFuture<Object> future : asList(first, second)) {
+            try {
+                get(future);
+            } catch (ExecutionException e) {
+                assertNotNull(e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void testBatchConcurrent() throws Exception {
+        TestRpcWithBatch rpc = mock(TestRpcWithBatch.class);
+
+        when(rpc.call(any())).then(call -> {
+            Object arg = call.getArgument(0);
+
+            if (((Integer)arg) % 10 == 0) {
+                throw new RuntimeException(HekateTestError.MESSAGE);
+            }
+
+            return "result" + arg;
+        });
+
+        MeterRegistry metrics = new SimpleMeterRegistry();
+
+        HekateTestNode client = prepareBatchClient(rpc, metrics);
+
+        TestRpcWithBatch proxy = client.rpc().clientFor(TestRpcWithBatch.class).build();
+
+        AtomicInteger seq = new AtomicInteger();
+
+        runParallel(4, 250, status -> {
+            int arg = seq.incrementAndGet();
+
+            if (arg % 10 == 0) {
+                expectExactMessage(RuntimeException.class, HekateTestError.MESSAGE, () -> proxy.call(arg));
+            } else {
+                assertEquals("result" + arg, proxy.call(arg));
+            }
+        });
+
+        verify(rpc, times(1000)).call(any());
+
+        // Each batch consists of exactly 4 calls since every thread waits for the result of its call.
+        assertEquals(250, wireRequests(metrics, "call(java.lang.Object)"));
+    }
+
     @Test
     public void testVoid() throws Exception {
         TestRpcA rpc = mock(TestRpcA.class);
@@ -808,4 +1017,26 @@ public class RpcUnicastTest extends RpcServiceTestBase {
         verifyNoMoreInteractions(rpc);
         reset(rpc);
     }
+
+    private HekateTestNode prepareBatchClient(Object rpc, MeterRegistry metrics) throws Exception {
+        HekateTestNode server = prepareServer(rpc, null);
+
+        HekateTestNode client = createNode(boot -> {
+            boot.withNodeName("rpc-client");
+            boot.withMetrics(metrics);
+        }).join();
+
+        awaitForTopology(client, server);
+
+        return client;
+    }
+
+    private static long wireRequests(MeterRegistry metrics, String method) {
+        // Arguments size is recorded once per each request that is sent over the wire.
+        return metrics.get("hekate.rpc.client.args.size")
+            .tag("rpc", TestRpcWithBatch.class.getName())
+            .tag("method", method)
+            .summary()
+            .count();
+    }
 }
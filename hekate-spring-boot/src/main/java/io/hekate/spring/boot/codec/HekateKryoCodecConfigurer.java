@@ -45,6 +45,8 @@ import org.springframework.context.annotation.Configuration;
  * </p>
  * <ul>
  * <li>{@link KryoCodecFactory#setKnownTypes(List) 'hekate.codec.kryo.known-types'}</li>
+ * <li>{@link KryoCodecFactory#setScanPackages(List) 'hekate.codec.kryo.scan-packages'}</li>
+ * <li>{@link KryoCodecFactory#setScanAnnotation(Class) 'hekate.codec.kryo.scan-annotation'}</li>
  * <li>{@link KryoCodecFactory#setRegistrationRequired(boolean) 'hekate.codec.kryo.registration-required'}</li>
  * <li>{@link KryoCodecFactory#setUnsafeIo(boolean) 'hekate.codec.kryo.unsafe-io'}</li>
  * <li>{@link KryoCodecFactory#setReferences(Boolean) 'hekate.codec.kryo.references'}</li>
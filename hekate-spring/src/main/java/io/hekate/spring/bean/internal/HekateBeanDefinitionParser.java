@@ -884,6 +884,7 @@ public class HekateBeanDefinitionParser extends AbstractSingleBeanDefinitionPars
             parseCommonMessagingConfig(rpcEl, rpc, ctx);
 
             setProperty(rpc, rpcEl, "workerThreads", "worker-threads");
+            setProperty(rpc, rpcEl, "streamIdleTimeout", "stream-idle-timeout-ms");
 
             // RPC clients.
             ManagedList<RuntimeBeanReference> clients = new ManagedList<>();